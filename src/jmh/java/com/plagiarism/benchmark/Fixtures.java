@@ -0,0 +1,77 @@
+package com.plagiarism.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 基准测试样本
+ * 以“测试文本”目录中的原文 orig.txt 和各修改版本 orig_0.8_&lt;修改类型&gt;.txt 为基础，
+ * 截断或循环拼接到指定大小，得到修改方式相同、规模不同的文档对。
+ * 样本目录默认为工作目录下的“测试文本”，可以通过系统属性 plagiarism.fixtures 指定。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+final class Fixtures {
+    
+    private static final Path DIRECTORY = Paths.get(System.getProperty("plagiarism.fixtures", "测试文本"));
+    
+    private Fixtures() {
+    }
+    
+    /**
+     * 生成文档对
+     * 原文截取为 sizeBytes 字节（UTF-8），修改版本按与原文的长度比例截取，
+     * 使两者覆盖原文的同一部分
+     * 
+     * @param edit 修改类型：add、del、dis_1、dis_10、dis_15
+     * @param sizeBytes 原文的目标字节数
+     * @return 原文和修改版本
+     * @throws IOException 样本读取失败
+     */
+    static String[] pair(String edit, int sizeBytes) throws IOException {
+        String original = read("orig.txt");
+        String plagiarized = read("orig_0.8_" + edit + ".txt");
+        long plagiarizedBytes = (long) sizeBytes * utf8Length(plagiarized) / utf8Length(original);
+        return new String[]{resize(original, sizeBytes), resize(plagiarized, (int) plagiarizedBytes)};
+    }
+    
+    private static String read(String name) throws IOException {
+        Path file = DIRECTORY.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("找不到基准测试样本: " + file.toAbsolutePath() + "，可通过 -Dplagiarism.fixtures 指定样本目录");
+        }
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 循环拼接文本直到不少于目标字节数，再在字符边界处截断
+     */
+    private static String resize(String text, int sizeBytes) {
+        StringBuilder result = new StringBuilder();
+        int bytes = 0;
+        while (true) {
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                int width = utf8Length(codePoint);
+                if (bytes + width > sizeBytes) {
+                    return result.toString();
+                }
+                result.appendCodePoint(codePoint);
+                bytes += width;
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+    
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+    
+    private static int utf8Length(int codePoint) {
+        return codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+}
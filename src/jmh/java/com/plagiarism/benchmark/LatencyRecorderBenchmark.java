@@ -0,0 +1,55 @@
+package com.plagiarism.benchmark;
+
+import com.plagiarism.util.LatencyRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 耗时记录的开销基准测试
+ * 测量所有线程共用同一个记录器句柄时单次记录的平均耗时，
+ * 分别在单线程和多线程下运行，两者接近说明记录路径上没有争用。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyRecorderBenchmark {
+    
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    
+    private long value;
+    
+    @Benchmark
+    @Threads(1)
+    public void recordSingleThread() {
+        recorder.record(nextValue());
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void recordFourThreads() {
+        recorder.record(nextValue());
+    }
+    
+    /**
+     * 在几个相邻的桶之间变化，接近真实耗时的分布；各线程的写入竞争对结果没有影响
+     */
+    private long nextValue() {
+        return 100_000 + (value++ & 0xFFF);
+    }
+}
@@ -0,0 +1,142 @@
+package com.plagiarism.benchmark;
+
+import com.plagiarism.algorithm.impl.CommonSubstringSimilarity;
+import com.plagiarism.algorithm.impl.CosineSimilarity;
+import com.plagiarism.algorithm.impl.JaccardSimilarity;
+import com.plagiarism.algorithm.impl.LevenshteinSimilarity;
+import com.plagiarism.algorithm.impl.OptimizedCosineSimilarity;
+import com.plagiarism.algorithm.impl.WinnowingSimilarity;
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.service.PlagiarismDetectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 相似度算法基准测试
+ * 对各算法的 calculateSimilarity(String, String) 以及服务层的多算法综合计算测量吞吐量，
+ * 按文档大小（1KB到100KB）和修改类型（增、删、乱序）组合参数。
+ * 
+ * <p>单个算法每次调用都会重新预处理两篇文本（优化版余弦相似度除外，它自带文档缓存），
+ * 因此测量的是端到端耗时。服务层分别在关闭和开启文档缓存时测量：
+ * 前者对应首次比对的新文档，后者对应重复比对时只剩打分的开销。</p>
+ * 
+ * <p>配合 {@code -prof gc} 运行时，每次操作的分配字节数（gc.alloc.rate.norm）
+ * 与吞吐量一起输出，可以同时发现性能和垃圾产生量的退化。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimilarityBenchmark {
+    
+    /** 原文大小（字节） */
+    @Param({"1024", "10240", "102400"})
+    public int size;
+    
+    /** 修改类型，对应“测试文本”中的 orig_0.8_&lt;修改类型&gt;.txt */
+    @Param({"add", "del", "dis_1", "dis_10", "dis_15"})
+    public String edit;
+    
+    private String original;
+    private String plagiarized;
+    
+    private final CosineSimilarity cosine = new CosineSimilarity();
+    private final OptimizedCosineSimilarity optimizedCosine = new OptimizedCosineSimilarity();
+    private final JaccardSimilarity jaccard = new JaccardSimilarity();
+    private final LevenshteinSimilarity levenshtein = new LevenshteinSimilarity();
+    private final WinnowingSimilarity winnowing = new WinnowingSimilarity();
+    private final CommonSubstringSimilarity commonSubstring = new CommonSubstringSimilarity();
+    private PlagiarismDetectionService uncachedService;
+    private PlagiarismDetectionService cachedService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] pair = Fixtures.pair(edit, size);
+        original = pair[0];
+        plagiarized = pair[1];
+        
+        PlagiarismProperties uncached = new PlagiarismProperties();
+        uncached.getDocumentCache().setMaxSize(DataSize.ofBytes(0));
+        uncachedService = new PlagiarismDetectionService(uncached);
+        cachedService = new PlagiarismDetectionService();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        uncachedService.shutdown();
+        cachedService.shutdown();
+    }
+    
+    @Benchmark
+    public double cosine() {
+        return cosine.calculateSimilarity(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double optimizedCosine() {
+        return optimizedCosine.calculateSimilarity(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double jaccard() {
+        return jaccard.calculateSimilarity(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double levenshtein() {
+        return levenshtein.calculateSimilarity(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double winnowing() {
+        return winnowing.calculateSimilarity(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double commonSubstring() {
+        return commonSubstring.calculateSimilarity(original, plagiarized);
+    }
+    
+    /**
+     * 相同片段定位：一次计算同时给出相似度和片段位置，与 {@link #winnowing()} 对比即为定位的额外开销
+     */
+    @Benchmark
+    public Object winnowingMatches() {
+        return winnowing.locateMatches(original, plagiarized);
+    }
+    
+    @Benchmark
+    public Object commonSubstringMatches() {
+        return commonSubstring.locateMatches(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double service() {
+        return uncachedService.calculateSimilarity(original, plagiarized);
+    }
+    
+    @Benchmark
+    public double serviceCached() {
+        return cachedService.calculateSimilarity(original, plagiarized);
+    }
+}
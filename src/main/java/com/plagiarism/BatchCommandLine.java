@@ -0,0 +1,495 @@
+package com.plagiarism;
+
+import com.plagiarism.model.SimilarityResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 命令行批量模式
+ * 一次启动处理任意多对文档，省去逐对启动JVM的开销：
+ * <pre>
+ * java -jar main.jar [--mmap] [--threads N] --batch &lt;目录或清单文件&gt; &lt;输出文件&gt;
+ * </pre>
+ * <ul>
+ *   <li>目录：比对目录下所有文件（不含子目录和隐藏文件）两两之间的相似度；</li>
+ *   <li>清单文件：每行一对文件，以制表符或逗号分隔，相对路径相对于清单文件所在目录，
+ *       空行和以 # 开头的行被忽略。</li>
+ * </ul>
+ * 每个不同的文件只读取和预处理一次，文档对在固定大小的线程池中并行计算，
+ * 结果按输入顺序写入同一个输出文件：扩展名为 .tsv 时以制表符分隔，否则为CSV。
+ * 读取失败的文件不会中断整批，涉及它的文档对在 error 列记录原因。
+ * 使用多算法综合相似度时另有 omitted 列，列出出错而未计入平均值的算法，这样的结果只是部分算法的平均值。
+ * 
+ * <p>三个命令行入口共用本类，各自提供文档的预处理方式和相似度算法，
+ * 因此批量模式的结果与逐对运行时完全相同。</p>
+ * 
+ * @param <T> 预处理后的文档类型
+ * @author 学生
+ * @version 1.0.0
+ */
+final class BatchCommandLine<T> {
+    
+    static final String BATCH_OPTION = "--batch";
+    static final String MMAP_OPTION = "--mmap";
+    static final String THREADS_OPTION = "--threads";
+    
+    static final String USAGE = "java -jar main.jar [" + MMAP_OPTION + "] [" + THREADS_OPTION + " N] "
+        + BATCH_OPTION + " <目录或清单文件> <输出文件>";
+    
+    /** 每个计算任务包含的文档对数 */
+    private static final int PAIRS_PER_CHUNK = 256;
+    
+    /**
+     * 文档预处理方式
+     */
+    @FunctionalInterface
+    interface Analyzer<T> {
+        T analyze(Path file, boolean mapped) throws IOException;
+    }
+    
+    /**
+     * 相似度算法
+     */
+    @FunctionalInterface
+    interface Scorer<T> {
+        double score(T original, T plagiarized);
+    }
+    
+    /**
+     * 多算法综合相似度，结果中超时或出错的算法写入 omitted 列
+     */
+    @FunctionalInterface
+    interface EnsembleScorer<T> {
+        SimilarityResult score(T original, T plagiarized);
+    }
+    
+    private final Analyzer<T> analyzer;
+    private final EnsembleScorer<T> scorer;
+    /** 是否输出 omitted 列 */
+    private final boolean ensemble;
+    private final int threads;
+    private final boolean mapped;
+    
+    BatchCommandLine(Analyzer<T> analyzer, Scorer<T> scorer, int threads, boolean mapped) {
+        this(analyzer, (original, plagiarized) -> SimilarityResult.of(scorer.score(original, plagiarized)),
+            false, threads, mapped);
+    }
+    
+    private BatchCommandLine(Analyzer<T> analyzer, EnsembleScorer<T> scorer, boolean ensemble, int threads,
+                             boolean mapped) {
+        this.analyzer = analyzer;
+        this.scorer = scorer;
+        this.ensemble = ensemble;
+        this.threads = Math.max(1, threads);
+        this.mapped = mapped;
+    }
+    
+    /**
+     * 创建使用多算法综合相似度的批量比对，输出文件多一列 omitted
+     * 
+     * @param analyzer 文档预处理方式
+     * @param scorer 多算法综合相似度
+     * @param threads 线程数
+     * @param mapped 是否以内存映射方式读取文件
+     * @return 批量比对
+     */
+    static <T> BatchCommandLine<T> ofEnsemble(Analyzer<T> analyzer, EnsembleScorer<T> scorer, int threads,
+                                              boolean mapped) {
+        return new BatchCommandLine<>(analyzer, scorer, true, threads, mapped);
+    }
+    
+    /**
+     * 判断命令行参数是否要求批量模式
+     * 
+     * @param args 命令行参数
+     * @return 包含 --batch 选项时返回true
+     */
+    static boolean isBatch(String[] args) {
+        return Arrays.asList(args).contains(BATCH_OPTION);
+    }
+    
+    /**
+     * 解析命令行参数并执行批量比对，出错时在标准错误输出原因
+     * 
+     * @param args 命令行参数
+     * @param analyzer 文档预处理方式
+     * @param scorer 相似度算法
+     * @return 进程退出码
+     */
+    static <T> int run(String[] args, Analyzer<T> analyzer, Scorer<T> scorer) {
+        return run(args, (threads, mapped) -> new BatchCommandLine<>(analyzer, scorer, threads, mapped));
+    }
+    
+    /**
+     * 解析命令行参数并以多算法综合相似度执行批量比对，出错时在标准错误输出原因
+     * 
+     * @param args 命令行参数
+     * @param analyzer 文档预处理方式
+     * @param scorer 多算法综合相似度
+     * @return 进程退出码
+     */
+    static <T> int runEnsemble(String[] args, Analyzer<T> analyzer, EnsembleScorer<T> scorer) {
+        return run(args, (threads, mapped) -> ofEnsemble(analyzer, scorer, threads, mapped));
+    }
+    
+    private static <T> int run(String[] args, BiFunction<Integer, Boolean, BatchCommandLine<T>> factory) {
+        boolean mapped = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (MMAP_OPTION.equals(args[i])) {
+                    mapped = true;
+                } else if (THREADS_OPTION.equals(args[i]) && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (!BATCH_OPTION.equals(args[i])) {
+                    paths.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            paths.clear();
+        }
+        if (paths.size() != 2 || threads <= 0) {
+            System.err.println("使用方法: " + USAGE);
+            System.err.println("示例: java -jar main.jar --batch pairs.tsv result.csv");
+            return 1;
+        }
+        
+        try {
+            long start = System.currentTimeMillis();
+            Summary summary = factory.apply(threads, mapped)
+                .run(Paths.get(paths.get(0)), Paths.get(paths.get(1)));
+            System.out.println(String.format(
+                "批量比对完成: %d 篇文档，%d 对，失败 %d 对，部分算法出错 %d 对，耗时 %d ms，结果已保存到: %s",
+                summary.documents, summary.pairs, summary.failedPairs, summary.partialPairs,
+                System.currentTimeMillis() - start, paths.get(1)));
+            return 0;
+        } catch (Exception e) {
+            System.err.println("错误: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * 执行批量比对
+     * 
+     * @param input 目录或清单文件
+     * @param output 输出文件
+     * @return 统计信息
+     * @throws IOException 读取输入或写出结果失败
+     */
+    Summary run(Path input, Path output) throws IOException {
+        Pairs pairs = Files.isDirectory(input) ? directoryPairs(input) : manifestPairs(input);
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-cli-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Analyzed<T> analyzed = analyzeAll(pairs.files, executor);
+            return writeResults(pairs, analyzed, executor, output);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * 并行预处理所有不同的文件，每个文件只处理一次
+     */
+    private Analyzed<T> analyzeAll(List<Path> files, ExecutorService executor) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(executor.submit(() -> analyzer.analyze(file, mapped)));
+        }
+        Analyzed<T> analyzed = new Analyzed<>(files.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                analyzed.documents.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                analyzed.documents.add(null);
+                analyzed.errors[i] = "无法读取文件: " + files.get(i) + " - " + e.getCause().getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("批量比对被中断");
+            }
+        }
+        return analyzed;
+    }
+    
+    /**
+     * 分块提交文档对并按输入顺序写出结果；同时在途的任务数有上限，
+     * 目录中文件很多时也不必先生成全部文档对
+     */
+    private Summary writeResults(Pairs pairs, Analyzed<T> analyzed, ExecutorService executor, Path output)
+            throws IOException {
+        boolean tsv = output.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".tsv");
+        char separator = tsv ? '\t' : ',';
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        
+        Summary summary = new Summary(pairs.files.size());
+        Deque<Future<SimilarityResult[]>> inFlight = new ArrayDeque<>();
+        Deque<int[]> chunks = new ArrayDeque<>();
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(String.join(String.valueOf(separator), ensemble
+                ? Arrays.asList("original", "plagiarized", "similarity", "omitted", "error")
+                : Arrays.asList("original", "plagiarized", "similarity", "error")));
+            writer.write('\n');
+            
+            int[] chunk;
+            while ((chunk = pairs.nextChunk()) != null || !inFlight.isEmpty()) {
+                if (chunk != null) {
+                    int[] submitted = chunk;
+                    chunks.add(submitted);
+                    inFlight.add(executor.submit(() -> score(submitted, analyzed)));
+                    if (inFlight.size() < threads * 2) {
+                        continue;
+                    }
+                }
+                int[] done = chunks.poll();
+                SimilarityResult[] scores = await(inFlight.poll());
+                for (int k = 0; k < scores.length; k++) {
+                    int left = done[2 * k];
+                    int right = done[2 * k + 1];
+                    String error = analyzed.errors[left] != null ? analyzed.errors[left] : analyzed.errors[right];
+                    StringBuilder line = new StringBuilder(96);
+                    appendField(line, pairs.names.get(left), tsv).append(separator);
+                    appendField(line, pairs.names.get(right), tsv).append(separator);
+                    if (error == null) {
+                        line.append(String.format(Locale.ROOT, "%.4f", scores[k].getSimilarity()));
+                    } else {
+                        summary.failedPairs++;
+                    }
+                    line.append(separator);
+                    if (ensemble) {
+                        List<String> omitted = new ArrayList<>();
+                        if (error == null) {
+                            omitted.addAll(scores[k].getTimedOutAlgorithms());
+                            omitted.addAll(scores[k].getFailedAlgorithms());
+                        }
+                        if (!omitted.isEmpty()) {
+                            summary.partialPairs++;
+                        }
+                        appendField(line, String.join(";", omitted), tsv).append(separator);
+                    }
+                    appendField(line, error == null ? "" : error, tsv).append('\n');
+                    writer.write(line.toString());
+                    summary.pairs++;
+                }
+            }
+        }
+        return summary;
+    }
+    
+    private SimilarityResult[] score(int[] chunk, Analyzed<T> analyzed) {
+        SimilarityResult[] scores = new SimilarityResult[chunk.length / 2];
+        for (int k = 0; k < scores.length; k++) {
+            T original = analyzed.documents.get(chunk[2 * k]);
+            T plagiarized = analyzed.documents.get(chunk[2 * k + 1]);
+            scores[k] = original == null || plagiarized == null ? null : scorer.score(original, plagiarized);
+        }
+        return scores;
+    }
+    
+    private static SimilarityResult[] await(Future<SimilarityResult[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("相似度计算失败: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("批量比对被中断");
+        }
+    }
+    
+    /**
+     * CSV按RFC 4180转义；TSV没有转义规则，把制表符和换行替换为空格
+     */
+    private static StringBuilder appendField(StringBuilder line, String field, boolean tsv) {
+        if (tsv) {
+            return line.append(field.replace('\t', ' ').replace('\n', ' ').replace('\r', ' '));
+        }
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return line.append(field);
+        }
+        return line.append('"').append(field.replace("\"", "\"\"")).append('"');
+    }
+    
+    /**
+     * 目录下所有文件两两组成的文档对，按文件名排序
+     */
+    private static Pairs directoryPairs(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                .filter(Files::isRegularFile)
+                .filter(file -> !file.getFileName().toString().startsWith("."))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        if (files.size() < 2) {
+            throw new IOException("目录中至少需要两个文件: " + directory);
+        }
+        List<String> names = files.stream().map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        int n = files.size();
+        return new Pairs(files, names) {
+            private int left = 0;
+            private int right = 1;
+            
+            @Override
+            int[] nextChunk() {
+                if (left >= n - 1) {
+                    return null;
+                }
+                IntPairs chunk = new IntPairs();
+                while (left < n - 1 && chunk.size < PAIRS_PER_CHUNK) {
+                    chunk.add(left, right);
+                    if (++right == n) {
+                        left++;
+                        right = left + 1;
+                    }
+                }
+                return chunk.toArray();
+            }
+        };
+    }
+    
+    /**
+     * 清单文件中列出的文档对，同一文件出现多次时只记录一次
+     */
+    private static Pairs manifestPairs(Path manifest) throws IOException {
+        if (!Files.isRegularFile(manifest)) {
+            throw new IOException("目录或清单文件不存在: " + manifest);
+        }
+        Path base = manifest.toAbsolutePath().getParent();
+        Map<Path, Integer> numbers = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>();
+        IntPairs all = new IntPairs();
+        
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+            String line = lines.get(lineNumber - 1).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(line.indexOf('\t') >= 0 ? "\t" : ",", -1);
+            if (fields.length != 2 || fields[0].trim().isEmpty() || fields[1].trim().isEmpty()) {
+                throw new IOException("清单第 " + lineNumber + " 行格式错误，应为两个以制表符或逗号分隔的文件路径");
+            }
+            int[] pair = new int[2];
+            for (int k = 0; k < 2; k++) {
+                String name = fields[k].trim();
+                Path file = base.resolve(name).normalize();
+                Integer number = numbers.get(file);
+                if (number == null) {
+                    number = numbers.size();
+                    numbers.put(file, number);
+                    names.add(name);
+                }
+                pair[k] = number;
+            }
+            all.add(pair[0], pair[1]);
+        }
+        
+        int[] values = all.toArray();
+        return new Pairs(new ArrayList<>(numbers.keySet()), names) {
+            private int next = 0;
+            
+            @Override
+            int[] nextChunk() {
+                if (next >= values.length) {
+                    return null;
+                }
+                int end = Math.min(values.length, next + PAIRS_PER_CHUNK * 2);
+                int[] chunk = Arrays.copyOfRange(values, next, end);
+                next = end;
+                return chunk;
+            }
+        };
+    }
+    
+    /**
+     * 待比对的文档对：不同的文件、输出时使用的文件名，以及按顺序分块生成的文档对
+     */
+    private abstract static class Pairs {
+        final List<Path> files;
+        final List<String> names;
+        
+        Pairs(List<Path> files, List<String> names) {
+            this.files = files;
+            this.names = names;
+        }
+        
+        /**
+         * 生成下一块文档对
+         * 
+         * @return 依次交替存放的左右文件编号，没有更多文档对时返回null
+         */
+        abstract int[] nextChunk();
+    }
+    
+    private static final class IntPairs {
+        int[] values = new int[32];
+        int size;
+        
+        void add(int left, int right) {
+            if (size * 2 + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size * 2] = left;
+            values[size * 2 + 1] = right;
+            size++;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size * 2);
+        }
+    }
+    
+    private static final class Analyzed<T> {
+        final List<T> documents;
+        final String[] errors;
+        
+        Analyzed(int size) {
+            this.documents = new ArrayList<>(size);
+            this.errors = new String[size];
+        }
+    }
+    
+    /**
+     * 批量比对的统计信息
+     */
+    static final class Summary {
+        final int documents;
+        int pairs;
+        int failedPairs;
+        /** 有算法出错而未计入综合相似度的文档对数，只在使用多算法综合相似度时统计 */
+        int partialPairs;
+        
+        Summary(int documents) {
+            this.documents = documents;
+        }
+    }
+}
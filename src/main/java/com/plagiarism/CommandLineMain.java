@@ -2,6 +2,7 @@ package com.plagiarism;
 
 import com.plagiarism.algorithm.impl.CosineSimilarity;
 import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.model.AnalyzedDocument;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -19,25 +20,36 @@ public class CommandLineMain {
     
     private static final SimilarityAlgorithm DEFAULT_ALGORITHM = new CosineSimilarity();
     
+    /** 以内存映射方式读取输入文件的选项，适合几百MB以上的大文件 */
+    private static final String MMAP_OPTION = "--mmap";
+    
     public static void main(String[] args) {
-        // 检查命令行参数
-        if (args.length != 3) {
-            System.err.println("使用方法: java -jar main.jar <原文文件> <抄袭文件> <输出文件>");
+        if (BatchCommandLine.isBatch(args)) {
+            System.exit(BatchCommandLine.run(args,
+                (file, mapped) -> analyzeFile(file.toString(), mapped), CommandLineMain::similarity));
+        }
+        
+        // 检查命令行参数，--mmap 选项以内存映射方式读取输入文件
+        boolean mapped = args.length == 4 && MMAP_OPTION.equals(args[0]);
+        if (args.length != 3 && !mapped) {
+            System.err.println("使用方法: java -jar main.jar [" + MMAP_OPTION + "] <原文文件> <抄袭文件> <输出文件>");
             System.err.println("示例: java -jar main.jar orig.txt orig_add.txt result.txt");
+            System.err.println("批量模式: " + BatchCommandLine.USAGE);
             System.exit(1);
         }
         
-        String originalFilePath = args[0];
-        String plagiarizedFilePath = args[1];
-        String outputFilePath = args[2];
+        int first = mapped ? 1 : 0;
+        String originalFilePath = args[first];
+        String plagiarizedFilePath = args[first + 1];
+        String outputFilePath = args[first + 2];
         
         try {
-            // 读取文件内容
-            String originalText = readFileContent(originalFilePath);
-            String plagiarizedText = readFileContent(plagiarizedFilePath);
+            // 分块读取并预处理文件内容，不把原始字节或解码文本整个读入内存；规范化文本供各算法使用，仍完整保留
+            AnalyzedDocument originalDocument = analyzeFile(originalFilePath, mapped);
+            AnalyzedDocument plagiarizedDocument = analyzeFile(plagiarizedFilePath, mapped);
             
             // 计算相似度
-            double similarity = DEFAULT_ALGORITHM.calculateSimilarity(originalText, plagiarizedText);
+            double similarity = similarity(originalDocument, plagiarizedDocument);
             
             // 输出结果到文件
             writeResultToFile(outputFilePath, similarity);
@@ -52,15 +64,32 @@ public class CommandLineMain {
     }
     
     /**
-     * 读取文件内容
+     * 计算两篇文档的相似度，任一文档为空时为0
+     */
+    private static double similarity(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument) {
+        return originalDocument.isEmpty() || plagiarizedDocument.isEmpty()
+            ? 0.0
+            : DEFAULT_ALGORITHM.calculateDocumentSimilarity(originalDocument, plagiarizedDocument);
+    }
+    
+    /**
+     * 分块读取文件内容并预处理
      * 
      * @param filePath 文件路径
-     * @return 文件内容
+     * @param mapped 是否以内存映射方式读取
+     * @return 预处理完成的文档
      * @throws IOException 文件读取异常
      */
-    private static String readFileContent(String filePath) throws IOException {
-        try {
-            return new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8);
+    private static AnalyzedDocument analyzeFile(String filePath, boolean mapped) throws IOException {
+        if (mapped) {
+            try {
+                return AnalyzedDocument.analyzeMapped(Paths.get(filePath));
+            } catch (IOException e) {
+                throw new IOException("无法读取文件: " + filePath + " - " + e.getMessage());
+            }
+        }
+        try (InputStream in = Files.newInputStream(Paths.get(filePath))) {
+            return AnalyzedDocument.analyze(in);
         } catch (IOException e) {
             throw new IOException("无法读取文件: " + filePath + " - " + e.getMessage());
         }
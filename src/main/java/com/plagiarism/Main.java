@@ -1,8 +1,10 @@
 package com.plagiarism;
 
+import com.plagiarism.model.AnalyzedDocument;
 import com.plagiarism.service.PlagiarismDetectionService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.FileSystemResource;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -18,10 +20,15 @@ import java.io.IOException;
 public class Main {
     
     public static void main(String[] args) {
+        if (BatchCommandLine.isBatch(args)) {
+            System.exit(runBatch(args));
+        }
+        
         // 检查命令行参数
         if (args.length != 3) {
             System.err.println("使用方法: java -jar main.jar <原文文件> <抄袭文件> <输出文件>");
             System.err.println("示例: java -jar main.jar orig.txt orig_add.txt result.txt");
+            System.err.println("批量模式: " + BatchCommandLine.USAGE);
             System.exit(1);
         }
         
@@ -57,6 +64,25 @@ public class Main {
         }
     }
     
+    /**
+     * 批量模式：只启动一次Spring Boot应用，使用多算法综合相似度比对所有文档对；
+     * 文档对已在批量工作线程上并行，各算法在同一线程上依次计算，不受并行模式的时限影响；
+     * 出错而未计入平均值的算法写入输出文件的 omitted 列
+     * 
+     * @param args 命令行参数
+     * @return 进程退出码
+     */
+    private static int runBatch(String[] args) {
+        try (ConfigurableApplicationContext context = SpringApplication.run(PlagiarismDetectorApplication.class)) {
+            PlagiarismDetectionService service = context.getBean(PlagiarismDetectionService.class);
+            return BatchCommandLine.runEnsemble(args,
+                (file, mapped) -> mapped
+                    ? AnalyzedDocument.analyzeMapped(file)
+                    : service.analyzeSource(new FileSystemResource(file)),
+                service::calculateDocumentSimilarityResultSequentially);
+        }
+    }
+    
     /**
      * 将结果写入文件
      * 
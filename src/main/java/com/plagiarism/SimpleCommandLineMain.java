@@ -1,5 +1,7 @@
 package com.plagiarism;
 
+import com.plagiarism.util.MappedTextReader;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -15,25 +17,36 @@ import java.util.*;
  */
 public class SimpleCommandLineMain {
     
+    /** 以内存映射方式读取输入文件的选项，适合几百MB以上的大文件 */
+    private static final String MMAP_OPTION = "--mmap";
+    
     public static void main(String[] args) {
-        // 检查命令行参数
-        if (args.length != 3) {
-            System.err.println("使用方法: java -jar main.jar <原文文件> <抄袭文件> <输出文件>");
+        if (BatchCommandLine.isBatch(args)) {
+            System.exit(BatchCommandLine.run(args,
+                (file, mapped) -> readWordVector(file.toString(), mapped), SimpleCommandLineMain::similarity));
+        }
+        
+        // 检查命令行参数，--mmap 选项以内存映射方式读取输入文件
+        boolean mapped = args.length == 4 && MMAP_OPTION.equals(args[0]);
+        if (args.length != 3 && !mapped) {
+            System.err.println("使用方法: java -jar main.jar [" + MMAP_OPTION + "] <原文文件> <抄袭文件> <输出文件>");
             System.err.println("示例: java -jar main.jar orig.txt orig_add.txt result.txt");
+            System.err.println("批量模式: " + BatchCommandLine.USAGE);
             System.exit(1);
         }
         
-        String originalFilePath = args[0];
-        String plagiarizedFilePath = args[1];
-        String outputFilePath = args[2];
+        int first = mapped ? 1 : 0;
+        String originalFilePath = args[first];
+        String plagiarizedFilePath = args[first + 1];
+        String outputFilePath = args[first + 2];
         
         try {
-            // 读取文件内容
-            String originalText = readFileContent(originalFilePath);
-            String plagiarizedText = readFileContent(plagiarizedFilePath);
+            // 分块读取文件并直接统计词频，不把整个文件读入内存
+            Map<String, Integer> originalVector = readWordVector(originalFilePath, mapped);
+            Map<String, Integer> plagiarizedVector = readWordVector(plagiarizedFilePath, mapped);
             
             // 计算相似度（使用简化的余弦相似度算法）
-            double similarity = calculateCosineSimilarity(originalText, plagiarizedText);
+            double similarity = similarity(originalVector, plagiarizedVector);
             
             // 输出结果到文件
             writeResultToFile(outputFilePath, similarity);
@@ -48,18 +61,124 @@ public class SimpleCommandLineMain {
     }
     
     /**
-     * 读取文件内容
+     * 计算两个词频向量的相似度，任一向量为空时为0
+     */
+    private static double similarity(Map<String, Integer> originalVector, Map<String, Integer> plagiarizedVector) {
+        return originalVector.isEmpty() || plagiarizedVector.isEmpty()
+            ? 0.0
+            : computeCosineSimilarity(originalVector, plagiarizedVector);
+    }
+    
+    /**
+     * 分块读取文件并统计词频
+     * 标点符号和空白都是分隔符，单词转为小写；读取时只保留缓冲区、当前单词和词频表。
      * 
      * @param filePath 文件路径
-     * @return 文件内容
+     * @param mapped 是否以内存映射方式读取
+     * @return 词频向量
      * @throws IOException 文件读取异常
      */
-    private static String readFileContent(String filePath) throws IOException {
+    private static Map<String, Integer> readWordVector(String filePath, boolean mapped) throws IOException {
+        WordCounter counter = new WordCounter();
         try {
-            return new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8);
+            if (mapped) {
+                // 解码器直接读取映射区域，文件字节不复制到堆内
+                MappedTextReader.read(Paths.get(filePath), counter::accept);
+            } else {
+                char[] buffer = new char[8192];
+                // InputStreamReader 内部用 CharsetDecoder 分块解码，跨越块边界的多字节字符由解码器保留
+                try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(filePath)), StandardCharsets.UTF_8)) {
+                    int read;
+                    while ((read = reader.read(buffer)) >= 0) {
+                        counter.accept(buffer, 0, read);
+                    }
+                }
+            }
         } catch (IOException e) {
             throw new IOException("无法读取文件: " + filePath + " - " + e.getMessage());
         }
+        return counter.finish();
+    }
+    
+    /**
+     * 逐块接收解码后的字符并统计词频，代理对可以跨越块边界
+     */
+    private static final class WordCounter {
+        private final Map<String, Integer> vector = new HashMap<>();
+        private final StringBuilder word = new StringBuilder();
+        private char highSurrogate;
+        
+        void accept(char[] chars, int offset, int length) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                char c = chars[i];
+                if (Character.isHighSurrogate(c)) {
+                    if (highSurrogate != 0) {
+                        appendCodePoint(highSurrogate);
+                    }
+                    highSurrogate = c;
+                    continue;
+                }
+                if (highSurrogate != 0 && Character.isLowSurrogate(c)) {
+                    appendCodePoint(Character.toCodePoint(highSurrogate, c));
+                    highSurrogate = 0;
+                    continue;
+                }
+                if (highSurrogate != 0) {
+                    appendCodePoint(highSurrogate);
+                    highSurrogate = 0;
+                }
+                appendCodePoint(c);
+            }
+        }
+        
+        Map<String, Integer> finish() {
+            if (highSurrogate != 0) {
+                appendCodePoint(highSurrogate);
+                highSurrogate = 0;
+            }
+            endWord();
+            return vector;
+        }
+        
+        /**
+         * 处理一个字符：分隔符结束当前单词，其余字符追加到当前单词
+         */
+        private void appendCodePoint(int codePoint) {
+            if (isSeparator(codePoint)) {
+                endWord();
+            } else {
+                word.appendCodePoint(codePoint);
+            }
+        }
+        
+        private void endWord() {
+            if (word.length() > 0) {
+                vector.merge(word.toString().toLowerCase(), 1, Integer::sum);
+                word.setLength(0);
+            }
+        }
+    }
+    
+    /**
+     * 判断字符是否为分隔符：正则 \s 匹配的ASCII空白，或 [\p{Punct}\p{IsPunctuation}] 匹配的标点
+     */
+    private static boolean isSeparator(int codePoint) {
+        if (codePoint < 128) {
+            return codePoint == ' ' || (codePoint >= '\t' && codePoint <= '\r')
+                || (codePoint > ' ' && codePoint < 127 && !Character.isLetterOrDigit(codePoint));
+        }
+        switch (Character.getType(codePoint)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
     }
     
     /**
@@ -88,85 +207,6 @@ public class SimpleCommandLineMain {
         }
     }
     
-    /**
-     * 简化的余弦相似度计算（不依赖外部库）
-     * 
-     * @param text1 第一个文本
-     * @param text2 第二个文本
-     * @return 相似度值
-     */
-    private static double calculateCosineSimilarity(String text1, String text2) {
-        // 处理null和空字符串
-        if (text1 == null) text1 = "";
-        if (text2 == null) text2 = "";
-        
-        if (text1.isEmpty() && text2.isEmpty()) {
-            return 0.0;
-        }
-        
-        if (text1.isEmpty() || text2.isEmpty()) {
-            return 0.0;
-        }
-        
-        // 预处理文本：转小写，去除标点符号
-        text1 = preprocessText(text1);
-        text2 = preprocessText(text2);
-        
-        // 分词
-        List<String> words1 = tokenize(text1);
-        List<String> words2 = tokenize(text2);
-        
-        if (words1.isEmpty() && words2.isEmpty()) {
-            return 0.0;
-        }
-        
-        if (words1.isEmpty() || words2.isEmpty()) {
-            return 0.0;
-        }
-        
-        // 构建词频向量
-        Map<String, Integer> vector1 = buildWordVector(words1);
-        Map<String, Integer> vector2 = buildWordVector(words2);
-        
-        // 计算余弦相似度
-        return computeCosineSimilarity(vector1, vector2);
-    }
-    
-    /**
-     * 预处理文本
-     */
-    private static String preprocessText(String text) {
-        return text.toLowerCase()
-                .replaceAll("[\\p{Punct}\\p{IsPunctuation}]", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
-    }
-    
-    /**
-     * 分词
-     */
-    private static List<String> tokenize(String text) {
-        List<String> words = new ArrayList<>();
-        String[] tokens = text.split("\\s+");
-        for (String token : tokens) {
-            if (!token.isEmpty()) {
-                words.add(token);
-            }
-        }
-        return words;
-    }
-    
-    /**
-     * 构建词频向量
-     */
-    private static Map<String, Integer> buildWordVector(List<String> words) {
-        Map<String, Integer> vector = new HashMap<>();
-        for (String word : words) {
-            vector.put(word, vector.getOrDefault(word, 0) + 1);
-        }
-        return vector;
-    }
-    
     /**
      * 计算余弦相似度
      */
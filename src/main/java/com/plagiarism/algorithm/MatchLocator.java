@@ -0,0 +1,44 @@
+package com.plagiarism.algorithm;
+
+import com.plagiarism.model.MatchRange;
+import com.plagiarism.model.MatchResult;
+
+import java.util.List;
+
+/**
+ * 相同片段定位接口
+ * 能够给出两篇文本中相同内容位置的算法实现该接口，结果可直接用于高亮显示
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public interface MatchLocator {
+    
+    /**
+     * 查找两篇原始文本中相同的片段，同时给出相似度：
+     * 规范化和指纹等中间结果只计算一次，相似度与 calculateSimilarity 的结果相同
+     * 
+     * @param originalText 原文
+     * @param plagiarizedText 抄袭文本
+     * @return 相似度及相同片段的位置
+     */
+    MatchResult locateMatches(String originalText, String plagiarizedText);
+    
+    /**
+     * 查找两篇原始文本中相同的片段
+     * 
+     * @param originalText 原文
+     * @param plagiarizedText 抄袭文本
+     * @return 相同片段的位置，按在抄袭文本中的位置排列
+     */
+    default List<MatchRange> findMatches(String originalText, String plagiarizedText) {
+        return locateMatches(originalText, plagiarizedText).getMatches();
+    }
+    
+    /**
+     * 获取算法名称
+     * 
+     * @return 算法名称
+     */
+    String getAlgorithmName();
+}
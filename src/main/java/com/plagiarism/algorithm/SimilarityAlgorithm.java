@@ -1,5 +1,7 @@
 package com.plagiarism.algorithm;
 
+import com.plagiarism.model.AnalyzedDocument;
+
 /**
  * 相似度算法接口
  * 定义了计算两个文本相似度的基本方法
@@ -18,6 +20,77 @@ public interface SimilarityAlgorithm {
      */
     double calculateSimilarity(String text1, String text2);
     
+    /**
+     * 计算两个文本的相似度（带阈值）
+     * 调用方只关心相似度是否达到 minSimilarity 时使用。
+     * 结果不低于 minSimilarity 时返回精确值；否则实现可以提前终止，
+     * 返回任意小于 minSimilarity 的值（通常为0.0）。
+     * 默认实现直接计算精确相似度。
+     * 
+     * @param text1 第一个文本
+     * @param text2 第二个文本
+     * @param minSimilarity 关心的最低相似度
+     * @return 相似度值，范围[0, 1]
+     */
+    default double calculateSimilarity(String text1, String text2, double minSimilarity) {
+        return calculateSimilarity(text1, text2);
+    }
+    
+    /**
+     * 计算两篇预处理完成的文档的相似度
+     * 服务层对每篇文档只做一次规范化和分词，然后交给所有算法使用。
+     * 调用方负责处理null、空文本及文本完全相同等特殊情况。
+     * 默认实现退化为基于规范化文本的计算。
+     * 
+     * @param document1 第一篇文档
+     * @param document2 第二篇文档
+     * @return 相似度值，范围[0, 1]
+     */
+    default double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2) {
+        return calculateSimilarity(document1.getNormalizedText(), document2.getNormalizedText());
+    }
+    
+    /**
+     * 计算两篇预处理完成的文档的相似度（带阈值）
+     * 阈值语义与 {@link #calculateSimilarity(String, String, double)} 相同。
+     * 
+     * @param document1 第一篇文档
+     * @param document2 第二篇文档
+     * @param minSimilarity 关心的最低相似度
+     * @return 相似度值，范围[0, 1]
+     */
+    default double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2, double minSimilarity) {
+        return calculateDocumentSimilarity(document1, document2);
+    }
+    
+    /**
+     * 由文档长度等廉价统计量估计相似度的上界，用于大批量比对时跳过不可能达到阈值的文档对。
+     * 返回值必须不小于 {@link #calculateDocumentSimilarity(AnalyzedDocument, AnalyzedDocument)} 的结果；
+     * 默认实现返回1.0，即不做任何排除。
+     * 
+     * @param document1 第一篇文档
+     * @param document2 第二篇文档
+     * @return 相似度上界，范围[0, 1]
+     */
+    default double upperBound(AnalyzedDocument document1, AnalyzedDocument document2) {
+        return 1.0;
+    }
+    
+    /**
+     * 由文档长度估计一次 {@link #calculateDocumentSimilarity(AnalyzedDocument, AnalyzedDocument)} 的代价，
+     * 服务层据此在延迟预算内选择参与平均的算法。
+     * 单位为参考机器上的纳秒；实际耗时与估计值之比由服务层按记录的耗时逐个算法校准，
+     * 因此估计值只需反映代价随长度增长的趋势和算法之间的大致差距。
+     * 默认实现按线性复杂度估计，每个字符100纳秒。
+     * 
+     * @param document1 第一篇文档
+     * @param document2 第二篇文档
+     * @return 估计的代价（参考纳秒）
+     */
+    default long estimateCost(AnalyzedDocument document1, AnalyzedDocument document2) {
+        return 100L * ((long) document1.length() + document2.length());
+    }
+    
     /**
      * 获取算法名称
      * 
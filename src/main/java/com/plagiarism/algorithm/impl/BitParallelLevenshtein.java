@@ -0,0 +1,332 @@
+package com.plagiarism.algorithm.impl;
+
+import java.util.Arrays;
+
+/**
+ * 位并行编辑距离计算引擎（Myers / Hyyrö 算法）
+ * 将较短字符串作为模式串，按64位分块保存DP列的垂直差分向量，
+ * 每读入文本串的一个字符只需 ⌈m/64⌉ 次字运算即可推进一整列。
+ * 时间复杂度 O(n·⌈m/64⌉)，空间复杂度 O(m)，结果与经典动态规划完全一致。
+ *
+ * <p>中文文本字母表很大，因此不使用按字符编码直接索引的表，
+ * 而是为模式串中实际出现的字符建立开放寻址哈希表，映射到稀疏存储的位掩码。</p>
+ *
+ * <p>计算过程中每隔若干列检查一次线程中断，被中断时抛出 {@link java.util.concurrent.CancellationException}。</p>
+ *
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class BitParallelLevenshtein {
+
+    private static final int WORD_SIZE = 64;
+
+    private BitParallelLevenshtein() {
+    }
+
+    /**
+     * 计算两个字符串的Levenshtein距离
+     *
+     * @param s1 第一个字符串
+     * @param s2 第二个字符串
+     * @return 编辑距离
+     */
+    public static int distance(CharSequence s1, CharSequence s2) {
+        // 以较短的字符串作为模式串，减少位向量块数
+        CharSequence pattern = s1.length() <= s2.length() ? s1 : s2;
+        CharSequence text = pattern == s1 ? s2 : s1;
+
+        int m = pattern.length();
+        int n = text.length();
+        if (m == 0) {
+            return n;
+        }
+
+        int words = (m + WORD_SIZE - 1) / WORD_SIZE;
+        PatternMask peq = new PatternMask(pattern);
+        int[] rowStart = peq.rowStart;
+        int[] blockIndex = peq.blockIndex;
+        long[] blockMask = peq.blockMask;
+
+        long[] vp = new long[words];
+        long[] vn = new long[words];
+        for (int w = 0; w < words; w++) {
+            vp[w] = ~0L;
+        }
+
+        long lastBit = 1L << ((m - 1) % WORD_SIZE);
+        int lastWord = words - 1;
+        int currentDistance = m;
+
+        for (int j = 0; j < n; j++) {
+            Interruption.checkEvery(j);
+            int k = peq.indexOf(text.charAt(j));
+            int entry = k < 0 ? 0 : rowStart[k];
+            int entryEnd = k < 0 ? 0 : rowStart[k + 1];
+
+            // 第0行 D[0][j] = j，水平差分恒为 +1
+            long hpCarry = 1L;
+            long hnCarry = 0L;
+
+            for (int w = 0; w < words; w++) {
+                long eq = 0L;
+                if (entry < entryEnd && blockIndex[entry] == w) {
+                    eq = blockMask[entry++];
+                }
+                long pv = vp[w];
+                long mv = vn[w];
+
+                long x = eq | hnCarry;
+                long d0 = (((x & pv) + pv) ^ pv) | x | mv;
+                long hp = mv | ~(d0 | pv);
+                long hn = d0 & pv;
+
+                if (w == lastWord) {
+                    if ((hp & lastBit) != 0) {
+                        currentDistance++;
+                    } else if ((hn & lastBit) != 0) {
+                        currentDistance--;
+                    }
+                }
+
+                long hpOut = hp >>> 63;
+                long hnOut = hn >>> 63;
+                hp = (hp << 1) | hpCarry;
+                hn = (hn << 1) | hnCarry;
+                hpCarry = hpOut;
+                hnCarry = hnOut;
+
+                vp[w] = hn | ~(d0 | hp);
+                vn[w] = hp & d0;
+            }
+        }
+
+        return currentDistance;
+    }
+
+    /**
+     * 计算有上界的Levenshtein距离（Ukkonen对角带 + 提前终止）
+     * 只计算与主对角线偏离不超过 maxDistance 的对角带所覆盖的64位块，
+     * 一旦整列都超过上界立即放弃，因此相似度阈值越高，计算量越小。
+     *
+     * @param s1 第一个字符串
+     * @param s2 第二个字符串
+     * @param maxDistance 允许的最大编辑距离
+     * @return 编辑距离；若距离超过 maxDistance 则返回-1
+     */
+    public static int boundedDistance(CharSequence s1, CharSequence s2, int maxDistance) {
+        if (maxDistance < 0) {
+            return -1;
+        }
+
+        CharSequence pattern = s1.length() <= s2.length() ? s1 : s2;
+        CharSequence text = pattern == s1 ? s2 : s1;
+
+        int m = pattern.length();
+        int n = text.length();
+        int k = maxDistance;
+
+        // 长度差本身就是编辑距离的下界
+        if (n - m > k) {
+            return -1;
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        int words = (m + WORD_SIZE - 1) / WORD_SIZE;
+        int lastWord = words - 1;
+        long lastBit = 1L << ((m - 1) % WORD_SIZE);
+
+        PatternMask peq = new PatternMask(pattern);
+        int[] rowStart = peq.rowStart;
+        int[] blockIndex = peq.blockIndex;
+        long[] blockMask = peq.blockMask;
+
+        long[] vp = new long[words];
+        long[] vn = new long[words];
+        // 每个块最后一行在当前列的DP值
+        int[] score = new int[words];
+
+        int firstBlock = 0;
+        int lastBlock = -1;
+
+        for (int j = 1; j <= n; j++) {
+            Interruption.checkEvery(j);
+            // 对角带：|i - j| <= k 且 |(i - j) - (m - n)| <= k，由于 m <= n 化简为下式
+            int lo = Math.max(1, j - k);
+            int hi = Math.min(m, j + (m - n) + k);
+            if (hi < 1) {
+                // 本列只有第0行位于带内
+                continue;
+            }
+
+            // 带的下边界每列最多下移一行，新进入的块以"逐行+1"初始化（上界估计）
+            int newLast = (hi - 1) / WORD_SIZE;
+            while (lastBlock < newLast) {
+                lastBlock++;
+                vp[lastBlock] = ~0L;
+                vn[lastBlock] = 0L;
+                int base = lastBlock == 0 ? j - 1 : score[lastBlock - 1];
+                score[lastBlock] = base + Math.min(WORD_SIZE, m - lastBlock * WORD_SIZE);
+            }
+            firstBlock = Math.max(firstBlock, (lo - 1) / WORD_SIZE);
+
+            int c = peq.indexOf(text.charAt(j - 1));
+            int entry = 0;
+            int entryEnd = 0;
+            if (c >= 0) {
+                entry = rowStart[c];
+                entryEnd = rowStart[c + 1];
+                if (firstBlock > 0) {
+                    int found = Arrays.binarySearch(blockIndex, entry, entryEnd, firstBlock);
+                    entry = found >= 0 ? found : -found - 1;
+                }
+            }
+
+            // 首个活动块上方的行视为水平差分 +1（第0行时精确成立，其余情况为上界）
+            long hpCarry = 1L;
+            long hnCarry = 0L;
+            // 第0行 D[0][j] = j 也属于本列
+            int columnMin = firstBlock == 0 ? j : Integer.MAX_VALUE;
+
+            for (int w = firstBlock; w <= lastBlock; w++) {
+                long eq = 0L;
+                if (entry < entryEnd && blockIndex[entry] == w) {
+                    eq = blockMask[entry++];
+                }
+                long pv = vp[w];
+                long mv = vn[w];
+
+                long x = eq | hnCarry;
+                long d0 = (((x & pv) + pv) ^ pv) | x | mv;
+                long hp = mv | ~(d0 | pv);
+                long hn = d0 & pv;
+
+                long bottomBit = w == lastWord ? lastBit : 1L << 63;
+                if ((hp & bottomBit) != 0) {
+                    score[w]++;
+                } else if ((hn & bottomBit) != 0) {
+                    score[w]--;
+                }
+
+                long hpOut = hp >>> 63;
+                long hnOut = hn >>> 63;
+                hp = (hp << 1) | hpCarry;
+                hn = (hn << 1) | hnCarry;
+                hpCarry = hpOut;
+                hnCarry = hnOut;
+
+                vp[w] = hn | ~(d0 | hp);
+                vn[w] = hp & d0;
+
+                // 块内相邻行差值不超过1，据此得到块内最小值的下界
+                int rows = Math.min(WORD_SIZE, m - w * WORD_SIZE);
+                columnMin = Math.min(columnMin, score[w] - (rows - 1));
+            }
+
+            // 整列都已超过上界，后续列不可能回落到上界以内
+            if (columnMin > k) {
+                return -1;
+            }
+        }
+
+        int distance = score[lastWord];
+        return distance <= k ? distance : -1;
+    }
+
+    /**
+     * 模式串字符位掩码表（稀疏存储）
+     * 对每个出现过的字符，只保存含有该字符的64位块（块号 + 掩码），
+     * 掩码中第 i 位为1表示该块内第 i 个模式字符等于该字符。
+     * 每个模式字符只贡献一个比特，因此条目总数不超过 m，整张表占用 O(m) 空间，
+     * 与字符集大小无关。
+     */
+    static final class PatternMask {
+
+        /** 开放寻址哈希表：字符键、槽位占用标记及对应的字符序号 */
+        private final char[] keys;
+        private final boolean[] slotUsed;
+        private final int[] charIndex;
+        private final int hashMask;
+
+        /** 按字符序号分段（CSR格式）存放的块号与掩码，第 k 个字符占用 [rowStart[k], rowStart[k+1]) */
+        final int[] rowStart;
+        final int[] blockIndex;
+        final long[] blockMask;
+
+        PatternMask(CharSequence pattern) {
+            int m = pattern.length();
+            // 不同字符数不超过 min(m, 65536)，容量取其两倍以上保证装载因子不超过0.5
+            int capacity = Integer.highestOneBit(Math.min(Math.max(4, m), 1 << 16) * 2 - 1) << 1;
+            this.keys = new char[capacity];
+            this.slotUsed = new boolean[capacity];
+            this.charIndex = new int[capacity];
+            this.hashMask = capacity - 1;
+
+            // 第一遍：为字符编号，并统计每个字符跨越的块数
+            int[] entryCount = new int[Math.min(m, 1 << 16) + 1];
+            int[] lastBlock = new int[entryCount.length];
+            int distinct = 0;
+            for (int i = 0; i < m; i++) {
+                char c = pattern.charAt(i);
+                int slot = findSlot(c);
+                if (!slotUsed[slot]) {
+                    slotUsed[slot] = true;
+                    keys[slot] = c;
+                    charIndex[slot] = distinct;
+                    lastBlock[distinct] = -1;
+                    distinct++;
+                }
+                int k = charIndex[slot];
+                int block = i / WORD_SIZE;
+                if (lastBlock[k] != block) {
+                    lastBlock[k] = block;
+                    entryCount[k]++;
+                }
+            }
+
+            this.rowStart = new int[distinct + 1];
+            for (int k = 0; k < distinct; k++) {
+                rowStart[k + 1] = rowStart[k] + entryCount[k];
+            }
+
+            // 第二遍：按位置递增顺序填充，同一块内的比特合并到同一条目
+            this.blockIndex = new int[rowStart[distinct]];
+            this.blockMask = new long[rowStart[distinct]];
+            int[] fill = entryCount;
+            for (int k = 0; k < distinct; k++) {
+                fill[k] = rowStart[k] - 1;
+            }
+            for (int i = 0; i < m; i++) {
+                int k = charIndex[findSlot(pattern.charAt(i))];
+                int block = i / WORD_SIZE;
+                int pos = fill[k];
+                if (pos < rowStart[k] || blockIndex[pos] != block) {
+                    pos = ++fill[k];
+                    blockIndex[pos] = block;
+                }
+                blockMask[pos] |= 1L << (i % WORD_SIZE);
+            }
+        }
+
+        /**
+         * 获取字符对应的序号
+         *
+         * @param c 字符
+         * @return 字符序号，字符不在模式串中时返回-1
+         */
+        int indexOf(char c) {
+            int slot = findSlot(c);
+            return slotUsed[slot] ? charIndex[slot] : -1;
+        }
+
+        private int findSlot(char c) {
+            int h = c * 0x9E3779B1;
+            int slot = (h ^ (h >>> 15)) & hashMask;
+            while (slotUsed[slot] && keys[slot] != c) {
+                slot = (slot + 1) & hashMask;
+            }
+            return slot;
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package com.plagiarism.algorithm.impl;
 
 import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.model.AnalyzedDocument;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.*;
-import java.util.regex.Pattern;
-
 /**
  * 基于Jaccard系数的文本相似度算法
  * 将文本转换为字符集合，计算两个集合的Jaccard相似度
@@ -15,10 +13,6 @@ import java.util.regex.Pattern;
  */
 public class JaccardSimilarity implements SimilarityAlgorithm {
     
-    private static final Pattern CHINESE_PATTERN = Pattern.compile("[\\u4e00-\\u9fa5]");
-    private static final Pattern ENGLISH_PATTERN = Pattern.compile("[a-zA-Z]");
-    private static final Pattern DIGIT_PATTERN = Pattern.compile("[0-9]");
-    
     @Override
     public double calculateSimilarity(String text1, String text2) {
         if (StringUtils.isBlank(text1) && StringUtils.isBlank(text2)) {
@@ -33,81 +27,62 @@ public class JaccardSimilarity implements SimilarityAlgorithm {
             return 1.0;
         }
         
-        // 预处理文本
-        String processedText1 = preprocessText(text1);
-        String processedText2 = preprocessText(text2);
-        
-        // 转换为字符集合
-        Set<Character> set1 = textToCharacterSet(processedText1);
-        Set<Character> set2 = textToCharacterSet(processedText2);
-        
-        // 计算Jaccard相似度
-        return calculateJaccardSimilarity(set1, set2);
+        // 预处理文本并转换为字符集合
+        return calculateDocumentSimilarity(AnalyzedDocument.analyze(text1), AnalyzedDocument.analyze(text2));
     }
     
-    /**
-     * 预处理文本，去除标点符号和多余空格
-     */
-    private String preprocessText(String text) {
-        if (StringUtils.isBlank(text)) {
-            return "";
-        }
-        
-        // 去除标点符号，保留中文、英文、数字，并转换为小写
-        StringBuilder sb = new StringBuilder();
-        for (char c : text.toCharArray()) {
-            if (CHINESE_PATTERN.matcher(String.valueOf(c)).matches() ||
-                ENGLISH_PATTERN.matcher(String.valueOf(c)).matches() ||
-                DIGIT_PATTERN.matcher(String.valueOf(c)).matches()) {
-                // 英文字母转换为小写
-                if (ENGLISH_PATTERN.matcher(String.valueOf(c)).matches()) {
-                    sb.append(Character.toLowerCase(c));
-                } else {
-                    sb.append(c);
-                }
-            }
-        }
-        
-        return sb.toString();
+    @Override
+    public double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2) {
+        return calculateJaccardSimilarity(document1.getCharacterSet(), document2.getCharacterSet());
     }
     
     /**
-     * 将文本转换为字符集合
+     * 交集不超过较小的集合，并集不小于较大的集合，因此相似度不超过两个字符集合的大小之比
      */
-    private Set<Character> textToCharacterSet(String text) {
-        Set<Character> characterSet = new HashSet<>();
-        
-        if (StringUtils.isNotBlank(text)) {
-            for (char c : text.toCharArray()) {
-                characterSet.add(c);
-            }
+    @Override
+    public double upperBound(AnalyzedDocument document1, AnalyzedDocument document2) {
+        int size1 = document1.getCharacterSet().length;
+        int size2 = document2.getCharacterSet().length;
+        if (size1 == 0 || size2 == 0) {
+            return size1 == size2 ? 1.0 : 0.0;
         }
-        
-        return characterSet;
+        return (double) Math.min(size1, size2) / Math.max(size1, size2);
     }
     
     /**
      * 计算Jaccard相似度
      * Jaccard(A, B) = |A ∩ B| / |A ∪ B|
+     * 两个集合均为升序排列的字符数组，归并一次即可得到交集大小
      */
-    private double calculateJaccardSimilarity(Set<Character> set1, Set<Character> set2) {
-        if (set1.isEmpty() && set2.isEmpty()) {
+    private double calculateJaccardSimilarity(char[] set1, char[] set2) {
+        if (set1.length == 0 && set2.length == 0) {
             return 1.0;
         }
         
-        if (set1.isEmpty() || set2.isEmpty()) {
+        if (set1.length == 0 || set2.length == 0) {
             return 0.0;
         }
         
         // 计算交集
-        Set<Character> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < set1.length && j < set2.length) {
+            if (set1[i] < set2[j]) {
+                i++;
+            } else if (set1[i] > set2[j]) {
+                j++;
+            } else {
+                intersection++;
+                i++;
+                j++;
+            }
+        }
         
         // 计算并集
-        Set<Character> union = new HashSet<>(set1);
-        union.addAll(set2);
+        int union = set1.length + set2.length - intersection;
         
-        return (double) intersection.size() / union.size();
+        return (double) intersection / union;
     }
     
     @Override
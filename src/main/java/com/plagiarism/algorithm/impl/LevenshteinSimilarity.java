@@ -1,6 +1,7 @@
 package com.plagiarism.algorithm.impl;
 
 import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.model.AnalyzedDocument;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -26,8 +27,17 @@ public class LevenshteinSimilarity implements SimilarityAlgorithm {
             return 1.0;
         }
         
-        int distance = calculateLevenshteinDistance(text1, text2);
-        int maxLength = Math.max(text1.length(), text2.length());
+        // 预处理文本，与其他算法使用相同的规范化形式
+        return calculateDocumentSimilarity(AnalyzedDocument.analyze(text1), AnalyzedDocument.analyze(text2));
+    }
+    
+    @Override
+    public double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2) {
+        String processedText1 = document1.getNormalizedText();
+        String processedText2 = document2.getNormalizedText();
+        
+        int distance = calculateLevenshteinDistance(processedText1, processedText2);
+        int maxLength = Math.max(processedText1.length(), processedText2.length());
         
         if (maxLength == 0) {
             return 1.0;
@@ -37,7 +47,7 @@ public class LevenshteinSimilarity implements SimilarityAlgorithm {
         double similarity = 1.0 - (double) distance / maxLength;
         
         // 如果两个文本长度相近且编辑距离较小，提高相似度
-        if (Math.abs(text1.length() - text2.length()) <= 1 && distance <= 2) {
+        if (Math.abs(processedText1.length() - processedText2.length()) <= 1 && distance <= 2) {
             similarity = Math.max(similarity, 0.6);
         }
         
@@ -45,43 +55,109 @@ public class LevenshteinSimilarity implements SimilarityAlgorithm {
     }
     
     /**
-     * 计算两个字符串的Levenshtein距离
+     * 编辑距离不小于两个文本的长度差，因此相似度不超过较短文本与较长文本的长度之比；
+     * 长度差不超过1时相似度可能被提升到0.6，不做排除
+     */
+    @Override
+    public double upperBound(AnalyzedDocument document1, AnalyzedDocument document2) {
+        int length1 = document1.length();
+        int length2 = document2.length();
+        if (Math.abs(length1 - length2) <= 1) {
+            return 1.0;
+        }
+        return (double) Math.min(length1, length2) / Math.max(length1, length2);
+    }
+    
+    /**
+     * 位并行算法对较长文本的每个字符处理较短文本的每个64位字，每个字约16纳秒；
+     * 另加规范化文本的线性开销
+     */
+    @Override
+    public long estimateCost(AnalyzedDocument document1, AnalyzedDocument document2) {
+        long longer = Math.max(document1.length(), document2.length());
+        long words = (Math.min(document1.length(), document2.length()) + 63) / 64;
+        return 16L * longer * words + 100L * ((long) document1.length() + document2.length());
+    }
+    
+    /**
+     * 带阈值的相似度计算
+     * 由 minSimilarity 推导出允许的最大编辑距离，只计算对角带并在超出上界时提前终止
      * 
-     * @param s1 第一个字符串
-     * @param s2 第二个字符串
-     * @return 编辑距离
+     * @param text1 第一个文本
+     * @param text2 第二个文本
+     * @param minSimilarity 关心的最低相似度
+     * @return 相似度值；低于 minSimilarity 时返回0.0
      */
-    private int calculateLevenshteinDistance(String s1, String s2) {
-        int m = s1.length();
-        int n = s2.length();
+    @Override
+    public double calculateSimilarity(String text1, String text2, double minSimilarity) {
+        if (StringUtils.isBlank(text1) && StringUtils.isBlank(text2)) {
+            return 1.0;
+        }
         
-        // 创建动态规划表
-        int[][] dp = new int[m + 1][n + 1];
+        if (StringUtils.isBlank(text1) || StringUtils.isBlank(text2)) {
+            return 0.0;
+        }
         
-        // 初始化边界条件
-        for (int i = 0; i <= m; i++) {
-            dp[i][0] = i;
+        if (text1.equals(text2)) {
+            return 1.0;
         }
-        for (int j = 0; j <= n; j++) {
-            dp[0][j] = j;
+        
+        return calculateDocumentSimilarity(AnalyzedDocument.analyze(text1), AnalyzedDocument.analyze(text2), minSimilarity);
+    }
+    
+    /**
+     * 带阈值的相似度计算（预处理完成的文档）
+     * 
+     * @param document1 第一篇文档
+     * @param document2 第二篇文档
+     * @param minSimilarity 关心的最低相似度
+     * @return 相似度值；低于 minSimilarity 时返回0.0
+     */
+    @Override
+    public double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2, double minSimilarity) {
+        if (minSimilarity <= 0.0) {
+            return calculateDocumentSimilarity(document1, document2);
         }
         
-        // 填充动态规划表
-        for (int i = 1; i <= m; i++) {
-            for (int j = 1; j <= n; j++) {
-                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    dp[i][j] = Math.min(
-                        Math.min(dp[i - 1][j] + 1,     // 删除
-                                dp[i][j - 1] + 1),     // 插入
-                        dp[i - 1][j - 1] + 1           // 替换
-                    );
-                }
-            }
+        String processedText1 = document1.getNormalizedText();
+        String processedText2 = document2.getNormalizedText();
+        
+        int maxLength = Math.max(processedText1.length(), processedText2.length());
+        if (maxLength == 0) {
+            return 1.0;
+        }
+        boolean similarLength = Math.abs(processedText1.length() - processedText2.length()) <= 1;
+        
+        // similarity = 1 - distance / maxLength >= minSimilarity  <=>  distance <= (1 - minSimilarity) * maxLength
+        int maxDistance = (int) Math.floor((1.0 - minSimilarity) * maxLength + 1e-9);
+        if (similarLength && minSimilarity <= 0.6) {
+            // 长度相近且距离不超过2时相似度会被提升到0.6，需要保留这部分结果
+            maxDistance = Math.max(maxDistance, 2);
+        }
+        
+        int distance = BitParallelLevenshtein.boundedDistance(processedText1, processedText2, maxDistance);
+        if (distance < 0) {
+            return 0.0;
         }
         
-        return dp[m][n];
+        double similarity = 1.0 - (double) distance / maxLength;
+        if (similarLength && distance <= 2) {
+            similarity = Math.max(similarity, 0.6);
+        }
+        
+        return similarity >= minSimilarity ? similarity : 0.0;
+    }
+    
+    /**
+     * 计算两个字符串的Levenshtein距离
+     * 使用位并行算法，避免分配 (m+1)×(n+1) 的动态规划表
+     * 
+     * @param s1 第一个字符串
+     * @param s2 第二个字符串
+     * @return 编辑距离
+     */
+    private int calculateLevenshteinDistance(String s1, String s2) {
+        return BitParallelLevenshtein.distance(s1, s2);
     }
     
     @Override
@@ -1,183 +1,79 @@
 package com.plagiarism.algorithm.impl;
 
 import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.util.BoundedCache;
+import com.plagiarism.util.ContentHash;
+import com.plagiarism.util.PerformanceMonitor;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 优化版余弦相似度算法
  * 使用缓存和优化算法提高性能
  * 
+ * <p>预处理结果按内容哈希缓存，缓存总大小有上限，超出时按LRU淘汰，
+ * 适合长期运行的服务中反复比较同一批文档。每个实例的缓存以 optimized-cosine-序号 为名
+ * 登记到 {@link PerformanceMonitor}，多个实例的统计互不覆盖。</p>
+ * 
  * @author 学生
  * @version 1.0.0
  */
 public class OptimizedCosineSimilarity implements SimilarityAlgorithm {
     
-    private static final Pattern CHINESE_PATTERN = Pattern.compile("[\\u4e00-\\u9fa5]");
-    private static final Pattern ENGLISH_PATTERN = Pattern.compile("[a-zA-Z]");
-    private static final Pattern DIGIT_PATTERN = Pattern.compile("[0-9]");
+    /** 默认缓存容量：32MB */
+    public static final long DEFAULT_CACHE_BYTES = 32L * 1024 * 1024;
     
-    // 缓存预处理后的文本
-    private final Map<String, String> preprocessedTextCache = new ConcurrentHashMap<>();
-    // 缓存分词结果
-    private final Map<String, Set<String>> segmentedTextCache = new ConcurrentHashMap<>();
-    // 缓存词频向量
-    private final Map<String, Map<String, Integer>> wordFrequencyCache = new ConcurrentHashMap<>();
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
     
-    @Override
-    public double calculateSimilarity(String text1, String text2) {
-        if (StringUtils.isBlank(text1) || StringUtils.isBlank(text2)) {
-            return 0.0;
-        }
-        
-        if (text1.equals(text2)) {
-            return 1.0;
-        }
-        
-        // 预处理文本（使用缓存）
-        String processedText1 = getPreprocessedText(text1);
-        String processedText2 = getPreprocessedText(text2);
-        
-        // 分词（使用缓存）
-        Set<String> words1 = getSegmentedText(processedText1);
-        Set<String> words2 = getSegmentedText(processedText2);
-        
-        // 构建词汇表
-        Set<String> vocabulary = new HashSet<>(words1);
-        vocabulary.addAll(words2);
-        
-        // 计算词频向量（使用缓存）
-        Map<String, Integer> vector1 = getWordFrequency(processedText1, vocabulary);
-        Map<String, Integer> vector2 = getWordFrequency(processedText2, vocabulary);
-        
-        // 计算余弦相似度
-        return calculateCosineSimilarity(vector1, vector2, vocabulary);
-    }
+    // 缓存预处理完成的文档（规范化文本、分词结果及词项视图），以内容哈希为键
+    private final BoundedCache<ContentHash, AnalyzedDocument> documentCache;
+    private final String cacheName = "optimized-cosine-" + INSTANCES.incrementAndGet();
     
-    /**
-     * 获取预处理后的文本（带缓存）
-     */
-    private String getPreprocessedText(String text) {
-        return preprocessedTextCache.computeIfAbsent(text, this::preprocessText);
-    }
-    
-    /**
-     * 获取分词结果（带缓存）
-     */
-    private Set<String> getSegmentedText(String text) {
-        return segmentedTextCache.computeIfAbsent(text, this::segmentText);
+    public OptimizedCosineSimilarity() {
+        this(DEFAULT_CACHE_BYTES);
     }
     
     /**
-     * 获取词频向量（带缓存）
+     * 创建指定缓存容量的算法实例
+     * 
+     * @param maxCacheBytes 缓存容量上限（字节），为0时不缓存
      */
-    private Map<String, Integer> getWordFrequency(String text, Set<String> vocabulary) {
-        String cacheKey = text + "|" + vocabulary.hashCode();
-        return wordFrequencyCache.computeIfAbsent(cacheKey, k -> calculateWordFrequency(text, vocabulary));
+    public OptimizedCosineSimilarity(long maxCacheBytes) {
+        this.documentCache = new BoundedCache<>(maxCacheBytes, AnalyzedDocument::estimatedSize);
+        PerformanceMonitor.registerCache(cacheName, documentCache);
     }
     
-    /**
-     * 预处理文本，去除标点符号和多余空格
-     */
-    private String preprocessText(String text) {
-        if (StringUtils.isBlank(text)) {
-            return "";
-        }
-        
-        // 使用StringBuilder提高性能
-        StringBuilder sb = new StringBuilder(text.length());
-        for (char c : text.toCharArray()) {
-            if (CHINESE_PATTERN.matcher(String.valueOf(c)).matches() ||
-                ENGLISH_PATTERN.matcher(String.valueOf(c)).matches() ||
-                DIGIT_PATTERN.matcher(String.valueOf(c)).matches() ||
-                Character.isWhitespace(c)) {
-                sb.append(c);
-            }
-        }
-        
-        // 规范化空格
-        return sb.toString().replaceAll("\\s+", " ").trim();
-    }
-    
-    /**
-     * 文本分词，支持中英文混合
-     */
-    private Set<String> segmentText(String text) {
-        Set<String> words = new HashSet<>();
-        if (StringUtils.isBlank(text)) {
-            return words;
+    @Override
+    public double calculateSimilarity(String text1, String text2) {
+        if (StringUtils.isBlank(text1) || StringUtils.isBlank(text2)) {
+            return 0.0;
         }
         
-        // 按空格分割
-        String[] tokens = text.split("\\s+");
-        
-        for (String token : tokens) {
-            if (StringUtils.isNotBlank(token)) {
-                // 对于中文，按字符分割
-                if (CHINESE_PATTERN.matcher(token).find()) {
-                    for (char c : token.toCharArray()) {
-                        if (CHINESE_PATTERN.matcher(String.valueOf(c)).matches()) {
-                            words.add(String.valueOf(c));
-                        }
-                    }
-                } else {
-                    // 对于英文，按单词分割
-                    words.add(token.toLowerCase());
-                }
-            }
+        if (text1.equals(text2)) {
+            return 1.0;
         }
         
-        return words;
+        // 预处理并分词（使用缓存）
+        return calculateDocumentSimilarity(getDocument(text1), getDocument(text2));
     }
     
-    /**
-     * 计算词频向量
-     */
-    private Map<String, Integer> calculateWordFrequency(String text, Set<String> vocabulary) {
-        Map<String, Integer> frequency = new HashMap<>();
-        
-        // 初始化所有词汇的频率为0
-        for (String word : vocabulary) {
-            frequency.put(word, 0);
-        }
-        
-        // 计算实际频率
-        Set<String> words = getSegmentedText(text);
-        for (String word : words) {
-            frequency.put(word, frequency.getOrDefault(word, 0) + 1);
-        }
-        
-        return frequency;
+    @Override
+    public double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2) {
+        // 中文按单字计算，不使用完整的中文复合词；每个词的权重为1
+        // 两篇文档由不同一代的共享词典分析时，先统一到较新的一代
+        AnalyzedDocument aligned1 = document1.inDictionaryOf(document2);
+        AnalyzedDocument aligned2 = document2.inDictionaryOf(document1);
+        return aligned1.getSimpleTermSetVector().cosine(aligned2.getSimpleTermSetVector());
     }
     
     /**
-     * 计算余弦相似度（优化版）
+     * 获取预处理完成的文档（带缓存）
      */
-    private double calculateCosineSimilarity(Map<String, Integer> vector1, 
-                                           Map<String, Integer> vector2, 
-                                           Set<String> vocabulary) {
-        double dotProduct = 0.0;
-        double norm1 = 0.0;
-        double norm2 = 0.0;
-        
-        // 使用迭代器提高性能
-        for (String word : vocabulary) {
-            int freq1 = vector1.getOrDefault(word, 0);
-            int freq2 = vector2.getOrDefault(word, 0);
-            
-            dotProduct += freq1 * freq2;
-            norm1 += freq1 * freq1;
-            norm2 += freq2 * freq2;
-        }
-        
-        if (norm1 == 0.0 || norm2 == 0.0) {
-            return 0.0;
-        }
-        
-        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+    private AnalyzedDocument getDocument(String text) {
+        return documentCache.get(ContentHash.of(text), key -> AnalyzedDocument.analyze(text));
     }
     
     @Override
@@ -189,19 +85,35 @@ public class OptimizedCosineSimilarity implements SimilarityAlgorithm {
      * 清理缓存
      */
     public void clearCache() {
-        preprocessedTextCache.clear();
-        segmentedTextCache.clear();
-        wordFrequencyCache.clear();
+        documentCache.clear();
     }
     
     /**
      * 获取缓存统计信息
+     * 
+     * @return 缓存的文档数
      */
     public Map<String, Integer> getCacheStats() {
         Map<String, Integer> stats = new HashMap<>();
-        stats.put("preprocessedTextCache", preprocessedTextCache.size());
-        stats.put("segmentedTextCache", segmentedTextCache.size());
-        stats.put("wordFrequencyCache", wordFrequencyCache.size());
+        stats.put("documentCache", documentCache.size());
         return stats;
     }
+    
+    /**
+     * 获取缓存的详细统计信息，与 {@link PerformanceMonitor#getCacheStats()} 中本实例的一项相同
+     * 
+     * @return 条目数、占用字节数、容量上限及命中、未命中、淘汰次数
+     */
+    public Map<String, Long> getDetailedCacheStats() {
+        return documentCache.stats();
+    }
+    
+    /**
+     * 获取缓存在 {@link PerformanceMonitor} 中登记的名称
+     * 
+     * @return 缓存名称
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
 }
@@ -0,0 +1,306 @@
+package com.plagiarism.algorithm.impl;
+
+import java.util.Arrays;
+
+/**
+ * 后缀自动机
+ * 识别一个字符序列所有子串的最小确定有限自动机，状态数不超过 2n，转移数不超过 3n，
+ * 可以在线性时间内构建。用另一个序列在自动机上行走，即可在线性时间内求出
+ * 其每个位置结尾、同时在原序列中出现的最长子串；再沿后缀链接树汇总，
+ * 还能反过来求出原序列每个位置结尾、在另一个序列中出现的最长子串。
+ * 
+ * <p>中文字符集很大，转移不使用按字符下标的数组，而是存放在以 (状态, 字符) 为键的
+ * 开放寻址哈希表中，键和目标状态相邻存放，一次查找通常只访问一个缓存行；
+ * 复制状态时需要枚举出边，因此另外为每个状态维护一条出边链表。
+ * 哈希表按状态数的上界 2n 分配初始容量，装载因子超过 3/4 时翻倍，
+ * 不为很少达到的 3n 条转移预留空间。</p>
+ * 
+ * <p>构建和行走时每隔若干个字符检查一次线程中断，被中断时抛出 {@link java.util.concurrent.CancellationException}。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+final class SuffixAutomaton {
+    
+    private final int sourceLength;
+    
+    /** 后缀链接 */
+    private final int[] link;
+    /** 状态对应的最长子串长度 */
+    private final int[] length;
+    /** 状态对应子串第一次出现的结束位置 */
+    private final int[] firstEnd;
+    /** 原序列每个位置对应的前缀所在的状态 */
+    private final int[] prefixStates;
+    private int stateCount;
+    private int last;
+    
+    /** 转移表：偶数下标存放 键+1（0表示空槽），其后存放目标状态 */
+    private long[] table;
+    private int mask;
+    /** 转移数达到该值时扩容 */
+    private int resizeThreshold;
+    
+    /** 每个状态的出边链表：表头、后继及边上的字符 */
+    private final int[] edgeHead;
+    private int[] edgeNext;
+    private char[] edgeChar;
+    private int edgeCount;
+    
+    /**
+     * 为字符序列构建后缀自动机
+     * 
+     * @param chars 字符序列
+     * @param n 使用的长度
+     */
+    SuffixAutomaton(char[] chars, int n) {
+        int capacity = 2 * n + 2;
+        this.sourceLength = n;
+        this.link = new int[capacity];
+        this.length = new int[capacity];
+        this.firstEnd = new int[capacity];
+        this.edgeHead = new int[capacity];
+        this.prefixStates = new int[n];
+        
+        // 自然语言文本的转移数通常接近状态数，按状态数的上界分配，不足时再扩容
+        allocateTable(Integer.highestOneBit(Math.max(16, capacity) - 1) << 1);
+        this.edgeNext = new int[Math.max(16, capacity)];
+        this.edgeChar = new char[edgeNext.length];
+        
+        link[0] = -1;
+        edgeHead[0] = -1;
+        stateCount = 1;
+        for (int i = 0; i < n; i++) {
+            Interruption.checkEvery(i);
+            extend(chars[i], i);
+            prefixStates[i] = last;
+        }
+    }
+    
+    private void extend(char c, int position) {
+        int current = newState(length[last] + 1, position);
+        int p = last;
+        while (p != -1 && transition(p, c) < 0) {
+            addTransition(p, c, current);
+            p = link[p];
+        }
+        
+        if (p == -1) {
+            link[current] = 0;
+        } else {
+            int q = transition(p, c);
+            if (length[p] + 1 == length[q]) {
+                link[current] = q;
+            } else {
+                // 拆分状态q：复制出边，原先指向q的较短子串改为指向副本
+                int clone = newState(length[p] + 1, firstEnd[q]);
+                for (int e = edgeHead[q]; e >= 0; e = edgeNext[e]) {
+                    addTransition(clone, edgeChar[e], transition(q, edgeChar[e]));
+                }
+                link[clone] = link[q];
+                while (p != -1 && transition(p, c) == q) {
+                    setTransition(p, c, clone);
+                    p = link[p];
+                }
+                link[q] = clone;
+                link[current] = clone;
+            }
+        }
+        last = current;
+    }
+    
+    private int newState(int stateLength, int end) {
+        int state = stateCount++;
+        length[state] = stateLength;
+        firstEnd[state] = end;
+        edgeHead[state] = -1;
+        return state;
+    }
+    
+    /**
+     * 获取转移
+     * 
+     * @param state 状态
+     * @param c 字符
+     * @return 目标状态，不存在时返回-1
+     */
+    int transition(int state, char c) {
+        long key = (((long) state << 16) | c) + 1;
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = table[2 * slot];
+            if (k == key) {
+                return (int) table[2 * slot + 1];
+            }
+            if (k == 0) {
+                return -1;
+            }
+        }
+    }
+    
+    private void addTransition(int state, char c, int target) {
+        if (edgeCount >= resizeThreshold) {
+            resize();
+        }
+        put((((long) state << 16) | c) + 1, target);
+        
+        if (edgeCount == edgeNext.length) {
+            edgeNext = Arrays.copyOf(edgeNext, edgeCount * 2);
+            edgeChar = Arrays.copyOf(edgeChar, edgeCount * 2);
+        }
+        edgeChar[edgeCount] = c;
+        edgeNext[edgeCount] = edgeHead[state];
+        edgeHead[state] = edgeCount++;
+    }
+    
+    private void setTransition(int state, char c, int target) {
+        long key = (((long) state << 16) | c) + 1;
+        int slot = slot(key);
+        while (table[2 * slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        table[2 * slot + 1] = target;
+    }
+    
+    private void put(long key, long target) {
+        int slot = slot(key);
+        while (table[2 * slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[2 * slot] = key;
+        table[2 * slot + 1] = target;
+    }
+    
+    private void allocateTable(int slots) {
+        table = new long[2 * slots];
+        mask = slots - 1;
+        resizeThreshold = slots - (slots >> 2);
+    }
+    
+    private void resize() {
+        long[] old = table;
+        allocateTable((mask + 1) << 1);
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0) {
+                put(old[i], old[i + 1]);
+            }
+        }
+    }
+    
+    /**
+     * 获取转移表的槽位数
+     * 
+     * @return 槽位数
+     */
+    int tableSlots() {
+        return mask + 1;
+    }
+    
+    private int slot(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+    
+    /**
+     * 对序列的每个位置，求以该位置结尾且在原序列中出现的最长子串
+     * 
+     * @param chars 待匹配序列
+     * @param n 使用的长度
+     * @param matchLengths 输出参数：最长公共子串的长度
+     * @param matchStates 输出参数：匹配结束时所在的状态，可以为null
+     */
+    void longestMatches(char[] chars, int n, int[] matchLengths, int[] matchStates) {
+        int state = 0;
+        int matched = 0;
+        for (int i = 0; i < n; i++) {
+            Interruption.checkEvery(i);
+            char c = chars[i];
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = link[state];
+                matched = length[state];
+                next = transition(state, c);
+            }
+            if (next >= 0) {
+                state = next;
+                matched++;
+            } else {
+                matched = 0;
+            }
+            matchLengths[i] = matched;
+            if (matchStates != null) {
+                matchStates[i] = state;
+            }
+        }
+    }
+    
+    /**
+     * 由 {@link #longestMatches} 的结果反推原序列每个位置结尾、在另一个序列中出现的最长子串长度。
+     * 状态的结束位置集合包含其后缀链接树中所有后代的结束位置：某状态以长度l被匹配到时，
+     * 该长度的子串在它的每个结束位置都出现；其所有祖先对应的子串都是它的后缀，整段都出现。
+     * 按长度从大到小把匹配信息传给祖先，再从小到大传给后代，两次线性扫描即可。
+     * 
+     * @param matchLengths 另一个序列每个位置的最长匹配长度
+     * @param matchStates 另一个序列每个位置匹配结束时所在的状态
+     * @param n 另一个序列的长度
+     * @return 原序列每个位置结尾的最长公共子串长度
+     */
+    int[] sourceMatchLengths(int[] matchLengths, int[] matchStates, int n) {
+        int[] best = new int[stateCount];
+        for (int i = 0; i < n; i++) {
+            int state = matchStates[i];
+            if (matchLengths[i] > best[state]) {
+                best[state] = matchLengths[i];
+            }
+        }
+        
+        // 按状态长度计数排序
+        int[] count = new int[sourceLength + 2];
+        for (int state = 0; state < stateCount; state++) {
+            count[length[state]]++;
+        }
+        for (int i = 1; i < count.length; i++) {
+            count[i] += count[i - 1];
+        }
+        int[] order = new int[stateCount];
+        for (int state = stateCount - 1; state >= 0; state--) {
+            order[--count[length[state]]] = state;
+        }
+        
+        for (int i = stateCount - 1; i > 0; i--) {
+            int state = order[i];
+            int parent = link[state];
+            if (best[state] > 0 && best[parent] < length[parent]) {
+                best[parent] = length[parent];
+            }
+        }
+        for (int i = 1; i < stateCount; i++) {
+            int state = order[i];
+            best[state] = Math.max(best[state], best[link[state]]);
+        }
+        
+        int[] sourceLengths = new int[sourceLength];
+        for (int i = 0; i < sourceLength; i++) {
+            sourceLengths[i] = best[prefixStates[i]];
+        }
+        return sourceLengths;
+    }
+    
+    /**
+     * 获取状态对应子串第一次出现的结束位置
+     * 
+     * @param state 状态
+     * @return 原序列中的下标
+     */
+    int firstEnd(int state) {
+        return firstEnd[state];
+    }
+    
+    /**
+     * 获取状态数
+     * 
+     * @return 状态数
+     */
+    int stateCount() {
+        return stateCount;
+    }
+}
@@ -0,0 +1,321 @@
+package com.plagiarism.algorithm.impl;
+
+import com.plagiarism.algorithm.MatchLocator;
+import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.MatchRange;
+import com.plagiarism.model.MatchResult;
+import com.plagiarism.util.TextNormalizer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基于Winnowing文档指纹的文本相似度算法（MOSS使用的方法）
+ * 去掉标点和空白后，用滚动哈希计算每个长度为k的片段的哈希值，
+ * 在每w个相邻哈希组成的窗口中选取最小值作为指纹，相似度为两篇文档指纹集合的Jaccard系数。
+ * 
+ * <p>长度不少于 k + w - 1 的相同片段必然产生相同的指纹，短于k的片段不会被当作抄袭。
+ * 滚动哈希与单调队列使指纹计算是线性时间的，长文档上可以代替编辑距离；
+ * {@link #locateMatches(String, String)} 还能用同一组指纹给出相同片段在两篇原文中的位置。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public class WinnowingSimilarity implements SimilarityAlgorithm, MatchLocator {
+    
+    /** 默认的片段长度k（字符数），短于该长度的相同内容视为噪声 */
+    public static final int DEFAULT_K = 5;
+    
+    /** 默认的窗口大小w */
+    public static final int DEFAULT_WINDOW = 4;
+    
+    private static final int BASE = 0x01000193;
+    
+    private final int k;
+    private final int window;
+    /** BASE^(k-1)，滚动时移出最左字符使用 */
+    private final int highestPower;
+    /** 片段长度与窗口大小，作为文档中缓存的指纹集合的标识 */
+    private final long parameters;
+    
+    public WinnowingSimilarity() {
+        this(DEFAULT_K, DEFAULT_WINDOW);
+    }
+    
+    /**
+     * 创建Winnowing算法
+     * 
+     * @param k 片段长度
+     * @param window 窗口大小
+     */
+    public WinnowingSimilarity(int k, int window) {
+        if (k <= 0 || window <= 0) {
+            throw new IllegalArgumentException("片段长度和窗口大小必须为正数");
+        }
+        this.k = k;
+        this.window = window;
+        int power = 1;
+        for (int i = 1; i < k; i++) {
+            power *= BASE;
+        }
+        this.highestPower = power;
+        this.parameters = ((long) k << 32) | window;
+    }
+    
+    @Override
+    public double calculateSimilarity(String text1, String text2) {
+        if (StringUtils.isBlank(text1) || StringUtils.isBlank(text2)) {
+            return 0.0;
+        }
+        
+        if (text1.equals(text2)) {
+            return 1.0;
+        }
+        
+        return calculateDocumentSimilarity(AnalyzedDocument.analyze(text1), AnalyzedDocument.analyze(text2));
+    }
+    
+    @Override
+    public double calculateDocumentSimilarity(AnalyzedDocument document1, AnalyzedDocument document2) {
+        // 指纹集合缓存在文档中，同一篇文档与多篇文档比较时只计算一次
+        return jaccard(document1.getFingerprints(parameters, this::fingerprintSet),
+            document2.getFingerprints(parameters, this::fingerprintSet));
+    }
+    
+    /**
+     * 两个升序、去重的指纹集合的Jaccard系数
+     */
+    private static double jaccard(int[] set1, int[] set2) {
+        if (set1.length == 0 || set2.length == 0) {
+            return set1.length == set2.length ? 1.0 : 0.0;
+        }
+        
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < set1.length && j < set2.length) {
+            if (set1[i] < set2[j]) {
+                i++;
+            } else if (set1[i] > set2[j]) {
+                j++;
+            } else {
+                intersection++;
+                i++;
+                j++;
+            }
+        }
+        return (double) intersection / (set1.length + set2.length - intersection);
+    }
+    
+    /**
+     * 查找两篇原始文本中相同的片段，相似度由同一组指纹求出
+     * 以指纹为锚点：两篇文本中哈希相同且内容确实相同的位置向两侧扩展为最长的相同片段，
+     * 抄袭文本中已被覆盖的部分不再重复报告。
+     * 
+     * @param originalText 原文
+     * @param plagiarizedText 抄袭文本
+     * @return 相似度及相同片段的位置，片段按在抄袭文本中的位置排列
+     */
+    @Override
+    public MatchResult locateMatches(String originalText, String plagiarizedText) {
+        List<MatchRange> matches = new ArrayList<>();
+        if (StringUtils.isBlank(originalText) || StringUtils.isBlank(plagiarizedText)) {
+            return new MatchResult(0.0, matches);
+        }
+        
+        // 保留的字符与规范化文本去掉分隔符后相同，指纹集合也就与文档中缓存的相同
+        int[] offsets1 = new int[originalText.length()];
+        int[] offsets2 = new int[plagiarizedText.length()];
+        char[] chars1 = TextNormalizer.retainedChars(originalText, offsets1);
+        char[] chars2 = TextNormalizer.retainedChars(plagiarizedText, offsets2);
+        int n1 = chars1.length;
+        int n2 = chars2.length;
+        Fingerprints fingerprints1 = n1 == 0 ? new Fingerprints(0) : winnow(chars1, n1);
+        Fingerprints fingerprints2 = n2 == 0 ? new Fingerprints(0) : winnow(chars2, n2);
+        double similarity = originalText.equals(plagiarizedText)
+            ? 1.0 : jaccard(distinctHashes(fingerprints1), distinctHashes(fingerprints2));
+        if (n1 < k || n2 < k) {
+            return new MatchResult(similarity, matches);
+        }
+        
+        // 原文指纹按 (哈希, 位置) 排序，查找时二分定位同一哈希的所有位置
+        long[] index = new long[fingerprints1.size];
+        for (int i = 0; i < fingerprints1.size; i++) {
+            index[i] = ((long) fingerprints1.hashes[i] << 32) | fingerprints1.positions[i];
+        }
+        Arrays.sort(index);
+        
+        int covered = 0;
+        for (int f = 0; f < fingerprints2.size; f++) {
+            int position2 = fingerprints2.positions[f];
+            // 锚点与已报告的片段重叠时，该片段已经向右扩展到了尽头
+            if (position2 < covered) {
+                continue;
+            }
+            int position1 = findOccurrence(index, fingerprints2.hashes[f], chars1, chars2, position2);
+            if (position1 < 0) {
+                continue;
+            }
+            
+            int start1 = position1;
+            int start2 = position2;
+            while (start1 > 0 && start2 > covered && chars1[start1 - 1] == chars2[start2 - 1]) {
+                start1--;
+                start2--;
+            }
+            int end1 = position1 + k;
+            int end2 = position2 + k;
+            while (end1 < n1 && end2 < n2 && chars1[end1] == chars2[end2]) {
+                end1++;
+                end2++;
+            }
+            
+            matches.add(new MatchRange(offsets1[start1], offsets1[end1 - 1] + 1,
+                offsets2[start2], offsets2[end2 - 1] + 1, end2 - start2));
+            covered = end2;
+        }
+        return new MatchResult(similarity, matches);
+    }
+    
+    /**
+     * 在原文指纹中查找与抄袭文本 position2 处片段内容相同的位置，排除哈希冲突
+     */
+    private int findOccurrence(long[] index, int hash, char[] chars1, char[] chars2, int position2) {
+        int i = Arrays.binarySearch(index, (long) hash << 32);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        for (; i < index.length && (int) (index[i] >>> 32) == hash; i++) {
+            int position1 = (int) index[i];
+            if (regionMatches(chars1, position1, chars2, position2, k)) {
+                return position1;
+            }
+        }
+        return -1;
+    }
+    
+    private static boolean regionMatches(char[] chars1, int offset1, char[] chars2, int offset2, int length) {
+        for (int i = 0; i < length; i++) {
+            if (chars1[offset1 + i] != chars2[offset2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 计算规范化文本的指纹集合（升序、去重）
+     */
+    private int[] fingerprintSet(String normalizedText) {
+        char[] chars = TextNormalizer.withoutSeparators(normalizedText);
+        if (chars.length == 0) {
+            return new int[0];
+        }
+        
+        return distinctHashes(winnow(chars, chars.length));
+    }
+    
+    /**
+     * 指纹的哈希值集合（升序、去重）
+     */
+    private static int[] distinctHashes(Fingerprints fingerprints) {
+        int[] hashes = Arrays.copyOf(fingerprints.hashes, fingerprints.size);
+        Arrays.sort(hashes);
+        int distinct = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+    
+    /**
+     * 对字符序列做Winnowing：计算所有片段的滚动哈希，再用单调队列求每个窗口的最小值。
+     * 窗口中有多个最小值时取最右边的一个，同一片段只记录一次。
+     * 文本不足一个片段时整段文本作为一个片段。每隔若干个片段检查一次线程中断。
+     */
+    Fingerprints winnow(char[] chars, int length) {
+        int width = Math.min(k, length);
+        int grams = Math.max(1, length - k + 1);
+        int[] hashes = new int[grams];
+        int hash = 0;
+        for (int i = 0; i < width; i++) {
+            hash = hash * BASE + chars[i];
+        }
+        hashes[0] = mix(hash);
+        for (int i = 1; i < grams; i++) {
+            Interruption.checkEvery(i);
+            hash = (hash - chars[i - 1] * highestPower) * BASE + chars[i + k - 1];
+            hashes[i] = mix(hash);
+        }
+        
+        Fingerprints fingerprints = new Fingerprints(grams / Math.max(1, window / 2) + 1);
+        int[] deque = new int[grams];
+        int head = 0;
+        int tail = 0;
+        int selected = -1;
+        for (int i = 0; i < grams; i++) {
+            Interruption.checkEvery(i);
+            while (tail > head && hashes[deque[tail - 1]] >= hashes[i]) {
+                tail--;
+            }
+            deque[tail++] = i;
+            if (deque[head] <= i - window) {
+                head++;
+            }
+            // 窗口填满后才开始选取；片段总数不足一个窗口时只在末尾选取一次
+            if (i >= window - 1 || i == grams - 1) {
+                int minimum = deque[head];
+                if (minimum != selected) {
+                    fingerprints.add(hashes[minimum], minimum);
+                    selected = minimum;
+                }
+            }
+        }
+        return fingerprints;
+    }
+    
+    /**
+     * MurmurHash3 的 32 位终结函数：多项式哈希的低位分布不均匀，打散后窗口最小值的选取更均匀
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+    
+    @Override
+    public String getAlgorithmName() {
+        return "Winnowing Similarity";
+    }
+    
+    /**
+     * 指纹列表：哈希值及其片段在字符序列中的起始位置，位置递增
+     */
+    static final class Fingerprints {
+        int[] hashes;
+        int[] positions;
+        int size;
+        
+        Fingerprints(int capacity) {
+            this.hashes = new int[capacity];
+            this.positions = new int[capacity];
+        }
+        
+        void add(int hash, int position) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            hashes[size] = hash;
+            positions[size++] = position;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.plagiarism.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 性能统计配置
+ * 为所有API请求注册计时拦截器，耗时分布可通过 /api/performance/stats 查看
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestTimingInterceptor()).addPathPatterns("/api/**");
+    }
+}
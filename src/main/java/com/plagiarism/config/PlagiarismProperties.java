@@ -0,0 +1,342 @@
+package com.plagiarism.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 论文查重配置项
+ * 对应 application.properties 中以 plagiarism 为前缀的配置
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "plagiarism")
+public class PlagiarismProperties {
+    
+    private final DocumentCache documentCache = new DocumentCache();
+    private final Ensemble ensemble = new Ensemble();
+    private final Corpus corpus = new Corpus();
+    private final Batch batch = new Batch();
+    private final Matrix matrix = new Matrix();
+    private final Jobs jobs = new Jobs();
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+    private final Profiling profiling = new Profiling();
+    
+    public DocumentCache getDocumentCache() {
+        return documentCache;
+    }
+    
+    public Ensemble getEnsemble() {
+        return ensemble;
+    }
+    
+    public Corpus getCorpus() {
+        return corpus;
+    }
+    
+    public Batch getBatch() {
+        return batch;
+    }
+    
+    public Matrix getMatrix() {
+        return matrix;
+    }
+    
+    public Jobs getJobs() {
+        return jobs;
+    }
+    
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    public Profiling getProfiling() {
+        return profiling;
+    }
+    
+    /**
+     * 文档预处理结果缓存配置
+     */
+    public static class DocumentCache {
+        
+        /** 缓存容量上限，为0时不缓存 */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+    
+    /**
+     * 多算法综合计算配置
+     */
+    public static class Ensemble {
+        
+        /** 是否在独立线程池中并行执行各算法 */
+        private boolean parallel = false;
+        
+        /** 线程池大小 */
+        private int threads = Runtime.getRuntime().availableProcessors();
+        
+        /** 线程池等待队列容量，队列满时拒绝新任务，请求返回503 */
+        private int queueCapacity = 64;
+        
+        /** 单个算法的计算时限，超时的算法不计入平均值 */
+        private Duration algorithmTimeout = Duration.ofSeconds(5);
+        
+        /** 较长文档的规范化长度达到该值时，以Winnowing指纹代替编辑距离参与平均；为0时不代替 */
+        private int longDocumentThreshold = 0;
+        
+        /** 单次比对打分阶段的延迟预算：估计耗时超出时依次改用线性时间组合、只用余弦相似度；为0时不限制 */
+        private Duration latencyBudget = Duration.ZERO;
+        
+        public boolean isParallel() {
+            return parallel;
+        }
+        
+        public void setParallel(boolean parallel) {
+            this.parallel = parallel;
+        }
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public Duration getAlgorithmTimeout() {
+            return algorithmTimeout;
+        }
+        
+        public void setAlgorithmTimeout(Duration algorithmTimeout) {
+            this.algorithmTimeout = algorithmTimeout;
+        }
+        
+        public int getLongDocumentThreshold() {
+            return longDocumentThreshold;
+        }
+        
+        public void setLongDocumentThreshold(int longDocumentThreshold) {
+            this.longDocumentThreshold = longDocumentThreshold;
+        }
+        
+        public Duration getLatencyBudget() {
+            return latencyBudget;
+        }
+        
+        public void setLatencyBudget(Duration latencyBudget) {
+            this.latencyBudget = latencyBudget;
+        }
+    }
+    
+    /**
+     * 语料库索引配置
+     */
+    public static class Corpus {
+        
+        /** MinHash 哈希函数个数：越多相似度估计越准确，建索引和查询越慢 */
+        private int minHashFunctions = 128;
+        
+        /** LSH分段数，必须整除哈希函数个数：分段越多召回率越高，候选也越多 */
+        private int lshBands = 32;
+        
+        public int getMinHashFunctions() {
+            return minHashFunctions;
+        }
+        
+        public void setMinHashFunctions(int minHashFunctions) {
+            this.minHashFunctions = minHashFunctions;
+        }
+        
+        public int getLshBands() {
+            return lshBands;
+        }
+        
+        public void setLshBands(int lshBands) {
+            this.lshBands = lshBands;
+        }
+    }
+    
+    /**
+     * 批量比对配置
+     */
+    public static class Batch {
+        
+        /** 计算文档对的线程数 */
+        private int threads = Runtime.getRuntime().availableProcessors();
+        
+        /** 线程池等待队列容量：每次批量比对最多提交线程数个任务，队列满时拒绝新的批量请求，返回503 */
+        private int queueCapacity = 16;
+        
+        /** 一次批量比对的最大文档数 */
+        private int maxDocuments = 500;
+        
+        /** 压缩包中单个文档解压后的大小上限 */
+        private DataSize maxDocumentSize = DataSize.ofMegabytes(10);
+        
+        /** 一次批量比对中所有文档（包括各压缩包解压后的内容）的总大小上限 */
+        private DataSize maxTotalSize = DataSize.ofMegabytes(100);
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public int getMaxDocuments() {
+            return maxDocuments;
+        }
+        
+        public void setMaxDocuments(int maxDocuments) {
+            this.maxDocuments = maxDocuments;
+        }
+        
+        public DataSize getMaxDocumentSize() {
+            return maxDocumentSize;
+        }
+        
+        public void setMaxDocumentSize(DataSize maxDocumentSize) {
+            this.maxDocumentSize = maxDocumentSize;
+        }
+        
+        public DataSize getMaxTotalSize() {
+            return maxTotalSize;
+        }
+        
+        public void setMaxTotalSize(DataSize maxTotalSize) {
+            this.maxTotalSize = maxTotalSize;
+        }
+    }
+    
+    /**
+     * 相似度矩阵计算配置
+     */
+    public static class Matrix {
+        
+        /** ForkJoin线程池的并行度 */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        
+        public int getParallelism() {
+            return parallelism;
+        }
+        
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+    
+    /**
+     * 异步任务配置
+     */
+    public static class Jobs {
+        
+        /** 执行任务的线程数 */
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        
+        /** 等待执行的任务数上限，队列满时拒绝新任务 */
+        private int queueCapacity = 100;
+        
+        /** 排队和执行中的任务持有的上传内容总大小上限，超出时拒绝新任务；单个任务总能提交 */
+        private DataSize maxPendingSize = DataSize.ofMegabytes(64);
+        
+        /** 已结束任务的结果保留时长，过期后删除 */
+        private Duration resultTtl = Duration.ofMinutes(30);
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public DataSize getMaxPendingSize() {
+            return maxPendingSize;
+        }
+        
+        public void setMaxPendingSize(DataSize maxPendingSize) {
+            this.maxPendingSize = maxPendingSize;
+        }
+        
+        public Duration getResultTtl() {
+            return resultTtl;
+        }
+        
+        public void setResultTtl(Duration resultTtl) {
+            this.resultTtl = resultTtl;
+        }
+    }
+    
+    /**
+     * 虚拟线程配置，需要Java 21及以上
+     */
+    public static class VirtualThreads {
+        
+        /** 是否以虚拟线程处理请求和阻塞型任务，不支持时自动退回平台线程 */
+        private boolean enabled = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+    
+    /**
+     * 资源统计配置
+     */
+    public static class Profiling {
+        
+        /**
+         * 是否统计每次算法调用的线程CPU时间和分配字节数，JVM不支持时自动关闭。
+         * 关闭时请求仍可以用 profile 参数单独获取本次请求的明细
+         */
+        private boolean enabled = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.plagiarism.config;
+
+import com.plagiarism.util.PerformanceMonitor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 请求计时拦截器
+ * 记录每个请求从进入处理器到响应完成的耗时，按 "方法 路径模板" 汇总到 {@link PerformanceMonitor}，
+ * 路径模板如 /api/jobs/{jobId}，不会因路径变量产生大量不同的指标。
+ * 
+ * <p>异步请求（流式输出、Callable等）在第一次分派时只记下开始时间，
+ * 异步处理完成后的再次分派结束时才记录，耗时包含整个响应的写出过程。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public class RequestTimingInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final String START_ATTRIBUTE = RequestTimingInterceptor.class.getName() + ".start";
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求再次分派时保留第一次分派的开始时间
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String name = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        PerformanceMonitor.recordRequest(name, System.nanoTime() - (Long) start);
+    }
+}
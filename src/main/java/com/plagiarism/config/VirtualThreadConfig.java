@@ -0,0 +1,84 @@
+package com.plagiarism.config;
+
+import com.plagiarism.util.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 虚拟线程配置
+ * 开启 plagiarism.virtual-threads.enabled 且运行在Java 21及以上时，
+ * Tomcat 的请求处理线程和 Spring MVC 异步响应（如批量比对的流式输出）都改用虚拟线程：
+ * 读取上传文件、写出响应时阻塞的请求不再占用平台线程，并发连接数不受 server.tomcat.threads.max 限制。
+ * 相似度计算仍在各服务自己的固定大小线程池中执行。
+ * 
+ * <p>运行在不支持虚拟线程的JVM上时保持原有的平台线程池，只输出一条警告。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "plagiarism.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    
+    /** 请求处理执行器，不支持虚拟线程时为null */
+    private final ExecutorService requestExecutor;
+    
+    /** 异步响应执行器，不支持虚拟线程时为null */
+    private final ExecutorService asyncExecutor;
+    
+    public VirtualThreadConfig() {
+        if (VirtualThreads.isSupported()) {
+            this.requestExecutor = VirtualThreads.newExecutor("http-virtual-");
+            this.asyncExecutor = VirtualThreads.newExecutor("mvc-async-");
+        } else {
+            log.warn("已开启虚拟线程，但当前JVM（Java {}）不支持，继续使用平台线程池", System.getProperty("java.version"));
+            this.requestExecutor = null;
+            this.asyncExecutor = null;
+        }
+    }
+    
+    /**
+     * 以虚拟线程执行器替换 Tomcat 连接器的工作线程池
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (requestExecutor != null) {
+                protocolHandler.setExecutor(requestExecutor);
+            }
+        };
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (asyncExecutor != null) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(asyncExecutor));
+        }
+    }
+    
+    /**
+     * 关闭执行器
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdownNow();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.plagiarism.controller;
+
+import com.plagiarism.model.Job;
+import com.plagiarism.model.SimilarityResult;
+import com.plagiarism.service.JobService;
+import com.plagiarism.service.PlagiarismDetectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 异步任务控制器
+ * 提交比对任务后立即返回任务ID，客户端轮询任务状态和结果
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+    
+    /** 队列满时建议客户端等待的秒数 */
+    private static final String RETRY_AFTER_SECONDS = "5";
+    
+    @Autowired
+    private JobService jobService;
+    
+    @Autowired
+    private PlagiarismDetectionService plagiarismDetectionService;
+    
+    /**
+     * 提交文件比对任务，参数与 /api/similarity/upload 相同
+     * 
+     * @param originalFile 原文文件
+     * @param plagiarizedFile 抄袭文件
+     * @param algorithmName 算法名称（可选）
+     * @return 任务ID和查询地址；任务队列已满时返回503
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(
+            @RequestParam("originalFile") MultipartFile originalFile,
+            @RequestParam("plagiarizedFile") MultipartFile plagiarizedFile,
+            @RequestParam(value = "algorithmName", required = false) String algorithmName) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (originalFile.isEmpty() || plagiarizedFile.isEmpty()) {
+                response.put("success", false);
+                response.put("error", "文件不能为空");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            String algorithm = algorithmName != null && !algorithmName.trim().isEmpty() ? algorithmName : null;
+            Job job = jobService.submit(originalFile.getOriginalFilename(), originalFile.getBytes(),
+                plagiarizedFile.getOriginalFilename(), plagiarizedFile.getBytes(), algorithm);
+            
+            response.put("success", true);
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", "/api/jobs/" + job.getId());
+            response.put("message", "任务已提交");
+            
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/jobs/" + job.getId())
+                .body(response);
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "任务提交失败");
+            
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", RETRY_AFTER_SECONDS)
+                .body(response);
+        } catch (IOException e) {
+            response.put("success", false);
+            response.put("error", "文件读取失败: " + e.getMessage());
+            response.put("message", "任务提交失败");
+            
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "任务提交失败");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * 查询任务状态、进度和结果
+     * 
+     * @param jobId 任务ID
+     * @return 任务信息；任务不存在或结果已过期时返回404
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        Job job = jobService.getJob(jobId);
+        if (job == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "任务不存在或结果已过期: " + jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("jobId", job.getId());
+        response.put("status", job.getStatus());
+        response.put("progress", job.getProgress());
+        response.put("originalFileName", job.getOriginalFileName());
+        response.put("plagiarizedFileName", job.getPlagiarizedFileName());
+        response.put("createdAt", job.getCreatedAt());
+        if (job.getStartedAt() > 0) {
+            response.put("startedAt", job.getStartedAt());
+        }
+        if (job.isFinished()) {
+            response.put("finishedAt", job.getFinishedAt());
+        }
+        
+        if (job.getStatus() == Job.Status.COMPLETED) {
+            response.put("similarity", plagiarismDetectionService.formatSimilarity(job.getSimilarity()));
+            response.put("similarityPercentage", plagiarismDetectionService.formatSimilarityAsPercentage(job.getSimilarity()));
+            if (job.getAlgorithmName() != null) {
+                response.put("algorithm", job.getAlgorithmName());
+            }
+            SimilarityResult result = job.getResult();
+            if (result != null) {
+                response.put("algorithmScores", result.getAlgorithmScores());
+                response.put("partial", result.isPartial());
+            }
+        } else if (job.getStatus() == Job.Status.FAILED) {
+            response.put("error", job.getError());
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 获取任务队列统计信息
+     * 
+     * @return 排队、执行中和保留的任务数
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("jobs", jobService.getStats());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,6 +1,10 @@
 package com.plagiarism.controller;
 
+import com.plagiarism.service.PlagiarismDetectionService;
 import com.plagiarism.util.PerformanceMonitor;
+import com.plagiarism.util.PrometheusFormatter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +23,9 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class PerformanceController {
     
+    @Autowired
+    private PlagiarismDetectionService plagiarismDetectionService;
+    
     /**
      * 获取性能统计信息
      * 
@@ -34,8 +41,14 @@ public class PerformanceController {
             
             response.put("success", true);
             response.put("algorithmStats", algorithmStats);
+            response.put("stageStats", PerformanceMonitor.getStageStats());
+            response.put("requestStats", PerformanceMonitor.getRequestStats());
+            response.put("resourceStats", PerformanceMonitor.getResourceStats());
             response.put("memoryUsage", memoryUsage);
             response.put("formattedMemoryUsage", formatMemoryUsage(memoryUsage));
+            response.put("documentCache", plagiarismDetectionService.getDocumentCacheStats());
+            response.put("caches", PerformanceMonitor.getCacheStats());
+            response.put("executors", PerformanceMonitor.getExecutorStats());
             response.put("message", "获取性能统计信息成功");
             
             return ResponseEntity.ok(response);
@@ -48,6 +61,18 @@ public class PerformanceController {
         }
     }
     
+    /**
+     * 以Prometheus文本格式导出所有指标，供Prometheus直接抓取
+     * 
+     * @return 指标文本
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getPrometheusMetrics() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(PrometheusFormatter.CONTENT_TYPE))
+            .body(PrometheusFormatter.format());
+    }
+    
     /**
      * 清理性能统计信息
      * 
@@ -1,15 +1,39 @@
 package com.plagiarism.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plagiarism.corpus.CorpusMatch;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.EnsemblePlan;
+import com.plagiarism.model.MatchResult;
+import com.plagiarism.model.PairResult;
+import com.plagiarism.model.SimilarityMatrix;
+import com.plagiarism.model.SimilarityResult;
+import com.plagiarism.service.BatchService;
+import com.plagiarism.service.CorpusService;
+import com.plagiarism.service.MatrixService;
 import com.plagiarism.service.PlagiarismDetectionService;
+import com.plagiarism.util.ResourceProfile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 论文查重控制器
@@ -23,37 +47,82 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class PlagiarismController {
     
+    /** 计算线程池已满时建议客户端重试的间隔（秒） */
+    private static final String RETRY_AFTER_SECONDS = "5";
+    
     @Autowired
     private PlagiarismDetectionService plagiarismDetectionService;
     
+    @Autowired
+    private CorpusService corpusService;
+    
+    @Autowired
+    private BatchService batchService;
+    
+    @Autowired
+    private MatrixService matrixService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     /**
      * 计算两个文本的相似度
      * 
      * @param request 包含两个文本的请求对象
+     * @param profile 是否在响应中返回各算法的CPU时间和分配字节数
      * @return 相似度结果
      */
     @PostMapping("/similarity")
-    public ResponseEntity<Map<String, Object>> calculateSimilarity(@RequestBody SimilarityRequest request) {
+    public ResponseEntity<Map<String, Object>> calculateSimilarity(
+            @RequestBody SimilarityRequest request,
+            @RequestParam(value = "profile", defaultValue = "false") boolean profile) {
         Map<String, Object> response = new HashMap<>();
+        ResourceProfile resourceProfile = profile ? new ResourceProfile() : null;
         
+        ResourceProfile.Scope scope = resourceProfile != null ? resourceProfile.open() : null;
         try {
-            double similarity = plagiarismDetectionService.calculateSimilarity(
-                request.getOriginalText(), 
-                request.getPlagiarizedText()
-            );
+            double similarity;
+            SimilarityResult result = null;
+            if (request.getMinSimilarity() != null) {
+                similarity = plagiarismDetectionService.calculateSimilarity(
+                    request.getOriginalText(), 
+                    request.getPlagiarizedText(),
+                    request.getMinSimilarity()
+                );
+            } else {
+                result = plagiarismDetectionService.calculateSimilarityResult(
+                    request.getOriginalText(), 
+                    request.getPlagiarizedText()
+                );
+                similarity = result.getSimilarity();
+            }
             
             response.put("success", true);
             response.put("similarity", plagiarismDetectionService.formatSimilarity(similarity));
             response.put("similarityPercentage", plagiarismDetectionService.formatSimilarityAsPercentage(similarity));
+            if (request.getMinSimilarity() != null) {
+                response.put("minSimilarity", request.getMinSimilarity());
+                response.put("aboveThreshold", similarity >= request.getMinSimilarity());
+            }
+            if (result != null) {
+                putEnsembleDetails(response, result);
+            }
+            putProfile(response, resourceProfile);
             response.put("message", "相似度计算成功");
             
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable(response, e, "相似度计算失败");
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", e.getMessage());
             response.put("message", "相似度计算失败");
             
             return ResponseEntity.badRequest().body(response);
+        } finally {
+            if (scope != null) {
+                scope.close();
+            }
         }
     }
     
@@ -61,12 +130,17 @@ public class PlagiarismController {
      * 使用指定算法计算相似度
      * 
      * @param request 包含两个文本和算法名称的请求对象
+     * @param profile 是否在响应中返回该算法的CPU时间和分配字节数
      * @return 相似度结果
      */
     @PostMapping("/similarity/algorithm")
-    public ResponseEntity<Map<String, Object>> calculateSimilarityWithAlgorithm(@RequestBody AlgorithmSimilarityRequest request) {
+    public ResponseEntity<Map<String, Object>> calculateSimilarityWithAlgorithm(
+            @RequestBody AlgorithmSimilarityRequest request,
+            @RequestParam(value = "profile", defaultValue = "false") boolean profile) {
         Map<String, Object> response = new HashMap<>();
+        ResourceProfile resourceProfile = profile ? new ResourceProfile() : null;
         
+        ResourceProfile.Scope scope = resourceProfile != null ? resourceProfile.open() : null;
         try {
             double similarity = plagiarismDetectionService.calculateSimilarityWithAlgorithm(
                 request.getOriginalText(), 
@@ -78,14 +152,63 @@ public class PlagiarismController {
             response.put("similarity", plagiarismDetectionService.formatSimilarity(similarity));
             response.put("similarityPercentage", plagiarismDetectionService.formatSimilarityAsPercentage(similarity));
             response.put("algorithm", request.getAlgorithmName());
+            putProfile(response, resourceProfile);
             response.put("message", "相似度计算成功");
             
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable(response, e, "相似度计算失败");
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", e.getMessage());
             response.put("message", "相似度计算失败");
             
+            return ResponseEntity.badRequest().body(response);
+        } finally {
+            if (scope != null) {
+                scope.close();
+            }
+        }
+    }
+    
+    /**
+     * 定位两个文本中相同的片段
+     * 计算相似度，并返回相同片段在两个原始文本中的位置，供前端高亮显示；
+     * 未指定算法时使用Winnowing指纹
+     * 
+     * @param request 包含两个文本和算法名称（可选）的请求对象
+     * @return 相似度及相同片段的位置
+     */
+    @PostMapping("/similarity/matches")
+    public ResponseEntity<Map<String, Object>> findMatches(@RequestBody AlgorithmSimilarityRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            String algorithmName = request.getAlgorithmName() != null && !request.getAlgorithmName().trim().isEmpty()
+                ? request.getAlgorithmName() : plagiarismDetectionService.getMatchAlgorithmName();
+            // 一次计算同时给出相似度和片段位置；不支持定位的算法在计算之前就被拒绝
+            MatchResult result = plagiarismDetectionService.locateMatches(
+                request.getOriginalText(), 
+                request.getPlagiarizedText(),
+                algorithmName
+            );
+            double similarity = result.getSimilarity();
+            
+            response.put("success", true);
+            response.put("similarity", plagiarismDetectionService.formatSimilarity(similarity));
+            response.put("similarityPercentage", plagiarismDetectionService.formatSimilarityAsPercentage(similarity));
+            response.put("algorithm", algorithmName);
+            response.put("matches", result.getMatches());
+            response.put("message", "相同片段定位成功");
+            
+            return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable(response, e, "相同片段定位失败");
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "相同片段定位失败");
+            
             return ResponseEntity.badRequest().body(response);
         }
     }
@@ -96,16 +219,20 @@ public class PlagiarismController {
      * @param originalFile 原文文件
      * @param plagiarizedFile 抄袭文件
      * @param algorithmName 算法名称（可选）
+     * @param profile 是否在响应中返回各算法的CPU时间和分配字节数
      * @return 相似度结果
      */
     @PostMapping("/similarity/upload")
     public ResponseEntity<Map<String, Object>> calculateSimilarityFromFiles(
             @RequestParam("originalFile") MultipartFile originalFile,
             @RequestParam("plagiarizedFile") MultipartFile plagiarizedFile,
-            @RequestParam(value = "algorithmName", required = false) String algorithmName) {
+            @RequestParam(value = "algorithmName", required = false) String algorithmName,
+            @RequestParam(value = "profile", defaultValue = "false") boolean profile) {
         
         Map<String, Object> response = new HashMap<>();
+        ResourceProfile resourceProfile = profile ? new ResourceProfile() : null;
         
+        ResourceProfile.Scope scope = resourceProfile != null ? resourceProfile.open() : null;
         try {
             // 检查文件是否为空
             if (originalFile.isEmpty() || plagiarizedFile.isEmpty()) {
@@ -114,17 +241,15 @@ public class PlagiarismController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // 读取文件内容
-            String originalText = new String(originalFile.getBytes(), "UTF-8");
-            String plagiarizedText = new String(plagiarizedFile.getBytes(), "UTF-8");
-            
-            // 计算相似度
+            // 分块读取上传内容并按UTF-8流式解码，由服务层按内容哈希缓存预处理结果
             double similarity;
+            SimilarityResult result = null;
             if (algorithmName != null && !algorithmName.trim().isEmpty()) {
-                similarity = plagiarismDetectionService.calculateSimilarityWithAlgorithm(
-                    originalText, plagiarizedText, algorithmName);
+                similarity = plagiarismDetectionService.calculateSourceSimilarityWithAlgorithm(
+                    originalFile, plagiarizedFile, algorithmName);
             } else {
-                similarity = plagiarismDetectionService.calculateSimilarity(originalText, plagiarizedText);
+                result = plagiarismDetectionService.calculateSourceSimilarityResult(originalFile, plagiarizedFile);
+                similarity = result.getSimilarity();
             }
             
             response.put("success", true);
@@ -135,6 +260,10 @@ public class PlagiarismController {
             if (algorithmName != null && !algorithmName.trim().isEmpty()) {
                 response.put("algorithm", algorithmName);
             }
+            if (result != null) {
+                putEnsembleDetails(response, result);
+            }
+            putProfile(response, resourceProfile);
             response.put("message", "相似度计算成功");
             
             return ResponseEntity.ok(response);
@@ -144,12 +273,296 @@ public class PlagiarismController {
             response.put("message", "相似度计算失败");
             
             return ResponseEntity.badRequest().body(response);
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable(response, e, "相似度计算失败");
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", e.getMessage());
             response.put("message", "相似度计算失败");
             
             return ResponseEntity.badRequest().body(response);
+        } finally {
+            if (scope != null) {
+                scope.close();
+            }
+        }
+    }
+    
+    /**
+     * 批量比对多篇文档，以NDJSON（每行一个JSON对象）流式返回结果
+     * 第一行列出文档和文档对数；之后每完成一对文档输出一行，按完成顺序而非文档顺序；
+     * 最后一行为汇总信息。客户端无需等待整批完成即可看到结果。
+     * 
+     * @param files 文档文件，zip压缩包会展开为其中的每个文件
+     * @param reference 参照文档名称（可选）：指定时只比对该文档与其余文档，否则两两比对
+     * @return 流式比对结果；文档读取或参数校验失败时返回JSON格式的错误信息
+     */
+    @PostMapping("/similarity/batch")
+    public ResponseEntity<StreamingResponseBody> compareBatch(
+            @RequestParam("files") MultipartFile[] files,
+            @RequestParam(value = "reference", required = false) String reference) {
+        
+        String referenceName = reference != null && !reference.trim().isEmpty() ? reference : null;
+        Map<String, AnalyzedDocument> documents;
+        try {
+            Map<String, InputStreamSource> contents = readDocuments(files);
+            if (referenceName != null && !contents.containsKey(referenceName)) {
+                throw new IllegalArgumentException("参照文档不存在: " + referenceName);
+            }
+            documents = batchService.analyzeSources(contents);
+        } catch (IOException e) {
+            return streamingError("文件读取失败: " + e.getMessage(), "批量比对失败");
+        } catch (RejectedExecutionException e) {
+            return streamingUnavailable(e, "批量比对失败");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return streamingError("文档预处理被中断", "批量比对失败");
+        } catch (Exception e) {
+            return streamingError(e.getMessage(), "批量比对失败");
+        }
+        
+        StreamingResponseBody body = out -> {
+            long startTime = System.currentTimeMillis();
+            int pairs = batchService.countPairs(documents.size(), referenceName);
+            
+            Map<String, Object> start = new LinkedHashMap<>();
+            start.put("type", "start");
+            start.put("documents", new ArrayList<>(documents.keySet()));
+            start.put("pairs", pairs);
+            if (referenceName != null) {
+                start.put("reference", referenceName);
+            }
+            writeLine(out, start);
+            
+            try {
+                batchService.compare(documents, referenceName, result -> writeLine(out, toBatchLine(result)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("批量比对被中断");
+            }
+            
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("type", "summary");
+            summary.put("documents", documents.size());
+            summary.put("pairs", pairs);
+            summary.put("elapsedMillis", System.currentTimeMillis() - startTime);
+            writeLine(out, summary);
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+    
+    /**
+     * 计算多篇文档两两之间的相似度矩阵
+     * 只计算上三角并分块并行；指定阈值时，由长度等统计量可判定达不到阈值的文档对不做计算，记为0。
+     * 
+     * @param files 文档文件，zip压缩包会展开为其中的每个文件
+     * @param threshold 相似度阈值（可选，默认0即完整矩阵）
+     * @param algorithmName 算法名称（可选，默认使用多算法平均值）
+     * @param minShingleSimilarity MinHash 预筛选下限（可选，默认不启用；启用后结果是近似的）
+     * @param format 输出格式：json（默认）或csv
+     * @return 相似度矩阵；文档读取或参数校验失败时返回JSON格式的错误信息
+     */
+    @PostMapping("/similarity/matrix")
+    public ResponseEntity<StreamingResponseBody> computeMatrix(
+            @RequestParam("files") MultipartFile[] files,
+            @RequestParam(value = "threshold", defaultValue = "0") double threshold,
+            @RequestParam(value = "algorithmName", required = false) String algorithmName,
+            @RequestParam(value = "minShingleSimilarity", defaultValue = "0") double minShingleSimilarity,
+            @RequestParam(value = "format", defaultValue = "json") String format) {
+        
+        boolean csv = "csv".equalsIgnoreCase(format);
+        SimilarityMatrix matrix;
+        try {
+            if (!csv && !"json".equalsIgnoreCase(format)) {
+                throw new IllegalArgumentException("不支持的输出格式: " + format);
+            }
+            String algorithm = algorithmName != null && !algorithmName.trim().isEmpty() ? algorithmName : null;
+            Map<String, AnalyzedDocument> documents = batchService.analyzeSources(readDocuments(files));
+            matrix = matrixService.compute(documents, threshold, algorithm, minShingleSimilarity);
+        } catch (IOException e) {
+            return streamingError("文件读取失败: " + e.getMessage(), "相似度矩阵计算失败");
+        } catch (RejectedExecutionException e) {
+            return streamingUnavailable(e, "相似度矩阵计算失败");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return streamingError("文档预处理被中断", "相似度矩阵计算失败");
+        } catch (Exception e) {
+            return streamingError(e.getMessage(), "相似度矩阵计算失败");
+        }
+        
+        if (csv) {
+            StreamingResponseBody body = out -> {
+                // 带BOM，Excel才能正确识别UTF-8编码的中文文件名
+                out.write(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                matrix.writeCsv(writer);
+            };
+            return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header("Content-Disposition", "attachment; filename=\"similarity-matrix.csv\"")
+                .body(body);
+        }
+        
+        StreamingResponseBody body = out -> {
+            int n = matrix.getDocuments().size();
+            List<float[]> rows = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                float[] row = new float[n];
+                for (int j = 0; j < n; j++) {
+                    row[j] = matrix.get(i, j);
+                }
+                rows.add(row);
+            }
+            
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.put("documents", matrix.getDocuments());
+            response.put("threshold", matrix.getThreshold());
+            response.put("stats", matrix.getStats());
+            response.put("matrix", rows);
+            out.write(objectMapper.writeValueAsBytes(response));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+    
+    /**
+     * 读取上传的文件，展开其中的zip压缩包；不同文件中的文档不能重名。
+     * 普通文件不读入内存，预处理时直接从上传内容流式读取，只有压缩包中的文件解压到内存中
+     */
+    private Map<String, InputStreamSource> readDocuments(MultipartFile[] files) throws IOException {
+        Map<String, InputStreamSource> contents = new LinkedHashMap<>();
+        // 所有文件共用一个配额，多个压缩包合计的文档数和解压后大小同样受限
+        BatchService.ExtractionBudget budget = batchService.newExtractionBudget();
+        for (MultipartFile file : files) {
+            Map<String, InputStreamSource> extracted = batchService.extractSources(
+                file.getOriginalFilename(), file.getSize(), file, budget);
+            for (Map.Entry<String, InputStreamSource> entry : extracted.entrySet()) {
+                if (contents.put(entry.getKey(), entry.getValue()) != null) {
+                    throw new IllegalArgumentException("文档名称重复: " + entry.getKey());
+                }
+            }
+        }
+        return contents;
+    }
+    
+    /**
+     * 开始计算前的错误：流式响应的返回类型固定，错误信息同样以流的形式写出
+     */
+    private ResponseEntity<StreamingResponseBody> streamingError(String error, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", error);
+        response.put("message", message);
+        
+        return ResponseEntity.badRequest()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> writeLine(out, response));
+    }
+    
+    /**
+     * 批量线程池已满时返回503，提示客户端稍后重试
+     */
+    private ResponseEntity<StreamingResponseBody> streamingUnavailable(RejectedExecutionException e, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        response.put("message", message);
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", RETRY_AFTER_SECONDS)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> writeLine(out, response));
+    }
+    
+    /**
+     * 将一对文档的比对结果转换为NDJSON中的一行
+     */
+    private Map<String, Object> toBatchLine(PairResult pair) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "pair");
+        line.put("first", pair.getFirstDocument());
+        line.put("second", pair.getSecondDocument());
+        if (pair.getResult() == null) {
+            line.put("success", false);
+            line.put("error", pair.getError());
+            return line;
+        }
+        
+        double similarity = pair.getResult().getSimilarity();
+        line.put("success", true);
+        line.put("similarity", plagiarismDetectionService.formatSimilarity(similarity));
+        line.put("similarityPercentage", plagiarismDetectionService.formatSimilarityAsPercentage(similarity));
+        putEnsembleDetails(line, pair.getResult());
+        return line;
+    }
+    
+    /**
+     * 写出一行JSON并立即刷新，使客户端尽早收到结果
+     */
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(objectMapper.writeValueAsString(line).getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+        out.flush();
+    }
+    
+    /**
+     * 写入各算法得分和所用的计算方案；有算法超时或失败时标记为部分结果，并列出未计入平均值的算法
+     * 
+     * @param response 响应内容
+     * @param result 相似度结果
+     */
+    private void putEnsembleDetails(Map<String, Object> response, SimilarityResult result) {
+        response.put("algorithmScores", result.getAlgorithmScores());
+        response.put("partial", result.isPartial());
+        if (!result.getTimedOutAlgorithms().isEmpty()) {
+            response.put("timedOutAlgorithms", result.getTimedOutAlgorithms());
+        }
+        if (!result.getFailedAlgorithms().isEmpty()) {
+            response.put("failedAlgorithms", result.getFailedAlgorithms());
+        }
+        EnsemblePlan plan = result.getPlan();
+        if (plan != null) {
+            Map<String, Object> planDetails = new LinkedHashMap<>();
+            planDetails.put("name", plan.getName());
+            planDetails.put("algorithms", plan.getAlgorithms());
+            planDetails.put("estimatedMillis", plan.getEstimatedNanos() / 1_000_000.0);
+            if (plan.getBudgetNanos() > 0) {
+                planDetails.put("budgetMillis", plan.getBudgetNanos() / 1_000_000.0);
+            }
+            planDetails.put("withinBudget", plan.isWithinBudget());
+            response.put("plan", planDetails);
+        }
+    }
+    
+    /**
+     * 计算线程池已满时返回503，提示客户端稍后重试，而不是返回少算了几个算法的得分
+     */
+    private ResponseEntity<Map<String, Object>> serviceUnavailable(Map<String, Object> response,
+                                                                   RejectedExecutionException e, String message) {
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        response.put("message", message);
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", RETRY_AFTER_SECONDS)
+            .body(response);
+    }
+    
+    /**
+     * 请求了资源明细时写入各算法的CPU时间和分配字节数；服务未开启资源统计时明细为空
+     * 
+     * @param response 响应内容
+     * @param resourceProfile 本次请求的明细，未请求时为null
+     */
+    private void putProfile(Map<String, Object> response, ResourceProfile resourceProfile) {
+        if (resourceProfile != null) {
+            response.put("profile", resourceProfile.toMap());
         }
     }
     
@@ -179,6 +592,141 @@ public class PlagiarismController {
         }
     }
     
+    /**
+     * 向语料库收录文档
+     * 
+     * @param request 包含文档ID和内容的请求对象
+     * @return 操作结果
+     */
+    @PostMapping("/corpus/documents")
+    public ResponseEntity<Map<String, Object>> indexCorpusDocument(@RequestBody CorpusDocumentRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            corpusService.indexDocument(request.getDocumentId(), request.getText());
+            
+            response.put("success", true);
+            response.put("documentId", request.getDocumentId());
+            response.put("corpusSize", corpusService.size());
+            response.put("message", "文档收录成功");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "文档收录失败");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * 从语料库删除文档
+     * 
+     * @param documentId 文档ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/corpus/documents/{documentId}")
+    public ResponseEntity<Map<String, Object>> removeCorpusDocument(@PathVariable String documentId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (!corpusService.removeDocument(documentId)) {
+            response.put("success", false);
+            response.put("error", "文档不存在: " + documentId);
+            response.put("message", "文档删除失败");
+            
+            return ResponseEntity.status(404).body(response);
+        }
+        
+        response.put("success", true);
+        response.put("documentId", documentId);
+        response.put("corpusSize", corpusService.size());
+        response.put("message", "文档删除成功");
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 在语料库中检索相似文档
+     * 
+     * @param request 包含查询文本、返回数量和最低得分的请求对象
+     * @return 检索结果
+     */
+    @PostMapping("/corpus/search")
+    public ResponseEntity<Map<String, Object>> searchCorpus(@RequestBody CorpusSearchRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            int topK = request.getTopK() != null ? request.getTopK() : CorpusService.DEFAULT_TOP_K;
+            double minScore = request.getMinScore() != null ? request.getMinScore() : 0.0;
+            List<CorpusMatch> matches = corpusService.findSimilar(request.getText(), topK, minScore);
+            
+            response.put("success", true);
+            response.put("matches", matches);
+            response.put("corpusSize", corpusService.size());
+            response.put("message", "检索成功");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "检索失败");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * 在语料库中查找近似重复的文档
+     * 通过 MinHash/LSH 取得候选后，使用精确算法打分
+     * 
+     * @param request 包含查询文本、返回数量、最低相似度和算法名称（可选）的请求对象
+     * @return 检索结果
+     */
+    @PostMapping("/corpus/near-duplicates")
+    public ResponseEntity<Map<String, Object>> findNearDuplicates(@RequestBody CorpusSearchRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            int topK = request.getTopK() != null ? request.getTopK() : CorpusService.DEFAULT_TOP_K;
+            double minScore = request.getMinScore() != null ? request.getMinScore() : 0.0;
+            String algorithmName = request.getAlgorithmName() != null && !request.getAlgorithmName().trim().isEmpty()
+                ? request.getAlgorithmName() : null;
+            List<CorpusMatch> matches = corpusService.findNearDuplicates(request.getText(), topK, minScore, algorithmName);
+            
+            response.put("success", true);
+            response.put("matches", matches);
+            response.put("corpusSize", corpusService.size());
+            if (algorithmName != null) {
+                response.put("algorithm", algorithmName);
+            }
+            response.put("message", "检索成功");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "检索失败");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * 获取语料库统计信息
+     * 
+     * @return 文档数、不同shingle数、倒排记录总数
+     */
+    @GetMapping("/corpus/stats")
+    public ResponseEntity<Map<String, Object>> getCorpusStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stats", corpusService.getStats());
+        response.put("message", "获取语料库统计信息成功");
+        
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * 健康检查接口
      * 
@@ -200,6 +748,7 @@ public class PlagiarismController {
     public static class SimilarityRequest {
         private String originalText;
         private String plagiarizedText;
+        private Double minSimilarity;
         
         public String getOriginalText() {
             return originalText;
@@ -216,6 +765,14 @@ public class PlagiarismController {
         public void setPlagiarizedText(String plagiarizedText) {
             this.plagiarizedText = plagiarizedText;
         }
+        
+        public Double getMinSimilarity() {
+            return minSimilarity;
+        }
+        
+        public void setMinSimilarity(Double minSimilarity) {
+            this.minSimilarity = minSimilarity;
+        }
     }
     
     /**
@@ -250,4 +807,70 @@ public class PlagiarismController {
             this.algorithmName = algorithmName;
         }
     }
+    
+    /**
+     * 语料库文档收录请求对象
+     */
+    public static class CorpusDocumentRequest {
+        private String documentId;
+        private String text;
+        
+        public String getDocumentId() {
+            return documentId;
+        }
+        
+        public void setDocumentId(String documentId) {
+            this.documentId = documentId;
+        }
+        
+        public String getText() {
+            return text;
+        }
+        
+        public void setText(String text) {
+            this.text = text;
+        }
+    }
+    
+    /**
+     * 语料库检索请求对象
+     */
+    public static class CorpusSearchRequest {
+        private String text;
+        private Integer topK;
+        private Double minScore;
+        private String algorithmName;
+        
+        public String getText() {
+            return text;
+        }
+        
+        public void setText(String text) {
+            this.text = text;
+        }
+        
+        public Integer getTopK() {
+            return topK;
+        }
+        
+        public void setTopK(Integer topK) {
+            this.topK = topK;
+        }
+        
+        public Double getMinScore() {
+            return minScore;
+        }
+        
+        public void setMinScore(Double minScore) {
+            this.minScore = minScore;
+        }
+        
+        public String getAlgorithmName() {
+            return algorithmName;
+        }
+        
+        public void setAlgorithmName(String algorithmName) {
+            this.algorithmName = algorithmName;
+        }
+    }
 }
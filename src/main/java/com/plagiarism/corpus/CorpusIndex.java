@@ -0,0 +1,395 @@
+package com.plagiarism.corpus;
+
+import com.plagiarism.model.AnalyzedDocument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存中的语料库倒排索引
+ * 以文档的shingle集合建立倒排表。检索时只遍历查询文档shingle对应的倒排列表，
+ * 统计每个候选文档的共同shingle数，不与其余文档做任何比较，
+ * 因此检索耗时与候选数量相关，而与语料库规模基本无关。
+ * 
+ * <p>另外为每篇文档计算 MinHash 签名，按LSH（局部敏感哈希）分段建立桶索引：
+ * 签名分为 bands 段，每段的取值哈希为一个桶，任一段完全相同的文档互为候选。
+ * Jaccard 系数为 s 的两篇文档成为候选的概率为 1 - (1 - s^r)^b（r 为每段行数），
+ * 近似重复的文档几乎必然入选，不相似的文档几乎不会入选，候选查找只访问 b 个桶。</p>
+ * 
+ * <p>文档编号是 {@link #documents} 中的下标，删除文档后空出的编号由后加入的文档复用，
+ * 反复替换或删除文档时编号范围不会增长。</p>
+ * 
+ * <p>读写锁保护：检索可以并发执行，加入和删除文档时独占。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public class CorpusIndex {
+    
+    /** 默认的 MinHash 哈希函数个数 */
+    public static final int DEFAULT_MINHASH_FUNCTIONS = 128;
+    
+    /** 默认的LSH分段数 */
+    public static final int DEFAULT_LSH_BANDS = 32;
+    
+    private static final Comparator<CorpusMatch> BY_SCORE = Comparator
+        .comparingDouble(CorpusMatch::getScore)
+        .thenComparing(CorpusMatch::getDocumentId, Comparator.reverseOrder());
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> documentNumbers = new HashMap<>();
+    /** 按文档编号保存，已删除的文档为null */
+    private final List<IndexedDocument> documents = new ArrayList<>();
+    /** 已删除文档空出的编号，加入文档时优先复用 */
+    private int[] freeNumbers = new int[16];
+    private int freeCount;
+    private final PostingLists postings = new PostingLists();
+    
+    private final MinHasher minHasher;
+    private final int bands;
+    private final int rowsPerBand;
+    /** LSH桶：键为 (段号, 段内签名) 的哈希，值为文档编号列表 */
+    private final PostingLists bandBuckets = new PostingLists();
+    
+    public CorpusIndex() {
+        this(DEFAULT_MINHASH_FUNCTIONS, DEFAULT_LSH_BANDS);
+    }
+    
+    /**
+     * 创建语料库索引
+     * 
+     * @param minHashFunctions MinHash 哈希函数个数，越多估计越准确，建索引越慢
+     * @param bands LSH分段数，必须整除哈希函数个数；分段越多召回率越高，候选也越多
+     */
+    public CorpusIndex(int minHashFunctions, int bands) {
+        if (bands <= 0 || minHashFunctions % bands != 0) {
+            throw new IllegalArgumentException("LSH分段数必须为正数且整除MinHash哈希函数个数");
+        }
+        this.minHasher = new MinHasher(minHashFunctions);
+        this.bands = bands;
+        this.rowsPerBand = minHashFunctions / bands;
+    }
+    
+    /**
+     * 加入文档，ID已存在时替换原文档
+     * 
+     * @param documentId 文档ID
+     * @param document 预处理完成的文档
+     */
+    public void index(String documentId, AnalyzedDocument document) {
+        // 签名计算与索引无关，在锁外完成
+        int[] signature = minHasher.signature(document.getShingles());
+        lock.writeLock().lock();
+        try {
+            removeInternal(documentId);
+            IndexedDocument indexed = new IndexedDocument(documentId, document, signature);
+            int number;
+            if (freeCount > 0) {
+                number = freeNumbers[--freeCount];
+                documents.set(number, indexed);
+            } else {
+                number = documents.size();
+                documents.add(indexed);
+            }
+            documentNumbers.put(documentId, number);
+            for (int shingle : document.getShingles()) {
+                postings.add(shingle, number);
+            }
+            if (document.getShingles().length > 0) {
+                for (int band = 0; band < bands; band++) {
+                    bandBuckets.add(bandKey(signature, band), number);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 删除文档
+     * 
+     * @param documentId 文档ID
+     * @return 文档存在并被删除时返回true
+     */
+    public boolean remove(String documentId) {
+        lock.writeLock().lock();
+        try {
+            return removeInternal(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private boolean removeInternal(String documentId) {
+        Integer number = documentNumbers.remove(documentId);
+        if (number == null) {
+            return false;
+        }
+        IndexedDocument removed = documents.set(number, null);
+        for (int shingle : removed.document.getShingles()) {
+            postings.remove(shingle, number);
+        }
+        if (removed.document.getShingles().length > 0) {
+            for (int band = 0; band < bands; band++) {
+                bandBuckets.remove(bandKey(removed.signature, band), number);
+            }
+        }
+        if (freeCount == freeNumbers.length) {
+            freeNumbers = Arrays.copyOf(freeNumbers, freeCount * 2);
+        }
+        freeNumbers[freeCount++] = number;
+        return true;
+    }
+    
+    private int bandKey(int[] signature, int band) {
+        int hash = band * 0x9E3779B9;
+        for (int i = band * rowsPerBand, end = i + rowsPerBand; i < end; i++) {
+            hash = (hash ^ signature[i]) * 0x01000193;
+        }
+        hash ^= hash >>> 15;
+        hash *= 0x2c1b3c6d;
+        hash ^= hash >>> 12;
+        return hash;
+    }
+    
+    /**
+     * 通过LSH桶查找近似重复的候选文档
+     * 只访问查询签名对应的 bands 个桶，不遍历语料库；
+     * 候选可能包含少量桶哈希冲突带来的误报，调用方应使用精确算法重新打分。
+     * 
+     * @param query 预处理完成的查询文档
+     * @return 候选文档，键为文档ID
+     */
+    public Map<String, AnalyzedDocument> lshCandidates(AnalyzedDocument query) {
+        Map<String, AnalyzedDocument> candidates = new LinkedHashMap<>();
+        if (query.getShingles().length == 0) {
+            return candidates;
+        }
+        int[] signature = minHasher.signature(query.getShingles());
+        
+        lock.readLock().lock();
+        try {
+            for (int band = 0; band < bands; band++) {
+                int slot = bandBuckets.find(bandKey(signature, band));
+                if (slot < 0) {
+                    continue;
+                }
+                int[] list = bandBuckets.postings(slot);
+                for (int i = 0, n = bandBuckets.size(slot); i < n; i++) {
+                    IndexedDocument candidate = documents.get(list[i]);
+                    candidates.putIfAbsent(candidate.documentId, candidate.document);
+                }
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 获取文档的 MinHash 签名
+     * 
+     * @param documentId 文档ID
+     * @return 签名，文档不存在时返回null
+     */
+    public int[] getSignature(String documentId) {
+        lock.readLock().lock();
+        try {
+            Integer number = documentNumbers.get(documentId);
+            return number == null ? null : documents.get(number).signature;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 获取签名生成器，用于在索引外计算与语料库兼容的签名
+     * 
+     * @return 签名生成器
+     */
+    public MinHasher getMinHasher() {
+        return minHasher;
+    }
+    
+    /**
+     * 检索与查询文档相似的文档
+     * 
+     * @param query 预处理完成的查询文档
+     * @param topK 最多返回的文档数
+     * @param minScore 最低得分（shingle集合的Jaccard系数）
+     * @return 按得分从高到低排列的检索结果
+     */
+    public List<CorpusMatch> search(AnalyzedDocument query, int topK, double minScore) {
+        int[] queryShingles = query.getShingles();
+        if (topK <= 0 || queryShingles.length == 0) {
+            return new ArrayList<>();
+        }
+        
+        lock.readLock().lock();
+        try {
+            // 遍历查询文档每个shingle的倒排列表，累计各候选文档的共同shingle数；
+            // 计数表只为出现过的候选分配空间，与语料库规模无关
+            OverlapCounter overlaps = new OverlapCounter();
+            for (int shingle : queryShingles) {
+                int slot = postings.find(shingle);
+                if (slot < 0) {
+                    continue;
+                }
+                int[] list = postings.postings(slot);
+                for (int i = 0, n = postings.size(slot); i < n; i++) {
+                    overlaps.increment(list[i]);
+                }
+            }
+            
+            // 小顶堆保留得分最高的topK个候选
+            PriorityQueue<CorpusMatch> heap = new PriorityQueue<>(Math.min(topK, overlaps.size) + 1, BY_SCORE);
+            for (int slot = 0; slot < overlaps.keys.length; slot++) {
+                if (overlaps.keys[slot] == 0) {
+                    continue;
+                }
+                IndexedDocument candidate = documents.get(overlaps.keys[slot] - 1);
+                int overlap = overlaps.counts[slot];
+                int candidateSize = candidate.document.getShingles().length;
+                double score = (double) overlap / (queryShingles.length + candidateSize - overlap);
+                if (score < minScore) {
+                    continue;
+                }
+                CorpusMatch match = new CorpusMatch(candidate.documentId, score,
+                    (double) overlap / queryShingles.length, overlap);
+                if (heap.size() < topK) {
+                    heap.add(match);
+                } else if (BY_SCORE.compare(match, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(match);
+                }
+            }
+            
+            List<CorpusMatch> matches = new ArrayList<>(heap);
+            matches.sort(BY_SCORE.reversed());
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 获取语料库中的文档
+     * 
+     * @param documentId 文档ID
+     * @return 预处理完成的文档，不存在时返回null
+     */
+    public AnalyzedDocument getDocument(String documentId) {
+        lock.readLock().lock();
+        try {
+            Integer number = documentNumbers.get(documentId);
+            return number == null ? null : documents.get(number).document;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 获取文档数量
+     * 
+     * @return 文档数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 获取索引统计信息
+     * 
+     * @return 文档数、不同shingle数、倒排记录总数及LSH配置和桶数
+     */
+    public Map<String, Long> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("documents", (long) documentNumbers.size());
+            stats.put("shingles", (long) postings.keyCount());
+            stats.put("postings", postings.postingCount());
+            stats.put("minHashFunctions", (long) minHasher.getNumHashes());
+            stats.put("lshBands", (long) bands);
+            stats.put("lshBuckets", (long) bandBuckets.keyCount());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 候选文档的共同shingle计数：以文档编号为键的开放寻址哈希表，键和计数都是int
+     */
+    private static final class OverlapCounter {
+        /** 文档编号加1，0表示空槽位 */
+        int[] keys = new int[64];
+        int[] counts = new int[64];
+        int size;
+        
+        void increment(int number) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int key = number + 1;
+            int mask = keys.length - 1;
+            int slot = spread(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+        
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new int[capacity];
+            counts = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) {
+                    continue;
+                }
+                int slot = spread(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+        
+        private static int spread(int key) {
+            int hash = key * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+    
+    private static final class IndexedDocument {
+        final String documentId;
+        final AnalyzedDocument document;
+        final int[] signature;
+        
+        IndexedDocument(String documentId, AnalyzedDocument document, int[] signature) {
+            this.documentId = documentId;
+            this.document = document;
+            this.signature = signature;
+        }
+    }
+}
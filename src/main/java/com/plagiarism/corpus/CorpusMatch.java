@@ -0,0 +1,59 @@
+package com.plagiarism.corpus;
+
+/**
+ * 语料库检索结果
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class CorpusMatch {
+    
+    private final String documentId;
+    private final double score;
+    private final double containment;
+    private final int sharedShingles;
+    
+    public CorpusMatch(String documentId, double score, double containment, int sharedShingles) {
+        this.documentId = documentId;
+        this.score = score;
+        this.containment = containment;
+        this.sharedShingles = sharedShingles;
+    }
+    
+    /**
+     * 获取语料库中的文档ID
+     * 
+     * @return 文档ID
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+    
+    /**
+     * 获取相似度得分
+     * 倒排检索时为两篇文档shingle集合的Jaccard系数；近似重复检索时为精确算法的相似度
+     * 
+     * @return 得分，范围[0, 1]
+     */
+    public double getScore() {
+        return score;
+    }
+    
+    /**
+     * 获取包含度：查询文档的shingle中出现在该文档中的比例
+     * 
+     * @return 包含度，范围[0, 1]
+     */
+    public double getContainment() {
+        return containment;
+    }
+    
+    /**
+     * 获取共同shingle数量
+     * 
+     * @return 共同shingle数量
+     */
+    public int getSharedShingles() {
+        return sharedShingles;
+    }
+}
@@ -0,0 +1,162 @@
+package com.plagiarism.corpus;
+
+import java.util.Arrays;
+
+/**
+ * 倒排表
+ * 以开放寻址哈希表保存 shingle 哈希到文档编号列表的映射，键和编号都是int，
+ * 不产生装箱对象。每个倒排列表按文档编号升序保存：新文档通常取得最大的编号，直接追加；
+ * 复用已删除文档的编号时按顺序插入。
+ * 
+ * <p>本类不是线程安全的，由 {@link CorpusIndex} 负责加锁。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+final class PostingLists {
+    
+    private static final int[] EMPTY = new int[0];
+    
+    private int[] keys;
+    /** 为null表示该槽位未被使用 */
+    private int[][] lists;
+    private int[] sizes;
+    private int keyCount;
+    private long postingCount;
+    
+    PostingLists() {
+        allocate(1024);
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        lists = new int[capacity][];
+        sizes = new int[capacity];
+    }
+    
+    /**
+     * 查找键所在的槽位
+     * 
+     * @param key shingle 哈希
+     * @return 槽位下标，不存在时返回-1
+     */
+    int find(int key) {
+        int mask = keys.length - 1;
+        for (int slot = spread(key) & mask; ; slot = (slot + 1) & mask) {
+            if (lists[slot] == null) {
+                return -1;
+            }
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+    }
+    
+    int[] postings(int slot) {
+        return lists[slot];
+    }
+    
+    int size(int slot) {
+        return sizes[slot];
+    }
+    
+    /**
+     * 加入文档编号，保持列表升序；编号大于列表中已有的编号时直接追加
+     * 
+     * @param key shingle 哈希
+     * @param documentNumber 文档编号
+     */
+    void add(int key, int documentNumber) {
+        if ((keyCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = spread(key) & mask;
+        while (lists[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (lists[slot] == null) {
+            keys[slot] = key;
+            lists[slot] = EMPTY;
+            keyCount++;
+        }
+        
+        int[] list = lists[slot];
+        int size = sizes[slot];
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size + (size >> 1)));
+            lists[slot] = list;
+        }
+        if (size == 0 || list[size - 1] < documentNumber) {
+            list[size] = documentNumber;
+        } else {
+            int index = Arrays.binarySearch(list, 0, size, documentNumber);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            System.arraycopy(list, index, list, index + 1, size - index);
+            list[index] = documentNumber;
+        }
+        sizes[slot] = size + 1;
+        postingCount++;
+    }
+    
+    /**
+     * 从倒排列表中移除文档编号；列表变空时保留槽位，避免破坏探测序列
+     * 
+     * @param key shingle 哈希
+     * @param documentNumber 文档编号
+     */
+    void remove(int key, int documentNumber) {
+        int slot = find(key);
+        if (slot < 0) {
+            return;
+        }
+        int[] list = lists[slot];
+        int size = sizes[slot];
+        int index = Arrays.binarySearch(list, 0, size, documentNumber);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(list, index + 1, list, index, size - index - 1);
+        sizes[slot] = size - 1;
+        postingCount--;
+    }
+    
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[][] oldLists = lists;
+        int[] oldSizes = sizes;
+        allocate(capacity);
+        int mask = capacity - 1;
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            // 重建时顺便丢弃已经清空的列表
+            if (oldLists[i] == null || oldSizes[i] == 0) {
+                continue;
+            }
+            int slot = spread(oldKeys[i]) & mask;
+            while (lists[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            lists[slot] = oldLists[i];
+            sizes[slot] = oldSizes[i];
+            live++;
+        }
+        keyCount = live;
+    }
+    
+    private static int spread(int key) {
+        return key ^ (key >>> 16);
+    }
+    
+    int keyCount() {
+        return keyCount;
+    }
+    
+    long postingCount() {
+        return postingCount;
+    }
+}
@@ -0,0 +1,687 @@
+package com.plagiarism.model;
+
+import com.plagiarism.util.MappedTextReader;
+import com.plagiarism.util.TermDictionary;
+import com.plagiarism.util.TextNormalizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * 预处理完成的文档
+ * 一篇文档只做一次规范化和分词，结果以不可变的形式保存，供所有相似度算法共用：
+ * <ul>
+ *   <li>规范化文本：编辑距离等基于字符序列的算法使用；</li>
+ *   <li>词ID序列：按空格切分出的词在 {@link TermDictionary} 中的ID，文档记录所用的词典，
+ *       词ID只在同一词典分析的文档之间可比，见 {@link #inDictionaryOf(AnalyzedDocument)}；</li>
+ *   <li>词项视图：排序去重后的词项ID及其出现次数，并预先构建为 {@link SparseVector}，
+ *       余弦相似度使用；</li>
+ *   <li>字符集合视图：排序去重后的字符，Jaccard相似度使用；</li>
+ *   <li>shingle集合：去掉词分隔符后每连续 {@link #SHINGLE_SIZE} 个字符的哈希值，
+ *       排序去重，语料库检索使用；</li>
+ *   <li>指纹集合：Winnowing等算法首次比较时由规范化文本导出并缓存，见 {@link #getFingerprints(long, Function)}。</li>
+ * </ul>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class AnalyzedDocument {
+    
+    /** shingle长度（字符数） */
+    public static final int SHINGLE_SIZE = 5;
+    
+    /** 流式分析时每次读取和解码的字节数 */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    
+    private static final AnalyzedDocument EMPTY = new AnalyzedDocument("", null, new int[0], new int[0], new int[0], new char[0], new int[0]);
+    
+    private final String normalizedText;
+    private final TermDictionary dictionary;
+    private final int[] tokenIds;
+    private final int[] termIds;
+    private final int[] termFrequencies;
+    private final char[] characterSet;
+    private final SparseVector termVector;
+    private final SparseVector termSetVector;
+    private final SparseVector simpleTermSetVector;
+    private final int[] shingles;
+    /** 延迟计算的指纹集合，未计算时为null */
+    private volatile DerivedSet fingerprints;
+    /** 最近一次按较新一代词典重新分词的结果，未计算时为null */
+    private volatile AnalyzedDocument realigned;
+    
+    private AnalyzedDocument(String normalizedText, TermDictionary dictionary, int[] tokenIds, int[] termIds,
+                             int[] termFrequencies, char[] characterSet, int[] shingles) {
+        this.normalizedText = normalizedText;
+        this.dictionary = dictionary;
+        this.tokenIds = tokenIds;
+        this.termIds = termIds;
+        this.termFrequencies = termFrequencies;
+        this.characterSet = characterSet;
+        this.termVector = SparseVector.ofFrequencies(termIds, termFrequencies);
+        this.termSetVector = SparseVector.binary(termIds);
+        this.simpleTermSetVector = SparseVector.binary(withoutCompounds(termIds));
+        this.shingles = shingles;
+    }
+    
+    /**
+     * 分析文本，使用全局共享词典
+     * 
+     * @param text 原始文本
+     * @return 预处理完成的文档
+     */
+    public static AnalyzedDocument analyze(String text) {
+        return analyze(text, TermDictionary.shared());
+    }
+    
+    /**
+     * 分析文本
+     * 
+     * @param text 原始文本
+     * @param dictionary 词典
+     * @return 预处理完成的文档
+     */
+    public static AnalyzedDocument analyze(String text, TermDictionary dictionary) {
+        return fromNormalized(TextNormalizer.normalize(text), dictionary);
+    }
+    
+    /**
+     * 流式分析UTF-8内容，使用全局共享词典
+     * 
+     * @param in 输入流，读取到末尾，不负责关闭
+     * @return 预处理完成的文档
+     * @throws IOException 读取失败
+     */
+    public static AnalyzedDocument analyze(InputStream in) throws IOException {
+        return analyze(in, TermDictionary.shared(), DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * 流式分析UTF-8内容，结果与把全部内容解码为字符串后调用 {@link #analyze(String, TermDictionary)} 相同。
+     * 每次读取 chunkSize 个字节，用 {@link CharsetDecoder} 解码后立即规范化并计算shingle，
+     * 跨越块边界的多字节字符由解码器保留到下一块。整个过程中不存在原始字节或完整的解码文本。
+     * 
+     * <p>内存并不限于一块：编辑距离、Winnowing等算法需要完整的规范化文本，因此规范化文本（不含标点和多余空白）
+     * 会完整保留，峰值内存与文档长度成正比。shingle在产生时即放入哈希集合去重，
+     * 不再为每个位置保存一个哈希值，重复内容较多的文档只占用不同shingle所需的空间。</p>
+     * 
+     * @param in 输入流，读取到末尾，不负责关闭
+     * @param dictionary 词典
+     * @param chunkSize 每块的字节数
+     * @return 预处理完成的文档
+     * @throws IOException 读取失败
+     */
+    public static AnalyzedDocument analyze(InputStream in, TermDictionary dictionary, int chunkSize) throws IOException {
+        // 与 new String(bytes, UTF_8) 一致：非法字节序列替换为 U+FFFD（规范化时丢弃）
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(Math.max(16, chunkSize));
+        // UTF-8 每个字节最多解码出一个UTF-16字符，字符缓冲区与字节缓冲区等长即可
+        CharBuffer chars = CharBuffer.allocate(bytes.capacity());
+        NormalizedTextBuilder text = new NormalizedTextBuilder(Math.min(bytes.capacity(), 4096));
+        
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            int read = in.read(bytes.array(), bytes.position(), bytes.remaining());
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                bytes.position(bytes.position() + read);
+            }
+            
+            bytes.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars, endOfInput);
+                text.append(chars);
+            } while (result.isOverflow());
+            // 未解码的不完整字符留在缓冲区开头，与下一块拼接
+            bytes.compact();
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            text.append(chars);
+        }
+        text.append(chars);
+        return text.toDocument(dictionary);
+    }
+    
+    /**
+     * 以内存映射方式分析UTF-8文件，使用全局共享词典
+     * 
+     * @param file 文件路径
+     * @return 预处理完成的文档
+     * @throws IOException 读取失败
+     */
+    public static AnalyzedDocument analyzeMapped(Path file) throws IOException {
+        return analyzeMapped(file, TermDictionary.shared(), MappedTextReader.DEFAULT_WINDOW_SIZE);
+    }
+    
+    /**
+     * 以内存映射方式分析UTF-8文件，结果与 {@link #analyze(InputStream, TermDictionary, int)} 相同。
+     * 解码器直接读取 {@link MappedTextReader} 映射的堆外区域，文件内容不复制到堆内，
+     * 适合流式读取时仍有大量短命缓冲区拷贝的超大文件。
+     * 
+     * @param file 文件路径
+     * @param dictionary 词典
+     * @param windowSize 每次映射的字节数
+     * @return 预处理完成的文档
+     * @throws IOException 读取失败
+     */
+    public static AnalyzedDocument analyzeMapped(Path file, TermDictionary dictionary, long windowSize) throws IOException {
+        NormalizedTextBuilder text = new NormalizedTextBuilder(4096);
+        MappedTextReader.read(file, windowSize, DEFAULT_CHUNK_SIZE, text::append);
+        return text.toDocument(dictionary);
+    }
+    
+    /**
+     * 流式分析时累积规范化文本，并把新增的字符依次送入shingle计算
+     */
+    private static final class NormalizedTextBuilder {
+        final TextNormalizer.ChunkNormalizer normalizer = new TextNormalizer.ChunkNormalizer();
+        final ShingleHasher shingles = new ShingleHasher();
+        char[] chars;
+        int length;
+        
+        NormalizedTextBuilder(int capacity) {
+            this.chars = new char[capacity];
+        }
+        
+        /**
+         * 规范化解码器刚写入的字符，完成后清空字符缓冲区以便继续解码
+         */
+        void append(CharBuffer decoded) {
+            decoded.flip();
+            append(decoded.array(), decoded.position(), decoded.remaining());
+            decoded.clear();
+        }
+        
+        void append(char[] decoded, int offset, int count) {
+            if (chars.length - length < count + 1) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count + 1));
+            }
+            int end = normalizer.normalize(decoded, offset, count, chars, length);
+            for (int i = length; i < end; i++) {
+                if (chars[i] != TextNormalizer.SEPARATOR) {
+                    shingles.add(chars[i]);
+                }
+            }
+            length = end;
+        }
+        
+        AnalyzedDocument toDocument(TermDictionary dictionary) {
+            if (length == 0) {
+                return EMPTY;
+            }
+            return fromNormalized(new String(chars, 0, length), dictionary, shingles.toSortedSet());
+        }
+    }
+    
+    /**
+     * 由已经规范化的文本构建文档
+     * 
+     * @param normalizedText 规范化文本
+     * @param dictionary 词典
+     * @return 预处理完成的文档
+     */
+    static AnalyzedDocument fromNormalized(String normalizedText, TermDictionary dictionary) {
+        if (normalizedText.isEmpty()) {
+            return EMPTY;
+        }
+        return fromNormalized(normalizedText, dictionary, computeShingles(normalizedText));
+    }
+    
+    private static AnalyzedDocument fromNormalized(String normalizedText, TermDictionary dictionary, int[] shingles) {
+        
+        int length = normalizedText.length();
+        IntList tokens = new IntList(16);
+        // 词项包括完整的词以及中文词中的每个汉字
+        IntList terms = new IntList(length / 2 + 16);
+        long[] charBitmap = new long[(Character.MAX_VALUE + 1) / 64];
+        
+        int start = 0;
+        while (start < length) {
+            int end = normalizedText.indexOf(TextNormalizer.SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            
+            boolean hasChinese = false;
+            for (int i = start; i < end; i++) {
+                char c = normalizedText.charAt(i);
+                charBitmap[c >>> 6] |= 1L << c;
+                if (TextNormalizer.isCjk(c)) {
+                    hasChinese = true;
+                }
+            }
+            
+            int tokenId = dictionary.idOf(normalizedText, start, end, hasChinese);
+            tokens.add(tokenId);
+            terms.add(tokenId);
+            
+            // 对于中文，除完整的词外也添加单个中文字符
+            if (hasChinese && end - start > 1) {
+                for (int i = start; i < end; i++) {
+                    char c = normalizedText.charAt(i);
+                    if (TextNormalizer.isCjk(c)) {
+                        terms.add(TermDictionary.charId(c));
+                    }
+                }
+            }
+            
+            start = end + 1;
+        }
+        
+        // 排序后合并相同ID，得到词项及其出现次数
+        int[] sorted = terms.toArray();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        int[] termIds = new int[distinct];
+        int[] termFrequencies = new int[distinct];
+        int index = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                termIds[++index] = sorted[i];
+            }
+            termFrequencies[index]++;
+        }
+        
+        return new AnalyzedDocument(normalizedText, dictionary, tokens.toArray(), termIds, termFrequencies,
+            bitmapToChars(charBitmap), shingles);
+    }
+    
+    /**
+     * 计算shingle集合：去掉词分隔符后，对每个长度为 SHINGLE_SIZE 的字符窗口计算哈希，
+     * 排序去重。文本不足一个窗口时整段文本作为一个shingle。
+     */
+    static int[] computeShingles(String normalizedText) {
+        ShingleHasher hasher = new ShingleHasher();
+        for (int i = 0, n = normalizedText.length(); i < n; i++) {
+            char c = normalizedText.charAt(i);
+            if (c != TextNormalizer.SEPARATOR) {
+                hasher.add(c);
+            }
+        }
+        return hasher.toSortedSet();
+    }
+    
+    /**
+     * MurmurHash3 的 32 位终结函数，使多项式哈希的各位分布均匀
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+    
+    private static int[] withoutCompounds(int[] termIds) {
+        int count = 0;
+        for (int id : termIds) {
+            if (!TermDictionary.isCompound(id)) {
+                count++;
+            }
+        }
+        if (count == termIds.length) {
+            return termIds;
+        }
+        int[] simple = new int[count];
+        int index = 0;
+        for (int id : termIds) {
+            if (!TermDictionary.isCompound(id)) {
+                simple[index++] = id;
+            }
+        }
+        return simple;
+    }
+    
+    private static char[] bitmapToChars(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        char[] chars = new char[count];
+        int index = 0;
+        for (int w = 0; w < bitmap.length; w++) {
+            long word = bitmap[w];
+            while (word != 0) {
+                chars[index++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return chars;
+    }
+    
+    /**
+     * 获取与另一篇文档词ID可比的版本
+     * 两篇文档由同一词典分析时直接返回本文档；否则两者中由较早一代词典分析的那篇
+     * 用另一篇的词典重新分词（复用规范化文本和shingle集合），使词ID位于同一ID空间。
+     * 共享词典轮换之后，缓存中旧一代的文档与新文档比较时走这条路径；
+     * 最近一次重新分词的结果缓存在本文档中，与同一代的多篇文档比较时只分词一次，新词也只加入新词典一次。
+     * 
+     * @param other 另一篇文档
+     * @return 词ID与 other 可比的文档，内容与本文档相同
+     */
+    public AnalyzedDocument inDictionaryOf(AnalyzedDocument other) {
+        if (dictionary == other.dictionary || dictionary == null || other.dictionary == null
+                || dictionary.generation() > other.dictionary.generation()) {
+            return this;
+        }
+        AnalyzedDocument view = realigned;
+        if (view == null || view.dictionary != other.dictionary) {
+            view = fromNormalized(normalizedText, other.dictionary, shingles);
+            realigned = view;
+        }
+        return view;
+    }
+    
+    /**
+     * 获取规范化文本
+     * 
+     * @return 规范化文本
+     */
+    public String getNormalizedText() {
+        return normalizedText;
+    }
+    
+    /**
+     * 获取规范化文本长度
+     * 
+     * @return 字符数
+     */
+    public int length() {
+        return normalizedText.length();
+    }
+    
+    /**
+     * 判断文档在规范化后是否为空
+     * 
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return normalizedText.isEmpty();
+    }
+    
+    /**
+     * 估算文档占用的内存大小，供缓存按容量淘汰时使用
+     * 
+     * @return 估算的字节数
+     */
+    public long estimatedSize() {
+        // 对象头与字段引用按固定开销计算，数组按元素大小累加
+        long size = 128;
+        size += 2L * normalizedText.length();
+        size += 4L * tokenIds.length;
+        size += 4L * termIds.length * 3;
+        size += 2L * characterSet.length;
+        size += 4L * shingles.length;
+        // 延迟计算的指纹集合来自片段哈希，按不超过shingle集合的大小预留
+        size += 4L * shingles.length;
+        if (simpleTermSetVector.size() != termIds.length) {
+            size += 4L * simpleTermSetVector.size();
+        }
+        return size;
+    }
+    
+    /**
+     * 获取词ID序列（按出现顺序）
+     * 
+     * @return 词ID数组，调用方不应修改
+     */
+    public int[] getTokenIds() {
+        return tokenIds;
+    }
+    
+    /**
+     * 获取排序去重后的词项ID
+     * 
+     * @return 词项ID数组（升序），调用方不应修改
+     */
+    public int[] getTermIds() {
+        return termIds;
+    }
+    
+    /**
+     * 获取词项出现次数，与 {@link #getTermIds()} 一一对应
+     * 
+     * @return 出现次数数组，调用方不应修改
+     */
+    public int[] getTermFrequencies() {
+        return termFrequencies;
+    }
+    
+    /**
+     * 获取词频向量，权重为词项出现次数
+     * 
+     * @return 稀疏向量
+     */
+    public SparseVector getTermVector() {
+        return termVector;
+    }
+    
+    /**
+     * 获取词项集合向量，每个词项权重为1
+     * 
+     * @return 稀疏向量
+     */
+    public SparseVector getTermSetVector() {
+        return termSetVector;
+    }
+    
+    /**
+     * 获取不含中文复合词的词项集合向量，即只由单字和英文单词等组成，每个词项权重为1
+     * 
+     * @return 稀疏向量
+     */
+    public SparseVector getSimpleTermSetVector() {
+        return simpleTermSetVector;
+    }
+    
+    /**
+     * 获取排序去重后的shingle哈希集合
+     * 
+     * @return shingle哈希数组（升序），调用方不应修改
+     */
+    public int[] getShingles() {
+        return shingles;
+    }
+    
+    /**
+     * 获取由规范化文本导出的指纹集合，首次调用时计算并缓存在文档中，同一文档之后的比较直接使用。
+     * 文档只缓存最先请求的一组参数的结果，以其他参数调用时每次重新计算。
+     * 并发的首次调用可能各自计算一次，结果相同。
+     * 
+     * @param parameters 指纹参数的标识，参数相同的调用方共用缓存
+     * @param fingerprinter 由规范化文本计算指纹集合的函数
+     * @return 指纹集合，调用方不应修改
+     */
+    public int[] getFingerprints(long parameters, Function<String, int[]> fingerprinter) {
+        DerivedSet cached = fingerprints;
+        if (cached != null && cached.parameters == parameters) {
+            return cached.values;
+        }
+        int[] values = fingerprinter.apply(normalizedText);
+        if (cached == null) {
+            fingerprints = new DerivedSet(parameters, values);
+        }
+        return values;
+    }
+    
+    /**
+     * 获取排序去重后的字符集合（不含词分隔符）
+     * 
+     * @return 字符数组（升序），调用方不应修改
+     */
+    public char[] getCharacterSet() {
+        return characterSet;
+    }
+    
+    /**
+     * 逐字符计算shingle哈希
+     * 窗口哈希为 sum(c[i+k] * 31^(4-k))，每加入一个字符以滚动方式更新：
+     * 乘31、加上新字符、减去移出窗口的字符乘 31^5，溢出按int自然回绕，与直接计算的结果相同。
+     * 哈希值产生时即放入开放寻址的int集合去重，占用的空间取决于不同shingle的个数而不是文本长度。
+     */
+    private static final class ShingleHasher {
+        
+        /** 31^SHINGLE_SIZE，按int回绕 */
+        private static final int OUTGOING_WEIGHT;
+        
+        static {
+            int weight = 1;
+            for (int i = 0; i < SHINGLE_SIZE; i++) {
+                weight *= 31;
+            }
+            OUTGOING_WEIGHT = weight;
+        }
+        
+        private final char[] window = new char[SHINGLE_SIZE];
+        private final IntSet hashes = new IntSet();
+        private int slot;
+        private int count;
+        private int hash;
+        
+        void add(char c) {
+            hash = 31 * hash + c;
+            if (count >= SHINGLE_SIZE) {
+                hash -= window[slot] * OUTGOING_WEIGHT;
+            }
+            window[slot] = c;
+            slot = slot + 1 == SHINGLE_SIZE ? 0 : slot + 1;
+            if (++count >= SHINGLE_SIZE) {
+                hashes.add(mix(hash));
+            }
+        }
+        
+        /**
+         * 排序去重后的shingle集合；字符数不足一个窗口时整段作为一个shingle
+         */
+        int[] toSortedSet() {
+            if (count == 0) {
+                return new int[0];
+            }
+            if (count < SHINGLE_SIZE) {
+                hashes.add(mix(hash));
+            }
+            int[] sorted = hashes.toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+    
+    /**
+     * int哈希集合，线性探测，装载因子不超过1/2，避免装箱。
+     * 存入的是已经打散的shingle哈希，直接取低位作为槽位。
+     */
+    private static final class IntSet {
+        private int[] keys = new int[64];
+        /** 0 用作空槽位标记，是否包含0单独记录 */
+        private boolean containsZero;
+        private int size;
+        
+        void add(int value) {
+            if (value == 0) {
+                if (!containsZero) {
+                    containsZero = true;
+                    size++;
+                }
+                return;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                keys = rehash(keys, keys.length * 2);
+            }
+            if (insert(keys, value)) {
+                size++;
+            }
+        }
+        
+        private static boolean insert(int[] table, int value) {
+            int mask = table.length - 1;
+            int slot = value & mask;
+            while (table[slot] != 0) {
+                if (table[slot] == value) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = value;
+            return true;
+        }
+        
+        private static int[] rehash(int[] oldKeys, int capacity) {
+            int[] table = new int[capacity];
+            for (int key : oldKeys) {
+                if (key != 0) {
+                    insert(table, key);
+                }
+            }
+            return table;
+        }
+        
+        int[] toArray() {
+            int[] values = new int[size];
+            int index = 0;
+            if (containsZero) {
+                values[index++] = 0;
+            }
+            for (int key : keys) {
+                if (key != 0) {
+                    values[index++] = key;
+                }
+            }
+            return values;
+        }
+    }
+    
+    /**
+     * 由规范化文本导出的集合及其参数
+     */
+    private static final class DerivedSet {
+        final long parameters;
+        final int[] values;
+        
+        DerivedSet(long parameters, int[] values) {
+            this.parameters = parameters;
+            this.values = values;
+        }
+    }
+    
+    /**
+     * 简单的int动态数组，避免装箱
+     */
+    private static final class IntList {
+        private int[] values;
+        private int size;
+        
+        IntList(int capacity) {
+            this.values = new int[Math.max(capacity, 4)];
+        }
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
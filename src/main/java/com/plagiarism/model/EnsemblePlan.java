@@ -0,0 +1,81 @@
+package com.plagiarism.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 综合相似度的计算方案
+ * 服务层按文档长度估计各算法的耗时，在延迟预算内选择参与平均的算法组合，
+ * 方案随结果一起返回，调用方可以知道得分由哪些算法得出以及为什么。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class EnsemblePlan {
+    
+    /** 完整组合：余弦、编辑距离、Jaccard */
+    public static final String FULL = "full";
+    
+    /** 线性时间组合：以Winnowing指纹代替平方复杂度的编辑距离 */
+    public static final String LINEAR = "linear";
+    
+    /** 最小组合：只用余弦相似度 */
+    public static final String MINIMAL = "minimal";
+    
+    private final String name;
+    private final List<String> algorithms;
+    private final long estimatedNanos;
+    private final long budgetNanos;
+    
+    public EnsemblePlan(String name, List<String> algorithms, long estimatedNanos, long budgetNanos) {
+        this.name = name;
+        this.algorithms = Collections.unmodifiableList(algorithms);
+        this.estimatedNanos = estimatedNanos;
+        this.budgetNanos = budgetNanos;
+    }
+    
+    /**
+     * 获取方案名称
+     * 
+     * @return {@link #FULL}、{@link #LINEAR} 或 {@link #MINIMAL}
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * 获取参与平均的算法
+     * 
+     * @return 算法名称列表
+     */
+    public List<String> getAlgorithms() {
+        return algorithms;
+    }
+    
+    /**
+     * 获取按校准后的代价模型估计的打分耗时
+     * 
+     * @return 估计耗时（纳秒）
+     */
+    public long getEstimatedNanos() {
+        return estimatedNanos;
+    }
+    
+    /**
+     * 获取延迟预算
+     * 
+     * @return 预算（纳秒），为0时不限制
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+    
+    /**
+     * 判断估计耗时是否在预算之内；最小组合也超出预算时仍使用最小组合，此时返回false
+     * 
+     * @return 未设置预算或估计耗时不超过预算时返回true
+     */
+    public boolean isWithinBudget() {
+        return budgetNanos <= 0 || estimatedNanos <= budgetNanos;
+    }
+}
@@ -0,0 +1,183 @@
+package com.plagiarism.model;
+
+/**
+ * 异步查重任务
+ * 由提交线程创建，由工作线程更新状态；各字段均为volatile，轮询线程读取时无需加锁。
+ * 任务只会按 排队 → 执行中 → 完成/失败 的顺序变化。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class Job {
+    
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        /** 等待执行 */
+        QUEUED,
+        /** 执行中 */
+        RUNNING,
+        /** 已完成 */
+        COMPLETED,
+        /** 执行失败 */
+        FAILED
+    }
+    
+    private final String id;
+    private final String originalFileName;
+    private final String plagiarizedFileName;
+    private final String algorithmName;
+    private final long createdAt;
+    
+    private volatile Status status = Status.QUEUED;
+    private volatile double progress;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile double similarity;
+    private volatile SimilarityResult result;
+    private volatile String error;
+    
+    public Job(String id, String originalFileName, String plagiarizedFileName, String algorithmName, long createdAt) {
+        this.id = id;
+        this.originalFileName = originalFileName;
+        this.plagiarizedFileName = plagiarizedFileName;
+        this.algorithmName = algorithmName;
+        this.createdAt = createdAt;
+    }
+    
+    /**
+     * 标记任务开始执行
+     * 
+     * @param now 当前时间（毫秒）
+     */
+    public void start(long now) {
+        startedAt = now;
+        status = Status.RUNNING;
+    }
+    
+    /**
+     * 更新进度
+     * 
+     * @param progress 进度，范围[0, 1]
+     */
+    public void progress(double progress) {
+        this.progress = progress;
+    }
+    
+    /**
+     * 标记任务完成
+     * 
+     * @param similarity 相似度
+     * @param result 多算法结果，指定单一算法时为null
+     * @param now 当前时间（毫秒）
+     */
+    public void complete(double similarity, SimilarityResult result, long now) {
+        this.similarity = similarity;
+        this.result = result;
+        this.progress = 1.0;
+        this.finishedAt = now;
+        // 最后写入状态：轮询线程看到COMPLETED时，结果字段一定已经可见
+        this.status = Status.COMPLETED;
+    }
+    
+    /**
+     * 标记任务失败
+     * 
+     * @param error 错误信息
+     * @param now 当前时间（毫秒）
+     */
+    public void fail(String error, long now) {
+        this.error = error;
+        this.finishedAt = now;
+        this.status = Status.FAILED;
+    }
+    
+    /**
+     * 判断任务是否已结束
+     * 
+     * @return 已完成或失败时返回true
+     */
+    public boolean isFinished() {
+        Status current = status;
+        return current == Status.COMPLETED || current == Status.FAILED;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+    
+    public String getPlagiarizedFileName() {
+        return plagiarizedFileName;
+    }
+    
+    /**
+     * 获取指定的算法名称
+     * 
+     * @return 算法名称，使用多算法平均值时为null
+     */
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public double getProgress() {
+        return progress;
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    /**
+     * 获取开始执行的时间
+     * 
+     * @return 时间（毫秒），尚未开始时为0
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+    
+    /**
+     * 获取结束的时间
+     * 
+     * @return 时间（毫秒），尚未结束时为0
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+    
+    /**
+     * 获取相似度，仅在任务完成后有意义
+     * 
+     * @return 相似度值，范围[0, 1]
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+    
+    /**
+     * 获取多算法结果
+     * 
+     * @return 多算法结果，指定单一算法或任务未完成时为null
+     */
+    public SimilarityResult getResult() {
+        return result;
+    }
+    
+    /**
+     * 获取错误信息
+     * 
+     * @return 错误信息，任务未失败时为null
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,71 @@
+package com.plagiarism.model;
+
+/**
+ * 两篇文本中一段相同内容的位置
+ * 偏移量是原始文本（规范化之前）中的字符下标，可以直接用于高亮显示；
+ * 区间内的标点和空白不参与比较。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class MatchRange {
+    
+    private final int originalStart;
+    private final int originalEnd;
+    private final int plagiarizedStart;
+    private final int plagiarizedEnd;
+    private final int length;
+    
+    public MatchRange(int originalStart, int originalEnd, int plagiarizedStart, int plagiarizedEnd, int length) {
+        this.originalStart = originalStart;
+        this.originalEnd = originalEnd;
+        this.plagiarizedStart = plagiarizedStart;
+        this.plagiarizedEnd = plagiarizedEnd;
+        this.length = length;
+    }
+    
+    /**
+     * 获取原文中的起始下标
+     * 
+     * @return 起始下标（包含）
+     */
+    public int getOriginalStart() {
+        return originalStart;
+    }
+    
+    /**
+     * 获取原文中的结束下标
+     * 
+     * @return 结束下标（不包含）
+     */
+    public int getOriginalEnd() {
+        return originalEnd;
+    }
+    
+    /**
+     * 获取抄袭文本中的起始下标
+     * 
+     * @return 起始下标（包含）
+     */
+    public int getPlagiarizedStart() {
+        return plagiarizedStart;
+    }
+    
+    /**
+     * 获取抄袭文本中的结束下标
+     * 
+     * @return 结束下标（不包含）
+     */
+    public int getPlagiarizedEnd() {
+        return plagiarizedEnd;
+    }
+    
+    /**
+     * 获取相同内容的长度，只计算参与比较的字符
+     * 
+     * @return 字符数
+     */
+    public int getLength() {
+        return length;
+    }
+}
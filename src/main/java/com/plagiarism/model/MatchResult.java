@@ -0,0 +1,39 @@
+package com.plagiarism.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一次片段定位的结果：相似度及相同片段的位置，二者由同一次计算得出
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class MatchResult {
+    
+    private final double similarity;
+    private final List<MatchRange> matches;
+    
+    public MatchResult(double similarity, List<MatchRange> matches) {
+        this.similarity = similarity;
+        this.matches = Collections.unmodifiableList(matches);
+    }
+    
+    /**
+     * 获取相似度，与算法的 calculateSimilarity 结果相同
+     * 
+     * @return 相似度值，范围[0, 1]
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+    
+    /**
+     * 获取相同片段的位置
+     * 
+     * @return 相同片段，按在抄袭文本中的位置排列
+     */
+    public List<MatchRange> getMatches() {
+        return matches;
+    }
+}
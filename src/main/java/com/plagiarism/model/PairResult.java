@@ -0,0 +1,82 @@
+package com.plagiarism.model;
+
+/**
+ * 批量比对中一对文档的比对结果
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class PairResult {
+    
+    private final String firstDocument;
+    private final String secondDocument;
+    private final SimilarityResult result;
+    private final String error;
+    
+    private PairResult(String firstDocument, String secondDocument, SimilarityResult result, String error) {
+        this.firstDocument = firstDocument;
+        this.secondDocument = secondDocument;
+        this.result = result;
+        this.error = error;
+    }
+    
+    /**
+     * 创建计算成功的结果
+     * 
+     * @param firstDocument 第一篇文档名称
+     * @param secondDocument 第二篇文档名称
+     * @param result 相似度结果
+     * @return 比对结果
+     */
+    public static PairResult of(String firstDocument, String secondDocument, SimilarityResult result) {
+        return new PairResult(firstDocument, secondDocument, result, null);
+    }
+    
+    /**
+     * 创建计算失败的结果
+     * 
+     * @param firstDocument 第一篇文档名称
+     * @param secondDocument 第二篇文档名称
+     * @param error 错误信息
+     * @return 比对结果
+     */
+    public static PairResult failed(String firstDocument, String secondDocument, String error) {
+        return new PairResult(firstDocument, secondDocument, null, error);
+    }
+    
+    /**
+     * 获取第一篇文档名称
+     * 
+     * @return 文档名称
+     */
+    public String getFirstDocument() {
+        return firstDocument;
+    }
+    
+    /**
+     * 获取第二篇文档名称
+     * 
+     * @return 文档名称
+     */
+    public String getSecondDocument() {
+        return secondDocument;
+    }
+    
+    /**
+     * 获取相似度结果
+     * 
+     * @return 相似度结果，计算失败时为null
+     */
+    public SimilarityResult getResult() {
+        return result;
+    }
+    
+    /**
+     * 获取错误信息
+     * 
+     * @return 错误信息，计算成功时为null
+     */
+    public String getError() {
+        return error;
+    }
+}
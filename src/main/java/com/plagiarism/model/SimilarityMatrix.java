@@ -0,0 +1,168 @@
+package com.plagiarism.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文档两两相似度矩阵
+ * 矩阵对称且对角线恒为1，只按行保存严格上三角部分：N篇文档占用 N(N-1)/2 个float，
+ * 1000篇文档约2MB。第i行第j列（i &lt; j）位于下标 i(2N-i-1)/2 + (j-i-1)。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class SimilarityMatrix {
+    
+    private final List<String> documents;
+    private final float[] values;
+    private final double threshold;
+    private final Map<String, Long> stats;
+    
+    /**
+     * 创建相似度矩阵
+     * 
+     * @param documents 文档名称
+     * @param values 按行排列的严格上三角元素
+     * @param threshold 计算时使用的阈值，低于阈值的文档对记为0
+     * @param stats 计算过程的统计信息
+     */
+    public SimilarityMatrix(List<String> documents, float[] values, double threshold, Map<String, Long> stats) {
+        if (values.length != triangleSize(documents.size())) {
+            throw new IllegalArgumentException("矩阵元素个数与文档数不一致");
+        }
+        this.documents = Collections.unmodifiableList(documents);
+        this.values = values;
+        this.threshold = threshold;
+        this.stats = Collections.unmodifiableMap(new LinkedHashMap<>(stats));
+    }
+    
+    /**
+     * 计算N篇文档的严格上三角元素个数
+     * 
+     * @param n 文档数
+     * @return 元素个数
+     */
+    public static int triangleSize(int n) {
+        long size = (long) n * (n - 1) / 2;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("文档数过多: " + n);
+        }
+        return (int) size;
+    }
+    
+    /**
+     * 计算上三角元素在数组中的下标
+     * 
+     * @param i 行号
+     * @param j 列号，大于行号
+     * @param n 文档数
+     * @return 数组下标
+     */
+    public static int indexOf(int i, int j, int n) {
+        return (int) ((long) i * (2L * n - i - 1) / 2 + (j - i - 1));
+    }
+    
+    /**
+     * 获取两篇文档的相似度
+     * 
+     * @param i 第一篇文档的序号
+     * @param j 第二篇文档的序号
+     * @return 相似度
+     */
+    public float get(int i, int j) {
+        if (i == j) {
+            return 1.0f;
+        }
+        return i < j ? values[indexOf(i, j, documents.size())] : values[indexOf(j, i, documents.size())];
+    }
+    
+    /**
+     * 获取文档名称
+     * 
+     * @return 文档名称，顺序与矩阵的行列相同
+     */
+    public List<String> getDocuments() {
+        return documents;
+    }
+    
+    /**
+     * 获取按行排列的严格上三角元素
+     * 
+     * @return 元素数组，调用方不应修改
+     */
+    public float[] getValues() {
+        return values;
+    }
+    
+    /**
+     * 获取计算时使用的阈值
+     * 
+     * @return 阈值，为0时矩阵是精确的
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    /**
+     * 获取计算过程的统计信息
+     * 
+     * @return 实际计算的文档对数、被各预筛选条件排除的文档对数及耗时
+     */
+    public Map<String, Long> getStats() {
+        return stats;
+    }
+    
+    /**
+     * 以CSV格式写出完整的N×N矩阵：首行和首列为文档名称，相似度保留4位小数
+     * 
+     * @param out 输出
+     * @throws IOException 写出失败
+     */
+    public void writeCsv(Writer out) throws IOException {
+        int n = documents.size();
+        StringBuilder line = new StringBuilder(16 + n * 8);
+        for (String document : documents) {
+            line.append(',');
+            appendCsvField(line, document);
+        }
+        out.write(line.append('\n').toString());
+        
+        for (int i = 0; i < n; i++) {
+            line.setLength(0);
+            appendCsvField(line, documents.get(i));
+            for (int j = 0; j < n; j++) {
+                line.append(',');
+                appendFixed(line, get(i, j));
+            }
+            out.write(line.append('\n').toString());
+        }
+        out.flush();
+    }
+    
+    /**
+     * 按RFC 4180转义：含逗号、引号或换行的字段加引号，引号加倍
+     */
+    private static void appendCsvField(StringBuilder line, String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            line.append(field);
+            return;
+        }
+        line.append('"').append(field.replace("\"", "\"\"")).append('"');
+    }
+    
+    /**
+     * 追加保留4位小数的相似度；百万个单元格时比 String.format 快得多
+     */
+    private static void appendFixed(StringBuilder line, float value) {
+        int scaled = Math.round(value * 10000);
+        line.append(scaled / 10000).append('.');
+        int fraction = scaled % 10000;
+        for (int divisor = 1000; divisor > 0; divisor /= 10) {
+            line.append((char) ('0' + fraction / divisor % 10));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.plagiarism.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多算法综合相似度结果
+ * 除平均相似度外，还记录每个算法的得分，超时或失败而未计入平均值的算法，以及所用的计算方案。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class SimilarityResult {
+    
+    private final double similarity;
+    private final Map<String, Double> algorithmScores;
+    private final List<String> timedOutAlgorithms;
+    private final List<String> failedAlgorithms;
+    private final EnsemblePlan plan;
+    
+    public SimilarityResult(double similarity, Map<String, Double> algorithmScores,
+                            List<String> timedOutAlgorithms, List<String> failedAlgorithms) {
+        this(similarity, algorithmScores, timedOutAlgorithms, failedAlgorithms, null);
+    }
+    
+    public SimilarityResult(double similarity, Map<String, Double> algorithmScores,
+                            List<String> timedOutAlgorithms, List<String> failedAlgorithms, EnsemblePlan plan) {
+        this.similarity = similarity;
+        this.algorithmScores = Collections.unmodifiableMap(new LinkedHashMap<>(algorithmScores));
+        this.timedOutAlgorithms = Collections.unmodifiableList(timedOutAlgorithms);
+        this.failedAlgorithms = Collections.unmodifiableList(failedAlgorithms);
+        this.plan = plan;
+    }
+    
+    /**
+     * 创建不经过算法计算即可确定的结果（如空文本、相同文本）
+     * 
+     * @param similarity 相似度
+     * @return 相似度结果
+     */
+    public static SimilarityResult of(double similarity) {
+        return new SimilarityResult(similarity, Collections.emptyMap(),
+            Collections.emptyList(), Collections.emptyList());
+    }
+    
+    /**
+     * 获取平均相似度
+     * 
+     * @return 相似度值，范围[0, 1]
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+    
+    /**
+     * 获取各算法的相似度，按计算顺序排列
+     * 
+     * @return 算法名称到相似度的映射
+     */
+    public Map<String, Double> getAlgorithmScores() {
+        return algorithmScores;
+    }
+    
+    /**
+     * 获取超时未完成的算法
+     * 
+     * @return 算法名称列表
+     */
+    public List<String> getTimedOutAlgorithms() {
+        return timedOutAlgorithms;
+    }
+    
+    /**
+     * 获取计算失败的算法
+     * 
+     * @return 算法名称列表
+     */
+    public List<String> getFailedAlgorithms() {
+        return failedAlgorithms;
+    }
+    
+    /**
+     * 获取所用的计算方案
+     * 
+     * @return 计算方案，不经过算法计算即可确定的结果为null
+     */
+    public EnsemblePlan getPlan() {
+        return plan;
+    }
+    
+    /**
+     * 判断结果是否只由部分算法得出
+     * 
+     * @return 有算法超时或失败时返回true
+     */
+    public boolean isPartial() {
+        return !timedOutAlgorithms.isEmpty() || !failedAlgorithms.isEmpty();
+    }
+}
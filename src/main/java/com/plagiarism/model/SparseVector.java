@@ -0,0 +1,213 @@
+package com.plagiarism.model;
+
+import java.util.Arrays;
+
+/**
+ * 稀疏词向量
+ * 以升序排列的词项ID数组和对应的权重数组表示，只保存非零分量。
+ * 模长在构造时计算并缓存，点积通过两个有序数组的一次归并完成，
+ * 时间复杂度为 O(nnz)，比较过程中不分配任何对象。
+ * 
+ * <p>权重数组为null时表示二值向量（所有分量权重为1），
+ * 点积即为两个词项集合交集的大小。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class SparseVector {
+    
+    /** 空向量 */
+    public static final SparseVector EMPTY = new SparseVector(new int[0], null);
+    
+    private final int[] ids;
+    private final float[] weights;
+    private final double norm;
+    
+    private SparseVector(int[] ids, float[] weights) {
+        this.ids = ids;
+        this.weights = weights;
+        this.norm = computeNorm(ids, weights);
+    }
+    
+    /**
+     * 创建二值向量，所有分量权重为1
+     * 
+     * @param ids 升序排列且不重复的词项ID，数组直接被引用，调用方不应再修改
+     * @return 稀疏向量
+     */
+    public static SparseVector binary(int[] ids) {
+        checkSorted(ids);
+        return ids.length == 0 ? EMPTY : new SparseVector(ids, null);
+    }
+    
+    /**
+     * 创建带权重的向量
+     * 
+     * @param ids 升序排列且不重复的词项ID，数组直接被引用，调用方不应再修改
+     * @param weights 与ids一一对应的权重
+     * @return 稀疏向量
+     */
+    public static SparseVector of(int[] ids, float[] weights) {
+        if (ids.length != weights.length) {
+            throw new IllegalArgumentException("词项ID与权重数量不一致");
+        }
+        checkSorted(ids);
+        return ids.length == 0 ? EMPTY : new SparseVector(ids, weights);
+    }
+    
+    /**
+     * 由词项ID及其出现次数创建词频向量
+     * 
+     * @param ids 升序排列且不重复的词项ID
+     * @param frequencies 与ids一一对应的出现次数
+     * @return 稀疏向量
+     */
+    public static SparseVector ofFrequencies(int[] ids, int[] frequencies) {
+        float[] weights = new float[frequencies.length];
+        for (int i = 0; i < frequencies.length; i++) {
+            weights[i] = frequencies[i];
+        }
+        return of(ids, weights);
+    }
+    
+    private static void checkSorted(int[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i - 1] >= ids[i]) {
+                throw new IllegalArgumentException("词项ID必须严格升序排列");
+            }
+        }
+    }
+    
+    private static double computeNorm(int[] ids, float[] weights) {
+        if (weights == null) {
+            return Math.sqrt(ids.length);
+        }
+        double sum = 0.0;
+        for (float weight : weights) {
+            sum += (double) weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+    
+    /**
+     * 计算与另一个向量的点积
+     * 
+     * @param other 另一个向量
+     * @return 点积
+     */
+    public double dot(SparseVector other) {
+        int[] ids1 = this.ids;
+        int[] ids2 = other.ids;
+        float[] weights1 = this.weights;
+        float[] weights2 = other.weights;
+        
+        double dotProduct = 0.0;
+        int i = 0;
+        int j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            int id1 = ids1[i];
+            int id2 = ids2[j];
+            if (id1 < id2) {
+                i++;
+            } else if (id1 > id2) {
+                j++;
+            } else {
+                double weight1 = weights1 == null ? 1.0 : weights1[i];
+                double weight2 = weights2 == null ? 1.0 : weights2[j];
+                dotProduct += weight1 * weight2;
+                i++;
+                j++;
+            }
+        }
+        return dotProduct;
+    }
+    
+    /**
+     * 计算与另一个向量的余弦相似度
+     * 
+     * @param other 另一个向量
+     * @return 余弦相似度，任一向量为零向量时返回0.0
+     */
+    public double cosine(SparseVector other) {
+        if (norm == 0.0 || other.norm == 0.0) {
+            return 0.0;
+        }
+        return dot(other) / (norm * other.norm);
+    }
+    
+    /**
+     * 获取非零分量个数
+     * 
+     * @return 非零分量个数
+     */
+    public int size() {
+        return ids.length;
+    }
+    
+    /**
+     * 获取缓存的模长
+     * 
+     * @return 模长
+     */
+    public double norm() {
+        return norm;
+    }
+    
+    /**
+     * 获取第index个非零分量的词项ID
+     * 
+     * @param index 分量下标
+     * @return 词项ID
+     */
+    public int idAt(int index) {
+        return ids[index];
+    }
+    
+    /**
+     * 获取第index个非零分量的权重
+     * 
+     * @param index 分量下标
+     * @return 权重
+     */
+    public float weightAt(int index) {
+        return weights == null ? 1.0f : weights[index];
+    }
+    
+    /**
+     * 判断是否为二值向量
+     * 
+     * @return 是否为二值向量
+     */
+    public boolean isBinary() {
+        return weights == null;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SparseVector)) {
+            return false;
+        }
+        SparseVector other = (SparseVector) o;
+        if (!Arrays.equals(ids, other.ids)) {
+            return false;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (Float.compare(weightAt(i), other.weightAt(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(ids);
+        for (int i = 0; i < ids.length; i++) {
+            result = 31 * result + Float.floatToIntBits(weightAt(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,477 @@
+package com.plagiarism.service;
+
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.PairResult;
+import com.plagiarism.util.PerformanceMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 批量比对服务类
+ * 一次提交多篇文档（或压缩包），每篇文档只预处理一次，
+ * 在线程池中并行计算所有文档两两之间（或一篇参照文档与其余文档之间）的相似度，
+ * 每完成一对文档就交给调用方，无需等待整批完成。
+ * 
+ * <p>线程池的等待队列有上限，每次批量比对最多提交线程数个任务；队列已满时抛出
+ * {@link RejectedExecutionException}，同时进行的批量请求不会无限堆积，各自持有的上传内容也就有了上限。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Service
+public class BatchService {
+    
+    /** 每次领取的文档对数：过小则调度开销大，过大则各线程负载不均 */
+    private static final int PAIRS_PER_CHUNK = 16;
+    
+    private final PlagiarismDetectionService plagiarismDetectionService;
+    private final ExecutorService executor;
+    private final int threads;
+    private final int maxDocuments;
+    private final long maxDocumentBytes;
+    private final long maxTotalBytes;
+    
+    public BatchService(PlagiarismDetectionService plagiarismDetectionService) {
+        this(plagiarismDetectionService, new PlagiarismProperties());
+    }
+    
+    @Autowired
+    public BatchService(PlagiarismDetectionService plagiarismDetectionService, PlagiarismProperties properties) {
+        this.plagiarismDetectionService = plagiarismDetectionService;
+        PlagiarismProperties.Batch batch = properties.getBatch();
+        this.threads = Math.max(1, batch.getThreads());
+        this.maxDocuments = batch.getMaxDocuments();
+        this.maxDocumentBytes = batch.getMaxDocumentSize().toBytes();
+        this.maxTotalBytes = batch.getMaxTotalSize().toBytes();
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, batch.getQueueCapacity())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "batch-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        PerformanceMonitor.registerExecutor("batch", pool);
+    }
+    
+    /**
+     * 关闭线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * 比对结果的接收方，在调用 {@link #compare} 的线程中依次调用
+     */
+    @FunctionalInterface
+    public interface PairListener {
+        
+        /**
+         * 接收一对文档的比对结果
+         * 
+         * @param result 比对结果
+         * @throws IOException 写出结果失败，批量比对随之终止
+         */
+        void onResult(PairResult result) throws IOException;
+    }
+    
+    /**
+     * 一次请求中所有上传文件共用的读取配额：文档数和解压后的总字节数按整批累计，
+     * 多个压缩包合计超出上限时同样被拒绝
+     */
+    public static final class ExtractionBudget {
+        private final int maxDocuments;
+        private final long maxTotalBytes;
+        private int documents;
+        private long totalBytes;
+        
+        ExtractionBudget(int maxDocuments, long maxTotalBytes) {
+            this.maxDocuments = maxDocuments;
+            this.maxTotalBytes = maxTotalBytes;
+        }
+        
+        void addDocument() {
+            if (++documents > maxDocuments) {
+                throw new IllegalArgumentException("文档数量超过上限: " + maxDocuments);
+            }
+        }
+        
+        void addBytes(long count) {
+            totalBytes += count;
+            if (totalBytes > maxTotalBytes) {
+                throw new IllegalArgumentException("文档总大小超过上限: " + maxTotalBytes + " 字节");
+            }
+        }
+    }
+    
+    /**
+     * 创建一次请求的读取配额，同一请求的所有文件都用它调用 {@link #extractDocuments(String, byte[], ExtractionBudget)}
+     * 
+     * @return 读取配额
+     */
+    public ExtractionBudget newExtractionBudget() {
+        return new ExtractionBudget(maxDocuments, maxTotalBytes);
+    }
+    
+    /**
+     * 读取上传的单个文件：zip压缩包展开为其中的每个文件，其余文件原样作为一篇文档
+     * 
+     * @param fileName 文件名
+     * @param content 文件内容
+     * @return 文档名称到内容的映射
+     * @throws IOException 压缩包读取失败
+     */
+    public Map<String, byte[]> extractDocuments(String fileName, byte[] content) throws IOException {
+        return extractDocuments(fileName, content, newExtractionBudget());
+    }
+    
+    /**
+     * 读取上传的文件：zip压缩包展开为其中的每个文件，其余文件原样作为一篇文档。
+     * 文档数和解压后的大小计入同一请求共用的配额，边解压边检查，超出时立即停止读取。
+     * 
+     * @param fileName 文件名
+     * @param content 文件内容
+     * @param budget 本次请求的读取配额
+     * @return 文档名称到内容的映射
+     * @throws IOException 压缩包读取失败
+     */
+    public Map<String, byte[]> extractDocuments(String fileName, byte[] content, ExtractionBudget budget)
+            throws IOException {
+        String name = documentName(fileName);
+        if (!isZip(name)) {
+            Map<String, byte[]> documents = new LinkedHashMap<>();
+            budget.addDocument();
+            budget.addBytes(content.length);
+            documents.put(name, content);
+            return documents;
+        }
+        return extractZip(new ByteArrayInputStream(content), budget);
+    }
+    
+    /**
+     * 读取上传的文件而不把普通文件读入内存：普通文件原样作为一篇文档的内容来源，预处理时再分块流式读取；
+     * zip压缩包边读边展开，其中的每个文件解压到内存中。文档数和大小计入同一请求共用的配额。
+     * 
+     * @param fileName 文件名
+     * @param size 文件大小（字节），普通文件按该值计入配额
+     * @param content 文件内容，可以是上传的文件
+     * @param budget 本次请求的读取配额
+     * @return 文档名称到内容来源的映射
+     * @throws IOException 压缩包读取失败
+     */
+    public Map<String, InputStreamSource> extractSources(String fileName, long size, InputStreamSource content,
+                                                         ExtractionBudget budget) throws IOException {
+        Map<String, InputStreamSource> documents = new LinkedHashMap<>();
+        String name = documentName(fileName);
+        if (!isZip(name)) {
+            budget.addDocument();
+            budget.addBytes(size);
+            documents.put(name, content);
+            return documents;
+        }
+        
+        try (InputStream in = content.getInputStream()) {
+            for (Map.Entry<String, byte[]> entry : extractZip(in, budget).entrySet()) {
+                documents.put(entry.getKey(), new ByteArrayResource(entry.getValue()));
+            }
+        }
+        return documents;
+    }
+    
+    private static String documentName(String fileName) {
+        return fileName == null || fileName.trim().isEmpty() ? "document" : fileName;
+    }
+    
+    private static boolean isZip(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+    
+    /**
+     * 边读边展开zip压缩包，跳过目录和隐藏文件
+     */
+    private Map<String, byte[]> extractZip(InputStream in, ExtractionBudget budget) throws IOException {
+        Map<String, byte[]> documents = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || isHidden(entry.getName())) {
+                    continue;
+                }
+                budget.addDocument();
+                documents.put(entry.getName(), readEntry(zip, entry.getName(), budget));
+            }
+        }
+        return documents;
+    }
+    
+    /**
+     * 读取压缩包中的一个文件，按解压后的实际大小限制，不信任压缩包中记录的大小
+     */
+    private byte[] readEntry(InputStream in, String name, ExtractionBudget budget) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            total += read;
+            if (total > maxDocumentBytes) {
+                throw new IllegalArgumentException("文档过大: " + name);
+            }
+            budget.addBytes(read);
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * 跳过压缩工具生成的元数据文件和隐藏文件
+     */
+    private static boolean isHidden(String entryName) {
+        String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+        return entryName.startsWith("__MACOSX/") || baseName.startsWith(".");
+    }
+    
+    /**
+     * 并行预处理所有文档
+     * 
+     * @param contents 文档名称到内容（UTF-8）的映射
+     * @return 文档名称到预处理结果的映射，顺序与输入相同
+     * @throws InterruptedException 等待时被中断
+     * @throws RejectedExecutionException 线程池队列已满
+     */
+    public Map<String, AnalyzedDocument> analyzeDocuments(Map<String, byte[]> contents) throws InterruptedException {
+        List<byte[]> values = new ArrayList<>(contents.values());
+        try {
+            return analyzeAll(new ArrayList<>(contents.keySet()),
+                k -> plagiarismDetectionService.analyzeContent(values.get(k)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 并行流式预处理所有文档，内容分块读取，与 {@link #analyzeDocuments(Map)} 共用文档缓存
+     * 
+     * @param sources 文档名称到内容来源（UTF-8）的映射
+     * @return 文档名称到预处理结果的映射，顺序与输入相同
+     * @throws IOException 读取失败
+     * @throws InterruptedException 等待时被中断
+     * @throws RejectedExecutionException 线程池队列已满
+     */
+    public Map<String, AnalyzedDocument> analyzeSources(Map<String, InputStreamSource> sources)
+            throws IOException, InterruptedException {
+        List<InputStreamSource> values = new ArrayList<>(sources.values());
+        return analyzeAll(new ArrayList<>(sources.keySet()), k -> {
+            try {
+                return plagiarismDetectionService.analyzeSource(values.get(k));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private Map<String, AnalyzedDocument> analyzeAll(List<String> names, IntFunction<AnalyzedDocument> analysis)
+            throws IOException, InterruptedException {
+        if (names.size() < 2) {
+            throw new IllegalArgumentException("批量比对至少需要两篇文档");
+        }
+        if (names.size() > maxDocuments) {
+            throw new IllegalArgumentException("文档数量超过上限: " + maxDocuments);
+        }
+        
+        int n = names.size();
+        AnalyzedDocument[] analyzed = new AnalyzedDocument[n];
+        RuntimeException[] errors = new RuntimeException[n];
+        List<Future<?>> workers = submitWorkers(n, k -> {
+            try {
+                analyzed[k] = analysis.apply(k);
+            } catch (RuntimeException e) {
+                errors[k] = e;
+            }
+        });
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("文档预处理失败", e.getCause());
+        } finally {
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+        
+        Map<String, AnalyzedDocument> documents = new LinkedHashMap<>();
+        for (int k = 0; k < n; k++) {
+            if (errors[k] instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) errors[k]).getCause();
+            }
+            if (errors[k] != null || analyzed[k] == null) {
+                throw new IllegalStateException("文档预处理失败: " + names.get(k), errors[k]);
+            }
+            documents.put(names.get(k), analyzed[k]);
+        }
+        return documents;
+    }
+    
+    /**
+     * 提交不超过线程数个工作任务，各自从共享的计数器领取编号并处理，不会向线程池堆积大量任务。
+     * 只要有一个工作任务被接受，所有编号都会被处理；一个都没有被接受时抛出 {@link RejectedExecutionException}
+     * 
+     * @param units 编号总数
+     * @param work 处理一个编号
+     * @return 已提交的工作任务
+     */
+    private List<Future<?>> submitWorkers(int units, IntConsumer work) {
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < Math.min(threads, units); t++) {
+            try {
+                workers.add(executor.submit(() -> {
+                    int unit;
+                    while ((unit = next.getAndIncrement()) < units && !Thread.currentThread().isInterrupted()) {
+                        work.accept(unit);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                if (workers.isEmpty()) {
+                    throw new RejectedExecutionException("批量比对线程池已满，请稍后重试", e);
+                }
+                break;
+            }
+        }
+        return workers;
+    }
+    
+    /**
+     * 计算需要比对的文档对数
+     * 
+     * @param documentCount 文档数
+     * @param reference 参照文档名称，为null时两两比对
+     * @return 文档对数
+     */
+    public int countPairs(int documentCount, String reference) {
+        return reference != null ? documentCount - 1 : documentCount * (documentCount - 1) / 2;
+    }
+    
+    /**
+     * 并行比对文档，每完成一对就在当前线程中交给 listener，结果按完成顺序而非文档顺序到达。
+     * 各工作线程从共享的计数器领取文档对，任务数不超过线程数，不会向线程池堆积大量任务。
+     * 
+     * @param documents 文档名称到预处理结果的映射
+     * @param reference 参照文档名称：不为null时只比对参照文档与其余文档，否则两两比对
+     * @param listener 结果接收方
+     * @throws IOException listener 写出结果失败
+     * @throws InterruptedException 等待结果时被中断
+     * @throws RejectedExecutionException 线程池队列已满
+     */
+    public void compare(Map<String, AnalyzedDocument> documents, String reference, PairListener listener)
+            throws IOException, InterruptedException {
+        List<String> names = new ArrayList<>(documents.keySet());
+        List<AnalyzedDocument> analyzed = new ArrayList<>(documents.values());
+        int referenceIndex = reference != null ? names.indexOf(reference) : -1;
+        if (reference != null && referenceIndex < 0) {
+            throw new IllegalArgumentException("参照文档不存在: " + reference);
+        }
+        
+        int total = countPairs(names.size(), reference);
+        int[] firsts = new int[total];
+        int[] seconds = new int[total];
+        int pair = 0;
+        for (int i = 0; i < names.size(); i++) {
+            if (referenceIndex >= 0) {
+                if (i != referenceIndex) {
+                    firsts[pair] = referenceIndex;
+                    seconds[pair++] = i;
+                }
+                continue;
+            }
+            for (int j = i + 1; j < names.size(); j++) {
+                firsts[pair] = i;
+                seconds[pair++] = j;
+            }
+        }
+        
+        BlockingQueue<PairResult> results = new LinkedBlockingQueue<>();
+        int chunks = (total + PAIRS_PER_CHUNK - 1) / PAIRS_PER_CHUNK;
+        List<Future<?>> workers = submitWorkers(chunks, chunk -> {
+            int end = Math.min(total, (chunk + 1) * PAIRS_PER_CHUNK);
+            for (int k = chunk * PAIRS_PER_CHUNK; k < end; k++) {
+                results.add(comparePair(names.get(firsts[k]), analyzed.get(firsts[k]),
+                    names.get(seconds[k]), analyzed.get(seconds[k])));
+            }
+        });
+        
+        try {
+            for (int k = 0; k < total; k++) {
+                PairResult result;
+                while ((result = results.poll(1, TimeUnit.SECONDS)) == null) {
+                    if (allDone(workers) && results.isEmpty()) {
+                        throw new IllegalStateException("批量比对异常终止");
+                    }
+                }
+                listener.onResult(result);
+            }
+        } finally {
+            // 正常结束时工作线程均已退出；写出失败或被中断时停止剩余计算
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+    }
+    
+    private static boolean allDone(List<Future<?>> workers) {
+        for (Future<?> worker : workers) {
+            if (!worker.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private PairResult comparePair(String firstName, AnalyzedDocument first, String secondName, AnalyzedDocument second) {
+        try {
+            return PairResult.of(firstName, secondName,
+                plagiarismDetectionService.calculateDocumentSimilarityResultSequentially(first, second));
+        } catch (RuntimeException e) {
+            // 单对文档失败不影响其余结果，调用方仍能收到与文档对数相同的结果
+            return PairResult.failed(firstName, secondName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.plagiarism.service;
+
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.corpus.CorpusIndex;
+import com.plagiarism.corpus.CorpusMatch;
+import com.plagiarism.model.AnalyzedDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 语料库查重服务类
+ * 维护已收录论文的倒排索引，支持一篇新论文与整个语料库比对
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Service
+public class CorpusService {
+    
+    /** 默认返回的最大结果数 */
+    public static final int DEFAULT_TOP_K = 10;
+    
+    private final PlagiarismDetectionService plagiarismDetectionService;
+    private final CorpusIndex index;
+    
+    public CorpusService(PlagiarismDetectionService plagiarismDetectionService) {
+        this(plagiarismDetectionService, new PlagiarismProperties());
+    }
+    
+    @Autowired
+    public CorpusService(PlagiarismDetectionService plagiarismDetectionService, PlagiarismProperties properties) {
+        this.plagiarismDetectionService = plagiarismDetectionService;
+        PlagiarismProperties.Corpus corpus = properties.getCorpus();
+        this.index = new CorpusIndex(corpus.getMinHashFunctions(), corpus.getLshBands());
+    }
+    
+    /**
+     * 收录文档，ID已存在时替换原文档
+     * 
+     * @param documentId 文档ID
+     * @param text 文档内容
+     */
+    public void indexDocument(String documentId, String text) {
+        if (documentId == null || documentId.trim().isEmpty()) {
+            throw new IllegalArgumentException("文档ID不能为空");
+        }
+        AnalyzedDocument document = plagiarismDetectionService.analyzeDocument(text);
+        if (document.isEmpty()) {
+            throw new IllegalArgumentException("文档内容不能为空");
+        }
+        index.index(documentId, document);
+    }
+    
+    /**
+     * 删除文档
+     * 
+     * @param documentId 文档ID
+     * @return 文档存在并被删除时返回true
+     */
+    public boolean removeDocument(String documentId) {
+        return index.remove(documentId);
+    }
+    
+    /**
+     * 在语料库中检索与文本相似的文档
+     * 只对与查询文本有共同shingle的文档打分
+     * 
+     * @param text 查询文本
+     * @param topK 最多返回的文档数
+     * @param minScore 最低得分
+     * @return 按得分从高到低排列的检索结果
+     */
+    public List<CorpusMatch> findSimilar(String text, int topK, double minScore) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK必须为正数");
+        }
+        return index.search(plagiarismDetectionService.analyzeDocument(text), topK, minScore);
+    }
+    
+    /**
+     * 在语料库中查找近似重复的文档
+     * 先通过 MinHash/LSH 桶取得候选，只对候选使用精确的相似度算法重新打分，
+     * 不与语料库中的其余文档做任何比较
+     * 
+     * @param text 查询文本
+     * @param topK 最多返回的文档数
+     * @param minScore 最低相似度
+     * @param algorithmName 打分使用的算法名称，为null时使用所有算法的平均值
+     * @return 按相似度从高到低排列的检索结果
+     */
+    public List<CorpusMatch> findNearDuplicates(String text, int topK, double minScore, String algorithmName) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK必须为正数");
+        }
+        AnalyzedDocument query = plagiarismDetectionService.analyzeDocument(text);
+        int[] queryShingles = query.getShingles();
+        
+        List<CorpusMatch> matches = new ArrayList<>();
+        for (Map.Entry<String, AnalyzedDocument> candidate : index.lshCandidates(query).entrySet()) {
+            AnalyzedDocument document = candidate.getValue();
+            double score = algorithmName == null
+                ? plagiarismDetectionService.calculateDocumentSimilarityResultSequentially(query, document).getSimilarity()
+                : plagiarismDetectionService.calculateDocumentSimilarityWithAlgorithm(query, document, algorithmName);
+            if (score < minScore) {
+                continue;
+            }
+            int shared = countShared(queryShingles, document.getShingles());
+            matches.add(new CorpusMatch(candidate.getKey(), score, (double) shared / queryShingles.length, shared));
+        }
+        
+        matches.sort(Comparator.comparingDouble(CorpusMatch::getScore).reversed()
+            .thenComparing(CorpusMatch::getDocumentId));
+        return matches.size() > topK ? new ArrayList<>(matches.subList(0, topK)) : matches;
+    }
+    
+    private static int countShared(int[] shingles1, int[] shingles2) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < shingles1.length && j < shingles2.length) {
+            if (shingles1[i] < shingles2[j]) {
+                i++;
+            } else if (shingles1[i] > shingles2[j]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        return shared;
+    }
+    
+    /**
+     * 获取语料库中的文档数量
+     * 
+     * @return 文档数量
+     */
+    public int size() {
+        return index.size();
+    }
+    
+    /**
+     * 获取索引统计信息
+     * 
+     * @return 文档数、不同shingle数、倒排记录总数
+     */
+    public Map<String, Long> getStats() {
+        return index.stats();
+    }
+}
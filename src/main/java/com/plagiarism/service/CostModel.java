@@ -0,0 +1,129 @@
+package com.plagiarism.service;
+
+import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.model.AnalyzedDocument;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 算法耗时的代价模型
+ * 各算法由 {@link SimilarityAlgorithm#estimateCost} 给出以参考纳秒计的代价，
+ * 本类为每个算法维护一个校准系数，即实际耗时与参考代价之比的指数加权平均，
+ * 估计耗时等于参考代价乘以校准系数。系数初始为1，之后随每次完整计算的实测耗时更新，
+ * 因此能适应机器速度、JIT预热和文本特征的差异。
+ * 超时或被取消的调用没有做完，其耗时只是完整计算耗时的下限，只用来调高系数，不会把系数拉低。
+ * 
+ * <p>系数的变化有界：每个算法最初的 {@link #WARMUP_OBSERVATIONS} 次观测不参与校准；
+ * 单次观测最多使系数变化四分之一；系数始终在 [{@link #MIN_SCALE}, {@link #MAX_SCALE}] 之内。
+ * 因此启动初期一次偶发的慢调用不会使估计值陡增，进而让该算法一直被排除在方案之外而无法再被校准。</p>
+ * 
+ * <p>只有参考代价不小于 {@link #MIN_CALIBRATION_COST} 的调用参与校准：短文本的耗时以固定开销和计时误差为主，
+ * 会把系数拉高，而短文本本来就不会超出预算。校准在这类调用结束后进行，
+ * 与其本身的耗时相比加锁更新一个系数的开销可以忽略。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+final class CostModel {
+    
+    /** 参与校准的最小参考代价（纳秒） */
+    static final long MIN_CALIBRATION_COST = 1_000_000L;
+    
+    /** 每次校准时新观测值的权重 */
+    private static final double SMOOTHING = 0.25;
+    
+    /** 每个算法最初不参与校准的观测次数，此时JIT尚未完成编译，耗时远高于稳定后的水平 */
+    static final int WARMUP_OBSERVATIONS = 3;
+    
+    /** 单次观测的比值限制在当前系数的 [1/MAX_STEP, MAX_STEP] 倍之内，避免一次GC停顿或被抢占的调用把系数拉偏太多 */
+    private static final double MAX_STEP = 2.0;
+    
+    /** 系数的下限与上限 */
+    static final double MIN_SCALE = 0.125;
+    static final double MAX_SCALE = 8.0;
+    
+    private final Map<SimilarityAlgorithm, Calibration> calibrations;
+    
+    CostModel(Collection<SimilarityAlgorithm> algorithms) {
+        Map<SimilarityAlgorithm, Calibration> map = new IdentityHashMap<>();
+        for (SimilarityAlgorithm algorithm : algorithms) {
+            map.put(algorithm, new Calibration());
+        }
+        this.calibrations = Collections.unmodifiableMap(map);
+    }
+    
+    /**
+     * 估计一次完整计算的耗时
+     * 
+     * @param algorithm 算法
+     * @param document1 第一篇文档
+     * @param document2 第二篇文档
+     * @return 估计耗时（纳秒）
+     */
+    long estimate(SimilarityAlgorithm algorithm, AnalyzedDocument document1, AnalyzedDocument document2) {
+        return (long) (algorithm.estimateCost(document1, document2) * scale(algorithm));
+    }
+    
+    /**
+     * 以一次完整计算的实测耗时校准
+     * 
+     * @param algorithm 算法
+     * @param referenceCost 该次调用的参考代价（纳秒）
+     * @param nanos 实测耗时（纳秒）
+     */
+    void record(SimilarityAlgorithm algorithm, long referenceCost, long nanos) {
+        if (referenceCost < MIN_CALIBRATION_COST) {
+            return;
+        }
+        calibrations.get(algorithm).update((double) nanos / referenceCost);
+    }
+    
+    /**
+     * 以一次未做完的计算（超时、被取消或失败）已经花费的耗时校准：完整计算至少需要这么久，
+     * 比值低于当前系数时不改变系数，否则与完整计算的观测同样更新。
+     * 否则一直超时的算法得不到任何观测，系数停留在偏低的值上，下次仍会被选入方案
+     * 
+     * @param algorithm 算法
+     * @param referenceCost 该次调用的参考代价（纳秒）
+     * @param nanos 中止前已花费的耗时（纳秒）
+     */
+    void recordLowerBound(SimilarityAlgorithm algorithm, long referenceCost, long nanos) {
+        if (referenceCost < MIN_CALIBRATION_COST) {
+            return;
+        }
+        calibrations.get(algorithm).updateLowerBound((double) nanos / referenceCost);
+    }
+    
+    /**
+     * 获取算法当前的校准系数
+     * 
+     * @param algorithm 算法
+     * @return 实际耗时与参考代价之比
+     */
+    double scale(SimilarityAlgorithm algorithm) {
+        return calibrations.get(algorithm).scale;
+    }
+    
+    private static final class Calibration {
+        
+        private volatile double scale = 1.0;
+        private int observations;
+        
+        synchronized void update(double ratio) {
+            if (observations < WARMUP_OBSERVATIONS) {
+                observations++;
+                return;
+            }
+            double current = scale;
+            double bounded = Math.min(current * MAX_STEP, Math.max(current / MAX_STEP, ratio));
+            scale = Math.min(MAX_SCALE, Math.max(MIN_SCALE, current + SMOOTHING * (bounded - current)));
+        }
+        
+        synchronized void updateLowerBound(double ratio) {
+            update(Math.max(ratio, scale));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.plagiarism.service;
+
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.Job;
+import com.plagiarism.model.SimilarityResult;
+import com.plagiarism.util.PerformanceMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步任务服务类
+ * 提交即返回任务ID，计算在固定大小的线程池中进行，不占用Web容器的请求线程。
+ * 等待队列有上限，队列满时拒绝新任务而不是无限堆积；排队的任务持有上传内容，
+ * 未完成任务持有的内容总大小同样有上限，大文件不会在队列中堆积到耗尽内存。
+ * 已结束任务的结果在内存中保留一段时间，由后台线程定期清理。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Service
+public class JobService {
+    
+    private final PlagiarismDetectionService plagiarismDetectionService;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleaner;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final long resultTtlMillis;
+    private final int queueCapacity;
+    private final long maxPendingBytes;
+    /** 排队和执行中的任务持有的上传内容总字节数 */
+    private final AtomicLong pendingBytes = new AtomicLong();
+    
+    public JobService(PlagiarismDetectionService plagiarismDetectionService) {
+        this(plagiarismDetectionService, new PlagiarismProperties());
+    }
+    
+    @Autowired
+    public JobService(PlagiarismDetectionService plagiarismDetectionService, PlagiarismProperties properties) {
+        this.plagiarismDetectionService = plagiarismDetectionService;
+        PlagiarismProperties.Jobs config = properties.getJobs();
+        int threads = Math.max(1, config.getThreads());
+        this.queueCapacity = Math.max(1, config.getQueueCapacity());
+        this.resultTtlMillis = config.getResultTtl().toMillis();
+        this.maxPendingBytes = config.getMaxPendingSize().toBytes();
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "job-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        PerformanceMonitor.registerExecutor("jobs", executor);
+        
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, Math.min(60_000L, resultTtlMillis / 2));
+        cleaner.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 关闭线程池，未完成的任务随之中止
+     */
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+    
+    /**
+     * 提交两篇文档的比对任务
+     * 
+     * @param originalFileName 原文文件名
+     * @param originalContent 原文内容（UTF-8）
+     * @param plagiarizedFileName 抄袭文件名
+     * @param plagiarizedContent 抄袭文本内容（UTF-8）
+     * @param algorithmName 算法名称，为null时使用多算法平均值
+     * @return 已排队的任务
+     * @throws RejectedExecutionException 等待队列已满，或未完成任务持有的内容超过总大小上限
+     */
+    public Job submit(String originalFileName, byte[] originalContent,
+                      String plagiarizedFileName, byte[] plagiarizedContent, String algorithmName) {
+        if (algorithmName != null && !plagiarismDetectionService.getAvailableAlgorithms().contains(algorithmName)) {
+            throw new IllegalArgumentException("不支持的算法: " + algorithmName);
+        }
+        
+        long size = (long) originalContent.length + plagiarizedContent.length;
+        reserve(size);
+        Job job = new Job(UUID.randomUUID().toString(), originalFileName, plagiarizedFileName,
+            algorithmName, System.currentTimeMillis());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, originalContent, plagiarizedContent, size));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            pendingBytes.addAndGet(-size);
+            throw new RejectedExecutionException("任务队列已满，请稍后重试", e);
+        }
+        return job;
+    }
+    
+    /**
+     * 为新任务的上传内容预留配额；没有未完成任务时总能预留，单个大任务不会永远被拒绝
+     */
+    private void reserve(long size) {
+        long pending;
+        do {
+            pending = pendingBytes.get();
+            if (pending > 0 && pending + size > maxPendingBytes) {
+                throw new RejectedExecutionException("排队任务的内容总大小超过上限，请稍后重试");
+            }
+        } while (!pendingBytes.compareAndSet(pending, pending + size));
+    }
+    
+    /**
+     * 执行任务：两次预处理和一次比对各计为进度的三分之一。
+     * 任何异常或错误都会把任务标记为失败，任务不会停留在执行中而永远不被清理
+     */
+    private void run(Job job, byte[] originalContent, byte[] plagiarizedContent, long size) {
+        job.start(System.currentTimeMillis());
+        try {
+            AnalyzedDocument original = plagiarismDetectionService.analyzeContent(originalContent);
+            job.progress(1.0 / 3);
+            AnalyzedDocument plagiarized = plagiarismDetectionService.analyzeContent(plagiarizedContent);
+            job.progress(2.0 / 3);
+            
+            if (job.getAlgorithmName() != null) {
+                double similarity = plagiarismDetectionService.calculateDocumentSimilarityWithAlgorithm(
+                    original, plagiarized, job.getAlgorithmName());
+                job.complete(similarity, null, System.currentTimeMillis());
+            } else {
+                SimilarityResult result = plagiarismDetectionService.calculateDocumentSimilarityResult(original, plagiarized);
+                job.complete(result.getSimilarity(), result, System.currentTimeMillis());
+            }
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } catch (Error e) {
+            fail(job, e);
+            throw e;
+        } finally {
+            pendingBytes.addAndGet(-size);
+        }
+    }
+    
+    private static void fail(Job job, Throwable e) {
+        job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), System.currentTimeMillis());
+    }
+    
+    /**
+     * 查询任务
+     * 
+     * @param jobId 任务ID
+     * @return 任务，不存在或结果已过期时返回null
+     */
+    public Job getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null && isExpired(job, System.currentTimeMillis())) {
+            jobs.remove(jobId, job);
+            return null;
+        }
+        return job;
+    }
+    
+    private boolean isExpired(Job job, long now) {
+        return job.isFinished() && now - job.getFinishedAt() >= resultTtlMillis;
+    }
+    
+    /**
+     * 删除结果已过期的任务
+     * 
+     * @return 删除的任务数
+     */
+    int evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Iterator<Job> it = jobs.values().iterator(); it.hasNext(); ) {
+            if (isExpired(it.next(), now)) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+    
+    /**
+     * 获取任务统计信息
+     * 
+     * @return 排队、执行中和保留的任务数，队列容量及未完成任务持有的内容字节数
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queued", (long) executor.getQueue().size());
+        stats.put("running", (long) executor.getActiveCount());
+        stats.put("retained", (long) jobs.size());
+        stats.put("queueCapacity", (long) queueCapacity);
+        stats.put("pendingBytes", pendingBytes.get());
+        stats.put("completed", executor.getCompletedTaskCount());
+        return stats;
+    }
+}
@@ -0,0 +1,221 @@
+package com.plagiarism.service;
+
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.corpus.MinHasher;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.SimilarityMatrix;
+import com.plagiarism.util.PerformanceMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 相似度矩阵服务类
+ * 计算一批文档两两之间的完整相似度矩阵。利用对称性只计算上三角；
+ * 矩阵按 TILE_SIZE × TILE_SIZE 分块，块在 ForkJoin 线程池中递归拆分并行计算，
+ * 同一块内的文档反复被访问，能留在CPU缓存中。
+ * 
+ * <p>计算每对文档前先做两道预筛选：
+ * 一是由文档长度、字符集大小得出的相似度上界，低于阈值的文档对一定不会超过阈值，直接跳过，不会漏报；
+ * 二是可选的 MinHash 估计，shingle集合 Jaccard 系数的估计值低于指定下限的文档对也跳过，
+ * 这一步是近似的，仅在调用方明确给出下限时启用。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@Service
+public class MatrixService {
+    
+    /** 分块边长：块内 TILE_SIZE 行文档与 TILE_SIZE 列文档两两比较 */
+    static final int TILE_SIZE = 32;
+    
+    /** 单次计算的最大文档数，保证上三角元素个数不超过int范围 */
+    public static final int MAX_DOCUMENTS = 65535;
+    
+    private final PlagiarismDetectionService plagiarismDetectionService;
+    private final ForkJoinPool pool;
+    private final MinHasher minHasher;
+    
+    public MatrixService(PlagiarismDetectionService plagiarismDetectionService) {
+        this(plagiarismDetectionService, new PlagiarismProperties());
+    }
+    
+    @Autowired
+    public MatrixService(PlagiarismDetectionService plagiarismDetectionService, PlagiarismProperties properties) {
+        this.plagiarismDetectionService = plagiarismDetectionService;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getMatrix().getParallelism()));
+        PerformanceMonitor.registerExecutor("matrix", pool);
+        this.minHasher = new MinHasher(properties.getCorpus().getMinHashFunctions());
+    }
+    
+    /**
+     * 关闭线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * 计算文档两两之间的相似度矩阵
+     * 
+     * @param documents 文档名称到预处理完成的文档的映射，矩阵行列按其迭代顺序排列
+     * @param threshold 相似度阈值，低于阈值的文档对记为0；为0时计算精确的完整矩阵
+     * @param algorithmName 算法名称，为null时使用多算法平均值
+     * @param minShingleSimilarity MinHash 预筛选的 Jaccard 系数下限，为0时不启用
+     * @return 相似度矩阵
+     */
+    public SimilarityMatrix compute(Map<String, AnalyzedDocument> documents, double threshold,
+                                    String algorithmName, double minShingleSimilarity) {
+        if (documents.size() < 2) {
+            throw new IllegalArgumentException("至少需要两篇文档");
+        }
+        if (documents.size() > MAX_DOCUMENTS) {
+            throw new IllegalArgumentException("文档数量超过上限: " + MAX_DOCUMENTS);
+        }
+        if (threshold < 0.0 || threshold > 1.0) {
+            throw new IllegalArgumentException("阈值必须在0到1之间");
+        }
+        if (minShingleSimilarity < 0.0 || minShingleSimilarity > 1.0) {
+            throw new IllegalArgumentException("MinHash下限必须在0到1之间");
+        }
+        if (algorithmName != null && !plagiarismDetectionService.getAvailableAlgorithms().contains(algorithmName)) {
+            throw new IllegalArgumentException("不支持的算法: " + algorithmName);
+        }
+        
+        long start = System.nanoTime();
+        List<String> names = new ArrayList<>(documents.keySet());
+        AnalyzedDocument[] analyzed = documents.values().toArray(new AnalyzedDocument[0]);
+        int[][] signatures = null;
+        if (minShingleSimilarity > 0.0) {
+            signatures = new int[analyzed.length][];
+            for (int i = 0; i < analyzed.length; i++) {
+                signatures[i] = minHasher.signature(analyzed[i].getShingles());
+            }
+        }
+        
+        Computation computation = new Computation(analyzed, signatures, threshold, algorithmName, minShingleSimilarity);
+        int blocks = (analyzed.length + TILE_SIZE - 1) / TILE_SIZE;
+        pool.invoke(new TileTask(computation, 0, blocks * (blocks + 1) / 2));
+        
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("pairs", (long) computation.values.length);
+        stats.put("computed", computation.computed.sum());
+        stats.put("skippedByBound", computation.skippedByBound.sum());
+        stats.put("skippedByMinHash", computation.skippedByMinHash.sum());
+        stats.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000L);
+        return new SimilarityMatrix(names, computation.values, threshold, stats);
+    }
+    
+    /**
+     * 一次矩阵计算的共享状态，各分块写入互不重叠的元素
+     */
+    private final class Computation {
+        final AnalyzedDocument[] documents;
+        final int[][] signatures;
+        final double threshold;
+        final String algorithmName;
+        final double minShingleSimilarity;
+        final float[] values;
+        final LongAdder computed = new LongAdder();
+        final LongAdder skippedByBound = new LongAdder();
+        final LongAdder skippedByMinHash = new LongAdder();
+        
+        Computation(AnalyzedDocument[] documents, int[][] signatures, double threshold,
+                    String algorithmName, double minShingleSimilarity) {
+            this.documents = documents;
+            this.signatures = signatures;
+            this.threshold = threshold;
+            this.algorithmName = algorithmName;
+            this.minShingleSimilarity = minShingleSimilarity;
+            this.values = new float[SimilarityMatrix.triangleSize(documents.length)];
+        }
+        
+        /**
+         * 计算第 blockRow 行、第 blockColumn 列（blockRow &lt;= blockColumn）分块内的上三角元素
+         */
+        void computeTile(int blockRow, int blockColumn) {
+            int n = documents.length;
+            int rowEnd = Math.min(n, (blockRow + 1) * TILE_SIZE);
+            int columnEnd = Math.min(n, (blockColumn + 1) * TILE_SIZE);
+            long computedPairs = 0;
+            long boundSkips = 0;
+            long minHashSkips = 0;
+            for (int i = blockRow * TILE_SIZE; i < rowEnd; i++) {
+                int base = SimilarityMatrix.indexOf(i, i + 1, n) - (i + 1);
+                for (int j = Math.max(i + 1, blockColumn * TILE_SIZE); j < columnEnd; j++) {
+                    if (threshold > 0.0
+                        && plagiarismDetectionService.similarityUpperBound(documents[i], documents[j], algorithmName) < threshold) {
+                        boundSkips++;
+                        continue;
+                    }
+                    if (signatures != null
+                        && MinHasher.estimateJaccard(signatures[i], signatures[j]) < minShingleSimilarity) {
+                        minHashSkips++;
+                        continue;
+                    }
+                    double similarity = algorithmName == null
+                        ? plagiarismDetectionService.calculateDocumentSimilarity(documents[i], documents[j], threshold)
+                        : plagiarismDetectionService.calculateDocumentSimilarityWithAlgorithm(documents[i], documents[j], algorithmName);
+                    computedPairs++;
+                    if (similarity >= threshold) {
+                        values[base + j] = (float) similarity;
+                    }
+                }
+            }
+            computed.add(computedPairs);
+            skippedByBound.add(boundSkips);
+            skippedByMinHash.add(minHashSkips);
+        }
+    }
+    
+    /**
+     * 计算一段连续编号的分块：分块按 (0,0),(0,1)...(0,B-1),(1,1)... 的顺序编号，
+     * 段较长时一分为二递归执行，由 ForkJoin 的工作窃取平衡各线程的负载
+     */
+    private static final class TileTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        /** 段内分块数不超过该值时直接计算 */
+        private static final int SEQUENTIAL_TILES = 2;
+        
+        private final transient Computation computation;
+        private final int from;
+        private final int to;
+        
+        TileTask(Computation computation, int from, int to) {
+            this.computation = computation;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > SEQUENTIAL_TILES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(computation, from, middle), new TileTask(computation, middle, to));
+                return;
+            }
+            int blocks = (computation.documents.length + TILE_SIZE - 1) / TILE_SIZE;
+            for (int tile = from; tile < to; tile++) {
+                // 由分块编号还原行列：第r行之前共有 r*B - r(r-1)/2 个分块
+                int row = 0;
+                int rowStart = 0;
+                while (rowStart + (blocks - row) <= tile) {
+                    rowStart += blocks - row;
+                    row++;
+                }
+                computation.computeTile(row, row + (tile - rowStart));
+            }
+        }
+    }
+}
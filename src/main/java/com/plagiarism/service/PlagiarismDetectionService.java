@@ -1,17 +1,58 @@
 package com.plagiarism.service;
 
+import com.plagiarism.algorithm.MatchLocator;
 import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.algorithm.impl.CommonSubstringSimilarity;
 import com.plagiarism.algorithm.impl.CosineSimilarity;
 import com.plagiarism.algorithm.impl.JaccardSimilarity;
 import com.plagiarism.algorithm.impl.LevenshteinSimilarity;
-import org.apache.commons.io.FileUtils;
+import com.plagiarism.algorithm.impl.WinnowingSimilarity;
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.EnsemblePlan;
+import com.plagiarism.model.MatchResult;
+import com.plagiarism.model.SimilarityResult;
+import com.plagiarism.util.BoundedCache;
+import com.plagiarism.util.ContentHash;
+import com.plagiarism.util.LatencyRecorder;
+import com.plagiarism.util.PerformanceMonitor;
+import com.plagiarism.util.ResourceProfile;
+import com.plagiarism.util.ResourceRecorder;
+import com.plagiarism.util.ThreadResources;
+import com.plagiarism.util.VirtualThreads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
 
 /**
  * 论文查重服务类
@@ -23,14 +64,173 @@ import java.util.List;
 @Service
 public class PlagiarismDetectionService {
     
+    /** 性能统计中文档预处理阶段的名称 */
+    public static final String ANALYZE_STAGE = "analyze";
+    
+    /** 性能统计中流式内容计算哈希阶段的名称 */
+    public static final String DIGEST_STAGE = "digest";
+    
+    private static final LatencyRecorder analyzeRecorder = PerformanceMonitor.stageRecorder(ANALYZE_STAGE);
+    private static final LatencyRecorder digestRecorder = PerformanceMonitor.stageRecorder(DIGEST_STAGE);
+    
+    /** 所有可用的算法，可以通过名称单独调用 */
     private final List<SimilarityAlgorithm> algorithms;
     
+    /** 各算法的耗时记录器，构造时注册一次，每次调用算法时无需按名称查找 */
+    private final Map<SimilarityAlgorithm, LatencyRecorder> algorithmRecorders;
+    
+    /** 各算法的资源用量记录器，未开启资源统计时为空 */
+    private final Map<SimilarityAlgorithm, ResourceRecorder> resourceRecorders;
+    
+    /** 是否统计每次算法调用的线程CPU时间和分配字节数 */
+    private final boolean profiling;
+    
+    /** 综合相似度默认参与平均的算法 */
+    private final List<SimilarityAlgorithm> defaultEnsemble;
+    
+    /** 长文档参与平均的算法：以线性时间的Winnowing指纹代替编辑距离 */
+    private final List<SimilarityAlgorithm> longDocumentEnsemble;
+    
+    /** 较长文档的规范化长度达到该值时使用 longDocumentEnsemble，为0时不切换 */
+    private final int longDocumentThreshold;
+    
+    private final WinnowingSimilarity winnowing;
+    
+    /** 阈值模式下的计算顺序：先算代价低的算法，以便尽早排除不可能达到阈值的文本对 */
+    private final List<SimilarityAlgorithm> thresholdOrder;
+    
+    /** 长文档在阈值模式下的计算顺序 */
+    private final List<SimilarityAlgorithm> longDocumentThresholdOrder;
+    
+    /** 候选的计算方案，按代价从高到低排列：完整组合、线性时间组合、只用余弦相似度 */
+    private final List<PlanCandidate> planCandidates;
+    
+    /** 按文档长度估计各算法耗时的代价模型，由每次完整计算的实测耗时校准 */
+    private final CostModel costModel;
+    
+    /** 打分阶段的延迟预算（纳秒），为0时不限制 */
+    private final long latencyBudgetNanos;
+    
+    /** 按内容哈希缓存的文档预处理结果，重复提交的文档无需再次规范化和分词 */
+    private final BoundedCache<ContentHash, AnalyzedDocument> documentCache;
+    
+    /** 并行计算各算法的线程池，未开启并行模式时为null */
+    private final ExecutorService ensembleExecutor;
+    
+    /** 请求在虚拟线程上处理时执行预处理和打分的平台线程池，未开启虚拟线程时为null */
+    private final ExecutorService computeExecutor;
+    
+    /** 读取文件等阻塞型任务的虚拟线程执行器，未开启虚拟线程时为null */
+    private final ExecutorService ioExecutor;
+    
+    /** 并行模式下单个算法的计算时限（纳秒） */
+    private final long algorithmTimeoutNanos;
+    
     public PlagiarismDetectionService() {
+        this(new PlagiarismProperties());
+    }
+    
+    @Autowired
+    public PlagiarismDetectionService(PlagiarismProperties properties) {
+        SimilarityAlgorithm cosine = new CosineSimilarity();
+        SimilarityAlgorithm levenshtein = new LevenshteinSimilarity();
+        SimilarityAlgorithm jaccard = new JaccardSimilarity();
+        this.winnowing = new WinnowingSimilarity();
+        
         this.algorithms = new ArrayList<>();
         // 初始化多种相似度算法
-        this.algorithms.add(new CosineSimilarity());
-        this.algorithms.add(new LevenshteinSimilarity());
-        this.algorithms.add(new JaccardSimilarity());
+        this.algorithms.add(cosine);
+        this.algorithms.add(levenshtein);
+        this.algorithms.add(jaccard);
+        this.algorithms.add(winnowing);
+        this.algorithms.add(new CommonSubstringSimilarity());
+        
+        this.profiling = properties.getProfiling().isEnabled() && ThreadResources.isSupported();
+        Map<SimilarityAlgorithm, LatencyRecorder> recorders = new IdentityHashMap<>();
+        Map<SimilarityAlgorithm, ResourceRecorder> resources = new IdentityHashMap<>();
+        for (SimilarityAlgorithm algorithm : algorithms) {
+            recorders.put(algorithm, PerformanceMonitor.algorithmRecorder(algorithm.getAlgorithmName()));
+            if (profiling) {
+                resources.put(algorithm, PerformanceMonitor.resourceRecorder(algorithm.getAlgorithmName()));
+            }
+        }
+        this.algorithmRecorders = Collections.unmodifiableMap(recorders);
+        this.resourceRecorders = Collections.unmodifiableMap(resources);
+        
+        this.defaultEnsemble = Arrays.asList(cosine, levenshtein, jaccard);
+        this.longDocumentEnsemble = Arrays.asList(cosine, winnowing, jaccard);
+        this.thresholdOrder = Arrays.asList(cosine, jaccard, levenshtein);
+        this.longDocumentThresholdOrder = Arrays.asList(cosine, jaccard, winnowing);
+        this.planCandidates = Arrays.asList(
+            new PlanCandidate(EnsemblePlan.FULL, defaultEnsemble, thresholdOrder),
+            new PlanCandidate(EnsemblePlan.LINEAR, longDocumentEnsemble, longDocumentThresholdOrder),
+            new PlanCandidate(EnsemblePlan.MINIMAL, Collections.singletonList(cosine), Collections.singletonList(cosine)));
+        this.costModel = new CostModel(algorithms);
+        this.documentCache = new BoundedCache<>(
+            properties.getDocumentCache().getMaxSize().toBytes(), AnalyzedDocument::estimatedSize);
+        
+        PlagiarismProperties.Ensemble ensemble = properties.getEnsemble();
+        boolean virtualThreads = properties.getVirtualThreads().isEnabled() && VirtualThreads.isSupported();
+        // 并行模式与虚拟线程相互独立：前者决定各算法是否并行并带时限，
+        // 后者只把虚拟线程上的预处理和打分整体交给固定大小的平台线程池，避免占满虚拟线程的载体线程
+        this.ensembleExecutor = ensemble.isParallel() ? createBoundedExecutor(ensemble, "similarity-worker-") : null;
+        this.computeExecutor = virtualThreads ? createBoundedExecutor(ensemble, "compute-worker-") : null;
+        this.ioExecutor = virtualThreads ? VirtualThreads.newExecutor("io-virtual-") : null;
+        this.algorithmTimeoutNanos = ensemble.getAlgorithmTimeout().toNanos();
+        this.longDocumentThreshold = ensemble.getLongDocumentThreshold();
+        this.latencyBudgetNanos = ensemble.getLatencyBudget().toNanos();
+        
+        PerformanceMonitor.registerCache("document", documentCache);
+        if (ensembleExecutor != null) {
+            PerformanceMonitor.registerExecutor("similarity", ensembleExecutor);
+        }
+        if (computeExecutor != null) {
+            PerformanceMonitor.registerExecutor("compute", computeExecutor);
+        }
+    }
+    
+    /**
+     * 创建有界线程池：线程数和等待队列都有上限，队列满时拒绝新任务，
+     * 避免请求高峰时无限堆积任务，也避免算法在没有时限的请求线程上执行
+     */
+    private static ExecutorService createBoundedExecutor(PlagiarismProperties.Ensemble ensemble, String namePrefix) {
+        int threads = Math.max(1, ensemble.getThreads());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, ensemble.getQueueCapacity())),
+            runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    /**
+     * 获取并行计算各算法的线程池，供测试占用工作线程或队列
+     * 
+     * @return 线程池，未开启并行模式时为null
+     */
+    ExecutorService ensembleExecutor() {
+        return ensembleExecutor;
+    }
+    
+    /**
+     * 关闭并行计算线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ensembleExecutor != null) {
+            ensembleExecutor.shutdownNow();
+        }
+        if (computeExecutor != null) {
+            computeExecutor.shutdownNow();
+        }
+        if (ioExecutor != null) {
+            ioExecutor.shutdownNow();
+        }
     }
     
     /**
@@ -42,10 +242,139 @@ public class PlagiarismDetectionService {
      * @throws IOException 文件读取异常
      */
     public double calculateSimilarityFromFiles(String originalFilePath, String plagiarizedFilePath) throws IOException {
-        String originalText = readFileContent(originalFilePath);
-        String plagiarizedText = readFileContent(plagiarizedFilePath);
+        return calculateSourceSimilarityResult(fileSource(originalFilePath), fileSource(plagiarizedFilePath)).getSimilarity();
+    }
+    
+    /**
+     * 流式计算两份内容（UTF-8）的相似度，并返回各算法的得分，结果与 
+     * {@link #calculateContentSimilarityResult(byte[], byte[])} 相同。
+     * 每份内容先分块读取一遍计算内容哈希，缓存未命中时再分块读取一遍进行解码和预处理，
+     * 任何时候都不在内存中保存完整的原始字节或解码文本。
+     * 开启虚拟线程时两遍读取都在io虚拟线程上进行，计算线程池只负责打分，不会在等待磁盘或网络时被占用。
+     * 
+     * @param original 原文内容，可以是上传的文件或磁盘文件
+     * @param plagiarized 抄袭文本内容
+     * @return 相似度结果
+     * @throws IOException 读取失败
+     */
+    public SimilarityResult calculateSourceSimilarityResult(InputStreamSource original, InputStreamSource plagiarized)
+            throws IOException {
+        List<SourceDigest> digests = readBoth(() -> digest(original), () -> digest(plagiarized));
+        SourceDigest originalDigest = digests.get(0);
+        SourceDigest plagiarizedDigest = digests.get(1);
+        if (originalDigest.blank || plagiarizedDigest.blank) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (originalDigest.hash.equals(plagiarizedDigest.hash)) {
+            return SimilarityResult.of(1.0);
+        }
+        
+        List<AnalyzedDocument> documents = readBoth(
+            () -> analyze(original, originalDigest.hash), () -> analyze(plagiarized, plagiarizedDigest.hash));
+        return onComputeThread(() -> ensembleSimilarity(documents.get(0), documents.get(1)));
+    }
+    
+    /**
+     * 使用指定算法流式计算两份内容的相似度，结果与
+     * {@link #calculateContentSimilarityWithAlgorithm(byte[], byte[], String)} 相同
+     * 
+     * @param original 原文内容
+     * @param plagiarized 抄袭文本内容
+     * @param algorithmName 算法名称
+     * @return 相似度值，范围[0, 1]
+     * @throws IOException 读取失败
+     */
+    public double calculateSourceSimilarityWithAlgorithm(InputStreamSource original, InputStreamSource plagiarized,
+                                                         String algorithmName) throws IOException {
+        SimilarityAlgorithm algorithm = findAlgorithm(algorithmName);
+        List<SourceDigest> digests = readBoth(() -> digest(original), () -> digest(plagiarized));
+        SourceDigest originalDigest = digests.get(0);
+        SourceDigest plagiarizedDigest = digests.get(1);
+        if (originalDigest.hash.equals(plagiarizedDigest.hash) && !originalDigest.blank) {
+            return 1.0;
+        }
         
-        return calculateSimilarity(originalText, plagiarizedText);
+        List<AnalyzedDocument> documents = readBoth(
+            () -> analyze(original, originalDigest.hash), () -> analyze(plagiarized, plagiarizedDigest.hash));
+        if (documents.get(0).isEmpty() || documents.get(1).isEmpty()) {
+            // 空白内容的处理因算法而异，交给算法自身的文本接口；规范化后为空的内容只含空白和标点
+            List<String> texts = readBoth(() -> readString(original), () -> readString(plagiarized));
+            return onComputeThread(() -> timedSimilarity(algorithm, texts.get(0), texts.get(1)));
+        }
+        return onComputeThread(() -> timedSimilarity(algorithm, documents.get(0), documents.get(1)));
+    }
+    
+    /**
+     * 读取内容的任务
+     */
+    @FunctionalInterface
+    private interface ReadTask<T> {
+        T read() throws IOException;
+    }
+    
+    /**
+     * 读取两份内容：开启虚拟线程时在io虚拟线程上同时读取，等待磁盘或网络时不占用平台线程；
+     * 否则在当前线程依次读取
+     */
+    private <T> List<T> readBoth(ReadTask<T> first, ReadTask<T> second) throws IOException {
+        if (ioExecutor == null) {
+            return Arrays.asList(first.read(), second.read());
+        }
+        Future<T> firstResult = ioExecutor.submit(first::read);
+        Future<T> secondResult = ioExecutor.submit(second::read);
+        try {
+            return Arrays.asList(awaitRead(firstResult), awaitRead(secondResult));
+        } finally {
+            firstResult.cancel(true);
+            secondResult.cancel(true);
+        }
+    }
+    
+    /**
+     * 流式读取内容得到的摘要
+     */
+    private static final class SourceDigest {
+        final ContentHash hash;
+        /** 与 {@link #isBlank(byte[])} 相同的判断 */
+        final boolean blank;
+        
+        SourceDigest(ContentHash hash, boolean blank) {
+            this.hash = hash;
+            this.blank = blank;
+        }
+    }
+    
+    /**
+     * 分块读取一遍内容，计算内容哈希并判断是否为空白
+     */
+    private static SourceDigest digest(InputStreamSource source) throws IOException {
+        long start = System.nanoTime();
+        boolean[] blank = {true};
+        try (InputStream in = source.getInputStream()) {
+            ContentHash hash = ContentHash.of(in, (buffer, length) -> {
+                if (blank[0]) {
+                    blank[0] = isBlank(buffer, length);
+                }
+            });
+            return new SourceDigest(hash, blank[0]);
+        } finally {
+            digestRecorder.record(System.nanoTime() - start);
+        }
+    }
+    
+    private static <T> T awaitRead(Future<T> read) throws IOException {
+        try {
+            return read.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("文件读取被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("文件读取失败", e.getCause());
+        }
     }
     
     
@@ -58,6 +387,410 @@ public class PlagiarismDetectionService {
      * @return 相似度值，范围[0, 1]
      */
     public double calculateSimilarity(String originalText, String plagiarizedText) {
+        return calculateSimilarityResult(originalText, plagiarizedText).getSimilarity();
+    }
+    
+    /**
+     * 计算两个文本的相似度，并返回各算法的得分
+     * 并行模式下超时的算法不计入平均值，结果标记为部分结果
+     * 
+     * @param originalText 原文
+     * @param plagiarizedText 抄袭文本
+     * @return 相似度结果
+     */
+    public SimilarityResult calculateSimilarityResult(String originalText, String plagiarizedText) {
+        if (originalText == null || plagiarizedText == null) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (originalText.trim().isEmpty() || plagiarizedText.trim().isEmpty()) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (originalText.equals(plagiarizedText)) {
+            return SimilarityResult.of(1.0);
+        }
+        
+        // 每篇文档只做一次规范化和分词，供所有算法共用
+        return onComputeThread(() -> ensembleSimilarity(analyze(originalText), analyze(plagiarizedText)));
+    }
+    
+    /**
+     * 计算两份上传内容的相似度
+     * 内容按UTF-8解码，预处理结果以原始字节的内容哈希为键缓存，
+     * 重复上传的文档直接使用缓存结果，不再解码和规范化。
+     * 
+     * @param originalContent 原文内容
+     * @param plagiarizedContent 抄袭文本内容
+     * @return 相似度值，范围[0, 1]
+     */
+    public double calculateContentSimilarity(byte[] originalContent, byte[] plagiarizedContent) {
+        return calculateContentSimilarityResult(originalContent, plagiarizedContent).getSimilarity();
+    }
+    
+    /**
+     * 计算两份上传内容的相似度，并返回各算法的得分
+     * 
+     * @param originalContent 原文内容
+     * @param plagiarizedContent 抄袭文本内容
+     * @return 相似度结果
+     */
+    public SimilarityResult calculateContentSimilarityResult(byte[] originalContent, byte[] plagiarizedContent) {
+        if (originalContent == null || plagiarizedContent == null) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (isBlank(originalContent) || isBlank(plagiarizedContent)) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (Arrays.equals(originalContent, plagiarizedContent)) {
+            return SimilarityResult.of(1.0);
+        }
+        
+        return onComputeThread(() -> ensembleSimilarity(analyze(originalContent), analyze(plagiarizedContent)));
+    }
+    
+    /**
+     * 计算两篇预处理完成的文档的相似度，并返回各算法的得分
+     * 
+     * @param originalDocument 原文
+     * @param plagiarizedDocument 抄袭文本
+     * @return 相似度结果
+     */
+    public SimilarityResult calculateDocumentSimilarityResult(AnalyzedDocument originalDocument,
+                                                              AnalyzedDocument plagiarizedDocument) {
+        if (originalDocument.isEmpty() || plagiarizedDocument.isEmpty()) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (originalDocument.getNormalizedText().equals(plagiarizedDocument.getNormalizedText())) {
+            return SimilarityResult.of(1.0);
+        }
+        
+        return ensembleSimilarity(originalDocument, plagiarizedDocument);
+    }
+    
+    /**
+     * 在当前线程上依次计算两篇预处理完成的文档的相似度，不使用并行线程池，也没有时限。
+     * 供已经按文档对并行的调用方（批量比对、语料库重新打分、命令行批量模式）在自己的工作线程上使用，
+     * 避免一批文档占满共用的线程池，使普通请求的算法排队或被拒绝。所用方案与
+     * {@link #calculateDocumentSimilarityResult(AnalyzedDocument, AnalyzedDocument)} 相同。
+     * 
+     * @param originalDocument 原文
+     * @param plagiarizedDocument 抄袭文本
+     * @return 相似度结果
+     */
+    public SimilarityResult calculateDocumentSimilarityResultSequentially(AnalyzedDocument originalDocument,
+                                                                          AnalyzedDocument plagiarizedDocument) {
+        if (originalDocument.isEmpty() || plagiarizedDocument.isEmpty()) {
+            return SimilarityResult.of(0.0);
+        }
+        
+        if (originalDocument.getNormalizedText().equals(plagiarizedDocument.getNormalizedText())) {
+            return SimilarityResult.of(1.0);
+        }
+        
+        return ensembleSimilarity(originalDocument, plagiarizedDocument, false);
+    }
+    
+    /**
+     * 使用指定算法计算两篇预处理完成的文档的相似度
+     * 
+     * @param originalDocument 原文
+     * @param plagiarizedDocument 抄袭文本
+     * @param algorithmName 算法名称
+     * @return 相似度值，范围[0, 1]
+     */
+    public double calculateDocumentSimilarityWithAlgorithm(AnalyzedDocument originalDocument,
+                                                           AnalyzedDocument plagiarizedDocument, String algorithmName) {
+        return timedSimilarity(findAlgorithm(algorithmName), originalDocument, plagiarizedDocument);
+    }
+    
+    /**
+     * 判断是否按长文档处理：长文档上编辑距离的平方复杂度代价过高，以Winnowing指纹代替
+     */
+    private boolean isLongDocument(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument) {
+        return longDocumentThreshold > 0
+            && Math.max(originalDocument.length(), plagiarizedDocument.length()) >= longDocumentThreshold;
+    }
+    
+    /**
+     * 候选的计算方案
+     */
+    private static final class PlanCandidate {
+        final String name;
+        final List<SimilarityAlgorithm> ensemble;
+        final List<SimilarityAlgorithm> thresholdOrder;
+        
+        PlanCandidate(String name, List<SimilarityAlgorithm> ensemble, List<SimilarityAlgorithm> thresholdOrder) {
+            this.name = name;
+            this.ensemble = ensemble;
+            this.thresholdOrder = thresholdOrder;
+        }
+    }
+    
+    /**
+     * 选定的计算方案
+     */
+    private static final class Plan {
+        final PlanCandidate candidate;
+        final long estimatedNanos;
+        
+        Plan(PlanCandidate candidate, long estimatedNanos) {
+            this.candidate = candidate;
+            this.estimatedNanos = estimatedNanos;
+        }
+    }
+    
+    /**
+     * 选择计算方案：从完整组合开始，依次取第一个估计耗时不超过预算的方案；
+     * 都超出预算时使用最后一个即代价最低的方案。长文档规则仍然优先，长文档不考虑完整组合。
+     * 并行计算时打分耗时取决于最慢的算法，估计值取各算法耗时的最大值，否则取总和。
+     * 阈值模式使用同一方案，保证其结果与综合相似度一致。
+     */
+    private Plan plan(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument) {
+        boolean parallel = ensembleExecutor != null;
+        int first = isLongDocument(originalDocument, plagiarizedDocument) ? 1 : 0;
+        Plan plan = null;
+        for (int i = first; i < planCandidates.size(); i++) {
+            PlanCandidate candidate = planCandidates.get(i);
+            long estimate = 0;
+            for (SimilarityAlgorithm algorithm : candidate.ensemble) {
+                long cost = costModel.estimate(algorithm, originalDocument, plagiarizedDocument);
+                estimate = parallel ? Math.max(estimate, cost) : estimate + cost;
+            }
+            plan = new Plan(candidate, estimate);
+            if (latencyBudgetNanos <= 0 || estimate <= latencyBudgetNanos) {
+                break;
+            }
+        }
+        return plan;
+    }
+    
+    /**
+     * 使用所选方案中的算法计算两篇文档的相似度并取平均值
+     */
+    private SimilarityResult ensembleSimilarity(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument) {
+        return ensembleSimilarity(originalDocument, plagiarizedDocument, ensembleExecutor != null);
+    }
+    
+    /**
+     * 使用所选方案中的算法计算两篇文档的相似度并取平均值
+     * 
+     * @param parallel 是否在并行线程池中带时限计算；为false时在当前线程上依次计算，没有时限
+     */
+    private SimilarityResult ensembleSimilarity(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument,
+                                                boolean parallel) {
+        Plan plan = plan(originalDocument, plagiarizedDocument);
+        List<SimilarityAlgorithm> algorithms = plan.candidate.ensemble;
+        List<String> names = new ArrayList<>(algorithms.size());
+        for (SimilarityAlgorithm algorithm : algorithms) {
+            names.add(algorithm.getAlgorithmName());
+        }
+        EnsemblePlan ensemblePlan = new EnsemblePlan(plan.candidate.name, names, plan.estimatedNanos, latencyBudgetNanos);
+        if (parallel) {
+            return parallelEnsembleSimilarity(algorithms, ensemblePlan, originalDocument, plagiarizedDocument);
+        }
+        
+        // 使用多种算法计算相似度
+        Map<String, Double> scores = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        
+        for (SimilarityAlgorithm algorithm : algorithms) {
+            try {
+                double similarity = timedSimilarity(algorithm, originalDocument, plagiarizedDocument);
+                scores.put(algorithm.getAlgorithmName(), similarity);
+            } catch (Exception e) {
+                // 如果某个算法计算失败，跳过该算法
+                System.err.println("算法 " + algorithm.getAlgorithmName() + " 计算失败: " + e.getMessage());
+                failed.add(algorithm.getAlgorithmName());
+            }
+        }
+        
+        return averageOf(scores, new ArrayList<>(), failed, ensemblePlan);
+    }
+    
+    /**
+     * 在线程池中并行计算各算法，总耗时取决于最慢的算法而不是所有算法之和。
+     * 每个算法的时限从其任务开始执行时算起，在队列中等待的时间不计入；超时的算法被取消并不计入平均值，
+     * 算法的主循环检查中断，取消后工作线程随即释放。
+     * 线程池队列已满时取消已提交的任务并抛出 {@link RejectedExecutionException}，
+     * 不会悄悄少算几个算法，使结果随服务器负载变化。
+     */
+    private SimilarityResult parallelEnsembleSimilarity(List<SimilarityAlgorithm> algorithms, EnsemblePlan plan,
+                                                        AnalyzedDocument originalDocument,
+                                                        AnalyzedDocument plagiarizedDocument) {
+        List<AlgorithmTask> tasks = new ArrayList<>(algorithms.size());
+        List<Future<Double>> futures = new ArrayList<>(algorithms.size());
+        for (SimilarityAlgorithm algorithm : algorithms) {
+            AlgorithmTask task = new AlgorithmTask(() -> timedSimilarity(algorithm, originalDocument, plagiarizedDocument));
+            try {
+                futures.add(ensembleExecutor.submit(ResourceProfile.propagate(task)));
+            } catch (RejectedExecutionException e) {
+                for (Future<Double> future : futures) {
+                    future.cancel(true);
+                }
+                throw new RejectedExecutionException("计算线程池已满，请稍后重试", e);
+            }
+            tasks.add(task);
+        }
+        
+        Map<String, Double> scores = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        
+        for (int i = 0; i < futures.size(); i++) {
+            String name = algorithms.get(i).getAlgorithmName();
+            Future<Double> future = futures.get(i);
+            try {
+                long deadline = awaitStart(tasks.get(i)) + algorithmTimeoutNanos;
+                scores.put(name, future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut.add(name);
+            } catch (ExecutionException e) {
+                // 如果某个算法计算失败，跳过该算法
+                System.err.println("算法 " + name + " 计算失败: " + e.getCause().getMessage());
+                failed.add(name);
+            } catch (CancellationException e) {
+                System.err.println("算法 " + name + " 计算失败: " + e.getMessage());
+                failed.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                timedOut.add(name);
+            }
+        }
+        
+        return averageOf(scores, timedOut, failed, plan);
+    }
+    
+    /**
+     * 等待任务开始执行
+     * 
+     * @return 开始执行的时刻（{@link System#nanoTime()}）
+     * @throws CancellationException 线程池已关闭，排队的任务不会再执行
+     */
+    private long awaitStart(AlgorithmTask task) throws InterruptedException {
+        while (!task.started.await(algorithmTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            if (ensembleExecutor.isShutdown()) {
+                throw new CancellationException("线程池已关闭");
+            }
+        }
+        return task.startNanos;
+    }
+    
+    /**
+     * 记录开始执行时刻的算法任务
+     */
+    private static final class AlgorithmTask implements Callable<Double> {
+        private final Callable<Double> calculation;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile long startNanos;
+        
+        AlgorithmTask(Callable<Double> calculation) {
+            this.calculation = calculation;
+        }
+        
+        @Override
+        public Double call() throws Exception {
+            startNanos = System.nanoTime();
+            started.countDown();
+            return calculation.call();
+        }
+    }
+    
+    /**
+     * 调用算法并记录耗时，所有算法调用都经过这里，性能统计因此覆盖每一次计算。
+     * 只有完整计算用于校准代价模型：带阈值的计算可能提前终止，耗时不代表完整计算的代价。
+     */
+    private double timedSimilarity(SimilarityAlgorithm algorithm, AnalyzedDocument originalDocument,
+                                   AnalyzedDocument plagiarizedDocument) {
+        return measured(algorithm, originalDocument.length(), plagiarizedDocument.length(),
+            algorithm.estimateCost(originalDocument, plagiarizedDocument),
+            () -> algorithm.calculateDocumentSimilarity(originalDocument, plagiarizedDocument));
+    }
+    
+    private double timedSimilarity(SimilarityAlgorithm algorithm, AnalyzedDocument originalDocument,
+                                   AnalyzedDocument plagiarizedDocument, double minSimilarity) {
+        return measured(algorithm, originalDocument.length(), plagiarizedDocument.length(), -1L,
+            () -> algorithm.calculateDocumentSimilarity(originalDocument, plagiarizedDocument, minSimilarity));
+    }
+    
+    private double timedSimilarity(SimilarityAlgorithm algorithm, String originalText, String plagiarizedText) {
+        return measured(algorithm, originalText == null ? 0 : originalText.length(),
+            plagiarizedText == null ? 0 : plagiarizedText.length(), -1L,
+            () -> algorithm.calculateSimilarity(originalText, plagiarizedText));
+    }
+    
+    /**
+     * 记录一次算法调用的耗时，给出参考代价时同时校准代价模型；开启资源统计或当前请求需要明细时，
+     * 还在调用线程上读取前后的CPU时间和分配字节数，开启资源统计时汇总到该算法的资源统计，需要明细时记入请求的明细
+     */
+    private double measured(SimilarityAlgorithm algorithm, int originalLength, int plagiarizedLength,
+                            long referenceCost, DoubleSupplier calculation) {
+        ResourceProfile profile = ResourceProfile.current();
+        boolean measureResources = profiling || (profile != null && ThreadResources.isSupported());
+        long cpuStart = measureResources ? ThreadResources.cpuTime() : -1L;
+        long allocatedStart = measureResources ? ThreadResources.allocatedBytes() : -1L;
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            double similarity = calculation.getAsDouble();
+            completed = true;
+            return similarity;
+        } finally {
+            long wallNanos = System.nanoTime() - start;
+            algorithmRecorders.get(algorithm).record(wallNanos);
+            // 超时被取消或失败的调用没有做完，耗时只是完整计算代价的下限
+            if (referenceCost >= 0) {
+                if (completed) {
+                    costModel.record(algorithm, referenceCost, wallNanos);
+                } else {
+                    costModel.recordLowerBound(algorithm, referenceCost, wallNanos);
+                }
+            }
+            // 虚拟线程上读数为-1，此时不统计
+            if (cpuStart >= 0 && allocatedStart >= 0) {
+                long cpuNanos = ThreadResources.cpuTime() - cpuStart;
+                long allocatedBytes = ThreadResources.allocatedBytes() - allocatedStart;
+                if (profiling) {
+                    resourceRecorders.get(algorithm).record(cpuNanos, allocatedBytes, originalLength, plagiarizedLength);
+                }
+                if (profile != null) {
+                    profile.add(algorithm.getAlgorithmName(), wallNanos, cpuNanos, allocatedBytes);
+                }
+            }
+        }
+    }
+    
+    private static SimilarityResult averageOf(Map<String, Double> scores, List<String> timedOut, List<String> failed,
+                                              EnsemblePlan plan) {
+        if (scores.isEmpty()) {
+            return new SimilarityResult(0.0, scores, timedOut, failed, plan);
+        }
+        
+        double totalSimilarity = 0.0;
+        for (double similarity : scores.values()) {
+            totalSimilarity += similarity;
+        }
+        
+        return new SimilarityResult(totalSimilarity / scores.size(), scores, timedOut, failed, plan);
+    }
+    
+    /**
+     * 计算两个文本的相似度（带阈值）
+     * 结果不低于 minSimilarity 时与 {@link #calculateSimilarity(String, String)} 相同；
+     * 否则可能提前终止，返回一个小于 minSimilarity 的值。
+     * 廉价算法的结果已经决定平均值不可能达到阈值时，跳过编辑距离等昂贵算法。
+     * 
+     * @param originalText 原文
+     * @param plagiarizedText 抄袭文本
+     * @param minSimilarity 关心的最低相似度
+     * @return 相似度值，范围[0, 1]
+     */
+    public double calculateSimilarity(String originalText, String plagiarizedText, double minSimilarity) {
         if (originalText == null || plagiarizedText == null) {
             return 0.0;
         }
@@ -70,13 +803,46 @@ public class PlagiarismDetectionService {
             return 1.0;
         }
         
-        // 使用多种算法计算相似度
+        return onComputeThread(
+            () -> calculateDocumentSimilarity(analyze(originalText), analyze(plagiarizedText), minSimilarity));
+    }
+    
+    /**
+     * 计算两篇预处理完成的文档的相似度（带阈值），阈值语义与
+     * {@link #calculateSimilarity(String, String, double)} 相同
+     * 
+     * @param originalDocument 原文
+     * @param plagiarizedDocument 抄袭文本
+     * @param minSimilarity 关心的最低相似度
+     * @return 相似度值，范围[0, 1]
+     */
+    public double calculateDocumentSimilarity(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument,
+                                              double minSimilarity) {
+        if (originalDocument.isEmpty() || plagiarizedDocument.isEmpty()) {
+            return 0.0;
+        }
+        
+        if (originalDocument.getNormalizedText().equals(plagiarizedDocument.getNormalizedText())) {
+            return 1.0;
+        }
+        
+        List<SimilarityAlgorithm> order = plan(originalDocument, plagiarizedDocument).candidate.thresholdOrder;
+        int total = order.size();
+        double requiredSum = minSimilarity * total;
         double totalSimilarity = 0.0;
         int validAlgorithms = 0;
         
-        for (SimilarityAlgorithm algorithm : algorithms) {
+        for (int i = 0; i < total; i++) {
+            SimilarityAlgorithm algorithm = order.get(i);
+            // 剩余算法全部取满分1.0时，当前算法至少需要达到的相似度
+            double required = requiredSum - totalSimilarity - (total - i - 1);
+            if (required > 1.0) {
+                // 已不可能达到阈值，直接返回当前的下界估计
+                return totalSimilarity / total;
+            }
+            
             try {
-                double similarity = algorithm.calculateSimilarity(originalText, plagiarizedText);
+                double similarity = timedSimilarity(algorithm, originalDocument, plagiarizedDocument, Math.max(required, 0.0));
                 totalSimilarity += similarity;
                 validAlgorithms++;
             } catch (Exception e) {
@@ -92,6 +858,31 @@ public class PlagiarismDetectionService {
         return totalSimilarity / validAlgorithms;
     }
     
+    /**
+     * 由文档长度等廉价统计量估计相似度的上界，不做任何算法计算
+     * 
+     * @param originalDocument 原文
+     * @param plagiarizedDocument 抄袭文本
+     * @param algorithmName 算法名称，为null时估计多算法平均值的上界
+     * @return 相似度上界，实际相似度不会超过该值
+     */
+    public double similarityUpperBound(AnalyzedDocument originalDocument, AnalyzedDocument plagiarizedDocument,
+                                       String algorithmName) {
+        if (algorithmName != null) {
+            return findAlgorithm(algorithmName).upperBound(originalDocument, plagiarizedDocument);
+        }
+        if (originalDocument.isEmpty() || plagiarizedDocument.isEmpty()) {
+            return 0.0;
+        }
+        
+        List<SimilarityAlgorithm> ensemble = plan(originalDocument, plagiarizedDocument).candidate.ensemble;
+        double total = 0.0;
+        for (SimilarityAlgorithm algorithm : ensemble) {
+            total += algorithm.upperBound(originalDocument, plagiarizedDocument);
+        }
+        return total / ensemble.size();
+    }
+    
     /**
      * 使用指定算法计算相似度
      * 
@@ -101,15 +892,226 @@ public class PlagiarismDetectionService {
      * @return 相似度值，范围[0, 1]
      */
     public double calculateSimilarityWithAlgorithm(String originalText, String plagiarizedText, String algorithmName) {
+        SimilarityAlgorithm algorithm = findAlgorithm(algorithmName);
+        return onComputeThread(() -> timedSimilarity(algorithm, originalText, plagiarizedText));
+    }
+    
+    /**
+     * 使用指定算法计算两份上传内容的相似度，预处理结果同样经过缓存
+     * 
+     * @param originalContent 原文内容
+     * @param plagiarizedContent 抄袭文本内容
+     * @param algorithmName 算法名称
+     * @return 相似度值，范围[0, 1]
+     */
+    public double calculateContentSimilarityWithAlgorithm(byte[] originalContent, byte[] plagiarizedContent, String algorithmName) {
+        SimilarityAlgorithm algorithm = findAlgorithm(algorithmName);
+        if (Arrays.equals(originalContent, plagiarizedContent) && !isBlank(originalContent)) {
+            return 1.0;
+        }
+        
+        return onComputeThread(() -> {
+            AnalyzedDocument originalDocument = analyze(originalContent);
+            AnalyzedDocument plagiarizedDocument = analyze(plagiarizedContent);
+            if (originalDocument.isEmpty() || plagiarizedDocument.isEmpty()) {
+                // 空白内容的处理因算法而异，交给算法自身的文本接口
+                return timedSimilarity(algorithm,
+                    new String(originalContent, StandardCharsets.UTF_8),
+                    new String(plagiarizedContent, StandardCharsets.UTF_8));
+            }
+            return timedSimilarity(algorithm, originalDocument, plagiarizedDocument);
+        });
+    }
+    
+    /**
+     * 查找两篇文本中相同的片段，偏移量为原始文本中的字符下标，可用于高亮显示；
+     * 相似度由同一次计算得出，与 {@link #calculateSimilarityWithAlgorithm(String, String, String)} 的结果相同，
+     * 不必为了相似度再规范化和计算一遍指纹
+     * 
+     * @param originalText 原文
+     * @param plagiarizedText 抄袭文本
+     * @param algorithmName 算法名称，该算法须能够定位相同片段
+     * @return 相似度及相同片段的位置
+     */
+    public MatchResult locateMatches(String originalText, String plagiarizedText, String algorithmName) {
+        SimilarityAlgorithm algorithm = findAlgorithm(algorithmName);
+        if (!(algorithm instanceof MatchLocator)) {
+            throw new IllegalArgumentException("算法不支持定位相同片段: " + algorithmName);
+        }
+        MatchLocator locator = (MatchLocator) algorithm;
+        return onComputeThread(() -> {
+            MatchResult[] result = new MatchResult[1];
+            measured(algorithm, originalText == null ? 0 : originalText.length(),
+                plagiarizedText == null ? 0 : plagiarizedText.length(), -1L, () -> {
+                    result[0] = locator.locateMatches(originalText, plagiarizedText);
+                    return result[0].getSimilarity();
+                });
+            return result[0];
+        });
+    }
+    
+    /**
+     * 获取默认用于定位相同片段的算法名称
+     * 
+     * @return 算法名称
+     */
+    public String getMatchAlgorithmName() {
+        return winnowing.getAlgorithmName();
+    }
+    
+    private SimilarityAlgorithm findAlgorithm(String algorithmName) {
         for (SimilarityAlgorithm algorithm : algorithms) {
             if (algorithm.getAlgorithmName().equals(algorithmName)) {
-                return algorithm.calculateSimilarity(originalText, plagiarizedText);
+                return algorithm;
             }
         }
         
         throw new IllegalArgumentException("未找到算法: " + algorithmName);
     }
     
+    /**
+     * 获取文档预处理缓存的统计信息
+     * 
+     * @return 条目数、占用字节数、容量上限及命中、未命中、淘汰次数
+     */
+    public Map<String, Long> getDocumentCacheStats() {
+        return documentCache.stats();
+    }
+    
+    /**
+     * 清空文档预处理缓存
+     */
+    public void clearDocumentCache() {
+        documentCache.clear();
+    }
+    
+    /**
+     * 获取文本的预处理结果，与相似度计算共用同一个文档缓存
+     * 
+     * @param text 原始文本
+     * @return 预处理完成的文档
+     */
+    public AnalyzedDocument analyzeDocument(String text) {
+        return analyze(text == null ? "" : text);
+    }
+    
+    /**
+     * 获取上传内容（UTF-8）的预处理结果，与相似度计算共用同一个文档缓存
+     * 
+     * @param content 文件内容
+     * @return 预处理完成的文档
+     */
+    public AnalyzedDocument analyzeContent(byte[] content) {
+        return analyze(content);
+    }
+    
+    /**
+     * 流式获取内容（UTF-8）的预处理结果，与 {@link #analyzeContent(byte[])} 共用同一个文档缓存
+     * 
+     * @param source 内容来源，会被读取两遍：一遍计算内容哈希，缓存未命中时再读一遍进行预处理
+     * @return 预处理完成的文档
+     * @throws IOException 读取失败
+     */
+    public AnalyzedDocument analyzeSource(InputStreamSource source) throws IOException {
+        return analyze(source, digest(source).hash);
+    }
+    
+    /**
+     * 获取文本的预处理结果（带缓存）
+     */
+    private AnalyzedDocument analyze(String text) {
+        return documentCache.get(ContentHash.of(text), key -> timedAnalysis(() -> AnalyzedDocument.analyze(text)));
+    }
+    
+    /**
+     * 获取上传内容的预处理结果（带缓存），缓存命中时不解码
+     */
+    private AnalyzedDocument analyze(byte[] content) {
+        return documentCache.get(ContentHash.of(content),
+            key -> timedAnalysis(() -> AnalyzedDocument.analyze(new String(content, StandardCharsets.UTF_8))));
+    }
+    
+    /**
+     * 获取流式内容的预处理结果（带缓存），缓存命中时不再读取
+     */
+    private AnalyzedDocument analyze(InputStreamSource source, ContentHash hash) throws IOException {
+        try {
+            return documentCache.get(hash, key -> timedAnalysis(() -> {
+                try (InputStream in = source.getInputStream()) {
+                    return AnalyzedDocument.analyze(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * 在计算线程上执行预处理和打分。开启虚拟线程时请求在虚拟线程上处理，这里把CPU密集的工作
+     * 交给固定大小的平台线程池并等待结果，虚拟线程在等待期间让出载体线程；
+     * 调用方不是虚拟线程（未开启虚拟线程、批量比对和异步任务的工作线程等）时直接在当前线程执行。
+     * 线程池队列已满时抛出 {@link RejectedExecutionException} 拒绝请求，而不是退回虚拟线程上执行。
+     */
+    private <T> T onComputeThread(Supplier<T> task) {
+        if (computeExecutor == null || !VirtualThreads.isVirtual(Thread.currentThread())) {
+            return task.get();
+        }
+        Future<T> future;
+        try {
+            future = computeExecutor.submit(ResourceProfile.propagate(task::get));
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("计算线程池已满，请稍后重试", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("等待计算结果时被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+    
+    /**
+     * 执行文档预处理（规范化、分词和shingle计算）并记录耗时，只在缓存未命中时调用
+     */
+    private static AnalyzedDocument timedAnalysis(Supplier<AnalyzedDocument> analysis) {
+        long start = System.nanoTime();
+        try {
+            return analysis.get();
+        } finally {
+            analyzeRecorder.record(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * 判断UTF-8内容解码后是否为空白（与 String.trim().isEmpty() 一致）
+     * trim 去除的字符均不超过 U+0020，在UTF-8中都是单字节，
+     * 其余字符的编码字节都大于 0x20，因此逐字节判断即可。
+     */
+    private static boolean isBlank(byte[] content) {
+        return isBlank(content, content.length);
+    }
+    
+    private static boolean isBlank(byte[] content, int length) {
+        for (int i = 0; i < length; i++) {
+            if ((content[i] & 0xff) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * 获取所有可用的算法名称
      * 
@@ -124,13 +1126,13 @@ public class PlagiarismDetectionService {
     }
     
     /**
-     * 读取文件内容
+     * 检查文件后作为流式内容来源，读取时才打开文件
      * 
      * @param filePath 文件路径
-     * @return 文件内容
-     * @throws IOException 文件读取异常
+     * @return 内容来源
+     * @throws IOException 文件不存在或不是普通文件
      */
-    private String readFileContent(String filePath) throws IOException {
+    private static InputStreamSource fileSource(String filePath) throws IOException {
         File file = new File(filePath);
         if (!file.exists()) {
             throw new IOException("文件不存在: " + filePath);
@@ -140,7 +1142,22 @@ public class PlagiarismDetectionService {
             throw new IOException("路径不是文件: " + filePath);
         }
         
-        return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+        return new FileSystemResource(file);
+    }
+    
+    /**
+     * 读取全部内容为字符串，只用于规范化后为空的内容
+     */
+    private static String readString(InputStreamSource source) throws IOException {
+        try (InputStream in = source.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
     }
     
     /**
@@ -0,0 +1,231 @@
+package com.plagiarism.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按容量（字节数）限制的LRU缓存
+ * 每个条目的大小由调用方提供的估算函数给出，缓存总大小超过上限时
+ * 按最近最少使用的顺序淘汰条目；超过上限的单个条目不会被缓存。
+ * 
+ * <p>所有操作在同一把锁内完成，临界区只包含哈希表操作；
+ * {@link #get(Object, Function)} 中的值计算在锁外进行，
+ * 并发计算同一个键时可能重复计算，但只保留先写入的结果。</p>
+ * 
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author 学生
+ * @version 1.0.0
+ */
+public class BoundedCache<K, V> {
+    
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    
+    /**
+     * 创建缓存
+     * 
+     * @param maxWeight 缓存总大小上限（字节）
+     * @param weigher 条目大小估算函数
+     */
+    public BoundedCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("缓存容量不能为负数");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+    
+    /**
+     * 查询缓存
+     * 
+     * @param key 键
+     * @return 缓存的值，不存在时返回null
+     */
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 查询缓存，不存在时计算并写入
+     * 
+     * @param key 键
+     * @param loader 值计算函数
+     * @return 缓存的值或新计算的值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+        return putIfAbsent(key, value);
+    }
+    
+    /**
+     * 写入缓存
+     * 
+     * @param key 键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        long entryWeight = weigher.applyAsLong(value);
+        lock.lock();
+        try {
+            Entry<V> previous = entries.remove(key);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            if (entryWeight <= maxWeight) {
+                entries.put(key, new Entry<>(value, entryWeight));
+                weight += entryWeight;
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private V putIfAbsent(K key, V value) {
+        long entryWeight = weigher.applyAsLong(value);
+        lock.lock();
+        try {
+            Entry<V> existing = entries.get(key);
+            if (existing != null) {
+                return existing.value;
+            }
+            if (entryWeight <= maxWeight) {
+                entries.put(key, new Entry<>(value, entryWeight));
+                weight += entryWeight;
+                evict();
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void evict() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Entry<V> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.weight;
+            evictionCount++;
+        }
+    }
+    
+    /**
+     * 移除缓存条目
+     * 
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Entry<V> removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 清空缓存，统计信息保留
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 获取条目数量
+     * 
+     * @return 条目数量
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 获取当前缓存总大小
+     * 
+     * @return 总大小（字节）
+     */
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 获取缓存统计信息
+     * 
+     * @return 包含 size、weight、maxWeight、hits、misses、evictions 的统计信息
+     */
+    public Map<String, Long> stats() {
+        lock.lock();
+        try {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("size", (long) entries.size());
+            stats.put("weight", weight);
+            stats.put("maxWeight", maxWeight);
+            stats.put("hits", hitCount);
+            stats.put("misses", missCount);
+            stats.put("evictions", evictionCount);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+        
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.plagiarism.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 文档内容哈希
+ * 使用 128 位 MurmurHash3（x64 变体）对内容计算摘要，作为缓存键代替完整文本：
+ * 键本身只占两个 long，不再复制整篇文档，碰撞概率可以忽略。
+ * 
+ * <p>字符序列按 UTF-16 小端字节序参与哈希，并且使用与字节内容不同的种子：
+ * 即使某段上传字节恰好等于某个文本的 UTF-16 编码，两者的键也不相等，
+ * 因此文本和字节两种来源的键可以放在同一个缓存中而不会互相命中。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class ContentHash {
+    
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    
+    /** 字节内容的种子 */
+    private static final long BYTES_SEED = 0L;
+    
+    /** 字符序列的种子，与字节内容区分 */
+    private static final long TEXT_SEED = 0x9e3779b97f4a7c15L;
+    
+    /** 流式计算时每次读取的字节数 */
+    private static final int CHUNK_SIZE = 64 * 1024;
+    
+    private final long high;
+    private final long low;
+    
+    private ContentHash(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+    
+    /**
+     * 计算字符序列的内容哈希
+     * 
+     * @param text 字符序列
+     * @return 内容哈希
+     */
+    public static ContentHash of(CharSequence text) {
+        Hasher hasher = new Hasher(TEXT_SEED);
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            hasher.putByte((byte) c);
+            hasher.putByte((byte) (c >>> 8));
+        }
+        return hasher.finish();
+    }
+    
+    /**
+     * 计算字节数组的内容哈希
+     * 
+     * @param bytes 字节数组
+     * @return 内容哈希
+     */
+    public static ContentHash of(byte[] bytes) {
+        return of(bytes, 0, bytes.length);
+    }
+    
+    /**
+     * 计算字节数组片段的内容哈希
+     * 
+     * @param bytes 字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 内容哈希
+     */
+    public static ContentHash of(byte[] bytes, int offset, int length) {
+        Hasher hasher = new Hasher(BYTES_SEED);
+        hasher.putBytes(bytes, offset, length);
+        return hasher.finish();
+    }
+    
+    /**
+     * 分块读取输入流并计算内容哈希，结果与对完整内容调用 {@link #of(byte[])} 相同；
+     * 只占用一个固定大小的缓冲区，不把整个流读入内存
+     * 
+     * @param in 输入流，读取到末尾，不负责关闭
+     * @param consumer 每读到一块内容时调用，可以为null
+     * @return 内容哈希
+     * @throws IOException 读取失败
+     */
+    public static ContentHash of(InputStream in, ChunkConsumer consumer) throws IOException {
+        Hasher hasher = new Hasher(BYTES_SEED);
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            hasher.putBytes(buffer, 0, read);
+            if (consumer != null) {
+                consumer.accept(buffer, read);
+            }
+        }
+        return hasher.finish();
+    }
+    
+    /**
+     * 流式计算哈希时每块内容的接收方
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        
+        /**
+         * 接收一块内容，缓冲区在返回后会被复用
+         * 
+         * @param buffer 缓冲区
+         * @param length 本块的有效字节数
+         */
+        void accept(byte[] buffer, int length);
+    }
+    
+    private static long readLong(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xffL)
+            | (bytes[offset + 1] & 0xffL) << 8
+            | (bytes[offset + 2] & 0xffL) << 16
+            | (bytes[offset + 3] & 0xffL) << 24
+            | (bytes[offset + 4] & 0xffL) << 32
+            | (bytes[offset + 5] & 0xffL) << 40
+            | (bytes[offset + 6] & 0xffL) << 48
+            | (bytes[offset + 7] & 0xffL) << 56;
+    }
+    
+    /**
+     * 获取哈希的高64位
+     * 
+     * @return 高64位
+     */
+    public long getHigh() {
+        return high;
+    }
+    
+    /**
+     * 获取哈希的低64位
+     * 
+     * @return 低64位
+     */
+    public long getLow() {
+        return low;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContentHash)) {
+            return false;
+        }
+        ContentHash other = (ContentHash) o;
+        return high == other.high && low == other.low;
+    }
+    
+    @Override
+    public int hashCode() {
+        return (int) low;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+    
+    /**
+     * MurmurHash3 x64_128 的增量计算状态
+     */
+    private static final class Hasher {
+        private long h1;
+        private long h2;
+        private long k1;
+        private long k2;
+        private int pending;
+        private long total;
+        
+        Hasher(long seed) {
+            this.h1 = seed;
+            this.h2 = seed;
+        }
+        
+        /**
+         * 写入一段字节：先补齐上次剩余的不完整块，整块16字节直接读取，剩余部分逐字节写入
+         */
+        void putBytes(byte[] bytes, int offset, int length) {
+            int end = offset + length;
+            int i = offset;
+            for (; pending != 0 && i < end; i++) {
+                putByte(bytes[i]);
+            }
+            for (; i + 16 <= end; i += 16) {
+                mixBlock(readLong(bytes, i), readLong(bytes, i + 8));
+            }
+            for (; i < end; i++) {
+                putByte(bytes[i]);
+            }
+        }
+        
+        void putByte(byte b) {
+            long value = b & 0xffL;
+            if (pending < 8) {
+                k1 |= value << (pending << 3);
+            } else {
+                k2 |= value << ((pending - 8) << 3);
+            }
+            if (++pending == 16) {
+                mixBlock(k1, k2);
+                k1 = 0;
+                k2 = 0;
+                pending = 0;
+            }
+        }
+        
+        void mixBlock(long block1, long block2) {
+            h1 ^= mixK1(block1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            
+            h2 ^= mixK2(block2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+            
+            total += 16;
+        }
+        
+        ContentHash finish() {
+            if (pending > 0) {
+                h1 ^= mixK1(k1);
+                h2 ^= mixK2(k2);
+                total += pending;
+            }
+            
+            h1 ^= total;
+            h2 ^= total;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+            return new ContentHash(h2, h1);
+        }
+        
+        private static long mixK1(long k) {
+            k *= C1;
+            k = Long.rotateLeft(k, 31);
+            k *= C2;
+            return k;
+        }
+        
+        private static long mixK2(long k) {
+            k *= C2;
+            k = Long.rotateLeft(k, 33);
+            k *= C1;
+            return k;
+        }
+        
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
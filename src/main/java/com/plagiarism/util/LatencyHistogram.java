@@ -0,0 +1,232 @@
+package com.plagiarism.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数-线性延迟直方图（HDR风格）
+ * 小于32纳秒的值各占一个桶；更大的值按2的幂分段，
+ * 每段再等分为32个桶，因此任何值所在桶的宽度都不超过该值的1/32，
+ * 取桶中点作为分位数时相对误差不超过约1.6%。桶数固定，与记录次数无关。
+ * 
+ * <p>桶计数和总和都是 {@link LongAdder}：无竞争时只是一次CAS，多个线程同时记录时自动分散到
+ * 各自的计数单元，不会因为大家的耗时落在同一个桶里而互相争抢同一个缓存行。
+ * 所有桶的计数器在创建直方图时一次性分配，记录时不再创建对象；
+ * 只有某个计数器第一次出现竞争时，{@link LongAdder} 会一次性创建分散计数用的单元。
+ * 超过 {@link #MAX_VALUE} 的值记入最后一个桶，最大值仍按原值记录。</p>
+ * 
+ * <p>计数、总和、最大值分别更新，记录进行中读取的快照可能彼此不一致；
+ * 需要一致快照时由 {@link LatencyRecorder} 保证读取时没有正在进行的记录。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    /** 可精确分桶的最大值（纳秒），约73分钟 */
+    public static final long MAX_VALUE = (1L << 42) - 1;
+    
+    /** 桶的总数 */
+    static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+    
+    private final LongAdder[] counts = new LongAdder[BUCKET_COUNT];
+    private final LongAdder sum = new LongAdder();
+    /** 新值不大于当前最大值时只读不写 */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+    
+    /**
+     * 创建空的直方图
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * 记录一次耗时
+     * 
+     * @param nanos 耗时（纳秒），负数按0记录
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        int index = bucketIndex(Math.min(value, MAX_VALUE));
+        counts[index].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+    
+    /**
+     * 获取当前数据的快照，快照之后的记录不影响快照
+     * 
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts[i].sum();
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+    
+    /**
+     * 清零，保留计数器；调用方应保证此时没有正在进行的记录
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i].reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+    
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+    
+    /**
+     * 桶的下界（含）
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << shift;
+    }
+    
+    /**
+     * 桶的宽度
+     */
+    static long bucketWidth(int index) {
+        return index < SUB_BUCKETS ? 1L : 1L << ((index - SUB_BUCKETS) / SUB_BUCKETS);
+    }
+    
+    /**
+     * 直方图快照，可以与其他快照合并（如把滑动窗口中的多个时间片合并为一个）
+     */
+    public static final class Snapshot {
+        
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+        
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+        
+        /**
+         * 创建空快照
+         * 
+         * @return 空快照
+         */
+        public static Snapshot empty() {
+            return new Snapshot(new long[BUCKET_COUNT], 0, 0, 0);
+        }
+        
+        /**
+         * 合并两个快照
+         * 
+         * @param other 另一个快照
+         * @return 合并后的新快照
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = counts.clone();
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] += other.counts[i];
+            }
+            return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+        
+        /**
+         * 获取记录次数
+         * 
+         * @return 记录次数
+         */
+        public long getCount() {
+            return count;
+        }
+        
+        /**
+         * 获取耗时总和
+         * 
+         * @return 耗时总和（纳秒）
+         */
+        public long getSum() {
+            return sum;
+        }
+        
+        /**
+         * 获取最大耗时
+         * 
+         * @return 最大耗时（纳秒）
+         */
+        public long getMax() {
+            return max;
+        }
+        
+        /**
+         * 获取平均耗时
+         * 
+         * @return 平均耗时（纳秒），没有记录时为0
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+        
+        /**
+         * 获取分位数
+         * 返回第 ceil(quantile * count) 个值所在桶的中点，不超过最大值
+         * 
+         * @param quantile 分位，范围[0, 1]，如0.99
+         * @return 分位数（纳秒），没有记录时为0
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, bucketLowerBound(i) + bucketWidth(i) / 2);
+                }
+            }
+            return max;
+        }
+        
+        /**
+         * 获取不超过给定值的记录次数，用于导出累计分桶
+         * 只统计上界不超过该值的桶，与该值落在同一个桶中的记录不计入，误差不超过一个桶
+         * 
+         * @param value 上限（纳秒）
+         * @return 记录次数
+         */
+        public long getCountAtOrBelow(long value) {
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                if (bucketLowerBound(i) + bucketWidth(i) - 1 > value) {
+                    break;
+                }
+                seen += counts[i];
+            }
+            return seen;
+        }
+    }
+}
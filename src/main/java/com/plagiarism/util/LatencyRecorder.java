@@ -0,0 +1,213 @@
+package com.plagiarism.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 带滑动窗口的延迟记录器，即一项指标的句柄
+ * 同时维护启动以来的累计直方图和最近 {@link #WINDOW_SECONDS} 秒的滑动窗口。
+ * 调用方应在初始化时取得句柄并保存下来，记录时不再按名称查找。
+ * 
+ * <p>写入与读取分离：记录只写入当前活动的区间直方图；{@link #collect()} 把活动直方图与备用直方图互换，
+ * 等待仍在写旧直方图的记录结束后，把旧直方图整体并入累计数据和当前时间片，再清零留作备用。
+ * 因此读到的计数、总和、最大值和分布总是对应同一批记录，不会出现彼此撕裂的快照。</p>
+ * 
+ * <p>"仍在写旧直方图"由分条的进出计数判断（与HdrHistogram的WriterReaderPhaser相同的协议）：
+ * 每个线程按线程ID落到一个分条，进入时自增该分条的开始计数，离开时自增对应相位的结束计数；
+ * 各分条相隔两个缓存行，线程数不超过分条数时记录路径上没有任何两个线程写同一个缓存行。
+ * 记录不加锁、不读时钟，除计数器第一次出现竞争时外不分配内存，只有几次无竞争的原子自增。</p>
+ * 
+ * <p>滑动窗口由 {@value #SLOTS} 个时间片组成，按汇总时刻归入时间片，
+ * 窗口的时间精度取决于汇总的频率；{@link PerformanceMonitor} 每个时间片汇总一次所有注册的记录器。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class LatencyRecorder {
+    
+    /** 滑动窗口的时间片个数 */
+    private static final int SLOTS = 6;
+    
+    /** 滑动窗口长度（秒） */
+    public static final long WINDOW_SECONDS = 60;
+    
+    /** 时间片长度（秒），也是建议的汇总周期 */
+    public static final long SLOT_SECONDS = WINDOW_SECONDS / SLOTS;
+    
+    private static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(SLOT_SECONDS);
+    
+    /** 分条数，取不小于2倍CPU数的2的幂，最多64 */
+    private static final int STRIPES = Math.min(64,
+        Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors()) * 4 - 1));
+    
+    /** 每个分条占16个long即128字节，避免相邻分条共享缓存行 */
+    private static final int STRIPE_WIDTH = 16;
+    private static final int START = 0;
+    private static final int EVEN_END = 1;
+    private static final int ODD_END = 2;
+    
+    private final LongSupplier clock;
+    private final long createdAt;
+    
+    private final AtomicLongArray phases = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+    private volatile LatencyHistogram active = new LatencyHistogram();
+    
+    // 以下字段只在持有本对象锁时访问
+    private LatencyHistogram inactive = new LatencyHistogram();
+    private boolean oddPhase;
+    private LatencyHistogram.Snapshot total = LatencyHistogram.Snapshot.empty();
+    private final LatencyHistogram.Snapshot[] slots = new LatencyHistogram.Snapshot[SLOTS];
+    private final long[] slotEpochs = new long[SLOTS];
+    
+    public LatencyRecorder() {
+        this(System::nanoTime);
+    }
+    
+    LatencyRecorder(LongSupplier clock) {
+        this.clock = clock;
+        this.createdAt = clock.getAsLong();
+    }
+    
+    /**
+     * 记录一次耗时
+     * 
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_WIDTH;
+        long epoch = phases.getAndIncrement(stripe + START);
+        active.record(nanos);
+        phases.getAndIncrement(stripe + (epoch < 0 ? ODD_END : EVEN_END));
+    }
+    
+    /**
+     * 把上次汇总以来的记录并入累计数据和当前时间片
+     */
+    public synchronized void collect() {
+        LatencyHistogram.Snapshot interval = swapInterval();
+        if (interval.getCount() == 0) {
+            return;
+        }
+        total = total.merge(interval);
+        long epoch = epoch(clock.getAsLong());
+        int index = (int) Math.floorMod(epoch, (long) SLOTS);
+        if (slots[index] == null || slotEpochs[index] != epoch) {
+            slots[index] = interval;
+            slotEpochs[index] = epoch;
+        } else {
+            slots[index] = slots[index].merge(interval);
+        }
+    }
+    
+    /**
+     * 汇总后获取累计数据和滑动窗口数据，两者对应同一时刻
+     * 
+     * @return 快照
+     */
+    public synchronized Snapshot snapshot() {
+        collect();
+        long now = clock.getAsLong();
+        long current = epoch(now);
+        LatencyHistogram.Snapshot window = LatencyHistogram.Snapshot.empty();
+        for (int i = 0; i < SLOTS; i++) {
+            if (slots[i] != null && slotEpochs[i] > current - SLOTS && slotEpochs[i] <= current) {
+                window = window.merge(slots[i]);
+            }
+        }
+        // 窗口实际覆盖的时长，记录器创建不足一个窗口时为创建以来的时长
+        long windowStart = (current - SLOTS + 1) * SLOT_NANOS;
+        long span = Math.min(now - windowStart, now - createdAt);
+        return new Snapshot(total, window, Math.max(span, 1L) / 1e9);
+    }
+    
+    /**
+     * 清空所有数据，句柄仍然有效
+     */
+    public synchronized void reset() {
+        swapInterval();
+        total = LatencyHistogram.Snapshot.empty();
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = null;
+        }
+    }
+    
+    /**
+     * 换下活动直方图并等待其上的记录全部结束，返回其内容
+     */
+    private LatencyHistogram.Snapshot swapInterval() {
+        LatencyHistogram interval = active;
+        active = inactive;
+        flipPhase();
+        LatencyHistogram.Snapshot snapshot = interval.snapshot();
+        interval.reset();
+        inactive = interval;
+        return snapshot;
+    }
+    
+    /**
+     * 切换相位：开始计数以符号位区分相位，切换时读出旧相位的开始次数，
+     * 等旧相位的结束次数追上它，即切换前进入的记录都已离开
+     */
+    private void flipPhase() {
+        boolean nextOdd = !oddPhase;
+        long initial = nextOdd ? Long.MIN_VALUE : 0L;
+        int nextEnd = nextOdd ? ODD_END : EVEN_END;
+        int previousEnd = nextOdd ? EVEN_END : ODD_END;
+        for (int stripe = 0; stripe < STRIPES * STRIPE_WIDTH; stripe += STRIPE_WIDTH) {
+            phases.set(stripe + nextEnd, initial);
+            long startedBeforeFlip = phases.getAndSet(stripe + START, initial);
+            while (phases.get(stripe + previousEnd) != startedBeforeFlip) {
+                Thread.yield();
+            }
+        }
+        oddPhase = nextOdd;
+    }
+    
+    private static long epoch(long nanos) {
+        return Math.floorDiv(nanos, SLOT_NANOS);
+    }
+    
+    /**
+     * 记录器在某一时刻的数据
+     */
+    public static final class Snapshot {
+        
+        private final LatencyHistogram.Snapshot total;
+        private final LatencyHistogram.Snapshot window;
+        private final double windowSeconds;
+        
+        Snapshot(LatencyHistogram.Snapshot total, LatencyHistogram.Snapshot window, double windowSeconds) {
+            this.total = total;
+            this.window = window;
+            this.windowSeconds = windowSeconds;
+        }
+        
+        /**
+         * 获取启动以来的累计数据
+         * 
+         * @return 快照
+         */
+        public LatencyHistogram.Snapshot getTotal() {
+            return total;
+        }
+        
+        /**
+         * 获取滑动窗口内的数据
+         * 
+         * @return 快照
+         */
+        public LatencyHistogram.Snapshot getWindow() {
+            return window;
+        }
+        
+        /**
+         * 获取滑动窗口实际覆盖的时长
+         * 
+         * @return 时长（秒）
+         */
+        public double getWindowSeconds() {
+            return windowSeconds;
+        }
+    }
+}
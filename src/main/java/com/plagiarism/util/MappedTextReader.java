@@ -0,0 +1,113 @@
+package com.plagiarism.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射方式读取UTF-8文本文件
+ * 用 {@link FileChannel#map} 把文件按窗口映射到堆外，解码器直接读取映射区域，
+ * 解码出的字符分块交给调用方处理。文件字节不经过任何堆内数组，
+ * 堆内只有一块固定大小的字符缓冲区，适合几百MB以上的大文件。
+ * 
+ * <p>单次映射的长度受int范围限制，超过窗口大小的文件分多个窗口依次映射；
+ * 窗口末尾不完整的多字节字符留到下一个窗口开头重新映射，不会被截断。
+ * 映射区域由GC回收时释放，Java 8没有主动解除映射的公开API。</p>
+ * 
+ * <p>解码结果与 {@code new String(bytes, UTF_8)} 一致：非法字节序列替换为U+FFFD。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class MappedTextReader {
+    
+    /** 默认的映射窗口大小 */
+    public static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+    
+    /** 默认的字符缓冲区大小 */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * 解码出的字符块的处理器
+     */
+    @FunctionalInterface
+    public interface CharChunkConsumer {
+        /**
+         * 处理一块字符，方法返回后缓冲区会被复用
+         * 
+         * @param chars 字符缓冲区
+         * @param offset 起始位置
+         * @param length 字符数
+         */
+        void accept(char[] chars, int offset, int length);
+    }
+    
+    private MappedTextReader() {
+    }
+    
+    /**
+     * 映射并解码整个文件
+     * 
+     * @param file 文件路径
+     * @param consumer 字符块处理器
+     * @throws IOException 打开或映射文件失败
+     */
+    public static void read(Path file, CharChunkConsumer consumer) throws IOException {
+        read(file, DEFAULT_WINDOW_SIZE, DEFAULT_BUFFER_SIZE, consumer);
+    }
+    
+    /**
+     * 映射并解码整个文件
+     * 
+     * @param file 文件路径
+     * @param windowSize 每次映射的字节数
+     * @param bufferSize 字符缓冲区大小
+     * @param consumer 字符块处理器
+     * @throws IOException 打开或映射文件失败
+     */
+    public static void read(Path file, long windowSize, int bufferSize, CharChunkConsumer consumer) throws IOException {
+        // 窗口至少要容纳一个完整的UTF-8字符，否则无法前进
+        long window = Math.max(16, Math.min(windowSize, Integer.MAX_VALUE));
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(Math.max(16, bufferSize));
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            boolean endOfInput;
+            do {
+                long length = Math.min(window, size - position);
+                endOfInput = position + length == size;
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, endOfInput);
+                    drain(chars, consumer);
+                } while (result.isOverflow());
+                // 未解码的不完整字符从下一个窗口的开头重新映射
+                position += bytes.position();
+            } while (!endOfInput);
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            drain(chars, consumer);
+        }
+        drain(chars, consumer);
+    }
+    
+    private static void drain(CharBuffer chars, CharChunkConsumer consumer) {
+        chars.flip();
+        if (chars.hasRemaining()) {
+            consumer.accept(chars.array(), chars.position(), chars.remaining());
+        }
+        chars.clear();
+    }
+}
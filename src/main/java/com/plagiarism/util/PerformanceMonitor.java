@@ -1,20 +1,111 @@
 package com.plagiarism.util;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 性能监控工具类
  * 用于监控算法执行时间和内存使用情况
  * 
+ * <p>耗时分三类记录：各相似度算法、文档预处理等处理阶段，以及HTTP请求。
+ * 每项指标对应一个 {@link LatencyRecorder}，耗时记入无锁的对数-线性直方图，
+ * 统计信息包括累计的次数、平均值、p50/p90/p99/p999分位数和最大值，
+ * 以及最近一分钟滑动窗口内的吞吐量和分位数。平均值会掩盖长尾，排查慢请求时应看高分位数。</p>
+ * 
+ * <p>热点路径应在初始化时用 {@link #algorithmRecorder} 等方法取得句柄并保存，之后直接调用
+ * {@link LatencyRecorder#record}，不再按名称查表；按名称记录的方法适合请求名称这类动态指标。
+ * 句柄一经注册就一直有效，{@link #clearStats()} 只清空数据。
+ * 后台线程每个时间片把所有记录器的新数据汇总一次，读取统计时也会先汇总。</p>
+ * 
+ * <p>每次算法调用的线程CPU时间和分配字节数另由 {@link ResourceRecorder} 汇总，
+ * 与只反映整个JVM的 {@link #getMemoryUsage()} 不同，可以定位到具体算法和输入。</p>
+ * 
+ * <p>缓存和线程池由其所有者在创建时注册，注册表只持有弱引用，所有者被回收或线程池关闭后自动移除。
+ * 所有指标都可以通过 {@link PrometheusFormatter} 以Prometheus文本格式导出。</p>
+ * 
  * @author 学生
  * @version 1.0.0
  */
 public class PerformanceMonitor {
     
-    private static final Map<String, AtomicLong> executionTimes = new ConcurrentHashMap<>();
-    private static final Map<String, AtomicLong> executionCounts = new ConcurrentHashMap<>();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_KEYS = {"p50", "p90", "p99", "p999"};
+    
+    private static final Map<String, LatencyRecorder> algorithmRecorders = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyRecorder> stageRecorders = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyRecorder> requestRecorders = new ConcurrentHashMap<>();
+    private static final Map<String, ResourceRecorder> resourceRecorders = new ConcurrentHashMap<>();
+    
+    private static final Map<String, WeakReference<BoundedCache<?, ?>>> caches = new ConcurrentHashMap<>();
+    private static final Map<String, WeakReference<ExecutorService>> executors = new ConcurrentHashMap<>();
+    
+    private static final ScheduledExecutorService collector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-collector");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    static {
+        collector.scheduleAtFixedRate(PerformanceMonitor::collectAll,
+            LatencyRecorder.SLOT_SECONDS, LatencyRecorder.SLOT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * 获取算法耗时的记录器句柄，不存在时注册
+     * 
+     * @param algorithmName 算法名称
+     * @return 记录器
+     */
+    public static LatencyRecorder algorithmRecorder(String algorithmName) {
+        return recorderOf(algorithmRecorders, algorithmName);
+    }
+    
+    /**
+     * 获取处理阶段耗时的记录器句柄，不存在时注册
+     * 
+     * @param stageName 阶段名称
+     * @return 记录器
+     */
+    public static LatencyRecorder stageRecorder(String stageName) {
+        return recorderOf(stageRecorders, stageName);
+    }
+    
+    /**
+     * 获取HTTP请求耗时的记录器句柄，不存在时注册
+     * 
+     * @param requestName 请求名称
+     * @return 记录器
+     */
+    public static LatencyRecorder requestRecorder(String requestName) {
+        return recorderOf(requestRecorders, requestName);
+    }
+    
+    /**
+     * 获取算法资源用量的记录器句柄，不存在时注册
+     * 
+     * @param algorithmName 算法名称
+     * @return 记录器
+     */
+    public static ResourceRecorder resourceRecorder(String algorithmName) {
+        ResourceRecorder recorder = resourceRecorders.get(algorithmName);
+        return recorder != null ? recorder : resourceRecorders.computeIfAbsent(algorithmName, k -> new ResourceRecorder());
+    }
+    
+    private static LatencyRecorder recorderOf(Map<String, LatencyRecorder> recorders, String name) {
+        // 已注册时只读不锁，computeIfAbsent 只在首次注册时执行
+        LatencyRecorder recorder = recorders.get(name);
+        return recorder != null ? recorder : recorders.computeIfAbsent(name, k -> new LatencyRecorder());
+    }
     
     /**
      * 记录算法执行时间
@@ -23,10 +114,37 @@ public class PerformanceMonitor {
      * @param executionTime 执行时间（毫秒）
      */
     public static void recordExecutionTime(String algorithmName, long executionTime) {
-        executionTimes.computeIfAbsent(algorithmName, k -> new AtomicLong(0))
-                     .addAndGet(executionTime);
-        executionCounts.computeIfAbsent(algorithmName, k -> new AtomicLong(0))
-                      .incrementAndGet();
+        recordAlgorithm(algorithmName, TimeUnit.MILLISECONDS.toNanos(executionTime));
+    }
+    
+    /**
+     * 记录一次算法调用的耗时
+     * 
+     * @param algorithmName 算法名称
+     * @param nanos 耗时（纳秒）
+     */
+    public static void recordAlgorithm(String algorithmName, long nanos) {
+        algorithmRecorder(algorithmName).record(nanos);
+    }
+    
+    /**
+     * 记录一次处理阶段（如文档预处理）的耗时
+     * 
+     * @param stageName 阶段名称
+     * @param nanos 耗时（纳秒）
+     */
+    public static void recordStage(String stageName, long nanos) {
+        stageRecorder(stageName).record(nanos);
+    }
+    
+    /**
+     * 记录一次HTTP请求的耗时
+     * 
+     * @param requestName 请求名称，如 "POST /api/similarity/calculate"
+     * @param nanos 耗时（纳秒）
+     */
+    public static void recordRequest(String requestName, long nanos) {
+        requestRecorder(requestName).record(nanos);
     }
     
     /**
@@ -36,14 +154,8 @@ public class PerformanceMonitor {
      * @return 平均执行时间（毫秒）
      */
     public static double getAverageExecutionTime(String algorithmName) {
-        AtomicLong totalTime = executionTimes.get(algorithmName);
-        AtomicLong count = executionCounts.get(algorithmName);
-        
-        if (totalTime == null || count == null || count.get() == 0) {
-            return 0.0;
-        }
-        
-        return (double) totalTime.get() / count.get();
+        LatencyRecorder recorder = algorithmRecorders.get(algorithmName);
+        return recorder != null ? toMillis(recorder.snapshot().getTotal().getMean()) : 0.0;
     }
     
     /**
@@ -53,8 +165,8 @@ public class PerformanceMonitor {
      * @return 执行次数
      */
     public static long getExecutionCount(String algorithmName) {
-        AtomicLong count = executionCounts.get(algorithmName);
-        return count != null ? count.get() : 0;
+        LatencyRecorder recorder = algorithmRecorders.get(algorithmName);
+        return recorder != null ? recorder.snapshot().getTotal().getCount() : 0;
     }
     
     /**
@@ -64,35 +176,231 @@ public class PerformanceMonitor {
      * @return 总执行时间（毫秒）
      */
     public static long getTotalExecutionTime(String algorithmName) {
-        AtomicLong totalTime = executionTimes.get(algorithmName);
-        return totalTime != null ? totalTime.get() : 0;
+        LatencyRecorder recorder = algorithmRecorders.get(algorithmName);
+        return recorder != null ? TimeUnit.NANOSECONDS.toMillis(recorder.snapshot().getTotal().getSum()) : 0;
     }
     
     /**
      * 获取所有算法的性能统计
      * 
-     * @return 性能统计信息
+     * @return 性能统计信息，时间单位均为毫秒
      */
     public static Map<String, Map<String, Object>> getAllStats() {
-        Map<String, Map<String, Object>> stats = new ConcurrentHashMap<>();
-        
-        for (String algorithmName : executionTimes.keySet()) {
-            Map<String, Object> algorithmStats = new ConcurrentHashMap<>();
-            algorithmStats.put("totalTime", getTotalExecutionTime(algorithmName));
-            algorithmStats.put("executionCount", getExecutionCount(algorithmName));
-            algorithmStats.put("averageTime", getAverageExecutionTime(algorithmName));
-            stats.put(algorithmName, algorithmStats);
+        return statsOf(algorithmRecorders);
+    }
+    
+    /**
+     * 获取各处理阶段的性能统计
+     * 
+     * @return 性能统计信息，格式同 {@link #getAllStats()}
+     */
+    public static Map<String, Map<String, Object>> getStageStats() {
+        return statsOf(stageRecorders);
+    }
+    
+    /**
+     * 获取各HTTP请求的性能统计
+     * 
+     * @return 性能统计信息，格式同 {@link #getAllStats()}
+     */
+    public static Map<String, Map<String, Object>> getRequestStats() {
+        return statsOf(requestRecorders);
+    }
+    
+    /**
+     * 获取各算法的资源用量统计
+     * 
+     * @return 算法名称到统计信息的映射，包括调用次数、cpuTime（毫秒）和 allocatedBytes（字节）
+     *         的合计、平均值、p50/p90/p99/p999分位数和最大值，以及分配最多的一次调用 heaviestCall
+     */
+    public static Map<String, Map<String, Object>> getResourceStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (Map.Entry<String, ResourceRecorder> entry : resourceRecorders.entrySet()) {
+            ResourceRecorder recorder = entry.getValue();
+            LatencyHistogram.Snapshot cpuTime = recorder.cpuTime().getTotal();
+            if (cpuTime.getCount() == 0) {
+                continue;
+            }
+            LatencyHistogram.Snapshot allocatedBytes = recorder.allocatedBytes().getTotal();
+            
+            Map<String, Object> cpuStats = new LinkedHashMap<>();
+            cpuStats.put("total", toMillis(cpuTime.getSum()));
+            cpuStats.put("average", toMillis(cpuTime.getMean()));
+            putDistribution(cpuStats, cpuTime);
+            
+            Map<String, Object> allocationStats = new LinkedHashMap<>();
+            allocationStats.put("total", allocatedBytes.getSum());
+            allocationStats.put("average", allocatedBytes.getMean());
+            for (int i = 0; i < QUANTILES.length; i++) {
+                allocationStats.put(QUANTILE_KEYS[i], allocatedBytes.getValueAtQuantile(QUANTILES[i]));
+            }
+            allocationStats.put("max", allocatedBytes.getMax());
+            
+            Map<String, Object> algorithmStats = new LinkedHashMap<>();
+            algorithmStats.put("executionCount", cpuTime.getCount());
+            algorithmStats.put("cpuTime", cpuStats);
+            algorithmStats.put("allocatedBytes", allocationStats);
+            algorithmStats.put("heaviestCall", recorder.heaviestCall());
+            stats.put(entry.getKey(), algorithmStats);
+        }
+        return stats;
+    }
+    
+    static Map<String, ResourceRecorder> getResourceRecorders() {
+        return new TreeMap<>(resourceRecorders);
+    }
+    
+    static Map<String, LatencyRecorder.Snapshot> getAlgorithmSnapshots() {
+        return snapshotsOf(algorithmRecorders);
+    }
+    
+    static Map<String, LatencyRecorder.Snapshot> getStageSnapshots() {
+        return snapshotsOf(stageRecorders);
+    }
+    
+    static Map<String, LatencyRecorder.Snapshot> getRequestSnapshots() {
+        return snapshotsOf(requestRecorders);
+    }
+    
+    private static Map<String, LatencyRecorder.Snapshot> snapshotsOf(Map<String, LatencyRecorder> recorders) {
+        Map<String, LatencyRecorder.Snapshot> snapshots = new TreeMap<>();
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+    
+    private static Map<String, Map<String, Object>> statsOf(Map<String, LatencyRecorder> recorders) {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (Map.Entry<String, LatencyRecorder.Snapshot> entry : snapshotsOf(recorders).entrySet()) {
+            LatencyRecorder.Snapshot snapshot = entry.getValue();
+            LatencyHistogram.Snapshot total = snapshot.getTotal();
+            if (total.getCount() == 0) {
+                // 清空后尚未再次使用的指标
+                continue;
+            }
+            Map<String, Object> metricStats = new LinkedHashMap<>();
+            metricStats.put("totalTime", TimeUnit.NANOSECONDS.toMillis(total.getSum()));
+            metricStats.put("executionCount", total.getCount());
+            metricStats.put("averageTime", toMillis(total.getMean()));
+            putDistribution(metricStats, total);
+            
+            LatencyHistogram.Snapshot window = snapshot.getWindow();
+            double windowSeconds = snapshot.getWindowSeconds();
+            Map<String, Object> windowStats = new LinkedHashMap<>();
+            windowStats.put("seconds", LatencyRecorder.WINDOW_SECONDS);
+            windowStats.put("count", window.getCount());
+            windowStats.put("throughput", window.getCount() / windowSeconds);
+            putDistribution(windowStats, window);
+            metricStats.put("window", windowStats);
+            
+            stats.put(entry.getKey(), metricStats);
+        }
+        return stats;
+    }
+    
+    private static void putDistribution(Map<String, Object> stats, LatencyHistogram.Snapshot snapshot) {
+        for (int i = 0; i < QUANTILES.length; i++) {
+            stats.put(QUANTILE_KEYS[i], toMillis(snapshot.getValueAtQuantile(QUANTILES[i])));
+        }
+        stats.put("max", toMillis(snapshot.getMax()));
+    }
+    
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    /**
+     * 注册缓存，同名的缓存只保留最后注册的一个
+     * 
+     * @param name 缓存名称
+     * @param cache 缓存
+     */
+    public static void registerCache(String name, BoundedCache<?, ?> cache) {
+        caches.put(name, new WeakReference<>(cache));
+    }
+    
+    /**
+     * 注册线程池，支持 {@link ThreadPoolExecutor} 和 {@link ForkJoinPool}，同名的只保留最后注册的一个
+     * 
+     * @param name 线程池名称
+     * @param executor 线程池
+     */
+    public static void registerExecutor(String name, ExecutorService executor) {
+        executors.put(name, new WeakReference<>(executor));
+    }
+    
+    /**
+     * 获取所有已注册缓存的统计信息
+     * 
+     * @return 缓存名称到统计信息的映射，统计信息格式同 {@link BoundedCache#stats()}
+     */
+    public static Map<String, Map<String, Long>> getCacheStats() {
+        Map<String, Map<String, Long>> stats = new TreeMap<>();
+        Iterator<Map.Entry<String, WeakReference<BoundedCache<?, ?>>>> iterator = caches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, WeakReference<BoundedCache<?, ?>>> entry = iterator.next();
+            BoundedCache<?, ?> cache = entry.getValue().get();
+            if (cache == null) {
+                iterator.remove();
+            } else {
+                stats.put(entry.getKey(), cache.stats());
+            }
+        }
+        return stats;
+    }
+    
+    /**
+     * 获取所有已注册线程池的统计信息
+     * 
+     * @return 线程池名称到统计信息的映射，包括 queued（排队任务数）、active（执行中的线程数）、
+     *         poolSize（当前线程数），ThreadPoolExecutor 另有 completed（已完成任务数）
+     */
+    public static Map<String, Map<String, Long>> getExecutorStats() {
+        Map<String, Map<String, Long>> stats = new TreeMap<>();
+        Iterator<Map.Entry<String, WeakReference<ExecutorService>>> iterator = executors.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, WeakReference<ExecutorService>> entry = iterator.next();
+            ExecutorService executor = entry.getValue().get();
+            if (executor == null || executor.isShutdown()) {
+                iterator.remove();
+                continue;
+            }
+            Map<String, Long> executorStats = new LinkedHashMap<>();
+            if (executor instanceof ThreadPoolExecutor) {
+                ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+                executorStats.put("queued", (long) pool.getQueue().size());
+                executorStats.put("active", (long) pool.getActiveCount());
+                executorStats.put("poolSize", (long) pool.getPoolSize());
+                executorStats.put("completed", pool.getCompletedTaskCount());
+            } else if (executor instanceof ForkJoinPool) {
+                ForkJoinPool pool = (ForkJoinPool) executor;
+                executorStats.put("queued", pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+                executorStats.put("active", (long) pool.getActiveThreadCount());
+                executorStats.put("poolSize", (long) pool.getPoolSize());
+            } else {
+                continue;
+            }
+            stats.put(entry.getKey(), executorStats);
         }
-        
         return stats;
     }
     
+    private static void collectAll() {
+        algorithmRecorders.values().forEach(LatencyRecorder::collect);
+        stageRecorders.values().forEach(LatencyRecorder::collect);
+        requestRecorders.values().forEach(LatencyRecorder::collect);
+        resourceRecorders.values().forEach(ResourceRecorder::collect);
+    }
+    
     /**
-     * 清理统计信息
+     * 清理统计信息，已取得的记录器句柄仍然有效
      */
     public static void clearStats() {
-        executionTimes.clear();
-        executionCounts.clear();
+        algorithmRecorders.values().forEach(LatencyRecorder::reset);
+        stageRecorders.values().forEach(LatencyRecorder::reset);
+        requestRecorders.values().forEach(LatencyRecorder::reset);
+        resourceRecorders.values().forEach(ResourceRecorder::reset);
     }
     
     /**
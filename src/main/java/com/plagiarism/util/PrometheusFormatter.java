@@ -0,0 +1,172 @@
+package com.plagiarism.util;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prometheus文本格式（0.0.4版）导出
+ * 把 {@link PerformanceMonitor} 中的耗时直方图、算法的CPU时间和分配字节数、已注册缓存和线程池的统计以及堆内存用量
+ * 转换为Prometheus可以直接抓取的文本，不依赖任何外部服务或客户端库。
+ * 
+ * <p>耗时直方图按固定的上界（10微秒到10秒）输出累计分桶，
+ * 每个分桶的计数由内部的对数-线性直方图换算，误差不超过一个内部桶（约3%）。
+ * 耗时单位为秒、内存单位为字节，符合Prometheus的命名约定。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class PrometheusFormatter {
+    
+    /** 响应的Content-Type */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    /** 直方图分桶的上界（纳秒） */
+    private static final long[] BUCKET_BOUNDS = {
+        10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    
+    private static final String[] BUCKET_LABELS = new String[BUCKET_BOUNDS.length];
+    
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            BUCKET_LABELS[i] = seconds(BUCKET_BOUNDS[i]);
+        }
+    }
+    
+    private PrometheusFormatter() {
+    }
+    
+    /**
+     * 导出当前所有指标
+     * 
+     * @return Prometheus文本格式的指标
+     */
+    public static String format() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+        
+        header(out, "plagiarism_algorithm_duration_seconds", "histogram", "相似度算法单次调用的耗时");
+        for (Map.Entry<String, LatencyRecorder.Snapshot> entry : PerformanceMonitor.getAlgorithmSnapshots().entrySet()) {
+            histogram(out, "plagiarism_algorithm_duration_seconds",
+                "algorithm=\"" + escape(entry.getKey()) + "\"", entry.getValue().getTotal());
+        }
+        
+        header(out, "plagiarism_stage_duration_seconds", "histogram", "文档预处理等处理阶段的耗时");
+        for (Map.Entry<String, LatencyRecorder.Snapshot> entry : PerformanceMonitor.getStageSnapshots().entrySet()) {
+            histogram(out, "plagiarism_stage_duration_seconds",
+                "stage=\"" + escape(entry.getKey()) + "\"", entry.getValue().getTotal());
+        }
+        
+        header(out, "plagiarism_http_request_duration_seconds", "histogram", "API请求的耗时");
+        for (Map.Entry<String, LatencyRecorder.Snapshot> entry : PerformanceMonitor.getRequestSnapshots().entrySet()) {
+            // 请求名称形如 "POST /api/similarity"
+            String name = entry.getKey();
+            int space = name.indexOf(' ');
+            String labels = space < 0
+                ? "method=\"\",path=\"" + escape(name) + "\""
+                : "method=\"" + escape(name.substring(0, space)) + "\",path=\"" + escape(name.substring(space + 1)) + "\"";
+            histogram(out, "plagiarism_http_request_duration_seconds", labels, entry.getValue().getTotal());
+        }
+        
+        Map<String, ResourceRecorder> resources = PerformanceMonitor.getResourceRecorders();
+        header(out, "plagiarism_algorithm_cpu_seconds_total", "counter", "相似度算法消耗的线程CPU时间");
+        for (Map.Entry<String, ResourceRecorder> entry : resources.entrySet()) {
+            sample(out, "plagiarism_algorithm_cpu_seconds_total", "algorithm=\"" + escape(entry.getKey()) + "\"",
+                entry.getValue().cpuTime().getTotal().getSum() / 1e9);
+        }
+        header(out, "plagiarism_algorithm_allocated_bytes_total", "counter", "相似度算法在调用线程上分配的堆内存");
+        for (Map.Entry<String, ResourceRecorder> entry : resources.entrySet()) {
+            sample(out, "plagiarism_algorithm_allocated_bytes_total", "algorithm=\"" + escape(entry.getKey()) + "\"",
+                entry.getValue().allocatedBytes().getTotal().getSum());
+        }
+        
+        Map<String, Map<String, Long>> caches = PerformanceMonitor.getCacheStats();
+        cacheMetric(out, caches, "plagiarism_cache_hits_total", "counter", "缓存命中次数", "hits");
+        cacheMetric(out, caches, "plagiarism_cache_misses_total", "counter", "缓存未命中次数", "misses");
+        cacheMetric(out, caches, "plagiarism_cache_evictions_total", "counter", "缓存淘汰次数", "evictions");
+        cacheMetric(out, caches, "plagiarism_cache_entries", "gauge", "缓存条目数", "size");
+        cacheMetric(out, caches, "plagiarism_cache_weight_bytes", "gauge", "缓存占用的估计字节数", "weight");
+        cacheMetric(out, caches, "plagiarism_cache_max_weight_bytes", "gauge", "缓存容量上限", "maxWeight");
+        header(out, "plagiarism_cache_hit_ratio", "gauge", "启动以来的缓存命中率，没有访问时为0");
+        for (Map.Entry<String, Map<String, Long>> entry : caches.entrySet()) {
+            long hits = entry.getValue().getOrDefault("hits", 0L);
+            long misses = entry.getValue().getOrDefault("misses", 0L);
+            sample(out, "plagiarism_cache_hit_ratio", "cache=\"" + escape(entry.getKey()) + "\"",
+                hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        }
+        
+        Map<String, Map<String, Long>> executors = PerformanceMonitor.getExecutorStats();
+        executorMetric(out, executors, "plagiarism_executor_queue_depth", "gauge", "线程池中排队等待的任务数", "queued");
+        executorMetric(out, executors, "plagiarism_executor_active_threads", "gauge", "线程池中正在执行任务的线程数", "active");
+        executorMetric(out, executors, "plagiarism_executor_pool_size", "gauge", "线程池当前的线程数", "poolSize");
+        executorMetric(out, executors, "plagiarism_executor_completed_tasks_total", "counter", "线程池已完成的任务数", "completed");
+        
+        header(out, "plagiarism_jvm_memory_bytes", "gauge", "JVM堆内存，area为total、free、used或max");
+        for (Map.Entry<String, Long> entry : new TreeMap<>(PerformanceMonitor.getMemoryUsage()).entrySet()) {
+            String area = entry.getKey().substring(0, entry.getKey().length() - "Memory".length());
+            sample(out, "plagiarism_jvm_memory_bytes", "area=\"" + area + "\"", entry.getValue());
+        }
+        return out.toString();
+    }
+    
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            sample(out, name + "_bucket", labels + ",le=\"" + BUCKET_LABELS[i] + "\"",
+                snapshot.getCountAtOrBelow(BUCKET_BOUNDS[i]));
+        }
+        sample(out, name + "_bucket", labels + ",le=\"+Inf\"", snapshot.getCount());
+        sample(out, name + "_sum", labels, snapshot.getSum() / 1e9);
+        sample(out, name + "_count", labels, snapshot.getCount());
+    }
+    
+    private static void cacheMetric(StringBuilder out, Map<String, Map<String, Long>> caches,
+                                    String name, String type, String help, String key) {
+        header(out, name, type, help);
+        for (Map.Entry<String, Map<String, Long>> entry : caches.entrySet()) {
+            Long value = entry.getValue().get(key);
+            if (value != null) {
+                sample(out, name, "cache=\"" + escape(entry.getKey()) + "\"", value);
+            }
+        }
+    }
+    
+    private static void executorMetric(StringBuilder out, Map<String, Map<String, Long>> executors,
+                                       String name, String type, String help, String key) {
+        header(out, name, type, help);
+        for (Map.Entry<String, Map<String, Long>> entry : executors.entrySet()) {
+            Long value = entry.getValue().get(key);
+            if (value != null) {
+                sample(out, name, "executor=\"" + escape(entry.getKey()) + "\"", value);
+            }
+        }
+    }
+    
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+    
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+    
+    /**
+     * 纳秒转换为秒，去掉多余的0，如 2500000 转换为 "0.0025"
+     */
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+    
+    /**
+     * 转义标签值中的反斜杠、双引号和换行
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
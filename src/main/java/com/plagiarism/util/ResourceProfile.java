@@ -0,0 +1,136 @@
+package com.plagiarism.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 单个请求的资源明细
+ * 在 {@link #call} 执行期间，服务层每次调用算法时把耗时、线程CPU时间和分配字节数记入当前明细，
+ * 按算法汇总。算法在线程池中并行计算时，提交任务前用 {@link #propagate} 把当前明细带到工作线程。
+ * 
+ * <p>可以被多个工作线程同时写入，结果按算法第一次出现的顺序排列。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class ResourceProfile {
+    
+    private static final ThreadLocal<ResourceProfile> CURRENT = new ThreadLocal<>();
+    
+    private final Map<String, long[]> algorithms = new LinkedHashMap<>();
+    
+    /**
+     * 获取当前线程正在记录的明细
+     * 
+     * @return 明细，没有时为null
+     */
+    public static ResourceProfile current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * 把当前线程正在记录的明细带到另一个线程中执行的任务
+     * 
+     * @param task 任务
+     * @param <T> 结果类型
+     * @return 包装后的任务，当前没有明细时为原任务
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        ResourceProfile profile = CURRENT.get();
+        return profile == null ? task : () -> profile.call(task);
+    }
+    
+    /**
+     * 执行任务，期间的算法调用记入本明细
+     * 
+     * @param task 任务
+     * @param <T> 结果类型
+     * @return 任务的结果
+     * @throws Exception 任务抛出的异常
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        Scope scope = open();
+        try {
+            return task.call();
+        } finally {
+            scope.close();
+        }
+    }
+    
+    /**
+     * 在当前线程上开始记录，直到返回的作用域关闭；调用方应在 finally 中关闭
+     * 
+     * @return 作用域，关闭时恢复之前的明细
+     */
+    public Scope open() {
+        ResourceProfile previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+    
+    /**
+     * 记入一次算法调用
+     * 
+     * @param algorithmName 算法名称
+     * @param wallNanos 耗时（纳秒）
+     * @param cpuNanos 线程CPU时间（纳秒）
+     * @param allocatedBytes 分配字节数
+     */
+    public synchronized void add(String algorithmName, long wallNanos, long cpuNanos, long allocatedBytes) {
+        long[] totals = algorithms.computeIfAbsent(algorithmName, k -> new long[4]);
+        totals[0]++;
+        totals[1] += wallNanos;
+        totals[2] += cpuNanos;
+        totals[3] += allocatedBytes;
+    }
+    
+    /**
+     * 转换为响应中的明细，时间单位为毫秒
+     * 
+     * @return 包括 cpuTime、allocatedBytes 合计和各算法的 calls、wallTime、cpuTime、allocatedBytes
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> byAlgorithm = new LinkedHashMap<>();
+        long cpuNanos = 0;
+        long allocatedBytes = 0;
+        for (Map.Entry<String, long[]> entry : algorithms.entrySet()) {
+            long[] totals = entry.getValue();
+            Map<String, Object> algorithm = new LinkedHashMap<>();
+            algorithm.put("calls", totals[0]);
+            algorithm.put("wallTime", totals[1] / 1_000_000.0);
+            algorithm.put("cpuTime", totals[2] / 1_000_000.0);
+            algorithm.put("allocatedBytes", totals[3]);
+            byAlgorithm.put(entry.getKey(), algorithm);
+            cpuNanos += totals[2];
+            allocatedBytes += totals[3];
+        }
+        
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("cpuTime", cpuNanos / 1_000_000.0);
+        profile.put("allocatedBytes", allocatedBytes);
+        profile.put("algorithms", byAlgorithm);
+        return profile;
+    }
+    
+    /**
+     * 记录明细的作用域
+     */
+    public static final class Scope implements AutoCloseable {
+        
+        private final ResourceProfile previous;
+        
+        private Scope(ResourceProfile previous) {
+            this.previous = previous;
+        }
+        
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.plagiarism.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 算法调用的资源用量记录器，即一项指标的句柄
+ * 线程CPU时间和分配字节数各用一个 {@link LatencyRecorder} 记录分布（直方图与单位无关），
+ * 另外保留分配字节数最多的一次调用及其输入长度，便于找出让某个算法（如编辑距离）失控的输入。
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class ResourceRecorder {
+    
+    private final LatencyRecorder cpuTime = new LatencyRecorder();
+    private final LatencyRecorder allocatedBytes = new LatencyRecorder();
+    
+    /** 最重一次调用的分配字节数，记录路径上先与它比较，绝大多数调用不进入同步块 */
+    private volatile long heaviestAllocation = -1;
+    private Map<String, Long> heaviestCall;
+    
+    /**
+     * 记录一次算法调用
+     * 
+     * @param cpuNanos 线程CPU时间（纳秒）
+     * @param allocated 分配字节数
+     * @param originalLength 原文规范化后的长度
+     * @param plagiarizedLength 抄袭文本规范化后的长度
+     */
+    public void record(long cpuNanos, long allocated, int originalLength, int plagiarizedLength) {
+        cpuTime.record(cpuNanos);
+        allocatedBytes.record(allocated);
+        if (allocated > heaviestAllocation) {
+            synchronized (this) {
+                if (allocated > heaviestAllocation) {
+                    Map<String, Long> call = new LinkedHashMap<>();
+                    call.put("allocatedBytes", allocated);
+                    call.put("cpuNanos", cpuNanos);
+                    call.put("originalLength", (long) originalLength);
+                    call.put("plagiarizedLength", (long) plagiarizedLength);
+                    heaviestCall = call;
+                    heaviestAllocation = allocated;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 获取线程CPU时间的分布
+     * 
+     * @return 快照，单位为纳秒
+     */
+    public LatencyRecorder.Snapshot cpuTime() {
+        return cpuTime.snapshot();
+    }
+    
+    /**
+     * 获取分配字节数的分布
+     * 
+     * @return 快照，单位为字节
+     */
+    public LatencyRecorder.Snapshot allocatedBytes() {
+        return allocatedBytes.snapshot();
+    }
+    
+    /**
+     * 获取分配字节数最多的一次调用
+     * 
+     * @return 包括 allocatedBytes、cpuNanos、originalLength、plagiarizedLength，没有记录时为null
+     */
+    public synchronized Map<String, Long> heaviestCall() {
+        return heaviestCall;
+    }
+    
+    void collect() {
+        cpuTime.collect();
+        allocatedBytes.collect();
+    }
+    
+    synchronized void reset() {
+        cpuTime.reset();
+        allocatedBytes.reset();
+        heaviestAllocation = -1;
+        heaviestCall = null;
+    }
+}
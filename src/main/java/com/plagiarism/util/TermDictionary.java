@@ -0,0 +1,148 @@
+package com.plagiarism.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 词典
+ * 将规范化文本中的词映射为整数ID，使同一词典分析的文档的词向量位于同一ID空间中，
+ * 比较两篇文档时只需比较整数而无需比较字符串。
+ * 
+ * <p>ID的最低位标记该词是否为包含中文的多字复合词，其余位按词的类型分配：</p>
+ * <ul>
+ *   <li>单个字符：直接由字符编码得到，无需查表；</li>
+ *   <li>英文单词、数字、中文复合词等多字符的词：在词典中分配递增序号，不同的词ID一定不同。</li>
+ * </ul>
+ * 
+ * <p>每个词典最多分配 {@link #DEFAULT_CAPACITY} 个序号。共享词典按代轮换：
+ * 当前一代已满时，{@link #shared()} 创建新的一代并返回，旧的一代只被用它分析的文档引用，
+ * 这些文档被缓存淘汰后即可回收，因此进程中的词典总量不会随请求无限增长。
+ * 不同代的文档不能直接比较词ID，见 {@link #generation()}。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class TermDictionary {
+    
+    /** 每个词典最多分配的序号数 */
+    public static final int DEFAULT_CAPACITY = 1 << 17;
+    
+    /** 词典序号从单字符ID范围之后开始分配 */
+    private static final int FIRST_WORD_SEQUENCE = Character.MAX_VALUE + 1;
+    
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+    
+    private static final AtomicReference<TermDictionary> SHARED = new AtomicReference<>(new TermDictionary());
+    
+    private final Map<String, Integer> wordIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSequence = new AtomicInteger(FIRST_WORD_SEQUENCE);
+    private final int capacity;
+    private final long generation = GENERATIONS.incrementAndGet();
+    
+    /**
+     * 创建容量为 {@link #DEFAULT_CAPACITY} 的词典
+     */
+    public TermDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 创建词典
+     * 
+     * @param capacity 容量，达到后 {@link #isFull()} 返回true；已经开始的分析仍可继续分配
+     */
+    public TermDictionary(int capacity) {
+        if (capacity <= 0 || capacity > (Integer.MAX_VALUE >> 1) - FIRST_WORD_SEQUENCE) {
+            throw new IllegalArgumentException("词典容量超出范围: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+    
+    /**
+     * 获取全局共享词典的当前一代，当前一代已满时先轮换
+     * 
+     * @return 词典实例
+     */
+    public static TermDictionary shared() {
+        TermDictionary current = SHARED.get();
+        while (current.isFull()) {
+            SHARED.compareAndSet(current, new TermDictionary(current.capacity));
+            current = SHARED.get();
+        }
+        return current;
+    }
+    
+    /**
+     * 获取单个字符的词ID
+     * 
+     * @param c 字符
+     * @return 词ID
+     */
+    public static int charId(char c) {
+        return c << 1;
+    }
+    
+    /**
+     * 判断词ID是否为中文复合词
+     * 
+     * @param id 词ID
+     * @return 是否为复合词
+     */
+    public static boolean isCompound(int id) {
+        return (id & 1) != 0;
+    }
+    
+    /**
+     * 获取文本片段对应的词ID
+     * 
+     * @param text 文本
+     * @param start 起始位置（包含）
+     * @param end 结束位置（不包含）
+     * @param compound 片段是否包含中文字符
+     * @return 词ID
+     */
+    public int idOf(String text, int start, int end, boolean compound) {
+        if (end - start == 1) {
+            return charId(text.charAt(start));
+        }
+        
+        String word = text.substring(start, end);
+        Integer id = wordIds.get(word);
+        if (id == null) {
+            int flag = compound ? 1 : 0;
+            id = wordIds.computeIfAbsent(word, k -> (nextSequence.getAndIncrement() << 1) | flag);
+        }
+        return id;
+    }
+    
+    /**
+     * 获取词典的代号。代号在进程内唯一且按创建顺序递增，
+     * 两篇文档只有由同一代词典分析时词ID才可比较。
+     * 
+     * @return 代号
+     */
+    public long generation() {
+        return generation;
+    }
+    
+    /**
+     * 判断词典是否已达到容量
+     * 
+     * @return 是否已满
+     */
+    public boolean isFull() {
+        return wordIds.size() >= capacity;
+    }
+    
+    /**
+     * 获取词典中已分配序号的词数量
+     * 
+     * @return 词数量
+     */
+    public int size() {
+        return wordIds.size();
+    }
+}
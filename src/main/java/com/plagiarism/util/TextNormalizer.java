@@ -0,0 +1,228 @@
+package com.plagiarism.util;
+
+import java.util.Arrays;
+
+/**
+ * 文本规范化工具类
+ * 所有相似度算法共用的预处理：保留中文、英文字母（转小写）和数字，
+ * 连续空白压缩为单个空格并去除首尾空白，其余字符（标点符号等）全部丢弃。
+ *
+ * <p>字符分类通过预先计算的 64K 查找表完成，每个字符只需一次数组访问；
+ * 输出写入可复用的 char[] 缓冲区，规范化一篇文档只产生常数个对象。</p>
+ *
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class TextNormalizer {
+
+    /** 规范化文本中的词分隔符 */
+    public static final char SEPARATOR = ' ';
+
+    private static final byte DROP = 0;
+    private static final byte KEEP = 1;
+    private static final byte UPPER = 2;
+    private static final byte SPACE = 3;
+    private static final byte CJK = 4;
+
+    /** 线程缓冲区超过该长度时不再保留，避免处理过大文档后长期占用内存 */
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private static final byte[] CHAR_CLASS = new byte[Character.MAX_VALUE + 1];
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[4096]);
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (Character.isWhitespace(c)) {
+                CHAR_CLASS[c] = SPACE;
+            }
+        }
+        for (int c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASS[c] = KEEP;
+        }
+        for (int c = '0'; c <= '9'; c++) {
+            CHAR_CLASS[c] = KEEP;
+        }
+        for (int c = 'A'; c <= 'Z'; c++) {
+            CHAR_CLASS[c] = UPPER;
+        }
+        for (int c = '\u4e00'; c <= '\u9fa5'; c++) {
+            CHAR_CLASS[c] = CJK;
+        }
+    }
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * 规范化文本
+     *
+     * @param text 原始文本
+     * @return 规范化后的文本，text为null时返回空字符串
+     */
+    public static String normalize(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return "";
+        }
+
+        char[] buffer = BUFFER.get();
+        if (buffer.length < text.length()) {
+            buffer = new char[text.length()];
+            if (buffer.length <= MAX_RETAINED_BUFFER) {
+                BUFFER.set(buffer);
+            }
+        }
+
+        int length = normalize(text, buffer);
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * 规范化文本并写入调用方提供的缓冲区
+     *
+     * @param text 原始文本
+     * @param out 输出缓冲区，长度不小于 text.length()
+     * @return 写入的字符数
+     */
+    public static int normalize(CharSequence text, char[] out) {
+        int length = 0;
+        boolean pendingSpace = false;
+
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            switch (CHAR_CLASS[c]) {
+                case KEEP:
+                case CJK:
+                    break;
+                case UPPER:
+                    c = (char) (c + ('a' - 'A'));
+                    break;
+                case SPACE:
+                    // 行首空白直接丢弃，其余延迟到下一个保留字符前输出，以去除行尾空白
+                    pendingSpace = length > 0;
+                    continue;
+                default:
+                    continue;
+            }
+
+            if (pendingSpace) {
+                out[length++] = SEPARATOR;
+                pendingSpace = false;
+            }
+            out[length++] = c;
+        }
+
+        return length;
+    }
+
+    /**
+     * 分块规范化器
+     * 同一段文本依次分块传入时，输出与一次性调用 {@link #normalize(CharSequence)} 相同：
+     * 跨越块边界的空白由对象记录，延迟到下一个保留字符前输出。
+     */
+    public static final class ChunkNormalizer {
+
+        private boolean pendingSpace;
+        private boolean started;
+
+        /**
+         * 规范化一块文本，追加到输出缓冲区
+         *
+         * @param in 输入字符
+         * @param offset 输入起始位置
+         * @param length 输入字符数
+         * @param out 输出缓冲区，从 outOffset 起至少有 length + 1 个空位
+         * @param outOffset 输出起始位置
+         * @return 写入后的输出位置
+         */
+        public int normalize(char[] in, int offset, int length, char[] out, int outOffset) {
+            int position = outOffset;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                char c = in[i];
+                switch (CHAR_CLASS[c]) {
+                    case KEEP:
+                    case CJK:
+                        break;
+                    case UPPER:
+                        c = (char) (c + ('a' - 'A'));
+                        break;
+                    case SPACE:
+                        pendingSpace = started;
+                        continue;
+                    default:
+                        continue;
+                }
+
+                if (pendingSpace) {
+                    out[position++] = SEPARATOR;
+                    pendingSpace = false;
+                }
+                out[position++] = c;
+                started = true;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * 按规范化规则提取参与比较的字符：去掉标点和空白，英文转小写，
+     * 并记录每个字符在原始文本中的下标，用于把比较结果映射回原文
+     *
+     * @param text 原始文本
+     * @param offsets 输出参数，长度不小于 text.length()
+     * @return 保留的字符
+     */
+    public static char[] retainedChars(CharSequence text, int[] offsets) {
+        char[] chars = new char[text.length()];
+        int count = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            byte charClass = CHAR_CLASS[c];
+            if (charClass == DROP || charClass == SPACE) {
+                continue;
+            }
+            chars[count] = charClass == UPPER ? (char) (c + ('a' - 'A')) : c;
+            offsets[count++] = i;
+        }
+        return count == chars.length ? chars : Arrays.copyOf(chars, count);
+    }
+
+    /**
+     * 去掉规范化文本中的词分隔符
+     *
+     * @param normalizedText 规范化文本
+     * @return 不含分隔符的字符序列
+     */
+    public static char[] withoutSeparators(String normalizedText) {
+        char[] chars = new char[normalizedText.length()];
+        int count = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char c = normalizedText.charAt(i);
+            if (c != SEPARATOR) {
+                chars[count++] = c;
+            }
+        }
+        return count == chars.length ? chars : Arrays.copyOf(chars, count);
+    }
+
+    /**
+     * 判断字符是否为规范化后保留的中文字符
+     *
+     * @param c 字符
+     * @return 是否为中文字符
+     */
+    public static boolean isCjk(char c) {
+        return CHAR_CLASS[c] == CJK;
+    }
+
+    /**
+     * 判断字符在规范化时是否会被保留（不含空白）
+     *
+     * @param c 字符
+     * @return 是否保留
+     */
+    public static boolean isRetained(char c) {
+        byte charClass = CHAR_CLASS[c];
+        return charClass != DROP && charClass != SPACE;
+    }
+}
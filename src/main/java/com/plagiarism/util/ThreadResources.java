@@ -0,0 +1,83 @@
+package com.plagiarism.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 当前线程的资源用量
+ * 读取当前线程累计的CPU时间和堆分配字节数，在一段代码前后各读一次，差值即为这段代码的用量。
+ * 与 {@link Runtime} 的全局内存数据不同，结果只包含当前线程，不受其他请求干扰。
+ * 
+ * <p>分配字节数依赖HotSpot等JVM提供的 {@code com.sun.management.ThreadMXBean} 扩展；
+ * 不支持的JVM或功能被关闭时对应的方法返回-1。Java 21的虚拟线程上两者都返回-1。
+ * 每次读取的开销在百纳秒到微秒级，远小于一次相似度计算。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class ThreadResources {
+    
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    /** 支持分配统计时为扩展接口，否则为null */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS;
+    
+    private static final boolean CPU_TIME_SUPPORTED;
+    
+    static {
+        com.sun.management.ThreadMXBean allocations = null;
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            allocations = (com.sun.management.ThreadMXBean) THREADS;
+            try {
+                if (!allocations.isThreadAllocatedMemorySupported()) {
+                    allocations = null;
+                } else if (!allocations.isThreadAllocatedMemoryEnabled()) {
+                    allocations.setThreadAllocatedMemoryEnabled(true);
+                }
+            } catch (UnsupportedOperationException | SecurityException e) {
+                allocations = null;
+            }
+        }
+        ALLOCATIONS = allocations;
+        
+        boolean cpuTime = THREADS.isCurrentThreadCpuTimeSupported();
+        try {
+            if (cpuTime && !THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            cpuTime = false;
+        }
+        CPU_TIME_SUPPORTED = cpuTime;
+    }
+    
+    private ThreadResources() {
+    }
+    
+    /**
+     * 判断是否能同时统计CPU时间和分配字节数
+     * 
+     * @return 都支持时返回true
+     */
+    public static boolean isSupported() {
+        return CPU_TIME_SUPPORTED && ALLOCATIONS != null;
+    }
+    
+    /**
+     * 获取当前线程累计的CPU时间（用户态加内核态）
+     * 
+     * @return CPU时间（纳秒），不可用时为-1
+     */
+    public static long cpuTime() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1L;
+    }
+    
+    /**
+     * 获取当前线程累计分配的堆内存
+     * 
+     * @return 字节数，不可用时为-1
+     */
+    public static long allocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1L;
+    }
+}
@@ -0,0 +1,107 @@
+package com.plagiarism.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程工具类
+ * 项目以Java 8为编译目标，无法直接调用Java 21的虚拟线程API，这里通过反射创建
+ * “每个任务一个虚拟线程”的执行器。运行在不支持虚拟线程的JVM上时 {@link #isSupported()} 返回false，
+ * 调用方应退回平台线程。
+ * 
+ * <p>虚拟线程适合读取文件、等待网络等阻塞型任务：阻塞时让出底层的平台线程，
+ * 并发数不再受线程池大小限制。计算密集型任务仍应交给大小固定的平台线程池。</p>
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+public final class VirtualThreads {
+    
+    /** Thread.ofVirtual()，不支持时为null */
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+    /** Thread.isVirtual()，不支持时为null */
+    private static final Method IS_VIRTUAL;
+    
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newExecutor = null;
+        Method isVirtual = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            isVirtual = Thread.class.getMethod("isVirtual");
+            // Java 19/20 中虚拟线程是预览特性，未开启预览时调用会抛出异常
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+        IS_VIRTUAL = ofVirtual != null ? isVirtual : null;
+    }
+    
+    private VirtualThreads() {
+    }
+    
+    /**
+     * 判断当前JVM是否支持虚拟线程
+     * 
+     * @return 支持时返回true
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+    
+    /**
+     * 判断线程是否为虚拟线程
+     * 
+     * @param thread 线程
+     * @return 是虚拟线程时返回true；当前JVM不支持虚拟线程时总是返回false
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 创建为每个任务启动一个虚拟线程的执行器
+     * 
+     * @param namePrefix 线程名前缀，线程名为前缀加序号
+     * @return 执行器，不需要时应调用 shutdown
+     * @throws UnsupportedOperationException 当前JVM不支持虚拟线程
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("当前JVM不支持虚拟线程: Java " + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (IllegalAccessException e) {
+            throw new UnsupportedOperationException("无法创建虚拟线程执行器", e);
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("无法创建虚拟线程执行器", e.getCause());
+        }
+    }
+}
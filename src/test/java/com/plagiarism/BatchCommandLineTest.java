@@ -0,0 +1,150 @@
+package com.plagiarism;
+
+import com.plagiarism.algorithm.impl.CosineSimilarity;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.SimilarityResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 命令行批量模式测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("命令行批量模式测试")
+class BatchCommandLineTest {
+    
+    private final CosineSimilarity algorithm = new CosineSimilarity();
+    private final ConcurrentHashMap<Path, AtomicInteger> analyzeCounts = new ConcurrentHashMap<>();
+    
+    private BatchCommandLine<AnalyzedDocument> batch(boolean mapped) {
+        return new BatchCommandLine<>((file, map) -> {
+            analyzeCounts.computeIfAbsent(file.getFileName(), key -> new AtomicInteger()).incrementAndGet();
+            if (map) {
+                return AnalyzedDocument.analyzeMapped(file);
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                return AnalyzedDocument.analyze(in);
+            }
+        }, algorithm::calculateDocumentSimilarity, 3, mapped);
+    }
+    
+    private static void write(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    @DisplayName("测试目录模式比对所有文件两两之间的相似度")
+    void testDirectory(@TempDir Path tempDir) throws IOException {
+        Path input = Files.createDirectory(tempDir.resolve("docs"));
+        String[] texts = {"今天是星期天，天气晴", "今天是周天，天气晴朗", "明天要下雨", "完全不同的内容，论文查重"};
+        for (int i = 0; i < texts.length; i++) {
+            write(input.resolve("doc" + i + ".txt"), texts[i]);
+        }
+        write(input.resolve(".hidden"), "忽略");
+        Path output = tempDir.resolve("out/result.csv");
+        
+        BatchCommandLine.Summary summary = batch(true).run(input, output);
+        assertEquals(4, summary.documents);
+        assertEquals(6, summary.pairs);
+        assertEquals(0, summary.failedPairs);
+        
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals("original,plagiarized,similarity,error", lines.get(0));
+        int row = 1;
+        for (int i = 0; i < texts.length; i++) {
+            for (int j = i + 1; j < texts.length; j++) {
+                double expected = algorithm.calculateSimilarity(texts[i], texts[j]);
+                assertEquals("doc" + i + ".txt,doc" + j + ".txt," + String.format(Locale.ROOT, "%.4f", expected) + ",",
+                    lines.get(row++));
+            }
+        }
+        assertEquals(7, lines.size());
+        // 每个文件只预处理一次
+        assertTrue(analyzeCounts.values().stream().allMatch(count -> count.get() == 1));
+        assertEquals(4, analyzeCounts.size());
+    }
+    
+    @Test
+    @DisplayName("测试清单模式按输入顺序输出并记录读取失败")
+    void testManifest(@TempDir Path tempDir) throws IOException {
+        write(tempDir.resolve("a.txt"), "论文查重系统");
+        write(tempDir.resolve("b,c.txt"), "论文查重系统测试");
+        Path manifest = tempDir.resolve("pairs.txt");
+        write(manifest, String.join("\n",
+            "# 原文\t抄袭文本",
+            "a.txt\tb,c.txt",
+            "",
+            "b,c.txt\ta.txt",
+            "a.txt\tmissing.txt"));
+        Path output = tempDir.resolve("result.tsv");
+        
+        BatchCommandLine.Summary summary = batch(false).run(manifest, output);
+        assertEquals(3, summary.documents);
+        assertEquals(3, summary.pairs);
+        assertEquals(1, summary.failedPairs);
+        
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("original\tplagiarized\tsimilarity\terror", lines.get(0));
+        String similarity = String.format(Locale.ROOT, "%.4f", algorithm.calculateSimilarity("论文查重系统", "论文查重系统测试"));
+        assertEquals("a.txt\tb,c.txt\t" + similarity + "\t", lines.get(1));
+        assertEquals("b,c.txt\ta.txt\t" + similarity + "\t", lines.get(2));
+        List<String> failed = Arrays.asList(lines.get(3).split("\t", -1));
+        assertEquals(Arrays.asList("a.txt", "missing.txt", ""), failed.subList(0, 3));
+        assertTrue(failed.get(3).contains("missing.txt"));
+        assertEquals(1, analyzeCounts.get(tempDir.resolve("a.txt").getFileName()).get());
+    }
+    
+    @Test
+    @DisplayName("测试多算法综合相似度记录未计入的算法")
+    void testEnsembleOmitted(@TempDir Path tempDir) throws IOException {
+        Path input = Files.createDirectory(tempDir.resolve("docs"));
+        write(input.resolve("a.txt"), "论文查重系统");
+        write(input.resolve("b.txt"), "论文查重系统测试");
+        write(input.resolve("c.txt"), "完全不同的内容");
+        Path output = tempDir.resolve("result.csv");
+        
+        BatchCommandLine<String> batch = BatchCommandLine.ofEnsemble(
+            (file, map) -> file.getFileName().toString(),
+            (original, plagiarized) -> "c.txt".equals(plagiarized)
+                ? new SimilarityResult(0.5, Collections.singletonMap("Cosine Similarity", 0.5),
+                    Collections.singletonList("Levenshtein Distance"), Arrays.asList("Jaccard Similarity", "LCS"))
+                : SimilarityResult.of(0.25),
+            2, false);
+        BatchCommandLine.Summary summary = batch.run(input, output);
+        assertEquals(3, summary.pairs);
+        assertEquals(2, summary.partialPairs);
+        
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals("original,plagiarized,similarity,omitted,error", lines.get(0));
+        assertEquals("a.txt,b.txt,0.2500,,", lines.get(1));
+        assertEquals("a.txt,c.txt,0.5000,Levenshtein Distance;Jaccard Similarity;LCS,", lines.get(2));
+        assertEquals("b.txt,c.txt,0.5000,Levenshtein Distance;Jaccard Similarity;LCS,", lines.get(3));
+    }
+    
+    @Test
+    @DisplayName("测试清单格式错误")
+    void testMalformedManifest(@TempDir Path tempDir) throws IOException {
+        Path manifest = tempDir.resolve("pairs.csv");
+        write(manifest, "a.txt\n");
+        IOException e = assertThrows(IOException.class, () -> batch(false).run(manifest, tempDir.resolve("out.csv")));
+        assertTrue(e.getMessage().contains("第 1 行"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.plagiarism.algorithm.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 位并行编辑距离引擎测试类
+ *
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("位并行编辑距离引擎测试")
+class BitParallelLevenshteinTest {
+
+    private static final String ALPHABET = "这是一个测试文本的内容abc123";
+
+    @Test
+    @DisplayName("测试基本编辑距离")
+    void testBasicDistances() {
+        assertEquals(0, BitParallelLevenshtein.distance("", ""));
+        assertEquals(3, BitParallelLevenshtein.distance("", "abc"));
+        assertEquals(3, BitParallelLevenshtein.distance("kitten", "sitting"));
+        assertEquals(2, BitParallelLevenshtein.distance("你好世界", "你好地球"));
+        assertEquals(1, BitParallelLevenshtein.distance("Hello World", "Hello World!"));
+    }
+
+    @Test
+    @DisplayName("测试与动态规划结果一致（含多块情形）")
+    void testMatchesDynamicProgramming() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            String s1 = randomText(random, random.nextInt(300));
+            String s2 = mutate(random, s1);
+            assertEquals(dynamicProgrammingDistance(s1, s2), BitParallelLevenshtein.distance(s1, s2),
+                "位并行结果应该与动态规划一致: " + s1 + " / " + s2);
+        }
+    }
+
+    @Test
+    @DisplayName("测试有上界的编辑距离")
+    void testBoundedDistance() {
+        assertEquals(3, BitParallelLevenshtein.boundedDistance("kitten", "sitting", 3));
+        assertEquals(-1, BitParallelLevenshtein.boundedDistance("kitten", "sitting", 2));
+        assertEquals(-1, BitParallelLevenshtein.boundedDistance("短", "很长的一段文本", 3));
+        assertEquals(0, BitParallelLevenshtein.boundedDistance("", "", 0));
+    }
+
+    @Test
+    @DisplayName("测试对角带计算与动态规划结果一致")
+    void testBoundedMatchesDynamicProgramming() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 1000; round++) {
+            String s1 = randomText(random, random.nextInt(400));
+            String s2 = mutate(random, s1);
+            int expected = dynamicProgrammingDistance(s1, s2);
+            int bound = random.nextInt(expected + 20);
+            int actual = BitParallelLevenshtein.boundedDistance(s1, s2, bound);
+            assertEquals(expected <= bound ? expected : -1, actual,
+                "上界为 " + bound + " 时结果应该与动态规划一致: " + s1 + " / " + s2);
+        }
+    }
+
+    @Test
+    @DisplayName("测试长文本性能")
+    void testLongTextPerformance() {
+        Random random = new Random(7);
+        String s1 = randomText(random, 30000);
+        String s2 = mutate(random, s1);
+
+        long startTime = System.currentTimeMillis();
+        int distance = BitParallelLevenshtein.distance(s1, s2);
+        long endTime = System.currentTimeMillis();
+
+        assertTrue(distance >= 0 && distance <= 30000 + s2.length(), "编辑距离应该在合理范围内");
+        assertTrue(endTime - startTime < 5000, "30K字符的编辑距离应该在5秒内完成");
+    }
+
+    @Test
+    @DisplayName("测试线程被中断时结束计算")
+    void testInterrupted() {
+        Random random = new Random(11);
+        String s1 = randomText(random, 5000);
+        String s2 = mutate(random, s1);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> BitParallelLevenshtein.distance(s1, s2));
+            assertThrows(CancellationException.class, () -> BitParallelLevenshtein.boundedDistance(s1, s2, 5000));
+            assertTrue(Thread.currentThread().isInterrupted(), "中断标志应该保留");
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(BitParallelLevenshtein.distance(s1, s2), BitParallelLevenshtein.boundedDistance(s1, s2, 5000));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String text) {
+        StringBuilder sb = new StringBuilder(text);
+        int edits = random.nextInt(text.length() / 4 + 2);
+        for (int i = 0; i < edits; i++) {
+            int op = random.nextInt(3);
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            if (op == 0 || sb.length() == 0) {
+                sb.insert(random.nextInt(sb.length() + 1), c);
+            } else if (op == 1) {
+                sb.deleteCharAt(random.nextInt(sb.length()));
+            } else {
+                sb.setCharAt(random.nextInt(sb.length()), c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int dynamicProgrammingDistance(String s1, String s2) {
+        int[] previous = new int[s2.length() + 1];
+        int[] current = new int[s2.length() + 1];
+        for (int j = 0; j <= s2.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= s1.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= s2.length(); j++) {
+                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+            }
+            int[] temp = previous;
+            previous = current;
+            current = temp;
+        }
+        return previous[s2.length()];
+    }
+}
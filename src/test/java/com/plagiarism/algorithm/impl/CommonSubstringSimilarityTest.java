@@ -0,0 +1,202 @@
+package com.plagiarism.algorithm.impl;
+
+import com.plagiarism.model.MatchRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 公共子串覆盖率相似度算法测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("公共子串覆盖率相似度算法测试")
+class CommonSubstringSimilarityTest {
+    
+    private static final String PAPER = "人工智能是计算机科学的一个分支，它企图了解智能的实质，并生产出一种新的能以人类智能相似的方式做出反应的智能机器。";
+    
+    private CommonSubstringSimilarity similarity;
+    
+    @BeforeEach
+    void setUp() {
+        similarity = new CommonSubstringSimilarity();
+    }
+    
+    @Test
+    @DisplayName("测试后缀自动机求最长匹配")
+    void testLongestMatches() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            String s = randomText(random, 1 + random.nextInt(40), 3);
+            String t = randomText(random, 1 + random.nextInt(40), 3);
+            int[] lengths = new int[t.length()];
+            int[] states = new int[t.length()];
+            SuffixAutomaton automaton = new SuffixAutomaton(s.toCharArray(), s.length());
+            automaton.longestMatches(t.toCharArray(), t.length(), lengths, states);
+            
+            for (int j = 0; j < t.length(); j++) {
+                int expected = 0;
+                while (expected <= j && s.contains(t.substring(j - expected, j + 1))) {
+                    expected++;
+                }
+                assertEquals(expected, lengths[j], "位置 " + j + " 的最长匹配长度错误");
+                if (lengths[j] > 0) {
+                    String matched = t.substring(j - lengths[j] + 1, j + 1);
+                    assertEquals(s.indexOf(matched) + matched.length() - 1, automaton.firstEnd(states[j]),
+                        "应该给出第一次出现的结束位置");
+                }
+            }
+            
+            int[] sourceLengths = automaton.sourceMatchLengths(lengths, states, t.length());
+            for (int i = 0; i < s.length(); i++) {
+                int expected = 0;
+                while (expected <= i && t.contains(s.substring(i - expected, i + 1))) {
+                    expected++;
+                }
+                assertEquals(expected, sourceLengths[i], "原序列位置 " + i + " 的最长匹配长度错误");
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("测试转移表按状态数分配并按需扩容")
+    void testTransitionTableSize() {
+        Random random = new Random(11);
+        int n = 100000;
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) {
+            chars[i] = (char) ('\u4e00' + random.nextInt(3000));
+        }
+        SuffixAutomaton automaton = new SuffixAutomaton(chars, n);
+        assertTrue(automaton.tableSlots() <= 1 << 19, "转移表不应按 3n 条转移的两倍预留");
+        
+        int[] lengths = new int[n];
+        automaton.longestMatches(chars, n, lengths, null);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i + 1, lengths[i]);
+        }
+        
+        // 字母表很小时转移数接近 3n，超过初始容量，需要扩容
+        String s = randomText(random, 5000, 3);
+        String t = randomText(random, 200, 3);
+        int[] matchLengths = new int[t.length()];
+        SuffixAutomaton small = new SuffixAutomaton(s.toCharArray(), s.length());
+        small.longestMatches(t.toCharArray(), t.length(), matchLengths, null);
+        for (int j = 0; j < t.length(); j++) {
+            int expected = 0;
+            while (expected <= j && s.contains(t.substring(j - expected, j + 1))) {
+                expected++;
+            }
+            assertEquals(expected, matchLengths[j]);
+        }
+    }
+    
+    @Test
+    @DisplayName("测试覆盖率与逐位置检查一致")
+    void testCoverageAgainstBruteForce() {
+        Random random = new Random(7);
+        CommonSubstringSimilarity shortMatches = new CommonSubstringSimilarity(3);
+        for (int round = 0; round < 100; round++) {
+            String s = randomText(random, 3 + random.nextInt(60), 4);
+            String t = randomText(random, 3 + random.nextInt(60), 4);
+            double expected = (double) (coveredCount(s, t, 3) + coveredCount(t, s, 3)) / (s.length() + t.length());
+            assertEquals(expected, shortMatches.calculateSimilarity(s, t), 1e-12);
+            assertEquals(shortMatches.calculateSimilarity(s, t), shortMatches.calculateSimilarity(t, s), 1e-12,
+                "结果应该与参数顺序无关");
+        }
+    }
+    
+    @Test
+    @DisplayName("测试相同与不同文本")
+    void testIdenticalAndDifferentTexts() {
+        assertEquals(1.0, similarity.calculateSimilarity(PAPER, PAPER), 1e-12);
+        assertEquals(1.0, similarity.calculateSimilarity(PAPER, PAPER.replace("，", " ")), 1e-12);
+        assertEquals(0.0, similarity.calculateSimilarity(PAPER, "唐朝是中国历史上最强盛的朝代之一。"), 1e-12);
+        assertEquals(0.0, similarity.calculateSimilarity(null, PAPER), 1e-12);
+        assertEquals(0.0, similarity.calculateSimilarity("短文本", "短文本啊"), 1e-12, "短于最短长度的重复不计入");
+    }
+    
+    @Test
+    @DisplayName("测试段落调换顺序")
+    void testReorderedParagraphs() {
+        Random random = new Random(3);
+        String first = randomText(random, 500, 3000);
+        String second = randomText(random, 500, 3000);
+        assertEquals(1.0, similarity.calculateSimilarity(first + second, second + first), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试极大公共子串定位")
+    void testFindMatches() {
+        String original = "前言。" + PAPER + "结论：以上。";
+        String plagiarized = "摘要：本文讨论了许多问题。" + PAPER.replace("企图", "试图") + "完";
+        
+        List<MatchRange> matches = similarity.findMatches(original, plagiarized);
+        assertEquals(2, matches.size());
+        for (MatchRange match : matches) {
+            assertEquals(original.substring(match.getOriginalStart(), match.getOriginalEnd()),
+                plagiarized.substring(match.getPlagiarizedStart(), match.getPlagiarizedEnd()));
+            assertTrue(match.getLength() >= CommonSubstringSimilarity.DEFAULT_MIN_LENGTH);
+        }
+        assertEquals(similarity.calculateSimilarity(original, plagiarized),
+            similarity.locateMatches(original, plagiarized).getSimilarity(), 1e-12);
+        assertEquals(1.0, similarity.locateMatches("短文本", "短文本").getSimilarity(), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试长文档性能")
+    void testLongDocumentPerformance() {
+        Random random = new Random(11);
+        String text1 = randomText(random, 100000, 3000);
+        StringBuilder sb = new StringBuilder(text1);
+        for (int i = 0; i < 1000; i++) {
+            int position = random.nextInt(sb.length());
+            sb.setCharAt(position, (char) ('一' + random.nextInt(3000)));
+        }
+        String text2 = sb.toString();
+        
+        long start = System.currentTimeMillis();
+        double result = similarity.calculateSimilarity(text1, text2);
+        long elapsed = System.currentTimeMillis() - start;
+        
+        assertTrue(result > 0.8 && result < 1.0, "少量改动的长文档应该高度相似");
+        assertTrue(elapsed < 2000, "十万字文档应该在2秒内完成，实际耗时: " + elapsed + "ms");
+    }
+    
+    @Test
+    @DisplayName("测试非法参数")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CommonSubstringSimilarity(0));
+    }
+    
+    /**
+     * 逐位置检查：位置i被覆盖当且仅当某个包含i、长度不少于minLength的子串在另一文本中出现
+     */
+    private static int coveredCount(String text, String other, int minLength) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            boolean covered = false;
+            for (int start = Math.max(0, i - minLength + 1); start <= i && !covered; start++) {
+                int end = start + minLength;
+                covered = end <= text.length() && other.contains(text.substring(start, end));
+            }
+            if (covered) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private static String randomText(Random random, int length, int alphabet) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('一' + random.nextInt(alphabet)));
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,13 @@
 package com.plagiarism.algorithm.impl;
 
+import com.plagiarism.util.PerformanceMonitor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Map;
+
 /**
  * 余弦相似度算法测试类
  * 
@@ -116,4 +119,19 @@ class CosineSimilarityTest {
         System.out.println("长文本相似度: " + similarity);
         assertTrue(similarity > 0.5, "长文本的相似度应该较高");
     }
+    
+    @Test
+    @DisplayName("测试优化版各实例的缓存统计互不覆盖")
+    void testOptimizedCacheRegistration() {
+        OptimizedCosineSimilarity first = new OptimizedCosineSimilarity();
+        OptimizedCosineSimilarity second = new OptimizedCosineSimilarity();
+        first.calculateSimilarity("今天是星期天，天气晴", "今天是周天，天气晴朗");
+        
+        assertNotEquals(first.getCacheName(), second.getCacheName());
+        Map<String, Map<String, Long>> stats = PerformanceMonitor.getCacheStats();
+        assertEquals(first.getDetailedCacheStats(), stats.get(first.getCacheName()));
+        assertEquals(second.getDetailedCacheStats(), stats.get(second.getCacheName()));
+        assertEquals(Integer.valueOf(2), first.getCacheStats().get("documentCache"));
+        assertEquals(Integer.valueOf(0), second.getCacheStats().get("documentCache"));
+    }
 }
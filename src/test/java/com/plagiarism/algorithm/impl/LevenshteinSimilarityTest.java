@@ -97,6 +97,22 @@ class LevenshteinSimilarityTest {
         assertTrue(similarity > 0.5, "中文字符的相似度应该合理");
     }
     
+    @Test
+    @DisplayName("测试带阈值的相似度计算")
+    void testSimilarityWithThreshold() {
+        String text1 = "这是一个用于测试阈值的文本内容";
+        String text2 = "这是一个用于测试阈值的文字内容";
+        double exact = levenshteinSimilarity.calculateSimilarity(text1, text2);
+        
+        assertEquals(exact, levenshteinSimilarity.calculateSimilarity(text1, text2, 0.8), 0.001,
+            "达到阈值时应该返回精确相似度");
+        assertEquals(0.0, levenshteinSimilarity.calculateSimilarity(text1, "完全不同的另一段话", 0.8), 0.001,
+            "低于阈值时应该提前终止并返回0.0");
+        assertEquals(levenshteinSimilarity.calculateSimilarity("你好世界", "你好地球"),
+            levenshteinSimilarity.calculateSimilarity("你好世界", "你好地球", 0.5), 0.001,
+            "长度相近的短文本应该保留相似度提升规则");
+    }
+    
     @Test
     @DisplayName("测试长文本性能")
     void testLongTextPerformance() {
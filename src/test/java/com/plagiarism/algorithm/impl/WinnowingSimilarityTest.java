@@ -0,0 +1,123 @@
+package com.plagiarism.algorithm.impl;
+
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.MatchRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Winnowing指纹相似度算法测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("Winnowing指纹相似度算法测试")
+class WinnowingSimilarityTest {
+    
+    private static final String PAPER = "人工智能是计算机科学的一个分支，它企图了解智能的实质，并生产出一种新的能以人类智能相似的方式做出反应的智能机器。";
+    
+    private WinnowingSimilarity winnowing;
+    
+    @BeforeEach
+    void setUp() {
+        winnowing = new WinnowingSimilarity();
+    }
+    
+    @Test
+    @DisplayName("测试相同与不同文本")
+    void testIdenticalAndDifferentTexts() {
+        assertEquals(1.0, winnowing.calculateSimilarity(PAPER, PAPER), 1e-12);
+        assertEquals(1.0, winnowing.calculateSimilarity(PAPER, "  " + PAPER.replace("，", " ")), 1e-12,
+            "标点和空白不应该影响指纹");
+        assertEquals(0.0, winnowing.calculateSimilarity(PAPER, "唐朝是中国历史上最强盛的朝代之一。"), 1e-12);
+        assertEquals(0.0, winnowing.calculateSimilarity(null, PAPER), 1e-12);
+        assertEquals(0.0, winnowing.calculateSimilarity("   ", PAPER), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试指纹集合缓存在文档中")
+    void testFingerprintsCachedOnDocument() {
+        AnalyzedDocument original = AnalyzedDocument.analyze(PAPER);
+        AnalyzedDocument plagiarized = AnalyzedDocument.analyze(PAPER.replace("企图", "试图"));
+        AnalyzedDocument other = AnalyzedDocument.analyze("唐朝是中国历史上最强盛的朝代之一。" + PAPER.substring(0, 20));
+        
+        double expected = winnowing.calculateSimilarity(PAPER, PAPER.replace("企图", "试图"));
+        assertEquals(expected, winnowing.calculateDocumentSimilarity(original, plagiarized), 1e-12);
+        assertEquals(expected, winnowing.calculateDocumentSimilarity(original, plagiarized), 1e-12, "使用缓存的指纹结果不变");
+        assertEquals(winnowing.calculateSimilarity(PAPER, other.getNormalizedText()),
+            winnowing.calculateDocumentSimilarity(original, other), 1e-12);
+        
+        // 参数不同的实例不使用文档中缓存的指纹
+        WinnowingSimilarity coarse = new WinnowingSimilarity(8, 6);
+        assertEquals(coarse.calculateSimilarity(PAPER, PAPER.replace("企图", "试图")),
+            coarse.calculateDocumentSimilarity(original, plagiarized), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试长度达到保证阈值的相同片段必然被发现")
+    void testGuaranteeThreshold() {
+        Random random = new Random(42);
+        int guarantee = WinnowingSimilarity.DEFAULT_K + WinnowingSimilarity.DEFAULT_WINDOW - 1;
+        for (int round = 0; round < 200; round++) {
+            String shared = randomText(random, guarantee);
+            String text1 = randomText(random, random.nextInt(50)) + shared + randomText(random, random.nextInt(50));
+            String text2 = randomText(random, random.nextInt(50)) + shared + randomText(random, random.nextInt(50));
+            assertTrue(winnowing.calculateSimilarity(text1, text2) > 0.0, "共同片段应该产生相同的指纹");
+            assertFalse(winnowing.findMatches(text1, text2).isEmpty(), "共同片段应该被定位");
+            assertEquals(winnowing.calculateSimilarity(text1, text2),
+                winnowing.locateMatches(text1, text2).getSimilarity(), 1e-12, "定位时给出的相似度应该与单独计算的相同");
+        }
+    }
+    
+    @Test
+    @DisplayName("测试相同片段定位")
+    void testFindMatches() {
+        String original = "前言。" + PAPER + "结论：以上。";
+        String plagiarized = "摘要：本文讨论了许多问题。" + PAPER.replace("企图", "试图") + "完";
+        
+        List<MatchRange> matches = winnowing.findMatches(original, plagiarized);
+        assertEquals(2, matches.size(), "改动一处的段落应该被分成两个相同片段");
+        
+        int matched = 0;
+        for (MatchRange match : matches) {
+            String left = original.substring(match.getOriginalStart(), match.getOriginalEnd());
+            String right = plagiarized.substring(match.getPlagiarizedStart(), match.getPlagiarizedEnd());
+            assertEquals(left, right, "定位的两段原文内容应该相同");
+            matched += match.getLength();
+        }
+        // 除“企”“试”两字外，段落中的所有汉字都应该被覆盖
+        assertEquals(PAPER.replaceAll("[，。]", "").length() - 1, matched);
+        assertTrue(matches.get(0).getPlagiarizedEnd() <= matches.get(1).getPlagiarizedStart());
+        assertEquals(winnowing.calculateSimilarity(original, plagiarized),
+            winnowing.locateMatches(original, plagiarized).getSimilarity(), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试部分抄袭的相似度")
+    void testPartialCopy() {
+        Random random = new Random(7);
+        String text = randomText(random, 2000);
+        double similarity = winnowing.calculateSimilarity(text, text.substring(0, 1000));
+        assertEquals(0.5, similarity, 0.05, "抄袭一半内容的相似度应该接近0.5");
+    }
+    
+    @Test
+    @DisplayName("测试非法参数")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WinnowingSimilarity(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new WinnowingSimilarity(5, 0));
+    }
+    
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('一' + random.nextInt(3000)));
+        }
+        return sb.toString();
+    }
+}
@@ -1,24 +1,55 @@
 package com.plagiarism.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plagiarism.corpus.CorpusMatch;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.EnsemblePlan;
+import com.plagiarism.model.MatchRange;
+import com.plagiarism.model.MatchResult;
+import com.plagiarism.model.PairResult;
+import com.plagiarism.model.SimilarityMatrix;
+import com.plagiarism.model.SimilarityResult;
+import com.plagiarism.service.BatchService;
+import com.plagiarism.service.CorpusService;
+import com.plagiarism.service.MatrixService;
 import com.plagiarism.service.PlagiarismDetectionService;
+import com.plagiarism.util.PerformanceMonitor;
+import com.plagiarism.util.ResourceProfile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * 论文查重控制器测试类
@@ -36,6 +67,15 @@ class PlagiarismControllerTest {
     @MockBean
     private PlagiarismDetectionService plagiarismDetectionService;
     
+    @MockBean
+    private CorpusService corpusService;
+    
+    @MockBean
+    private BatchService batchService;
+    
+    @MockBean
+    private MatrixService matrixService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -44,6 +84,8 @@ class PlagiarismControllerTest {
         // 设置默认的模拟行为
         when(plagiarismDetectionService.calculateSimilarity(anyString(), anyString()))
             .thenReturn(0.85);
+        when(plagiarismDetectionService.calculateSimilarityResult(anyString(), anyString()))
+            .thenReturn(SimilarityResult.of(0.85));
         when(plagiarismDetectionService.formatSimilarity(0.85))
             .thenReturn("0.85");
         when(plagiarismDetectionService.formatSimilarityAsPercentage(0.85))
@@ -65,6 +107,92 @@ class PlagiarismControllerTest {
                 .andExpect(jsonPath("$.similarity").value("0.85"))
                 .andExpect(jsonPath("$.similarityPercentage").value("85.00%"))
                 .andExpect(jsonPath("$.message").value("相似度计算成功"));
+        
+        // 计时拦截器按路径模板记录请求耗时
+        assertTrue(PerformanceMonitor.getRequestStats().containsKey("POST /api/similarity"));
+    }
+    
+    @Test
+    @DisplayName("测试计算线程池已满时返回503")
+    void testCalculateSimilarityRejected() throws Exception {
+        when(plagiarismDetectionService.calculateSimilarityResult(anyString(), anyString()))
+            .thenThrow(new RejectedExecutionException("计算线程池已满，请稍后重试"));
+        PlagiarismController.SimilarityRequest request = new PlagiarismController.SimilarityRequest();
+        request.setOriginalText("这是原文");
+        request.setPlagiarizedText("这是抄袭文本");
+        
+        mockMvc.perform(post("/api/similarity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("计算线程池已满，请稍后重试"));
+    }
+    
+    @Test
+    @DisplayName("测试请求资源明细")
+    void testCalculateSimilarityWithProfile() throws Exception {
+        when(plagiarismDetectionService.calculateSimilarityResult(anyString(), anyString()))
+            .thenAnswer(invocation -> {
+                // 模拟服务层在算法调用后记入当前请求的明细
+                ResourceProfile profile = ResourceProfile.current();
+                if (profile != null) {
+                    profile.add("Cosine Similarity", 2_000_000, 1_000_000, 4096);
+                }
+                return SimilarityResult.of(0.5);
+            });
+        
+        PlagiarismController.SimilarityRequest request = new PlagiarismController.SimilarityRequest();
+        request.setOriginalText("这是原文");
+        request.setPlagiarizedText("这是抄袭文本");
+        
+        mockMvc.perform(post("/api/similarity").param("profile", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile.allocatedBytes").value(4096))
+                .andExpect(jsonPath("$.profile.cpuTime").value(1.0))
+                .andExpect(jsonPath("$.profile.algorithms['Cosine Similarity'].calls").value(1));
+        
+        mockMvc.perform(post("/api/similarity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile").doesNotExist());
+        assertNull(ResourceProfile.current());
+    }
+    
+    @Test
+    @DisplayName("测试部分算法超时时的响应")
+    void testCalculateSimilarityPartialResult() throws Exception {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        scores.put("Cosine Similarity", 0.8);
+        scores.put("Jaccard Similarity", 0.9);
+        when(plagiarismDetectionService.calculateSimilarityResult(anyString(), anyString()))
+            .thenReturn(new SimilarityResult(0.85, scores,
+                Collections.singletonList("Levenshtein Distance"), Collections.emptyList(),
+                new EnsemblePlan(EnsemblePlan.FULL,
+                    Arrays.asList("Cosine Similarity", "Levenshtein Distance", "Jaccard Similarity"),
+                    1_500_000L, 2_000_000L)));
+        
+        PlagiarismController.SimilarityRequest request = new PlagiarismController.SimilarityRequest();
+        request.setOriginalText("这是原文");
+        request.setPlagiarizedText("这是抄袭文本");
+        
+        mockMvc.perform(post("/api/similarity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.similarity").value("0.85"))
+                .andExpect(jsonPath("$.partial").value(true))
+                .andExpect(jsonPath("$.algorithmScores['Cosine Similarity']").value(0.8))
+                .andExpect(jsonPath("$.timedOutAlgorithms[0]").value("Levenshtein Distance"))
+                .andExpect(jsonPath("$.plan.name").value("full"))
+                .andExpect(jsonPath("$.plan.algorithms.length()").value(3))
+                .andExpect(jsonPath("$.plan.estimatedMillis").value(1.5))
+                .andExpect(jsonPath("$.plan.budgetMillis").value(2.0))
+                .andExpect(jsonPath("$.plan.withinBudget").value(true));
     }
     
     @Test
@@ -109,6 +237,160 @@ class PlagiarismControllerTest {
                 .andExpect(jsonPath("$.message").value("获取算法列表成功"));
     }
     
+    @Test
+    @DisplayName("测试相同片段定位API")
+    void testFindMatches() throws Exception {
+        when(plagiarismDetectionService.getMatchAlgorithmName()).thenReturn("Winnowing Similarity");
+        when(plagiarismDetectionService.locateMatches(anyString(), anyString(), anyString()))
+            .thenReturn(new MatchResult(0.85, Collections.singletonList(new MatchRange(0, 12, 3, 15, 10))));
+        
+        PlagiarismController.SimilarityRequest request = new PlagiarismController.SimilarityRequest();
+        request.setOriginalText("这是原文");
+        request.setPlagiarizedText("这是抄袭文本");
+        
+        mockMvc.perform(post("/api/similarity/matches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.similarity").value("0.85"))
+                .andExpect(jsonPath("$.algorithm").value("Winnowing Similarity"))
+                .andExpect(jsonPath("$.matches[0].originalEnd").value(12))
+                .andExpect(jsonPath("$.matches[0].plagiarizedStart").value(3))
+                .andExpect(jsonPath("$.matches[0].length").value(10));
+    }
+    
+    @Test
+    @DisplayName("测试批量比对API以NDJSON流式返回")
+    void testCompareBatch() throws Exception {
+        Map<String, InputStreamSource> first = Collections.singletonMap("a.txt", new ByteArrayResource(new byte[]{'a'}));
+        Map<String, InputStreamSource> second = Collections.singletonMap("b.txt", new ByteArrayResource(new byte[]{'b'}));
+        Map<String, AnalyzedDocument> documents = new LinkedHashMap<>();
+        documents.put("a.txt", AnalyzedDocument.analyze("第一篇"));
+        documents.put("b.txt", AnalyzedDocument.analyze("第二篇"));
+        when(batchService.extractSources(eq("a.txt"), anyLong(), any(), any())).thenReturn(first);
+        when(batchService.extractSources(eq("b.txt"), anyLong(), any(), any())).thenReturn(second);
+        when(batchService.analyzeSources(anyMap())).thenReturn(documents);
+        when(batchService.countPairs(2, null)).thenReturn(1);
+        doAnswer(invocation -> {
+            BatchService.PairListener listener = invocation.getArgument(2);
+            listener.onResult(PairResult.of("a.txt", "b.txt", SimilarityResult.of(0.85)));
+            return null;
+        }).when(batchService).compare(anyMap(), isNull(), any());
+        
+        MvcResult result = mockMvc.perform(multipart("/api/similarity/batch")
+                .file(new MockMultipartFile("files", "a.txt", "text/plain", new byte[]{'a'}))
+                .file(new MockMultipartFile("files", "b.txt", "text/plain", new byte[]{'b'})))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        Map<?, ?> start = objectMapper.readValue(lines[0], Map.class);
+        Map<?, ?> pair = objectMapper.readValue(lines[1], Map.class);
+        Map<?, ?> summary = objectMapper.readValue(lines[2], Map.class);
+        assertEquals("start", start.get("type"));
+        assertEquals(1, start.get("pairs"));
+        assertEquals("a.txt", pair.get("first"));
+        assertEquals("0.85", pair.get("similarity"));
+        assertEquals("summary", summary.get("type"));
+    }
+    
+    @Test
+    @DisplayName("测试批量比对文档不足")
+    void testCompareBatchRejected() throws Exception {
+        when(batchService.extractSources(anyString(), anyLong(), any(), any()))
+            .thenReturn(Collections.singletonMap("a.txt", new ByteArrayResource(new byte[]{'a'})));
+        when(batchService.analyzeSources(anyMap())).thenThrow(new IllegalArgumentException("批量比对至少需要两篇文档"));
+        
+        MvcResult result = mockMvc.perform(multipart("/api/similarity/batch")
+                .file(new MockMultipartFile("files", "a.txt", "text/plain", new byte[]{'a'})))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("批量比对至少需要两篇文档"));
+    }
+    
+    @Test
+    @DisplayName("测试批量线程池已满时返回503")
+    void testCompareBatchUnavailable() throws Exception {
+        when(batchService.extractSources(anyString(), anyLong(), any(), any())).thenAnswer(invocation ->
+            Collections.singletonMap(invocation.getArgument(0), new ByteArrayResource(new byte[]{'a'})));
+        when(batchService.analyzeSources(anyMap())).thenThrow(new RejectedExecutionException("批量比对线程池已满，请稍后重试"));
+        
+        MvcResult result = mockMvc.perform(multipart("/api/similarity/batch")
+                .file(new MockMultipartFile("files", "a.txt", "text/plain", new byte[]{'a'}))
+                .file(new MockMultipartFile("files", "b.txt", "text/plain", new byte[]{'b'})))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("批量比对线程池已满，请稍后重试"));
+    }
+    
+    @Test
+    @DisplayName("测试相似度矩阵CSV导出")
+    void testComputeMatrixCsv() throws Exception {
+        when(batchService.extractSources(anyString(), anyLong(), any(), any())).thenAnswer(invocation ->
+            Collections.singletonMap(invocation.getArgument(0), new ByteArrayResource(new byte[]{'a'})));
+        when(batchService.analyzeSources(anyMap())).thenReturn(new LinkedHashMap<>());
+        SimilarityMatrix matrix = new SimilarityMatrix(Arrays.asList("a.txt", "b,c.txt"), new float[]{0.5f},
+            0.0, Collections.emptyMap());
+        when(matrixService.compute(anyMap(), eq(0.0), isNull(), eq(0.0))).thenReturn(matrix);
+        
+        MvcResult result = mockMvc.perform(multipart("/api/similarity/matrix")
+                .file(new MockMultipartFile("files", "a.txt", "text/plain", new byte[]{'a'}))
+                .file(new MockMultipartFile("files", "b,c.txt", "text/plain", new byte[]{'b'}))
+                .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals("\uFEFF,a.txt,\"b,c.txt\"\na.txt,1.0000,0.5000\n\"b,c.txt\",0.5000,1.0000\n", body);
+    }
+    
+    @Test
+    @DisplayName("测试语料库检索API")
+    void testSearchCorpus() throws Exception {
+        when(corpusService.findSimilar(anyString(), anyInt(), anyDouble()))
+            .thenReturn(Collections.singletonList(new CorpusMatch("paper-1", 0.75, 0.8, 120)));
+        when(corpusService.size()).thenReturn(3);
+        
+        PlagiarismController.CorpusSearchRequest request = new PlagiarismController.CorpusSearchRequest();
+        request.setText("这是待检测的论文");
+        request.setTopK(5);
+        
+        mockMvc.perform(post("/api/corpus/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.matches[0].documentId").value("paper-1"))
+                .andExpect(jsonPath("$.matches[0].score").value(0.75))
+                .andExpect(jsonPath("$.corpusSize").value(3));
+    }
+    
+    @Test
+    @DisplayName("测试删除不存在的语料库文档")
+    void testRemoveMissingCorpusDocument() throws Exception {
+        when(corpusService.removeDocument("missing")).thenReturn(false);
+        
+        mockMvc.perform(delete("/api/corpus/documents/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
     @Test
     @DisplayName("测试健康检查API")
     void testHealthCheck() throws Exception {
@@ -122,7 +404,7 @@ class PlagiarismControllerTest {
     @Test
     @DisplayName("测试相似度计算异常处理")
     void testCalculateSimilarityException() throws Exception {
-        when(plagiarismDetectionService.calculateSimilarity(anyString(), anyString()))
+        when(plagiarismDetectionService.calculateSimilarityResult(anyString(), anyString()))
             .thenThrow(new RuntimeException("计算失败"));
         
         PlagiarismController.SimilarityRequest request = new PlagiarismController.SimilarityRequest();
@@ -0,0 +1,147 @@
+package com.plagiarism.corpus;
+
+import com.plagiarism.model.AnalyzedDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 语料库倒排索引测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("语料库倒排索引测试")
+class CorpusIndexTest {
+    
+    private static final String PAPER_AI = "人工智能是计算机科学的一个分支，它企图了解智能的实质，并生产出一种新的能以人类智能相似的方式做出反应的智能机器。";
+    private static final String PAPER_AI_COPY = "人工智能是计算机科学的一个分支，它试图了解智能的实质，并生产出一种新的能以人类智能相似的方式做出反应的智能机器。";
+    private static final String PAPER_HISTORY = "唐朝是中国历史上最强盛的朝代之一，长安是当时世界上最大的城市。";
+    
+    private CorpusIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new CorpusIndex();
+        index.index("ai", AnalyzedDocument.analyze(PAPER_AI));
+        index.index("history", AnalyzedDocument.analyze(PAPER_HISTORY));
+    }
+    
+    @Test
+    @DisplayName("测试检索相似文档")
+    void testSearch() {
+        List<CorpusMatch> matches = index.search(AnalyzedDocument.analyze(PAPER_AI_COPY), 10, 0.0);
+        assertFalse(matches.isEmpty());
+        assertEquals("ai", matches.get(0).getDocumentId());
+        assertTrue(matches.get(0).getScore() > 0.7, "改写的文档得分应该较高");
+        for (CorpusMatch match : matches) {
+            assertNotEquals("history", match.getDocumentId(), "没有共同shingle的文档不应该成为候选");
+        }
+    }
+    
+    @Test
+    @DisplayName("测试得分与直接计算的Jaccard系数一致")
+    void testScoreMatchesJaccard() {
+        AnalyzedDocument query = AnalyzedDocument.analyze(PAPER_AI_COPY);
+        AnalyzedDocument target = AnalyzedDocument.analyze(PAPER_AI);
+        int overlap = 0;
+        for (int shingle : query.getShingles()) {
+            if (java.util.Arrays.binarySearch(target.getShingles(), shingle) >= 0) {
+                overlap++;
+            }
+        }
+        double expected = (double) overlap / (query.getShingles().length + target.getShingles().length - overlap);
+        
+        CorpusMatch match = index.search(query, 1, 0.0).get(0);
+        assertEquals(expected, match.getScore(), 1e-12);
+        assertEquals(overlap, match.getSharedShingles());
+    }
+    
+    @Test
+    @DisplayName("测试topK与最低得分")
+    void testTopKAndMinScore() {
+        for (int i = 0; i < 20; i++) {
+            index.index("copy-" + i, AnalyzedDocument.analyze(PAPER_AI + "第" + i + "版"));
+        }
+        List<CorpusMatch> matches = index.search(AnalyzedDocument.analyze(PAPER_AI), 5, 0.0);
+        assertEquals(5, matches.size());
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).getScore() >= matches.get(i).getScore(), "结果应该按得分降序排列");
+        }
+        assertEquals("ai", matches.get(0).getDocumentId());
+        assertEquals(1.0, matches.get(0).getScore(), 1e-12);
+        
+        assertTrue(index.search(AnalyzedDocument.analyze(PAPER_AI), 10, 1.01).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("测试替换与删除文档")
+    void testReplaceAndRemove() {
+        index.index("ai", AnalyzedDocument.analyze(PAPER_HISTORY));
+        assertEquals(2, index.size());
+        List<CorpusMatch> matches = index.search(AnalyzedDocument.analyze(PAPER_AI), 10, 0.0);
+        assertTrue(matches.isEmpty(), "替换后原内容不应再被检索到");
+        
+        assertTrue(index.remove("history"));
+        assertFalse(index.remove("history"));
+        assertNull(index.getDocument("history"));
+        assertEquals(1, index.size());
+        assertEquals(1L, index.stats().get("documents"));
+    }
+    
+    @Test
+    @DisplayName("测试复用已删除文档的编号")
+    void testReuseRemovedNumbers() {
+        long postings = index.stats().get("postings");
+        // 反复替换和删除，空出的编号被复用，倒排列表仍保持有序
+        for (int round = 0; round < 50; round++) {
+            index.index("ai", AnalyzedDocument.analyze(PAPER_AI + "第" + round + "版"));
+            index.index("copy", AnalyzedDocument.analyze(PAPER_AI_COPY));
+            assertTrue(index.remove("ai"));
+            index.index("ai", AnalyzedDocument.analyze(PAPER_AI));
+            assertTrue(index.remove("copy"));
+        }
+        assertEquals(2, index.size());
+        assertEquals(postings, index.stats().get("postings"), "删除的文档不应留下倒排记录");
+        
+        AnalyzedDocument copy = AnalyzedDocument.analyze(PAPER_AI_COPY);
+        index.index("copy", copy);
+        assertSame(copy, index.getDocument("copy"));
+        List<CorpusMatch> matches = index.search(AnalyzedDocument.analyze(PAPER_AI), 10, 0.0);
+        assertEquals(2, matches.size());
+        assertEquals("ai", matches.get(0).getDocumentId());
+        assertEquals(1.0, matches.get(0).getScore(), 1e-12);
+        assertEquals("copy", matches.get(1).getDocumentId());
+    }
+    
+    @Test
+    @DisplayName("测试大量文档的倒排表扩容")
+    void testManyDocuments() {
+        for (int i = 0; i < 2000; i++) {
+            index.index("doc-" + i, AnalyzedDocument.analyze("编号" + i + "的文档内容各不相同 number " + i));
+        }
+        List<CorpusMatch> matches = index.search(AnalyzedDocument.analyze("编号1234的文档内容各不相同 number 1234"), 1, 0.0);
+        assertEquals("doc-1234", matches.get(0).getDocumentId());
+        assertEquals(1.0, matches.get(0).getScore(), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试LSH候选")
+    void testLshCandidates() {
+        for (int i = 0; i < 500; i++) {
+            index.index("doc-" + i, AnalyzedDocument.analyze("第" + i + "篇不相关的文档，内容是编号" + (i * 31) + "的随机记录"));
+        }
+        
+        Map<String, AnalyzedDocument> candidates = index.lshCandidates(AnalyzedDocument.analyze(PAPER_AI_COPY));
+        assertTrue(candidates.containsKey("ai"), "近似重复的文档应该成为候选");
+        assertTrue(candidates.size() < 50, "不相似的文档不应该大量成为候选");
+        assertNotNull(index.getSignature("ai"));
+        
+        index.remove("ai");
+        assertFalse(index.lshCandidates(AnalyzedDocument.analyze(PAPER_AI_COPY)).containsKey("ai"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.plagiarism.corpus;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * MinHash 签名生成器测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("MinHash 签名测试")
+class MinHasherTest {
+    
+    /** 生成 [from, to) 范围内元素经过打散后的有序集合 */
+    private static int[] shingles(int from, int to) {
+        int[] values = new int[to - from];
+        for (int i = from; i < to; i++) {
+            values[i - from] = i * 0x9E3779B9;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+    
+    @Test
+    @DisplayName("测试Jaccard系数估计")
+    void testEstimateJaccard() {
+        MinHasher minHasher = new MinHasher(512);
+        // 交集1000，并集2000，Jaccard系数为0.5
+        int[] signature1 = minHasher.signature(shingles(0, 1500));
+        int[] signature2 = minHasher.signature(shingles(500, 2000));
+        assertEquals(0.5, MinHasher.estimateJaccard(signature1, signature2), 0.08);
+        
+        int[] signature3 = minHasher.signature(shingles(5000, 6000));
+        assertTrue(MinHasher.estimateJaccard(signature1, signature3) < 0.05, "不相交集合的估计值应该接近0");
+    }
+    
+    @Test
+    @DisplayName("测试签名确定性")
+    void testDeterministic() {
+        int[] values = shingles(0, 100);
+        assertArrayEquals(new MinHasher(64).signature(values), new MinHasher(64).signature(values));
+        assertEquals(1.0, MinHasher.estimateJaccard(new MinHasher(64).signature(values),
+            new MinHasher(64).signature(values)), 1e-12);
+        assertEquals(64, new MinHasher(64).getNumHashes());
+    }
+    
+    @Test
+    @DisplayName("测试非法参数")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHasher(0));
+        assertThrows(IllegalArgumentException.class, () -> MinHasher.estimateJaccard(new int[2], new int[3]));
+        assertThrows(IllegalArgumentException.class, () -> new CorpusIndex(100, 32));
+    }
+}
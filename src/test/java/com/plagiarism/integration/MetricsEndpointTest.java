@@ -0,0 +1,75 @@
+package com.plagiarism.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prometheus指标端点测试
+ * 启动完整的应用并通过普通HTTP请求访问，与Prometheus抓取的方式相同
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Prometheus指标端点测试")
+class MetricsEndpointTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Test
+    @DisplayName("测试计算后抓取指标")
+    void testScrapeAfterCalculation() throws IOException {
+        HttpURLConnection calculate = open("/api/similarity");
+        calculate.setRequestMethod("POST");
+        calculate.setDoOutput(true);
+        calculate.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = calculate.getOutputStream()) {
+            out.write("{\"originalText\":\"今天是星期天，天气晴\",\"plagiarizedText\":\"今天是周天，天气晴朗\"}"
+                .getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(200, calculate.getResponseCode());
+        read(calculate);
+        
+        HttpURLConnection scrape = open("/api/performance/metrics");
+        assertEquals(200, scrape.getResponseCode());
+        assertTrue(scrape.getContentType().startsWith("text/plain;version=0.0.4")
+            || scrape.getContentType().startsWith("text/plain; version=0.0.4"), scrape.getContentType());
+        String text = read(scrape);
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_count{algorithm=\"Cosine Similarity\"}"));
+        assertTrue(text.contains("plagiarism_http_request_duration_seconds_count{method=\"POST\",path=\"/api/similarity\"}"));
+        assertTrue(text.contains("plagiarism_cache_hit_ratio{cache=\"document\"}"));
+        assertTrue(text.contains("plagiarism_executor_queue_depth{executor=\"jobs\"} 0"));
+        assertTrue(text.contains("plagiarism_jvm_memory_bytes{area=\"used\"}"));
+    }
+    
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+    }
+    
+    private static String read(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.plagiarism.model;
+
+import com.plagiarism.util.TermDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 预处理文档测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("预处理文档测试")
+class AnalyzedDocumentTest {
+    
+    @Test
+    @DisplayName("测试规范化文本与字符集合")
+    void testNormalizedTextAndCharacterSet() {
+        AnalyzedDocument document = AnalyzedDocument.analyze("Hello, 世界！hello");
+        assertEquals("hello 世界hello", document.getNormalizedText());
+        assertArrayEquals("ehlo世界".chars().sorted().mapToObj(c -> String.valueOf((char) c))
+            .reduce("", String::concat).toCharArray(), document.getCharacterSet());
+    }
+    
+    @Test
+    @DisplayName("测试词项视图")
+    void testTermView() {
+        AnalyzedDocument document = AnalyzedDocument.analyze("apple 苹果 apple 果");
+        int[] termIds = document.getTermIds();
+        int[] frequencies = document.getTermFrequencies();
+        
+        // 词项：apple、苹果、苹、果
+        assertEquals(4, termIds.length);
+        for (int i = 1; i < termIds.length; i++) {
+            assertTrue(termIds[i - 1] < termIds[i], "词项ID应该升序排列");
+        }
+        
+        int appleIndex = indexOf(termIds, TermDictionary.shared().idOf("apple", 0, 5, false));
+        int fruitIndex = indexOf(termIds, TermDictionary.charId('果'));
+        assertEquals(2, frequencies[appleIndex], "apple出现两次");
+        assertEquals(2, frequencies[fruitIndex], "'果'作为单字出现两次");
+        assertEquals(4, document.getTokenIds().length, "按空格切分应得到4个词");
+    }
+    
+    @Test
+    @DisplayName("测试相同内容得到相同的分析结果")
+    void testDeterministicIds() {
+        AnalyzedDocument document1 = AnalyzedDocument.analyze("论文 查重 system");
+        AnalyzedDocument document2 = AnalyzedDocument.analyze("  论文\t查重   SYSTEM！");
+        assertArrayEquals(document1.getTermIds(), document2.getTermIds());
+        assertArrayEquals(document1.getTokenIds(), document2.getTokenIds());
+    }
+    
+    @Test
+    @DisplayName("测试每个多字符的词都有精确的ID")
+    void testExactCompoundIds() {
+        TermDictionary dictionary = new TermDictionary();
+        int compound1 = dictionary.idOf("论文查重", 0, 4, true);
+        int compound2 = dictionary.idOf("查重论文", 0, 4, true);
+        int word = dictionary.idOf("paper", 0, 5, false);
+        
+        assertTrue(TermDictionary.isCompound(compound1));
+        assertFalse(TermDictionary.isCompound(word));
+        assertNotEquals(compound1, compound2);
+        assertEquals(compound1, dictionary.idOf("查重:论文查重", 3, 7, true), "相同的词得到相同的ID");
+        assertEquals(3, dictionary.size());
+    }
+    
+    @Test
+    @DisplayName("测试词典容量与不同词典的文档比较")
+    void testDictionaryGenerations() {
+        TermDictionary old = new TermDictionary(2);
+        AnalyzedDocument document1 = AnalyzedDocument.analyze("plagiarism detection 论文查重 system", old);
+        assertTrue(old.isFull());
+        
+        TermDictionary current = new TermDictionary();
+        assertTrue(current.generation() > old.generation());
+        AnalyzedDocument document2 = AnalyzedDocument.analyze("detection system 论文查重", current);
+        
+        // 较早一代的文档按较新的词典重新分词，较新的一代保持不变
+        assertSame(document2, document2.inDictionaryOf(document1));
+        AnalyzedDocument aligned = document1.inDictionaryOf(document2);
+        assertNotSame(document1, aligned);
+        assertEquals(document1.getNormalizedText(), aligned.getNormalizedText());
+        assertArrayEquals(document1.getShingles(), aligned.getShingles());
+        assertArrayEquals(AnalyzedDocument.analyze("plagiarism detection 论文查重 system", current).getTermIds(),
+            aligned.getTermIds());
+        
+        // 与同一代的其他文档比较时复用重新分词的结果，不再向新词典添加词
+        int size = current.size();
+        assertSame(aligned, document1.inDictionaryOf(AnalyzedDocument.analyze("论文查重", current)));
+        assertEquals(size, current.size());
+        TermDictionary newest = new TermDictionary();
+        AnalyzedDocument realigned = document1.inDictionaryOf(AnalyzedDocument.analyze("论文查重", newest));
+        assertNotSame(aligned, realigned);
+        assertSame(realigned, document1.inDictionaryOf(AnalyzedDocument.analyze("system", newest)));
+    }
+    
+    @Test
+    @DisplayName("测试指纹集合只计算一次")
+    void testFingerprintsComputedOnce() {
+        AnalyzedDocument document = AnalyzedDocument.analyze("论文查重 system");
+        int[] calls = new int[1];
+        int[] first = document.getFingerprints(1L, text -> {
+            calls[0]++;
+            return new int[]{text.length()};
+        });
+        int[] second = document.getFingerprints(1L, text -> {
+            calls[0]++;
+            return new int[0];
+        });
+        assertSame(first, second);
+        assertEquals(1, calls[0]);
+        
+        // 其他参数每次重新计算，不替换已缓存的结果
+        assertEquals(0, document.getFingerprints(2L, text -> new int[0]).length);
+        assertSame(first, document.getFingerprints(1L, text -> new int[0]));
+    }
+    
+    @Test
+    @DisplayName("测试空文本")
+    void testEmptyDocument() {
+        AnalyzedDocument document = AnalyzedDocument.analyze("，。！");
+        assertTrue(document.isEmpty());
+        assertEquals(0, document.getTermIds().length);
+        assertEquals(0, document.getCharacterSet().length);
+    }
+    
+    @Test
+    @DisplayName("测试流式分析与整体分析结果一致")
+    void testStreamingAnalysis() throws IOException {
+        String alphabet = "abcXYZ019 \t\n,.!?论文查重系统测试，。！“”　😀";
+        Random random = new Random(17);
+        for (int round = 0; round < 300; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(400);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            if (round % 5 == 0 && bytes.length > 0) {
+                // 非法的UTF-8字节序列
+                bytes[random.nextInt(bytes.length)] = (byte) 0xC3;
+            }
+            
+            AnalyzedDocument expected = AnalyzedDocument.analyze(new String(bytes, StandardCharsets.UTF_8));
+            // 块大小不是3或4的倍数，多字节字符会跨越块边界
+            for (int chunkSize : new int[]{16, 17, AnalyzedDocument.DEFAULT_CHUNK_SIZE}) {
+                assertSameDocument(expected, AnalyzedDocument.analyze(
+                    new ByteArrayInputStream(bytes), TermDictionary.shared(), chunkSize));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("测试内存映射分析与整体分析结果一致")
+    void testMappedAnalysis(@TempDir Path tempDir) throws IOException {
+        String alphabet = "abcXYZ019 \t\n,.!?论文查重系统测试，。！“”　😀";
+        Random random = new Random(23);
+        Path file = tempDir.resolve("mapped.txt");
+        for (int round = 0; round < 100; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(400);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            if (round % 5 == 0 && bytes.length > 0) {
+                bytes[random.nextInt(bytes.length)] = (byte) 0xC3;
+            }
+            Files.write(file, bytes);
+            
+            AnalyzedDocument expected = AnalyzedDocument.analyze(new String(bytes, StandardCharsets.UTF_8));
+            // 小窗口使多字节字符跨越映射窗口的边界
+            for (long windowSize : new long[]{16, 17, 1L << 20}) {
+                assertSameDocument(expected, AnalyzedDocument.analyzeMapped(file, TermDictionary.shared(), windowSize));
+            }
+        }
+    }
+    
+    private static void assertSameDocument(AnalyzedDocument expected, AnalyzedDocument actual) {
+        assertEquals(expected.getNormalizedText(), actual.getNormalizedText());
+        assertArrayEquals(expected.getTokenIds(), actual.getTokenIds());
+        assertArrayEquals(expected.getTermIds(), actual.getTermIds());
+        assertArrayEquals(expected.getTermFrequencies(), actual.getTermFrequencies());
+        assertArrayEquals(expected.getCharacterSet(), actual.getCharacterSet());
+        assertArrayEquals(expected.getShingles(), actual.getShingles());
+    }
+    
+    @Test
+    @DisplayName("测试滚动计算的shingle与逐窗口计算一致")
+    void testShingles() {
+        for (String text : new String[]{"", "ab", "abcd", "abcde", "论文 查重 system 论文 查重 system"}) {
+            assertArrayEquals(directShingles(text), AnalyzedDocument.computeShingles(text), text);
+        }
+        
+        // 重复内容在产生时即去重，集合大小只取决于不同的shingle
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            repeated.append("论文查重系统");
+        }
+        int[] shingles = AnalyzedDocument.computeShingles(repeated.toString());
+        assertEquals(6, shingles.length);
+        assertArrayEquals(directShingles(repeated.toString()), shingles);
+    }
+    
+    /**
+     * 逐个窗口直接计算的shingle集合，作为滚动计算的对照
+     */
+    private static int[] directShingles(String normalizedText) {
+        String chars = normalizedText.replace(" ", "");
+        if (chars.isEmpty()) {
+            return new int[0];
+        }
+        int width = Math.min(AnalyzedDocument.SHINGLE_SIZE, chars.length());
+        int[] hashes = new int[chars.length() - width + 1];
+        for (int i = 0; i < hashes.length; i++) {
+            int hash = 0;
+            for (int j = i; j < i + width; j++) {
+                hash = 31 * hash + chars.charAt(j);
+            }
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            hash ^= hash >>> 16;
+            hashes[i] = hash;
+        }
+        return Arrays.stream(hashes).sorted().distinct().toArray();
+    }
+    
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        fail("未找到词项: " + value);
+        return -1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.plagiarism.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 稀疏向量测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("稀疏向量测试")
+class SparseVectorTest {
+    
+    @Test
+    @DisplayName("测试二值向量点积与模长")
+    void testBinaryVector() {
+        SparseVector v1 = SparseVector.binary(new int[]{2, 4, 6, 8});
+        SparseVector v2 = SparseVector.binary(new int[]{4, 8, 10});
+        assertEquals(2.0, v1.dot(v2), 1e-12);
+        assertEquals(2.0, v1.norm(), 1e-12);
+        assertEquals(2.0 / (2.0 * Math.sqrt(3)), v1.cosine(v2), 1e-12);
+        assertTrue(v1.isBinary());
+    }
+    
+    @Test
+    @DisplayName("测试带权重向量")
+    void testWeightedVector() {
+        SparseVector v1 = SparseVector.ofFrequencies(new int[]{1, 3, 5}, new int[]{1, 2, 3});
+        SparseVector v2 = SparseVector.of(new int[]{3, 5, 7}, new float[]{2.0f, 1.0f, 4.0f});
+        assertEquals(2 * 2 + 3 * 1, v1.dot(v2), 1e-9);
+        assertEquals(Math.sqrt(14), v1.norm(), 1e-9);
+        assertEquals(7 / (Math.sqrt(14) * Math.sqrt(21)), v1.cosine(v2), 1e-9);
+        assertEquals(v1.dot(v2), v2.dot(v1), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试混合二值与带权重向量")
+    void testMixedVector() {
+        SparseVector binary = SparseVector.binary(new int[]{1, 2, 3});
+        SparseVector weighted = SparseVector.of(new int[]{2, 3}, new float[]{0.5f, 2.0f});
+        assertEquals(2.5, binary.dot(weighted), 1e-9);
+        assertEquals(binary, SparseVector.of(new int[]{1, 2, 3}, new float[]{1.0f, 1.0f, 1.0f}));
+    }
+    
+    @Test
+    @DisplayName("测试零向量")
+    void testEmptyVector() {
+        SparseVector v = SparseVector.binary(new int[]{1});
+        assertEquals(0.0, SparseVector.EMPTY.cosine(v), 1e-12);
+        assertEquals(0.0, v.cosine(SparseVector.EMPTY), 1e-12);
+        assertSame(SparseVector.EMPTY, SparseVector.binary(new int[0]));
+    }
+    
+    @Test
+    @DisplayName("测试非法输入")
+    void testInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> SparseVector.binary(new int[]{3, 1}));
+        assertThrows(IllegalArgumentException.class, () -> SparseVector.binary(new int[]{1, 1}));
+        assertThrows(IllegalArgumentException.class,
+            () -> SparseVector.of(new int[]{1, 2}, new float[]{1.0f}));
+    }
+    
+    @Test
+    @DisplayName("测试文档向量")
+    void testDocumentVectors() {
+        AnalyzedDocument document = AnalyzedDocument.analyze("apple 苹果 apple");
+        assertEquals(document.getTermIds().length, document.getTermVector().size());
+        assertEquals(document.getTermIds().length, document.getTermSetVector().size());
+        // 复合词“苹果”不计入简单词项向量
+        assertEquals(document.getTermIds().length - 1, document.getSimpleTermSetVector().size());
+        assertEquals(1.0, document.getTermVector().cosine(document.getTermVector()), 1e-9);
+    }
+}
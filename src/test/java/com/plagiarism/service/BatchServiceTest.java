@@ -0,0 +1,256 @@
+package com.plagiarism.service;
+
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.PairResult;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.util.unit.DataSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 批量比对服务测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("批量比对服务测试")
+class BatchServiceTest {
+    
+    private PlagiarismDetectionService detectionService;
+    private BatchService batchService;
+    
+    @BeforeEach
+    void setUp() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getBatch().setThreads(4);
+        properties.getBatch().setMaxDocumentSize(DataSize.ofBytes(1024));
+        detectionService = new PlagiarismDetectionService();
+        batchService = new BatchService(detectionService, properties);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+    
+    @Test
+    @DisplayName("测试展开压缩包")
+    void testExtractZip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+            zip.putNextEntry(new ZipEntry("作业/"));
+            zip.putNextEntry(new ZipEntry("作业/张三.txt"));
+            zip.write("第一篇作业".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("作业/李四.txt"));
+            zip.write("第二篇作业".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("__MACOSX/作业/._张三.txt"));
+            zip.putNextEntry(new ZipEntry(".DS_Store"));
+        }
+        
+        Map<String, byte[]> documents = batchService.extractDocuments("class.ZIP", bytes.toByteArray());
+        assertEquals(2, documents.size());
+        assertEquals("第一篇作业", new String(documents.get("作业/张三.txt"), StandardCharsets.UTF_8));
+        
+        Map<String, byte[]> single = batchService.extractDocuments("a.txt", new byte[]{1, 2});
+        assertEquals(1, single.size());
+        assertTrue(single.containsKey("a.txt"));
+    }
+    
+    @Test
+    @DisplayName("测试压缩包中过大的文档")
+    void testOversizedEntry() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("big.txt"));
+            zip.write(new byte[4096]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> batchService.extractDocuments("big.zip", bytes.toByteArray()));
+    }
+    
+    @Test
+    @DisplayName("测试所有文件解压后的总大小上限")
+    void testTotalSizeBudget() throws IOException {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getBatch().setMaxDocumentSize(DataSize.ofBytes(1024));
+        properties.getBatch().setMaxTotalSize(DataSize.ofBytes(3000));
+        BatchService limited = new BatchService(detectionService, properties);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+                for (int i = 0; i < 2; i++) {
+                    zip.putNextEntry(new ZipEntry("part-" + i + ".txt"));
+                    zip.write(new byte[1000]);
+                }
+            }
+            byte[] archive = bytes.toByteArray();
+            
+            // 单个压缩包在上限之内，同一请求的第二个压缩包使总大小超出上限
+            BatchService.ExtractionBudget budget = limited.newExtractionBudget();
+            assertEquals(2, limited.extractDocuments("first.zip", archive, budget).size());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> limited.extractDocuments("second.zip", archive, budget));
+            assertTrue(e.getMessage().contains("总大小"));
+            
+            // 普通文件同样计入总大小
+            BatchService.ExtractionBudget files = limited.newExtractionBudget();
+            limited.extractDocuments("a.txt", new byte[2000], files);
+            assertThrows(IllegalArgumentException.class, () -> limited.extractDocuments("b.txt", new byte[1001], files));
+            
+            // 不同请求的配额相互独立
+            assertEquals(2, limited.extractDocuments("third.zip", archive).size());
+        } finally {
+            limited.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试两两比对")
+    void testAllPairs() throws Exception {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        contents.put("a", "人工智能是计算机科学的一个分支".getBytes(StandardCharsets.UTF_8));
+        contents.put("b", "人工智能是计算机科学的重要分支".getBytes(StandardCharsets.UTF_8));
+        contents.put("c", "唐朝是中国历史上最强盛的朝代之一".getBytes(StandardCharsets.UTF_8));
+        contents.put("d", "长安是当时世界上最大的城市".getBytes(StandardCharsets.UTF_8));
+        Map<String, AnalyzedDocument> documents = batchService.analyzeDocuments(contents);
+        
+        List<PairResult> results = new ArrayList<>();
+        batchService.compare(documents, null, results::add);
+        assertEquals(6, results.size());
+        assertEquals(6, batchService.countPairs(4, null));
+        
+        Set<String> pairs = new HashSet<>();
+        for (PairResult result : results) {
+            pairs.add(result.getFirstDocument() + result.getSecondDocument());
+            String first = new String(contents.get(result.getFirstDocument()), StandardCharsets.UTF_8);
+            String second = new String(contents.get(result.getSecondDocument()), StandardCharsets.UTF_8);
+            assertEquals(detectionService.calculateSimilarity(first, second), result.getResult().getSimilarity(), 1e-12);
+        }
+        assertEquals(6, pairs.size(), "每对文档应该只比对一次");
+    }
+    
+    @Test
+    @DisplayName("测试与参照文档比对")
+    void testReference() throws Exception {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            contents.put("doc-" + i, ("第" + i + "篇文档的内容").getBytes(StandardCharsets.UTF_8));
+        }
+        Map<String, AnalyzedDocument> documents = batchService.analyzeDocuments(contents);
+        
+        List<PairResult> results = new ArrayList<>();
+        batchService.compare(documents, "doc-7", results::add);
+        assertEquals(39, results.size());
+        for (PairResult result : results) {
+            assertEquals("doc-7", result.getFirstDocument());
+            assertNotEquals("doc-7", result.getSecondDocument());
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> batchService.compare(documents, "missing", results::add));
+    }
+    
+    @Test
+    @DisplayName("测试写出失败时终止")
+    void testListenerFailure() throws Exception {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (int i = 0; i < 30; i++) {
+            contents.put("doc-" + i, ("第" + i + "篇文档").getBytes(StandardCharsets.UTF_8));
+        }
+        Map<String, AnalyzedDocument> documents = batchService.analyzeDocuments(contents);
+        
+        assertThrows(IOException.class, () -> batchService.compare(documents, null, result -> {
+            throw new IOException("连接已断开");
+        }));
+        assertThrows(IllegalArgumentException.class,
+            () -> batchService.analyzeDocuments(Collections.singletonMap("a", new byte[0])));
+    }
+    
+    @Test
+    @DisplayName("测试流式读取上传文件")
+    void testExtractSources() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+            zip.putNextEntry(new ZipEntry("张三.txt"));
+            zip.write("人工智能是计算机科学的一个分支".getBytes(StandardCharsets.UTF_8));
+        }
+        BatchService.ExtractionBudget budget = batchService.newExtractionBudget();
+        InputStreamSource plain = new ByteArrayResource("人工智能是计算机科学的重要分支".getBytes(StandardCharsets.UTF_8));
+        Map<String, InputStreamSource> sources = new LinkedHashMap<>();
+        sources.putAll(batchService.extractSources("a.txt", 45, plain, budget));
+        sources.putAll(batchService.extractSources("class.zip", bytes.size(), new ByteArrayResource(bytes.toByteArray()), budget));
+        assertSame(plain, sources.get("a.txt"), "普通文件不应读入内存");
+        assertEquals(2, sources.size());
+        
+        Map<String, AnalyzedDocument> documents = batchService.analyzeSources(sources);
+        assertEquals(Arrays.asList("a.txt", "张三.txt"), new ArrayList<>(documents.keySet()));
+        List<PairResult> results = new ArrayList<>();
+        batchService.compare(documents, null, results::add);
+        assertEquals(1, results.size());
+        assertEquals(detectionService.calculateSimilarity("人工智能是计算机科学的重要分支", "人工智能是计算机科学的一个分支"),
+            results.get(0).getResult().getSimilarity(), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试线程池队列已满时拒绝")
+    void testQueueFull() throws Exception {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getBatch().setThreads(1);
+        properties.getBatch().setQueueCapacity(1);
+        BatchService limited = new BatchService(detectionService, properties);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch reading = new CountDownLatch(1);
+        InputStreamSource blocking = () -> {
+            reading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ByteArrayResource("等待中的文档".getBytes(StandardCharsets.UTF_8)).getInputStream();
+        };
+        Map<String, InputStreamSource> sources = new LinkedHashMap<>();
+        sources.put("a", blocking);
+        sources.put("b", new ByteArrayResource("另一篇文档".getBytes(StandardCharsets.UTF_8)));
+        
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<String, AnalyzedDocument>> running = callers.submit(() -> limited.analyzeSources(sources));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            Future<Map<String, AnalyzedDocument>> queued = callers.submit(() -> limited.analyzeSources(sources));
+            Thread.sleep(200);
+            
+            assertThrows(RejectedExecutionException.class, () -> limited.analyzeSources(sources));
+            release.countDown();
+            assertEquals(2, running.get(5, TimeUnit.SECONDS).size());
+            assertEquals(2, queued.get(5, TimeUnit.SECONDS).size());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            limited.shutdown();
+        }
+    }
+}
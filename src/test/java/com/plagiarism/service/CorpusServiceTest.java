@@ -0,0 +1,63 @@
+package com.plagiarism.service;
+
+import com.plagiarism.corpus.CorpusMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * 语料库查重服务测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("语料库查重服务测试")
+class CorpusServiceTest {
+    
+    private static final String PAPER = "这是一篇关于人工智能的论文。人工智能是计算机科学的一个分支，它企图了解智能的实质，并生产出一种新的能以人类智能相似的方式做出反应的智能机器。";
+    private static final String REWRITE = "这是一篇关于人工智能的论文。人工智能是计算机科学的一个分支，它试图了解智能的实质，并生产出一种新的能以人类智能相似的方式做出反应的智能机器。";
+    
+    private PlagiarismDetectionService detectionService;
+    private CorpusService corpusService;
+    
+    @BeforeEach
+    void setUp() {
+        detectionService = new PlagiarismDetectionService();
+        corpusService = new CorpusService(detectionService);
+        corpusService.indexDocument("paper", PAPER);
+        corpusService.indexDocument("other", "唐朝是中国历史上最强盛的朝代之一，长安是当时世界上最大的城市。");
+    }
+    
+    @Test
+    @DisplayName("测试倒排检索")
+    void testFindSimilar() {
+        List<CorpusMatch> matches = corpusService.findSimilar(REWRITE, 5, 0.1);
+        assertEquals(1, matches.size());
+        assertEquals("paper", matches.get(0).getDocumentId());
+    }
+    
+    @Test
+    @DisplayName("测试近似重复检索使用精确算法打分")
+    void testFindNearDuplicates() {
+        List<CorpusMatch> matches = corpusService.findNearDuplicates(REWRITE, 5, 0.0, null);
+        assertEquals("paper", matches.get(0).getDocumentId());
+        assertEquals(detectionService.calculateSimilarity(REWRITE, PAPER), matches.get(0).getScore(), 1e-12);
+        
+        List<CorpusMatch> jaccard = corpusService.findNearDuplicates(REWRITE, 5, 0.0, "Jaccard Similarity");
+        assertEquals(detectionService.calculateSimilarityWithAlgorithm(REWRITE, PAPER, "Jaccard Similarity"),
+            jaccard.get(0).getScore(), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试非法参数")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> corpusService.indexDocument("", PAPER));
+        assertThrows(IllegalArgumentException.class, () -> corpusService.indexDocument("empty", "，。"));
+        assertThrows(IllegalArgumentException.class, () -> corpusService.findSimilar(PAPER, 0, 0.0));
+        assertTrue(corpusService.removeDocument("other"));
+        assertEquals(1, corpusService.size());
+    }
+}
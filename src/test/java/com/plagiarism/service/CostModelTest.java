@@ -0,0 +1,113 @@
+package com.plagiarism.service;
+
+import com.plagiarism.algorithm.SimilarityAlgorithm;
+import com.plagiarism.algorithm.impl.CosineSimilarity;
+import com.plagiarism.algorithm.impl.LevenshteinSimilarity;
+import com.plagiarism.model.AnalyzedDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * 代价模型测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("代价模型测试")
+class CostModelTest {
+    
+    private final SimilarityAlgorithm cosine = new CosineSimilarity();
+    private final SimilarityAlgorithm levenshtein = new LevenshteinSimilarity();
+    
+    private static AnalyzedDocument document(int sentences, int step) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            sb.append("第").append(i * step).append("句");
+        }
+        return AnalyzedDocument.analyze(sb.toString());
+    }
+    
+    @Test
+    @DisplayName("测试未校准时按参考代价估计")
+    void testPriorEstimate() {
+        CostModel model = new CostModel(Arrays.asList(cosine, levenshtein));
+        AnalyzedDocument short1 = document(100, 1);
+        AnalyzedDocument short2 = document(100, 3);
+        AnalyzedDocument long1 = document(2000, 1);
+        AnalyzedDocument long2 = document(2000, 3);
+        
+        assertEquals(cosine.estimateCost(long1, long2), model.estimate(cosine, long1, long2));
+        // 编辑距离的代价随长度按平方增长，线性算法按线性增长
+        double levenshteinGrowth = (double) model.estimate(levenshtein, long1, long2) / model.estimate(levenshtein, short1, short2);
+        double cosineGrowth = (double) model.estimate(cosine, long1, long2) / model.estimate(cosine, short1, short2);
+        assertTrue(levenshteinGrowth > cosineGrowth * 5, "编辑距离的估计代价应该增长得更快");
+    }
+    
+    @Test
+    @DisplayName("测试按实测耗时校准")
+    void testCalibration() {
+        CostModel model = new CostModel(Arrays.asList(cosine, levenshtein));
+        long referenceCost = 10 * CostModel.MIN_CALIBRATION_COST;
+        
+        for (int i = 0; i < 50; i++) {
+            model.record(levenshtein, referenceCost, referenceCost / 4);
+        }
+        assertEquals(0.25, model.scale(levenshtein), 1e-3);
+        assertEquals(1.0, model.scale(cosine), 1e-12, "各算法分别校准");
+        
+        // 参考代价过小的调用以固定开销为主，不参与校准
+        model.record(levenshtein, CostModel.MIN_CALIBRATION_COST - 1, CostModel.MIN_CALIBRATION_COST * 100);
+        assertEquals(0.25, model.scale(levenshtein), 1e-3);
+        
+        // 单次异常耗时最多使系数增加四分之一
+        double before = model.scale(levenshtein);
+        model.record(levenshtein, referenceCost, Long.MAX_VALUE / 2);
+        assertEquals(before * 1.25, model.scale(levenshtein), 1e-9);
+        
+        // 持续的异常耗时也不会使系数超过上限
+        for (int i = 0; i < 100; i++) {
+            model.record(levenshtein, referenceCost, Long.MAX_VALUE / 2);
+        }
+        assertEquals(CostModel.MAX_SCALE, model.scale(levenshtein), 1e-12);
+    }
+    
+    @Test
+    @DisplayName("测试预热期的慢调用不影响校准")
+    void testWarmupIgnored() {
+        CostModel model = new CostModel(Arrays.asList(cosine, levenshtein));
+        long referenceCost = 10 * CostModel.MIN_CALIBRATION_COST;
+        
+        for (int i = 0; i < CostModel.WARMUP_OBSERVATIONS; i++) {
+            model.record(levenshtein, referenceCost, referenceCost * 1000);
+        }
+        assertEquals(1.0, model.scale(levenshtein), 1e-12, "JIT预热期间的耗时不参与校准");
+        
+        model.record(levenshtein, referenceCost, referenceCost * 1000);
+        assertEquals(1.25, model.scale(levenshtein), 1e-9);
+    }
+    
+    @Test
+    @DisplayName("测试未做完的调用只调高系数")
+    void testLowerBound() {
+        CostModel model = new CostModel(Arrays.asList(cosine, levenshtein));
+        long referenceCost = 10 * CostModel.MIN_CALIBRATION_COST;
+        for (int i = 0; i < CostModel.WARMUP_OBSERVATIONS; i++) {
+            model.record(levenshtein, referenceCost, referenceCost);
+        }
+        
+        // 很快就被取消的调用说明不了完整计算有多快
+        model.recordLowerBound(levenshtein, referenceCost, referenceCost / 100);
+        assertEquals(1.0, model.scale(levenshtein), 1e-12);
+        
+        // 超时的调用至少花了这么久，系数随之调高
+        model.recordLowerBound(levenshtein, referenceCost, referenceCost * 1000);
+        assertEquals(1.25, model.scale(levenshtein), 1e-9);
+        for (int i = 0; i < 100; i++) {
+            model.recordLowerBound(levenshtein, referenceCost, referenceCost * 4);
+        }
+        assertEquals(4.0, model.scale(levenshtein), 1e-3);
+    }
+}
@@ -0,0 +1,207 @@
+package com.plagiarism.service;
+
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.Job;
+import org.springframework.util.unit.DataSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步任务服务测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("异步任务服务测试")
+class JobServiceTest {
+    
+    private static final byte[] ORIGINAL = "今天是星期天，天气晴，今天晚上我要去看电影。".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PLAGIARIZED = "今天是周天，天气晴朗，我晚上要去看电影。".getBytes(StandardCharsets.UTF_8);
+    
+    private JobService jobService;
+    
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+    
+    private static PlagiarismProperties properties(int queueCapacity, Duration resultTtl) {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getJobs().setThreads(1);
+        properties.getJobs().setQueueCapacity(queueCapacity);
+        properties.getJobs().setResultTtl(resultTtl);
+        return properties;
+    }
+    
+    private static Job await(JobService service, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Job job = service.getJob(jobId);
+        while (job != null && !job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = service.getJob(jobId);
+        }
+        return job;
+    }
+    
+    /**
+     * 任务先标记为结束，再在工作线程上释放内容配额
+     */
+    private static long awaitPendingBytes(JobService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getStats().get("pendingBytes") > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return service.getStats().get("pendingBytes");
+    }
+    
+    @Test
+    @DisplayName("测试任务完成后与同步计算结果一致")
+    void testCompletedJob() throws InterruptedException {
+        PlagiarismDetectionService detectionService = new PlagiarismDetectionService();
+        jobService = new JobService(detectionService, properties(4, Duration.ofMinutes(1)));
+        
+        Job submitted = jobService.submit("orig.txt", ORIGINAL, "copy.txt", PLAGIARIZED, null);
+        Job job = await(jobService, submitted.getId());
+        
+        assertNotNull(job);
+        assertEquals(Job.Status.COMPLETED, job.getStatus());
+        assertEquals(1.0, job.getProgress());
+        assertNotNull(job.getResult());
+        assertTrue(job.getFinishedAt() >= job.getStartedAt());
+        assertEquals(detectionService.calculateContentSimilarity(ORIGINAL, PLAGIARIZED), job.getSimilarity(), 1e-9);
+    }
+    
+    @Test
+    @DisplayName("测试指定算法的任务")
+    void testAlgorithmJob() throws InterruptedException {
+        PlagiarismDetectionService detectionService = new PlagiarismDetectionService();
+        jobService = new JobService(detectionService, properties(4, Duration.ofMinutes(1)));
+        
+        Job job = await(jobService,
+            jobService.submit("orig.txt", ORIGINAL, "copy.txt", PLAGIARIZED, "Jaccard Similarity").getId());
+        
+        assertEquals(Job.Status.COMPLETED, job.getStatus());
+        assertNull(job.getResult());
+        assertEquals(detectionService.calculateContentSimilarityWithAlgorithm(ORIGINAL, PLAGIARIZED, "Jaccard Similarity"),
+            job.getSimilarity(), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+            () -> jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, "Unknown"));
+    }
+    
+    @Test
+    @DisplayName("测试队列满时拒绝任务")
+    void testQueueFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlagiarismDetectionService blocking = new PlagiarismDetectionService() {
+            @Override
+            public AnalyzedDocument analyzeContent(byte[] content) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.analyzeContent(content);
+            }
+        };
+        jobService = new JobService(blocking, properties(1, Duration.ofMinutes(1)));
+        
+        Job running = jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Job queued = jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null);
+        assertEquals(Job.Status.RUNNING, running.getStatus());
+        assertEquals(Job.Status.QUEUED, queued.getStatus());
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null));
+        assertEquals(2L, jobService.getStats().get("retained"));
+        
+        release.countDown();
+        assertEquals(Job.Status.COMPLETED, await(jobService, running.getId()).getStatus());
+        assertEquals(Job.Status.COMPLETED, await(jobService, queued.getId()).getStatus());
+    }
+    
+    @Test
+    @DisplayName("测试未完成任务的内容总大小上限")
+    void testPendingSizeLimit() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlagiarismDetectionService blocking = new PlagiarismDetectionService() {
+            @Override
+            public AnalyzedDocument analyzeContent(byte[] content) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.analyzeContent(content);
+            }
+        };
+        PlagiarismProperties properties = properties(10, Duration.ofMinutes(1));
+        properties.getJobs().setMaxPendingSize(DataSize.ofBytes(ORIGINAL.length));
+        jobService = new JobService(blocking, properties);
+        
+        // 没有未完成任务时，超过上限的单个任务同样可以提交
+        Job running = jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals((long) ORIGINAL.length + PLAGIARIZED.length, jobService.getStats().get("pendingBytes"));
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null));
+        assertEquals(1L, jobService.getStats().get("retained"));
+        
+        release.countDown();
+        assertEquals(Job.Status.COMPLETED, await(jobService, running.getId()).getStatus());
+        assertEquals(0L, awaitPendingBytes(jobService));
+        assertEquals(Job.Status.COMPLETED,
+            await(jobService, jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null).getId()).getStatus());
+    }
+    
+    @Test
+    @DisplayName("测试抛出Error的任务被标记为失败")
+    void testErrorMarksFailed() throws InterruptedException {
+        PlagiarismDetectionService failing = new PlagiarismDetectionService() {
+            @Override
+            public AnalyzedDocument analyzeContent(byte[] content) {
+                throw new StackOverflowError("预处理栈溢出");
+            }
+        };
+        jobService = new JobService(failing, properties(4, Duration.ofMinutes(1)));
+        
+        Job job = await(jobService, jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null).getId());
+        assertEquals(Job.Status.FAILED, job.getStatus());
+        assertEquals("预处理栈溢出", job.getError());
+        assertEquals(0L, awaitPendingBytes(jobService));
+    }
+    
+    @Test
+    @DisplayName("测试过期结果被清理")
+    void testExpiredResults() throws InterruptedException {
+        jobService = new JobService(new PlagiarismDetectionService(), properties(4, Duration.ofMillis(50)));
+        
+        Job job = await(jobService, jobService.submit("a", ORIGINAL, "b", PLAGIARIZED, null).getId());
+        assertEquals(Job.Status.COMPLETED, job.getStatus());
+        
+        Thread.sleep(100);
+        assertEquals(1, jobService.evictExpired());
+        assertNull(jobService.getJob(job.getId()));
+        assertEquals(0L, jobService.getStats().get("retained"));
+    }
+    
+    @Test
+    @DisplayName("测试不存在的任务")
+    void testMissingJob() {
+        jobService = new JobService(new PlagiarismDetectionService());
+        
+        assertNull(jobService.getJob("missing"));
+    }
+}
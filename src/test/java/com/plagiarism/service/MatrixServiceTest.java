@@ -0,0 +1,143 @@
+package com.plagiarism.service;
+
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.SimilarityMatrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 相似度矩阵服务测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("相似度矩阵服务测试")
+class MatrixServiceTest {
+    
+    private static final String[] SENTENCES = {
+        "今天是星期天，天气晴，今天晚上我要去看电影。",
+        "明天要下雨，记得带伞出门。",
+        "这是一个关于文本相似度计算的测试句子。",
+        "图书馆里有很多关于计算机科学的书籍。",
+        "春天来了，公园里的花都开了。"
+    };
+    
+    private PlagiarismDetectionService detectionService;
+    private MatrixService matrixService;
+    private Map<String, AnalyzedDocument> documents;
+    
+    @BeforeEach
+    void setUp() {
+        detectionService = new PlagiarismDetectionService();
+        matrixService = new MatrixService(detectionService);
+        
+        // 文档数跨越多个分块，长度差异较大，部分文档由同一组句子拼成
+        Random random = new Random(42);
+        documents = new LinkedHashMap<>();
+        for (int i = 0; i < 70; i++) {
+            StringBuilder text = new StringBuilder();
+            int sentences = 1 + random.nextInt(i % 7 == 0 ? 12 : 4);
+            for (int k = 0; k < sentences; k++) {
+                text.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+            }
+            documents.put("doc-" + i, detectionService.analyzeDocument(text.toString()));
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        matrixService.shutdown();
+    }
+    
+    @Test
+    @DisplayName("测试无阈值时与逐对计算一致")
+    void testExactMatrix() {
+        SimilarityMatrix matrix = matrixService.compute(documents, 0.0, null, 0.0);
+        List<String> names = matrix.getDocuments();
+        
+        assertEquals(70 * 69 / 2, matrix.getValues().length);
+        assertEquals(70L * 69 / 2, matrix.getStats().get("computed"));
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(1.0f, matrix.get(i, i));
+            for (int j = i + 1; j < names.size(); j++) {
+                double expected = detectionService.calculateDocumentSimilarityResult(
+                    documents.get(names.get(i)), documents.get(names.get(j))).getSimilarity();
+                assertEquals((float) expected, matrix.get(i, j), 1e-6, names.get(i) + " / " + names.get(j));
+                assertEquals(matrix.get(i, j), matrix.get(j, i));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("测试阈值预筛选不漏报")
+    void testThresholdMatrix() {
+        double threshold = 0.6;
+        SimilarityMatrix exact = matrixService.compute(documents, 0.0, null, 0.0);
+        SimilarityMatrix filtered = matrixService.compute(documents, threshold, null, 0.0);
+        
+        assertTrue(filtered.getStats().get("skippedByBound") > 0);
+        for (int i = 0; i < documents.size(); i++) {
+            for (int j = i + 1; j < documents.size(); j++) {
+                float value = filtered.get(i, j);
+                if (exact.get(i, j) >= threshold) {
+                    assertEquals(exact.get(i, j), value, 1e-6);
+                } else {
+                    assertEquals(0.0f, value);
+                }
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("测试单算法矩阵")
+    void testAlgorithmMatrix() {
+        SimilarityMatrix matrix = matrixService.compute(documents, 0.5, "Levenshtein Distance", 0.0);
+        List<String> names = matrix.getDocuments();
+        
+        for (int i = 0; i < names.size(); i++) {
+            for (int j = i + 1; j < names.size(); j++) {
+                double expected = detectionService.calculateDocumentSimilarityWithAlgorithm(
+                    documents.get(names.get(i)), documents.get(names.get(j)), "Levenshtein Distance");
+                assertEquals(expected >= 0.5 ? (float) expected : 0.0f, matrix.get(i, j), 1e-6);
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("测试CSV导出")
+    void testWriteCsv() throws IOException {
+        SimilarityMatrix matrix = matrixService.compute(documents, 0.0, null, 0.0);
+        StringWriter out = new StringWriter();
+        matrix.writeCsv(out);
+        
+        String[] lines = out.toString().split("\n");
+        assertEquals(71, lines.length);
+        assertTrue(lines[0].startsWith(",doc-0,doc-1,"));
+        for (int i = 1; i < lines.length; i++) {
+            String[] cells = lines[i].split(",");
+            assertEquals(71, cells.length);
+            assertEquals("1.0000", cells[i]);
+        }
+    }
+    
+    @Test
+    @DisplayName("测试无效参数")
+    void testInvalidArguments() {
+        Map<String, AnalyzedDocument> single = new LinkedHashMap<>();
+        single.put("a", detectionService.analyzeDocument(SENTENCES[0]));
+        
+        assertThrows(IllegalArgumentException.class, () -> matrixService.compute(single, 0.0, null, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> matrixService.compute(documents, 1.5, null, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> matrixService.compute(documents, 0.0, "Unknown", 0.0));
+    }
+}
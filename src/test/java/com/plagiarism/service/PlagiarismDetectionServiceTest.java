@@ -6,11 +6,29 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.plagiarism.config.PlagiarismProperties;
+import com.plagiarism.model.AnalyzedDocument;
+import com.plagiarism.model.EnsemblePlan;
+import com.plagiarism.model.MatchResult;
+import com.plagiarism.model.SimilarityResult;
+import com.plagiarism.util.PerformanceMonitor;
+import com.plagiarism.util.ResourceProfile;
+import com.plagiarism.util.ThreadResources;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.unit.DataSize;
+
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 论文查重服务测试类
@@ -55,6 +73,98 @@ class PlagiarismDetectionServiceTest {
         assertTrue(similarity >= 0.0 && similarity <= 1.0, "相似度应该在[0,1]范围内");
     }
     
+    @Test
+    @DisplayName("测试算法调用和文档预处理自动计入性能统计")
+    void testPerformanceInstrumentation() {
+        long before = PerformanceMonitor.getExecutionCount("Levenshtein Distance");
+        service.calculateSimilarity("性能统计测试原文，今天天气晴。", "性能统计测试文本，今天天气晴朗。");
+        assertTrue(PerformanceMonitor.getExecutionCount("Levenshtein Distance") > before);
+        
+        Map<String, Object> stats = PerformanceMonitor.getAllStats().get("Levenshtein Distance");
+        for (String key : new String[]{"p50", "p90", "p99", "p999", "max", "window"}) {
+            assertTrue(stats.containsKey(key), key);
+        }
+        assertTrue((double) stats.get("p50") <= (double) stats.get("max"));
+        assertTrue(PerformanceMonitor.getStageStats().containsKey(PlagiarismDetectionService.ANALYZE_STAGE));
+    }
+    
+    @Test
+    @DisplayName("测试请求明细和算法资源统计")
+    @SuppressWarnings("unchecked")
+    void testResourceProfiling() throws Exception {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setParallel(true);
+        properties.getProfiling().setEnabled(true);
+        PlagiarismDetectionService parallelService = new PlagiarismDetectionService(properties);
+        StringBuilder original = new StringBuilder();
+        StringBuilder plagiarized = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            original.append("第").append(i).append("段原文，今天天气晴。");
+            plagiarized.append("第").append(i).append("段抄袭，今天天气晴朗。");
+        }
+        
+        ResourceProfile profile = new ResourceProfile();
+        try {
+            // 并行模式下算法在工作线程中计算，明细随任务传递
+            profile.call(() -> parallelService.calculateSimilarityResult(original.toString(), plagiarized.toString()));
+        } finally {
+            parallelService.shutdown();
+        }
+        Map<String, Object> details = profile.toMap();
+        Map<String, Map<String, Object>> algorithms = (Map<String, Map<String, Object>>) details.get("algorithms");
+        assertEquals(3, algorithms.size());
+        Map<String, Object> levenshtein = algorithms.get("Levenshtein Distance");
+        assertEquals(1L, levenshtein.get("calls"));
+        assertTrue((long) levenshtein.get("allocatedBytes") > 0);
+        assertTrue((long) details.get("allocatedBytes") >= (long) levenshtein.get("allocatedBytes"));
+        assertNull(ResourceProfile.current());
+        
+        Map<String, Object> stats = PerformanceMonitor.getResourceStats().get("Levenshtein Distance");
+        assertTrue(((Map<String, Object>) stats.get("allocatedBytes")).containsKey("p99"));
+        Map<String, Long> heaviest = (Map<String, Long>) stats.get("heaviestCall");
+        assertTrue(heaviest.get("originalLength") > 0);
+    }
+    
+    @Test
+    @DisplayName("测试未开启资源统计时仍可获取请求明细")
+    @SuppressWarnings("unchecked")
+    void testRequestProfileWithoutProfiling() throws Exception {
+        assertFalse(new PlagiarismProperties().getProfiling().isEnabled(), "资源统计默认关闭");
+        
+        ResourceProfile profile = new ResourceProfile();
+        profile.call(() -> service.calculateSimilarityWithAlgorithm("今天天气晴，适合出去玩。", "今天天气晴朗，适合出去玩。",
+            "Levenshtein Distance"));
+        Map<String, Map<String, Object>> algorithms = (Map<String, Map<String, Object>>) profile.toMap().get("algorithms");
+        if (ThreadResources.isSupported()) {
+            assertEquals(1L, algorithms.get("Levenshtein Distance").get("calls"));
+        }
+        assertNull(ResourceProfile.current());
+    }
+    
+    @Test
+    @DisplayName("测试流式读取内容计算相似度")
+    void testSourceSimilarity() throws IOException {
+        byte[] original = "今天是星期天，天气晴，今天晚上我要去看电影。".getBytes(StandardCharsets.UTF_8);
+        byte[] plagiarized = "今天是周天，天气晴朗，我晚上要去看电影。".getBytes(StandardCharsets.UTF_8);
+        byte[] blank = " \n\t ".getBytes(StandardCharsets.UTF_8);
+        
+        SimilarityResult expected = service.calculateContentSimilarityResult(original, plagiarized);
+        SimilarityResult actual = service.calculateSourceSimilarityResult(
+            new ByteArrayResource(original), new ByteArrayResource(plagiarized));
+        assertEquals(expected.getSimilarity(), actual.getSimilarity(), 1e-12);
+        assertEquals(expected.getAlgorithmScores(), actual.getAlgorithmScores());
+        
+        assertEquals(1.0, service.calculateSourceSimilarityResult(
+            new ByteArrayResource(original), new ByteArrayResource(original.clone())).getSimilarity());
+        assertEquals(0.0, service.calculateSourceSimilarityResult(
+            new ByteArrayResource(original), new ByteArrayResource(blank)).getSimilarity());
+        assertEquals(service.calculateContentSimilarityWithAlgorithm(original, plagiarized, "Jaccard Similarity"),
+            service.calculateSourceSimilarityWithAlgorithm(
+                new ByteArrayResource(original), new ByteArrayResource(plagiarized), "Jaccard Similarity"), 1e-12);
+        // 流式读取与字节数组共用同一个文档缓存
+        assertSame(service.analyzeContent(plagiarized), service.analyzeSource(new ByteArrayResource(plagiarized)));
+    }
+    
     @Test
     @DisplayName("测试文件不存在异常")
     void testFileNotExists() {
@@ -84,6 +194,21 @@ class PlagiarismDetectionServiceTest {
         }, "不存在的算法应该抛出IllegalArgumentException");
     }
     
+    @Test
+    @DisplayName("测试定位相同片段")
+    void testLocateMatches() {
+        String text1 = "人工智能是计算机科学的一个分支，它企图了解智能的实质。";
+        String text2 = "人工智能是计算机科学的重要分支，它试图了解智能的实质。";
+        
+        MatchResult result = service.locateMatches(text1, text2, service.getMatchAlgorithmName());
+        assertEquals(service.calculateSimilarityWithAlgorithm(text1, text2, service.getMatchAlgorithmName()),
+            result.getSimilarity(), 1e-12, "定位时给出的相似度应该与单独计算的相同");
+        assertFalse(result.getMatches().isEmpty(), "相同片段应该被定位");
+        
+        assertThrows(IllegalArgumentException.class, () -> service.locateMatches(text1, text2, "Cosine Similarity"),
+            "不支持定位的算法应该在计算之前被拒绝");
+    }
+    
     @Test
     @DisplayName("测试获取可用算法列表")
     void testGetAvailableAlgorithms() {
@@ -131,6 +256,310 @@ class PlagiarismDetectionServiceTest {
         assertEquals(0.0, similarity2, 0.001, "一个null文本的相似度应该为0.0");
     }
     
+    @Test
+    @DisplayName("测试带阈值的相似度计算")
+    void testCalculateSimilarityWithThreshold() {
+        String text1 = "这是一篇关于人工智能的论文，讨论了机器学习的基本方法。";
+        String text2 = "这是一篇关于人工智能的论文，讨论了深度学习的基本方法。";
+        
+        double exact = service.calculateSimilarity(text1, text2);
+        assertEquals(exact, service.calculateSimilarity(text1, text2, exact - 0.01), 0.001,
+            "达到阈值时应该返回精确相似度");
+        assertTrue(service.calculateSimilarity(text1, "Completely unrelated English words", 0.8) < 0.8,
+            "低于阈值时返回值应该小于阈值");
+    }
+    
+    @Test
+    @DisplayName("测试上传内容的相似度计算与文档缓存")
+    void testCalculateSimilarityFromBytes() {
+        String text1 = "这是一篇关于人工智能的论文，讨论了机器学习的基本方法。";
+        String text2 = "这是一篇关于人工智能的论文，讨论了深度学习的基本方法。";
+        byte[] content1 = text1.getBytes(StandardCharsets.UTF_8);
+        byte[] content2 = text2.getBytes(StandardCharsets.UTF_8);
+        
+        double expected = service.calculateSimilarity(text1, text2);
+        assertEquals(expected, service.calculateContentSimilarity(content1, content2), 1e-12,
+            "上传内容与文本的计算结果应该一致");
+        assertEquals(expected, service.calculateContentSimilarity(content1.clone(), content2.clone()), 1e-12,
+            "重复上传的结果应该一致");
+        assertTrue(service.getDocumentCacheStats().get("hits") >= 2, "重复上传应该命中缓存");
+        
+        assertEquals(service.calculateSimilarityWithAlgorithm(text1, text2, "Levenshtein Distance"),
+            service.calculateContentSimilarityWithAlgorithm(content1, content2, "Levenshtein Distance"), 1e-12);
+        assertEquals(0.0, service.calculateContentSimilarity(" \n".getBytes(StandardCharsets.UTF_8), content2), 0.001);
+        assertEquals(1.0, service.calculateContentSimilarity(content1, content1.clone()), 0.001);
+    }
+    
+    @Test
+    @DisplayName("测试关闭文档缓存")
+    void testDocumentCacheDisabled() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getDocumentCache().setMaxSize(DataSize.ofBytes(0));
+        PlagiarismDetectionService uncached = new PlagiarismDetectionService(properties);
+        
+        assertEquals(service.calculateSimilarity("文本一", "文本二"), uncached.calculateSimilarity("文本一", "文本二"), 1e-12);
+        assertEquals(0L, uncached.getDocumentCacheStats().get("size"));
+    }
+    
+    @Test
+    @DisplayName("测试文本与上传内容的缓存键互不命中")
+    void testDocumentCacheKeyDomains() {
+        String text = "这是先提交的文本";
+        AnalyzedDocument document = service.analyzeDocument(text);
+        // 字节恰好是该文本的 UTF-16LE 编码，按 UTF-8 解码后是另一段内容
+        byte[] content = text.getBytes(StandardCharsets.UTF_16LE);
+        AnalyzedDocument upload = service.analyzeContent(content);
+        assertNotSame(document, upload);
+        assertEquals(AnalyzedDocument.analyze(new String(content, StandardCharsets.UTF_8)).getNormalizedText(),
+            upload.getNormalizedText());
+    }
+    
+    @Test
+    @DisplayName("测试并行模式与顺序模式结果一致")
+    void testParallelEnsemble() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setParallel(true);
+        properties.getEnsemble().setThreads(3);
+        PlagiarismDetectionService parallel = new PlagiarismDetectionService(properties);
+        try {
+            String text1 = "这是一篇关于人工智能的论文，讨论了机器学习的基本方法。";
+            String text2 = "这是一篇关于人工智能的论文，讨论了深度学习的基本方法。";
+            
+            SimilarityResult expected = service.calculateSimilarityResult(text1, text2);
+            SimilarityResult actual = parallel.calculateSimilarityResult(text1, text2);
+            assertEquals(expected.getSimilarity(), actual.getSimilarity(), 1e-12);
+            assertEquals(expected.getAlgorithmScores(), actual.getAlgorithmScores());
+            assertEquals(3, actual.getAlgorithmScores().size());
+            assertFalse(actual.isPartial());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试并行模式下算法超时")
+    void testParallelEnsembleTimeout() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setParallel(true);
+        properties.getEnsemble().setAlgorithmTimeout(Duration.ofNanos(1));
+        PlagiarismDetectionService parallel = new PlagiarismDetectionService(properties);
+        try {
+            StringBuilder sb1 = new StringBuilder();
+            StringBuilder sb2 = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                sb1.append("第").append(i).append("句");
+                sb2.append("第").append(i * 7).append("句");
+            }
+            
+            SimilarityResult result = parallel.calculateSimilarityResult(sb1.toString(), sb2.toString());
+            assertTrue(result.isPartial(), "超时的算法应该使结果标记为部分结果");
+            assertTrue(result.getTimedOutAlgorithms().contains("Levenshtein Distance"), "编辑距离应该超时");
+            assertEquals(3, result.getAlgorithmScores().size() + result.getTimedOutAlgorithms().size());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试超时的算法被取消后释放工作线程")
+    void testParallelEnsembleTimeoutReleasesWorker() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setParallel(true);
+        properties.getEnsemble().setThreads(1);
+        properties.getEnsemble().setAlgorithmTimeout(Duration.ofMillis(500));
+        PlagiarismDetectionService parallel = new PlagiarismDetectionService(properties);
+        try {
+            StringBuilder sb1 = new StringBuilder();
+            StringBuilder sb2 = new StringBuilder();
+            for (int i = 0; i < 60000; i++) {
+                sb1.append("第").append(i).append("句");
+                sb2.append("第").append(i * 7).append("句");
+            }
+            SimilarityResult timedOut = parallel.calculateSimilarityResult(sb1.toString(), sb2.toString());
+            assertTrue(timedOut.getTimedOutAlgorithms().contains("Levenshtein Distance"), "编辑距离应该超时");
+            
+            // 唯一的工作线程已从被取消的编辑距离中退出，后续请求在时限内完成
+            SimilarityResult result = parallel.calculateSimilarityResult("这是一个短文本", "这是另一个短文本");
+            assertFalse(result.isPartial(), "工作线程应该已被释放");
+            assertEquals(3, result.getAlgorithmScores().size());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试排队等待的时间不计入算法时限")
+    void testParallelEnsembleQueueWaitNotTimed() throws Exception {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setParallel(true);
+        properties.getEnsemble().setThreads(1);
+        properties.getEnsemble().setAlgorithmTimeout(Duration.ofMillis(300));
+        PlagiarismDetectionService parallel = new PlagiarismDetectionService(properties);
+        try {
+            // 唯一的工作线程被占用的时间超过时限，各算法在队列中等待，开始执行后仍在时限内完成
+            Future<?> blocker = parallel.ensembleExecutor().submit(() -> {
+                Thread.sleep(800);
+                return null;
+            });
+            SimilarityResult result = parallel.calculateSimilarityResult("这是一个短文本", "这是另一个短文本");
+            assertTrue(blocker.isDone());
+            assertFalse(result.isPartial(), "排队等待不应使算法超时");
+            assertEquals(3, result.getAlgorithmScores().size());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试线程池队列已满时拒绝请求")
+    void testParallelEnsembleRejected() throws Exception {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setParallel(true);
+        properties.getEnsemble().setThreads(1);
+        properties.getEnsemble().setQueueCapacity(1);
+        PlagiarismDetectionService parallel = new PlagiarismDetectionService(properties);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            parallel.ensembleExecutor().submit(() -> {
+                release.await();
+                return null;
+            });
+            parallel.ensembleExecutor().submit(() -> null);
+            
+            assertThrows(RejectedExecutionException.class,
+                () -> parallel.calculateSimilarityResult("这是一个短文本", "这是另一个短文本"));
+            
+            // 已经按文档对并行的调用方在当前线程上依次计算，不受线程池影响
+            SimilarityResult result = parallel.calculateDocumentSimilarityResultSequentially(
+                parallel.analyzeDocument("这是一个短文本"), parallel.analyzeDocument("这是另一个短文本"));
+            assertFalse(result.isPartial());
+            assertEquals(service.calculateSimilarity("这是一个短文本", "这是另一个短文本"), result.getSimilarity(), 1e-12);
+        } finally {
+            release.countDown();
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试开启虚拟线程不改变串行模式")
+    void testVirtualThreadsKeepSequentialEnsemble() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getVirtualThreads().setEnabled(true);
+        properties.getEnsemble().setAlgorithmTimeout(Duration.ofNanos(1));
+        PlagiarismDetectionService virtual = new PlagiarismDetectionService(properties);
+        try {
+            StringBuilder sb1 = new StringBuilder();
+            StringBuilder sb2 = new StringBuilder();
+            for (int i = 0; i < 2000; i++) {
+                sb1.append("第").append(i).append("句");
+                sb2.append("第").append(i * 7).append("句");
+            }
+            
+            // 未开启并行模式时不设时限，所有算法都计入平均值
+            SimilarityResult result = virtual.calculateSimilarityResult(sb1.toString(), sb2.toString());
+            assertFalse(result.isPartial());
+            assertEquals(3, result.getAlgorithmScores().size());
+            assertEquals(service.calculateSimilarity(sb1.toString(), sb2.toString()), result.getSimilarity(), 1e-12);
+        } finally {
+            virtual.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试开启虚拟线程时流式比对结果不变")
+    void testVirtualThreadsSourceSimilarity() throws IOException {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getVirtualThreads().setEnabled(true);
+        PlagiarismDetectionService virtual = new PlagiarismDetectionService(properties);
+        try {
+            byte[] original = "今天是星期天，天气晴，今天晚上我要去看电影。".getBytes(StandardCharsets.UTF_8);
+            byte[] plagiarized = "今天是周天，天气晴朗，我晚上要去看电影。".getBytes(StandardCharsets.UTF_8);
+            byte[] punctuation = "，。！".getBytes(StandardCharsets.UTF_8);
+            
+            // 读取在io线程上进行，打分在计算线程上进行，结果与直接计算相同
+            assertEquals(service.calculateContentSimilarity(original, plagiarized),
+                virtual.calculateSourceSimilarityResult(
+                    new ByteArrayResource(original), new ByteArrayResource(plagiarized)).getSimilarity(), 1e-12);
+            assertEquals(service.calculateContentSimilarityWithAlgorithm(original, plagiarized, "Cosine Similarity"),
+                virtual.calculateSourceSimilarityWithAlgorithm(
+                    new ByteArrayResource(original), new ByteArrayResource(plagiarized), "Cosine Similarity"), 1e-12);
+            assertEquals(service.calculateContentSimilarityWithAlgorithm(original, punctuation, "Levenshtein Distance"),
+                virtual.calculateSourceSimilarityWithAlgorithm(
+                    new ByteArrayResource(original), new ByteArrayResource(punctuation), "Levenshtein Distance"), 1e-12);
+        } finally {
+            virtual.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("测试长文档以Winnowing代替编辑距离")
+    void testLongDocumentEnsemble() {
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setLongDocumentThreshold(100);
+        PlagiarismDetectionService longDocumentService = new PlagiarismDetectionService(properties);
+        
+        StringBuilder sb1 = new StringBuilder();
+        StringBuilder sb2 = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            sb1.append("第").append(i).append("句");
+            sb2.append("第").append(i * 3).append("句");
+        }
+        SimilarityResult result = longDocumentService.calculateSimilarityResult(sb1.toString(), sb2.toString());
+        assertTrue(result.getAlgorithmScores().containsKey("Winnowing Similarity"));
+        assertFalse(result.getAlgorithmScores().containsKey("Levenshtein Distance"));
+        assertEquals(result.getSimilarity(),
+            longDocumentService.calculateSimilarity(sb1.toString(), sb2.toString(), 0.0), 1e-12);
+        
+        SimilarityResult shortResult = longDocumentService.calculateSimilarityResult("这是一个短文本", "这是另一个短文本");
+        assertTrue(shortResult.getAlgorithmScores().containsKey("Levenshtein Distance"));
+        assertTrue(service.getAvailableAlgorithms().contains("Winnowing Similarity"));
+    }
+    
+    @Test
+    @DisplayName("测试按延迟预算选择计算方案")
+    void testLatencyBudgetPlan() {
+        StringBuilder sb1 = new StringBuilder();
+        StringBuilder sb2 = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb1.append("第").append(i).append("句");
+            sb2.append("第").append(i * 3).append("句");
+        }
+        String text1 = sb1.toString();
+        String text2 = sb2.toString();
+        
+        // 未设置预算时使用完整组合
+        EnsemblePlan fullPlan = service.calculateSimilarityResult(text1, text2).getPlan();
+        assertEquals(EnsemblePlan.FULL, fullPlan.getName());
+        assertTrue(fullPlan.getAlgorithms().contains("Levenshtein Distance"));
+        assertTrue(fullPlan.getEstimatedNanos() > 0);
+        assertTrue(fullPlan.isWithinBudget());
+        
+        // 编辑距离的平方代价超出预算，线性时间组合不超出
+        PlagiarismProperties properties = new PlagiarismProperties();
+        properties.getEnsemble().setLatencyBudget(Duration.ofMillis(20));
+        PlagiarismDetectionService budgeted = new PlagiarismDetectionService(properties);
+        SimilarityResult linear = budgeted.calculateSimilarityResult(text1, text2);
+        assertEquals(EnsemblePlan.LINEAR, linear.getPlan().getName());
+        assertEquals(linear.getPlan().getAlgorithms(), new ArrayList<>(linear.getAlgorithmScores().keySet()));
+        assertFalse(linear.getAlgorithmScores().containsKey("Levenshtein Distance"));
+        assertTrue(linear.getPlan().isWithinBudget());
+        assertEquals(linear.getSimilarity(), budgeted.calculateSimilarity(text1, text2, 0.0), 1e-12);
+        
+        // 短文本的完整组合在预算之内
+        SimilarityResult shortResult = budgeted.calculateSimilarityResult("这是一个短文本", "这是另一个短文本");
+        assertEquals(EnsemblePlan.FULL, shortResult.getPlan().getName());
+        
+        // 任何组合都超出预算时只用余弦相似度，并标记超出预算
+        properties.getEnsemble().setLatencyBudget(Duration.ofNanos(1));
+        PlagiarismDetectionService tight = new PlagiarismDetectionService(properties);
+        SimilarityResult minimal = tight.calculateSimilarityResult(text1, text2);
+        assertEquals(EnsemblePlan.MINIMAL, minimal.getPlan().getName());
+        assertEquals(1, minimal.getAlgorithmScores().size());
+        assertTrue(minimal.getAlgorithmScores().containsKey("Cosine Similarity"));
+        assertFalse(minimal.getPlan().isWithinBudget());
+        assertFalse(minimal.isPartial());
+    }
+    
     @Test
     @DisplayName("测试长文本性能")
     void testLongTextPerformance() throws IOException {
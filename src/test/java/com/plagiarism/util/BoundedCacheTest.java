@@ -0,0 +1,116 @@
+package com.plagiarism.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 有界缓存与内容哈希测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("有界缓存测试")
+class BoundedCacheTest {
+    
+    @Test
+    @DisplayName("测试命中与未命中统计")
+    void testHitAndMissStats() {
+        BoundedCache<String, String> cache = new BoundedCache<>(1000, String::length);
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals("A", cache.get("a", k -> "unused"));
+        assertNull(cache.getIfPresent("b"));
+        
+        Map<String, Long> stats = cache.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(1L, stats.get("size"));
+        assertEquals(1L, stats.get("weight"));
+    }
+    
+    @Test
+    @DisplayName("测试按容量淘汰最近最少使用的条目")
+    void testEvictionByWeight() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10, String::length);
+        cache.put(1, "aaaa");
+        cache.put(2, "bbbb");
+        // 访问1后，2成为最近最少使用的条目
+        assertNotNull(cache.getIfPresent(1));
+        cache.put(3, "cccc");
+        
+        assertNull(cache.getIfPresent(2));
+        assertNotNull(cache.getIfPresent(1));
+        assertNotNull(cache.getIfPresent(3));
+        assertEquals(8L, cache.weight());
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+    
+    @Test
+    @DisplayName("测试超过容量的条目不被缓存")
+    void testOversizedEntry() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3, String::length);
+        assertEquals("toolong", cache.get(1, k -> "toolong"));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+    
+    @Test
+    @DisplayName("测试替换与清空")
+    void testReplaceAndClear() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(100, String::length);
+        cache.put(1, "abc");
+        cache.put(1, "abcdef");
+        assertEquals(6L, cache.weight());
+        cache.invalidate(1);
+        assertEquals(0L, cache.weight());
+        cache.put(2, "xy");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+    
+    @Test
+    @DisplayName("测试内容哈希")
+    void testContentHash() {
+        // MurmurHash3 x64_128 公开测试向量："foo"，种子为0
+        ContentHash hash = ContentHash.of("foo".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0xe271865701f54561L, hash.getLow());
+        assertEquals(0x7eaf87e42bba7d87L, hash.getHigh());
+        
+        // 跨越16字节分块边界的内容
+        String text = "内容哈希作为缓存键，代替完整文本";
+        assertEquals(ContentHash.of(text), ContentHash.of(new StringBuilder(text)));
+        assertNotEquals(ContentHash.of(text), ContentHash.of(text + " "));
+        // 文本与字节内容使用不同的种子，即使字节恰好是文本的 UTF-16 编码也不相等
+        assertNotEquals(ContentHash.of(text), ContentHash.of(text.getBytes(StandardCharsets.UTF_16LE)));
+        assertNotEquals(ContentHash.of(new byte[0]), ContentHash.of(""));
+    }
+    
+    @Test
+    @DisplayName("测试流式计算内容哈希")
+    void testStreamingContentHash() throws IOException {
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        // 每次最多返回7个字节，使16字节分块跨越多次读取
+        InputStream in = new ByteArrayInputStream(content) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        long[] total = {0};
+        ContentHash hash = ContentHash.of(in, (buffer, length) -> total[0] += length);
+        
+        assertEquals(ContentHash.of(content), hash);
+        assertEquals(content.length, total[0]);
+        assertEquals(ContentHash.of(new byte[0]), ContentHash.of(new ByteArrayInputStream(new byte[0]), null));
+    }
+}
@@ -0,0 +1,175 @@
+package com.plagiarism.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 延迟直方图测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("延迟直方图测试")
+class LatencyHistogramTest {
+    
+    @Test
+    @DisplayName("测试桶的划分连续且相对宽度不超过1/32")
+    void testBuckets() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lower = LatencyHistogram.bucketLowerBound(i);
+            long width = LatencyHistogram.bucketWidth(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(lower));
+            assertEquals(i, LatencyHistogram.bucketIndex(lower + width - 1));
+            assertTrue(lower < 32 || width * 32 <= lower);
+            if (i + 1 < LatencyHistogram.BUCKET_COUNT) {
+                assertEquals(lower + width, LatencyHistogram.bucketLowerBound(i + 1));
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(LatencyHistogram.MAX_VALUE));
+    }
+    
+    @Test
+    @DisplayName("测试分位数与精确值的误差")
+    void testQuantiles() {
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // 对数正态分布，带长尾
+            values[i] = (long) Math.exp(12 + 1.5 * random.nextGaussian());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        assertEquals(Arrays.stream(values).sum(), snapshot.getSum());
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            assertEquals(exact, snapshot.getValueAtQuantile(quantile), exact / 64.0 + 1, "q=" + quantile);
+        }
+        assertEquals(0, LatencyHistogram.Snapshot.empty().getValueAtQuantile(0.99));
+    }
+    
+    @Test
+    @DisplayName("测试快照合并")
+    void testMerge() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            first.record(i);
+            second.record(1000L * i);
+        }
+        LatencyHistogram.Snapshot merged = first.snapshot().merge(second.snapshot());
+        assertEquals(200, merged.getCount());
+        assertEquals(100000, merged.getMax());
+        assertEquals(100, merged.getValueAtQuantile(0.5), 100 / 64.0 + 1);
+        assertEquals(5050 + 5050000, merged.getSum());
+    }
+    
+    @Test
+    @DisplayName("测试记录时不分配内存")
+    void testRecordDoesNotAllocate() {
+        assumeTrue(ThreadResources.isSupported());
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        long before = ThreadResources.allocatedBytes();
+        // 每个桶记录一次，计数器已在创建时分配
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            histogram.record(LatencyHistogram.bucketLowerBound(i));
+        }
+        long allocated = ThreadResources.allocatedBytes() - before;
+        assertTrue(allocated < 1024, "记录路径不应创建对象，实际分配 " + allocated + " 字节");
+        assertEquals(LatencyHistogram.BUCKET_COUNT + 1, histogram.snapshot().getCount());
+    }
+    
+    @Test
+    @DisplayName("测试并发记录不丢失")
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, histogram.snapshot().getCount());
+        assertEquals(99_999, histogram.snapshot().getMax());
+    }
+    
+    @Test
+    @DisplayName("测试记录过程中读取的快照保持一致")
+    void testConsistentSnapshots() throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                while (running.get()) {
+                    recorder.record(1_000);
+                }
+            });
+            threads[t].start();
+        }
+        long previous = 0;
+        for (int i = 0; i < 200; i++) {
+            LatencyHistogram.Snapshot total = recorder.snapshot().getTotal();
+            // 每次记录的值相同，总和与次数撕裂时这里立即不成立
+            assertEquals(total.getCount() * 1_000, total.getSum());
+            assertTrue(total.getCount() >= previous);
+            previous = total.getCount();
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        recorder.reset();
+        assertEquals(0, recorder.snapshot().getTotal().getCount());
+        recorder.record(5_000);
+        assertEquals(5_000, recorder.snapshot().getTotal().getMax());
+    }
+    
+    @Test
+    @DisplayName("测试滑动窗口只保留最近一分钟")
+    void testSlidingWindow() {
+        AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+        LatencyRecorder recorder = new LatencyRecorder(now::get);
+        recorder.record(1_000);
+        recorder.collect();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        recorder.record(2_000);
+        LatencyRecorder.Snapshot snapshot = recorder.snapshot();
+        assertEquals(2, snapshot.getWindow().getCount());
+        assertEquals(30.0, snapshot.getWindowSeconds(), 1e-9);
+        
+        now.addAndGet(TimeUnit.SECONDS.toNanos(45));
+        recorder.record(3_000);
+        snapshot = recorder.snapshot();
+        assertEquals(2, snapshot.getWindow().getCount());
+        assertEquals(3_000, snapshot.getWindow().getMax());
+        assertTrue(snapshot.getWindowSeconds() > 50 && snapshot.getWindowSeconds() <= 60);
+        assertEquals(3, snapshot.getTotal().getCount());
+        
+        now.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        snapshot = recorder.snapshot();
+        assertEquals(0, snapshot.getWindow().getCount());
+        assertEquals(3, snapshot.getTotal().getCount());
+    }
+}
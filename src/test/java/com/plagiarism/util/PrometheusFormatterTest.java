@@ -0,0 +1,87 @@
+package com.plagiarism.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prometheus文本格式导出测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("Prometheus文本格式导出测试")
+class PrometheusFormatterTest {
+    
+    @Test
+    @DisplayName("测试耗时直方图的累计分桶")
+    void testHistogram() {
+        LatencyRecorder recorder = PerformanceMonitor.algorithmRecorder("Prometheus \"Test\"");
+        recorder.reset();
+        recorder.record(TimeUnit.MICROSECONDS.toNanos(300));
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(3));
+        recorder.record(TimeUnit.SECONDS.toNanos(20));
+        
+        String text = PrometheusFormatter.format();
+        String labels = "algorithm=\"Prometheus \\\"Test\\\"\"";
+        assertTrue(text.contains("# TYPE plagiarism_algorithm_duration_seconds histogram\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_bucket{" + labels + ",le=\"0.00025\"} 0\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_bucket{" + labels + ",le=\"0.0005\"} 1\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_bucket{" + labels + ",le=\"0.005\"} 2\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_bucket{" + labels + ",le=\"10\"} 2\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_count{" + labels + "} 3\n"));
+        assertTrue(text.contains("plagiarism_algorithm_duration_seconds_sum{" + labels + "} 20.0033\n"));
+        recorder.reset();
+    }
+    
+    @Test
+    @DisplayName("测试缓存、线程池和内存指标")
+    void testGauges() {
+        BoundedCache<String, String> cache = new BoundedCache<>(1024, String::length);
+        PerformanceMonitor.registerCache("prometheus-test", cache);
+        cache.put("key", "value");
+        cache.getIfPresent("key");
+        cache.getIfPresent("key");
+        cache.getIfPresent("missing");
+        
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(4));
+        PerformanceMonitor.registerExecutor("prometheus-test", executor);
+        try {
+            String text = PrometheusFormatter.format();
+            assertTrue(text.contains("plagiarism_cache_hits_total{cache=\"prometheus-test\"} 2\n"));
+            assertTrue(text.contains("plagiarism_cache_misses_total{cache=\"prometheus-test\"} 1\n"));
+            assertTrue(text.contains("plagiarism_cache_entries{cache=\"prometheus-test\"} 1\n"));
+            assertTrue(text.contains("plagiarism_cache_hit_ratio{cache=\"prometheus-test\"} 0.6666666666666666\n"));
+            assertTrue(text.contains("plagiarism_executor_queue_depth{executor=\"prometheus-test\"} 0\n"));
+            assertTrue(text.contains("plagiarism_executor_completed_tasks_total{executor=\"prometheus-test\"} 0\n"));
+            assertTrue(text.contains("plagiarism_jvm_memory_bytes{area=\"used\"} "));
+            assertTrue(text.contains("plagiarism_jvm_memory_bytes{area=\"max\"} "));
+        } finally {
+            executor.shutdownNow();
+        }
+        // 关闭的线程池不再导出
+        assertFalse(PrometheusFormatter.format().contains("executor=\"prometheus-test\""));
+    }
+    
+    @Test
+    @DisplayName("测试每个样本行的格式")
+    void testLineFormat() {
+        PerformanceMonitor.recordStage("prometheus-test", 1_000);
+        for (String line : PrometheusFormatter.format().split("\n")) {
+            if (line.startsWith("#")) {
+                assertTrue(line.startsWith("# HELP ") || line.startsWith("# TYPE "), line);
+            } else {
+                // 名称{标签} 数值，路径模板中的花括号可以出现在标签值里
+                assertTrue(line.matches("[a-z_]+\\{.*\\} \\S+"), line);
+                Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.plagiarism.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 文本规范化工具测试类
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("文本规范化工具测试")
+class TextNormalizerTest {
+    
+    @Test
+    @DisplayName("测试去除标点并保留中英文和数字")
+    void testRemovePunctuation() {
+        assertEquals("这是一个测试文本", TextNormalizer.normalize("这是一个测试文本！"));
+        assertEquals("hello 世界 123", TextNormalizer.normalize("Hello, 世界。 123"));
+    }
+    
+    @Test
+    @DisplayName("测试空白压缩与首尾空白去除")
+    void testWhitespaceNormalization() {
+        assertEquals("a b c", TextNormalizer.normalize("  a \t\n b   c  "));
+        assertEquals("ab", TextNormalizer.normalize("a,b"));
+        assertEquals("", TextNormalizer.normalize("  ，。！  "));
+    }
+    
+    @Test
+    @DisplayName("测试null与空文本")
+    void testNullAndEmpty() {
+        assertEquals("", TextNormalizer.normalize(null));
+        assertEquals("", TextNormalizer.normalize(""));
+    }
+    
+    @Test
+    @DisplayName("测试写入调用方缓冲区")
+    void testNormalizeIntoBuffer() {
+        String text = "Plagiarism 检测, 2024!";
+        char[] buffer = new char[text.length()];
+        int length = TextNormalizer.normalize(text, buffer);
+        assertEquals("plagiarism 检测 2024", new String(buffer, 0, length));
+    }
+    
+    @Test
+    @DisplayName("测试分块规范化")
+    void testChunkNormalizer() {
+        String text = "  Hello，  世界!\n\n Plagiarism   检测 2024  ";
+        String expected = TextNormalizer.normalize(text);
+        char[] input = text.toCharArray();
+        for (int chunk = 1; chunk <= input.length; chunk++) {
+            TextNormalizer.ChunkNormalizer normalizer = new TextNormalizer.ChunkNormalizer();
+            char[] out = new char[input.length + input.length / chunk + 1];
+            int length = 0;
+            for (int offset = 0; offset < input.length; offset += chunk) {
+                length = normalizer.normalize(input, offset, Math.min(chunk, input.length - offset), out, length);
+            }
+            assertEquals(expected, new String(out, 0, length), "块大小: " + chunk);
+        }
+    }
+    
+    @Test
+    @DisplayName("测试字符分类")
+    void testCharacterClassification() {
+        assertTrue(TextNormalizer.isCjk('中'));
+        assertFalse(TextNormalizer.isCjk('a'));
+        assertTrue(TextNormalizer.isRetained('Z'));
+        assertFalse(TextNormalizer.isRetained('，'));
+        assertFalse(TextNormalizer.isRetained(' '));
+    }
+}
@@ -0,0 +1,49 @@
+package com.plagiarism.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程工具类测试
+ * 
+ * @author 学生
+ * @version 1.0.0
+ */
+@DisplayName("虚拟线程工具类测试")
+class VirtualThreadsTest {
+    
+    private static boolean isJava21OrLater() {
+        String version = System.getProperty("java.specification.version");
+        return !version.startsWith("1.") && Integer.parseInt(version) >= 21;
+    }
+    
+    @Test
+    @DisplayName("测试按JVM版本判断是否支持")
+    void testSupportMatchesJavaVersion() {
+        assertEquals(isJava21OrLater(), VirtualThreads.isSupported());
+    }
+    
+    @Test
+    @DisplayName("测试创建执行器")
+    void testNewExecutor() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.newExecutor("test-"));
+            assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+            return;
+        }
+        
+        ExecutorService executor = VirtualThreads.newExecutor("test-");
+        try {
+            String name = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            assertEquals("test-0", name);
+            assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get(5, TimeUnit.SECONDS));
+            assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}